@@ -0,0 +1,91 @@
+package com.staim.lightjson;
+
+/**
+ * Column of Json Array of uniform Objects: values of one key in all rows
+ *
+ * Numbers are stored in long[] or double[], booleans in boolean[], strings as codes into a dictionary of distinct
+ * values, anything else (mixed types, nested Objects and Arrays) as Json Elements. Nulls are marked in a bitmap,
+ * their slots in primitive arrays are 0, false or code -1. Arrays returned by the as...() methods of matching
+ * type are the backing storage and must not be modified.
+ */
+public interface JsonColumn {
+    /**
+     * Get key of the column
+     * @return key
+     */
+    String getName();
+
+    /**
+     * Get type of non-null values
+     * @return NUMBER, BOOLEAN or STRING for typed columns, NULL for columns of Json Elements
+     */
+    JsonType getType();
+
+    /**
+     * Get number of rows
+     * @return number of rows
+     */
+    int size();
+
+    /**
+     * Check that all numbers of the column are integral and stored in long[]
+     * @return true for integral NUMBER column
+     */
+    boolean isLong();
+
+    /**
+     * Check value for null
+     * @param row - row index
+     * @return true when value is Json null
+     */
+    boolean isNull(int row);
+
+    /**
+     * Get value as Json Element
+     * @param row - row index
+     * @return Json Element, created on each call for typed columns
+     */
+    JsonElement get(int row);
+
+    /**
+     * Get integral numbers
+     * @return backing long[] of integral NUMBER column
+     * @throws JsonException when column is not integral NUMBER
+     */
+    long[] asLongArray() throws JsonException;
+
+    /**
+     * Get numbers as doubles
+     * @return backing double[], or new array converted from long[] for integral NUMBER column
+     * @throws JsonException when column is not NUMBER
+     */
+    double[] asDoubleArray() throws JsonException;
+
+    /**
+     * Get booleans
+     * @return backing boolean[]
+     * @throws JsonException when column is not BOOLEAN
+     */
+    boolean[] asBooleanArray() throws JsonException;
+
+    /**
+     * Get strings
+     * @return new array of decoded strings, null for nulls
+     * @throws JsonException when column is not STRING
+     */
+    String[] asStringArray() throws JsonException;
+
+    /**
+     * Get distinct strings of the column, indexed by codes()
+     * @return backing dictionary
+     * @throws JsonException when column is not STRING
+     */
+    String[] dictionary() throws JsonException;
+
+    /**
+     * Get dictionary codes of strings
+     * @return backing int[], -1 for nulls
+     * @throws JsonException when column is not STRING
+     */
+    int[] codes() throws JsonException;
+}
@@ -61,6 +61,33 @@ public interface JsonElement {
 
     <T> T getData(Class<T> dataClass);
 
+    /**
+     * Get value of Number Element without boxing
+     * @return long value, fraction of floating point Number is truncated
+     * @throws JsonException when JsonElement is not JSON Number
+     */
+    long getLong() throws JsonException;
+
+    /**
+     * Get value of Number Element without boxing
+     * @return double value
+     * @throws JsonException when JsonElement is not JSON Number
+     */
+    double getDouble() throws JsonException;
+
+    /**
+     * Get value of Boolean Element without boxing
+     * @return boolean value
+     * @throws JsonException when JsonElement is not JSON Boolean
+     */
+    boolean getBoolean() throws JsonException;
+
+    /**
+     * Check for JSON null
+     * @return true when JsonElement is JSON null
+     */
+    boolean isNull();
+
     /**
      * Get sub element of Array-type Json Element
      * @param index - index of sub element
@@ -0,0 +1,48 @@
+package com.staim.lightjson;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Non-blocking incremental (feedable) Json Parser
+ *
+ * Accepts UTF-8 input in chunks as they arrive and keeps its state between them, so nothing blocks waiting for
+ * input and the whole document is never buffered. Parsing events are pushed to JsonHandler as soon as tokens are
+ * complete, or, when feeder builds Json Elements, completed root values are available from nextElement().
+ * Sequence of root values (e.g. several documents in one connection) is supported. Not thread-safe.
+ */
+public interface JsonFeeder {
+    /**
+     * Parse next chunk of input, all remaining bytes are consumed and buffer position is moved to its limit
+     * @param chunk - buffer with next UTF-8 bytes, may end in the middle of any token or character
+     * @throws JsonException on malformed Json or when thrown by handler, feeder can not be used after that
+     */
+    void feed(ByteBuffer chunk) throws JsonException;
+
+    /**
+     * Parse next chunk of input
+     * @param bytes - array containing next UTF-8 bytes
+     * @param offset - index of the first byte
+     * @param length - number of bytes
+     * @throws JsonException on malformed Json or when thrown by handler, feeder can not be used after that
+     */
+    void feed(byte[] bytes, int offset, int length) throws JsonException;
+
+    /**
+     * Signal end of input, completes trailing root number
+     * @throws JsonException when input ends inside of a value or there was no value at all
+     */
+    void finish() throws JsonException;
+
+    /**
+     * Check whether at least one root value is complete and no other value is started
+     * @return true when input fed so far forms complete Json
+     */
+    boolean isComplete();
+
+    /**
+     * Get the next completed root value, when feeder builds Json Elements
+     * @return Json Element or null when no more root values are complete yet
+     * @throws JsonException when feeder pushes events to handler instead
+     */
+    JsonElement nextElement() throws JsonException;
+}
@@ -0,0 +1,40 @@
+package com.staim.lightjson;
+
+/**
+ * Push-style (SAX-like) Json Handler
+ *
+ * Receives parsing events in document order. Keys and string values are passed as reusable CharSequence views,
+ * which are valid only during the call: use toString() to keep them. Any method may throw JsonException to stop
+ * parsing.
+ */
+@SuppressWarnings("UnusedDeclaration")
+public interface JsonHandler {
+    void startObject() throws JsonException;
+    void key(CharSequence key) throws JsonException;
+    void endObject() throws JsonException;
+
+    void startArray() throws JsonException;
+    void endArray() throws JsonException;
+
+    void stringValue(CharSequence value) throws JsonException;
+    void numberValue(long value) throws JsonException;
+    void numberValue(double value) throws JsonException;
+    void booleanValue(boolean value) throws JsonException;
+    void nullValue() throws JsonException;
+
+    /**
+     * Handler ignoring all events: extend it and override only required ones
+     */
+    class Adapter implements JsonHandler {
+        @Override public void startObject() throws JsonException {}
+        @Override public void key(CharSequence key) throws JsonException {}
+        @Override public void endObject() throws JsonException {}
+        @Override public void startArray() throws JsonException {}
+        @Override public void endArray() throws JsonException {}
+        @Override public void stringValue(CharSequence value) throws JsonException {}
+        @Override public void numberValue(long value) throws JsonException {}
+        @Override public void numberValue(double value) throws JsonException {}
+        @Override public void booleanValue(boolean value) throws JsonException {}
+        @Override public void nullValue() throws JsonException {}
+    }
+}
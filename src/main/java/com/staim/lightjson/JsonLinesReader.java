@@ -0,0 +1,47 @@
+package com.staim.lightjson;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Reader of newline-delimited Json (NDJSON, JSON Lines)
+ *
+ * Input is split into batches of lines, which are parsed on a worker pool, while records are returned in the
+ * order of input. Only a bounded number of batches is read ahead, so slow consumer holds reading back.
+ * Blank lines are skipped. Malformed record is reported when it is reached, reading may be continued after it.
+ *
+ * Iterator methods report malformed records and read errors with IllegalStateException.
+ */
+public interface JsonLinesReader extends Iterator<JsonElement>, Closeable {
+    /**
+     * Record Consumer for push-style reading
+     */
+    interface Consumer {
+        /**
+         * Called for each record in the order of input
+         * @param element - parsed record
+         * @throws JsonException to stop reading
+         */
+        void accept(JsonElement element) throws JsonException;
+    }
+
+    /**
+     * Read the next record
+     * @return Json Element of the next record or null when input is over
+     * @throws JsonException on malformed record or read error
+     */
+    JsonElement nextElement() throws JsonException;
+
+    /**
+     * Get number of the line, the last record was read from
+     * @return 1-based line number, 0 before the first record
+     */
+    long lineNumber();
+
+    /**
+     * Push all remaining records to consumer
+     * @param consumer - consumer of records, called in the order of input on the calling thread
+     * @throws JsonException on malformed record, read error or when consumer had stopped reading
+     */
+    void readAll(Consumer consumer) throws JsonException;
+}
@@ -1,5 +1,7 @@
 package com.staim.lightjson;
 
+import java.nio.ByteBuffer;
+
 /**
  * Json Parser
  *
@@ -13,4 +15,23 @@ public interface JsonParser {
      * @throws JsonException
      */
     JsonElement parse(String json) throws JsonException;
+
+    /**
+     * Parse UTF-8 encoded Json bytes to Json Element
+     * @param json - array containing UTF-8 encoded Json
+     * @param offset - index of the first byte of Json
+     * @param length - number of bytes to parse
+     * @return Json Element
+     * @throws JsonException
+     */
+    JsonElement parse(byte[] json, int offset, int length) throws JsonException;
+
+    /**
+     * Parse UTF-8 encoded Json bytes between position and limit of the buffer to Json Element.
+     * Buffer position is left untouched.
+     * @param json - buffer containing UTF-8 encoded Json
+     * @return Json Element
+     * @throws JsonException
+     */
+    JsonElement parse(ByteBuffer json) throws JsonException;
 }
@@ -1,5 +1,7 @@
 package com.staim.lightjson;
 
+import java.io.OutputStream;
+
 /**
  * Json Serializer Interface
  *
@@ -12,4 +14,20 @@ public interface JsonSerializer {
      * @return Json String
      */
     String serialize(JsonElement element);
+
+    /**
+     * Serialize Json Element to Appendable (Writer, StringBuilder...), target is neither flushed nor closed
+     * @param element Json Element
+     * @param out target
+     * @throws JsonException when writing fails
+     */
+    void serialize(JsonElement element, Appendable out) throws JsonException;
+
+    /**
+     * Serialize Json Element to UTF-8 encoded bytes, stream is flushed but not closed
+     * @param element Json Element
+     * @param out target stream
+     * @throws JsonException when writing fails
+     */
+    void serialize(JsonElement element, OutputStream out) throws JsonException;
 }
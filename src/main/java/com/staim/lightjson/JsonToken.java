@@ -0,0 +1,17 @@
+package com.staim.lightjson;
+
+/**
+ * Token of streaming Json Reader
+ */
+public enum JsonToken {
+    START_OBJECT, // {
+    END_OBJECT, // }
+    START_ARRAY, // [
+    END_ARRAY, // ]
+    NAME, // name of Object field, followed by its value
+    STRING, // Json String ""
+    NUMBER, // Json Number 0, 1, 256, -34556, 43.6753, ...
+    BOOLEAN, // Json Boolean true or false
+    NULL, // null
+    END_DOCUMENT // no more input
+}
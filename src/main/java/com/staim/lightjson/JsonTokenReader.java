@@ -0,0 +1,92 @@
+package com.staim.lightjson;
+
+import java.io.Closeable;
+
+/**
+ * Pull-style streaming Json Reader
+ *
+ * Reads Json token by token through a fixed-size buffer, so memory usage does not depend on document size.
+ * Sequence of root values (e.g. several documents separated by whitespace) is supported.
+ */
+public interface JsonTokenReader extends Closeable {
+    /**
+     * Advance to the next token
+     * @return next token, END_DOCUMENT when input is over
+     * @throws JsonException on malformed Json or read error
+     */
+    JsonToken nextToken() throws JsonException;
+
+    /**
+     * Get the token returned by the last nextToken() call
+     * @return current token or null before the first nextToken() call
+     */
+    JsonToken currentToken();
+
+    /**
+     * Get name of the current Object field
+     * @return field name for NAME token and for the value token following it, null outside of Objects
+     */
+    String currentName();
+
+    /**
+     * Get nesting depth of the current token: 0 for root values, 1 for members of root container, ...
+     * @return depth
+     */
+    int depth();
+
+    /**
+     * Get value of STRING or NUMBER token (or name for NAME token) as String
+     * @return String value
+     * @throws JsonException when current token has no text
+     */
+    String getString() throws JsonException;
+
+    /**
+     * Get text of the current STRING, NUMBER or NAME token without creating String.
+     * @return reusable view, valid until the next token is read
+     * @throws JsonException when current token has no text
+     */
+    CharSequence getText() throws JsonException;
+
+    /**
+     * Check whether the current NUMBER token is integral and fits into long
+     * @return true when getLong() returns exact value
+     * @throws JsonException when current token is not NUMBER
+     */
+    boolean isIntegral() throws JsonException;
+
+    /**
+     * Get value of NUMBER token as long
+     * @return long value
+     * @throws JsonException when current token is not integral NUMBER or value does not fit into long
+     */
+    long getLong() throws JsonException;
+
+    /**
+     * Get value of NUMBER token as double
+     * @return double value
+     * @throws JsonException when current token is not NUMBER
+     */
+    double getDouble() throws JsonException;
+
+    /**
+     * Get value of NUMBER token as Long (when integral and fits into long) or Double
+     * @return Number value
+     * @throws JsonException when current token is not NUMBER
+     */
+    Number getNumber() throws JsonException;
+
+    /**
+     * Get value of BOOLEAN token
+     * @return boolean value
+     * @throws JsonException when current token is not BOOLEAN
+     */
+    boolean getBoolean() throws JsonException;
+
+    /**
+     * Skip all children of the current START_OBJECT or START_ARRAY token, current token becomes matching
+     * END_OBJECT or END_ARRAY. Does nothing for other tokens.
+     * @throws JsonException on malformed Json or read error
+     */
+    void skipChildren() throws JsonException;
+}
@@ -0,0 +1,47 @@
+package com.staim.lightjson;
+
+/**
+ * Json Validator: checks well-formedness of Json without building anything
+ *
+ * Syntax, nesting depth and input size are checked in a single pass, nothing is allocated per check. When a check
+ * fails, offset of the first offending character (or byte for UTF-8 input) and a description are available until
+ * the next check. Not thread-safe, validator may be reused for any number of checks.
+ */
+public interface JsonValidator {
+    /**
+     * Check Json String
+     * @param json - Json String to check
+     * @return true when json is a single well-formed Json value within limits
+     */
+    boolean validate(String json);
+
+    /**
+     * Check Json in char array
+     * @param json - array containing Json
+     * @param offset - index of the first char
+     * @param length - number of chars
+     * @return true when json is a single well-formed Json value within limits
+     */
+    boolean validate(char[] json, int offset, int length);
+
+    /**
+     * Check UTF-8 encoded Json, encoding of strings is checked too
+     * @param json - array containing Json
+     * @param offset - index of the first byte
+     * @param length - number of bytes
+     * @return true when json is a single well-formed Json value within limits
+     */
+    boolean validate(byte[] json, int offset, int length);
+
+    /**
+     * Get position of error found by the last check
+     * @return offset from the start of checked region, -1 when the last check passed
+     */
+    int errorOffset();
+
+    /**
+     * Get description of error found by the last check
+     * @return error description, null when the last check passed
+     */
+    String errorMessage();
+}
@@ -1,12 +1,37 @@
 package com.staim.lightjson;
 
 import com.staim.lightjson.implementations.BuilderImpl;
+import com.staim.lightjson.implementations.FeederImpl;
+import com.staim.lightjson.implementations.JsonLinesReaderImpl;
 import com.staim.lightjson.implementations.MarshallerImpl;
+import com.staim.lightjson.implementations.TokenReaderImpl;
 import com.staim.lightjson.implementations.UnmarshallerImpl;
+import com.staim.lightjson.implementations.UnmarshallerStreaming;
+import com.staim.lightjson.implementations.ValidatorImpl;
+import com.staim.lightjson.implementations.parsers.ParserColumnar;
+import com.staim.lightjson.implementations.parsers.ParserEvent;
+import com.staim.lightjson.implementations.parsers.ParserFast;
+import com.staim.lightjson.implementations.parsers.MappedInputStream;
+import com.staim.lightjson.implementations.parsers.ParserLazy;
+import com.staim.lightjson.implementations.parsers.ParserParallel;
+import com.staim.lightjson.implementations.parsers.ParserProjection;
 import com.staim.lightjson.implementations.parsers.ParserScalable;
 import com.staim.lightjson.implementations.parsers.ParserSimple;
+import com.staim.lightjson.implementations.parsers.ParserStreaming;
+import com.staim.lightjson.implementations.parsers.ParserTape;
+import com.staim.lightjson.implementations.parsers.ParserUtf8;
+import com.staim.lightjson.implementations.parsers.ParserUtil;
 import com.staim.lightjson.implementations.serializers.SerializerForkJoin;
 import com.staim.lightjson.implementations.serializers.SerializerRecursive;
+import com.staim.lightjson.implementations.serializers.SerializerUtf8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * Light Json
@@ -33,16 +58,24 @@ public class LightJson<T> implements Json<T> {
 
     public enum ParserType {
         Simple, // Good for small simple JSONs, bad for large and complex ones
-        Scalable // Worse a bit for simple JSONs, but in long and complex up to 10x faster (default)
+        Scalable, // Worse a bit for simple JSONs, but in long and complex up to 10x faster (default)
+        Utf8, // Works directly on UTF-8 bytes, best for byte[] and ByteBuffer input
+        Streaming, // Reads through fixed-size buffer with JsonTokenReader, for huge inputs from streams
+        Fast, // Table-driven, produces no garbage besides the result tree
+        Lazy, // Parses Objects and Arrays on first access, best when only a few members are read
+        Tape, // Stores document in one long[] tape and one char[], read-only and much smaller in memory
+        Parallel, // Parses items of huge top-level Arrays on all cores
+        Columnar // Stores Arrays of uniform Objects by columns of primitive arrays, for analytics
     }
 
     public enum SerializerType {
         SimpleRecursive, // Good for small simple JSONs, a bit worse for large and complex ones (default)
-        ForkJoin // Better for large and complex JSONs, Very Bad on tons of simple JSONs.
+        ForkJoin, // Splits trees above a size threshold over a shared pool, writes small ones on the calling thread
+        Utf8 // Writes UTF-8 bytes to streams through pooled buffers, best for sockets and files
     }
 
     /**
-     * Set Parser Type: Simple or Scalable (recommended)
+     * Set Parser Type: Simple, Scalable (recommended), Utf8, Streaming, Fast, Lazy, Tape, Parallel or Columnar
      * @param type - parser type
      */
     public static void setParserType(ParserType type) {
@@ -53,11 +86,32 @@ public class LightJson<T> implements Json<T> {
             case Scalable:
                 parserClass = ParserScalable.class;
                 break;
+            case Utf8:
+                parserClass = ParserUtf8.class;
+                break;
+            case Streaming:
+                parserClass = ParserStreaming.class;
+                break;
+            case Fast:
+                parserClass = ParserFast.class;
+                break;
+            case Lazy:
+                parserClass = ParserLazy.class;
+                break;
+            case Tape:
+                parserClass = ParserTape.class;
+                break;
+            case Parallel:
+                parserClass = ParserParallel.class;
+                break;
+            case Columnar:
+                parserClass = ParserColumnar.class;
+                break;
         }
     }
 
     /**
-     * Set Serializer Type: Recursive (recommended) or ForkJoin
+     * Set Serializer Type: Recursive (recommended), ForkJoin or Utf8
      * @param type - parser type
      */
     public static void setSerializerType(SerializerType type) {
@@ -68,6 +122,9 @@ public class LightJson<T> implements Json<T> {
             case ForkJoin:
                 serializerClass = SerializerForkJoin.class;
                 break;
+            case Utf8:
+                serializerClass = SerializerUtf8.class;
+                break;
         }
     }
 
@@ -168,6 +225,253 @@ public class LightJson<T> implements Json<T> {
         }
     }
 
+    /**
+     * Create a class, implementing JsonElement interface from Json String, containing only requested paths.
+     * Everything else is skipped without building Json Elements.
+     *
+     * @param jsonString - Json String to process
+     * @param paths - paths to keep, e.g. "user.id", "items[*].sku"
+     * @return Class, implementing JsonElement interface or null, when root does not match the paths.
+     * @throws JsonException when Json Parsing Error had occurred
+     */
+    public static JsonElement project(String jsonString, String... paths) throws JsonException {
+        return new ParserProjection(paths).parse(jsonString);
+    }
+
+    /**
+     * Create a class, implementing JsonElement interface from UTF-8 encoded Json bytes.
+     *
+     * @param json - UTF-8 encoded Json to process
+     * @return Class, implementing JsonElement interface or null, when Json Parsing Error had occurred.
+     */
+    public static JsonElement from(byte[] json) {
+        return from(json, 0, json.length);
+    }
+
+    /**
+     * Create a class, implementing JsonElement interface from UTF-8 encoded Json bytes.
+     *
+     * @param json - array containing UTF-8 encoded Json
+     * @param offset - index of the first byte of Json
+     * @param length - number of bytes to process
+     * @return Class, implementing JsonElement interface or null, when Json Parsing Error had occurred.
+     */
+    public static JsonElement from(byte[] json, int offset, int length) {
+        try {
+            return json().parser().parse(json, offset, length);
+        } catch (JsonException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create a class, implementing JsonElement interface from UTF-8 encoded Json bytes between position and limit
+     * of the buffer. Buffer position is left untouched.
+     *
+     * @param json - buffer containing UTF-8 encoded Json
+     * @return Class, implementing JsonElement interface or null, when Json Parsing Error had occurred.
+     */
+    public static JsonElement from(ByteBuffer json) {
+        try {
+            return json().parser().parse(json);
+        } catch (JsonException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create a class, implementing JsonElement interface from Json read from Reader through fixed-size buffer.
+     *
+     * @param reader - Reader to process, it is not closed
+     * @return Class, implementing JsonElement interface or null, when Json Parsing Error had occurred.
+     */
+    public static JsonElement from(Reader reader) {
+        try {
+            return new ParserStreaming().parse(reader);
+        } catch (JsonException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create a class, implementing JsonElement interface from UTF-8 encoded Json read from InputStream through
+     * fixed-size buffer.
+     *
+     * @param stream - InputStream to process, it is not closed
+     * @return Class, implementing JsonElement interface or null, when Json Parsing Error had occurred.
+     */
+    public static JsonElement from(InputStream stream) {
+        try {
+            return new ParserStreaming().parse(stream);
+        } catch (JsonException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create a class, implementing JsonElement interface from UTF-8 encoded Json file. File is memory-mapped and
+     * never decoded into one String: files up to 2 GB are parsed from mapped bytes in place by the Parallel parser,
+     * when it is configured, and by the Utf8 parser otherwise, larger ones are read through mapped segments by the
+     * streaming parser.
+     *
+     * @param path - path to Json file
+     * @return Class, implementing JsonElement interface or null, when Json Parsing or Read Error had occurred.
+     */
+    public static JsonElement from(Path path) {
+        try {
+            if (Files.size(path) <= Integer.MAX_VALUE) {
+                final JsonParser parser = ParserParallel.class.equals(parserClass) ? new ParserParallel() : new ParserUtf8();
+                return parser.parse(ParserUtil.map(path));
+            }
+            try (InputStream stream = new MappedInputStream(path)) {
+                return new ParserStreaming().parse(stream);
+            }
+        } catch (JsonException | IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create streaming pull-style reader of Json tokens.
+     *
+     * @param reader - Reader to read Json from, it is closed with JsonTokenReader
+     * @return JsonTokenReader instance
+     */
+    public static JsonTokenReader reader(Reader reader) {
+        return new TokenReaderImpl(reader);
+    }
+
+    /**
+     * Create streaming pull-style reader of UTF-8 encoded Json tokens.
+     *
+     * @param stream - InputStream to read Json from, it is closed with JsonTokenReader
+     * @return JsonTokenReader instance
+     */
+    public static JsonTokenReader reader(InputStream stream) {
+        return new TokenReaderImpl(stream);
+    }
+
+    /**
+     * Create reader of newline-delimited Json (NDJSON) records, which are parsed in batches on all cores.
+     *
+     * @param stream - UTF-8 encoded NDJSON, it is closed with JsonLinesReader
+     * @return JsonLinesReader instance
+     */
+    public static JsonLinesReader lines(InputStream stream) {
+        return new JsonLinesReaderImpl(stream);
+    }
+
+    /**
+     * Create reader of newline-delimited Json (NDJSON) records from memory-mapped file, which are parsed in batches
+     * on all cores. Files up to 2 GB are parsed in place, larger ones are read through mapped segments.
+     *
+     * @param path - path to UTF-8 encoded NDJSON file
+     * @return JsonLinesReader instance, closing it closes the file of large ones, mapped buffers are released by GC
+     * @throws JsonException when file could not be opened
+     */
+    public static JsonLinesReader lines(Path path) throws JsonException {
+        try {
+            if (Files.size(path) <= Integer.MAX_VALUE) return new JsonLinesReaderImpl(ParserUtil.map(path));
+            return new JsonLinesReaderImpl(new MappedInputStream(path));
+        } catch (IOException e) {
+            throw new JsonException("Read error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Create reader of newline-delimited Json (NDJSON) records between position and limit of the buffer, which are
+     * parsed in place in batches on all cores. Buffer position is left untouched.
+     *
+     * @param buffer - buffer containing UTF-8 encoded NDJSON
+     * @return JsonLinesReader instance
+     */
+    public static JsonLinesReader lines(ByteBuffer buffer) {
+        return new JsonLinesReaderImpl(buffer);
+    }
+
+    /**
+     * Create non-blocking incremental parser, which builds Json Elements from UTF-8 chunks fed as they arrive.
+     *
+     * @return JsonFeeder instance, completed root values are available from its nextElement()
+     */
+    public static JsonFeeder feeder() {
+        return new FeederImpl();
+    }
+
+    /**
+     * Create non-blocking incremental parser, which pushes parsing events of UTF-8 chunks fed as they arrive into
+     * handler.
+     *
+     * @param handler - handler to receive events
+     * @return JsonFeeder instance
+     */
+    public static JsonFeeder feeder(JsonHandler handler) {
+        return new FeederImpl(handler);
+    }
+
+    /**
+     * Create validator, checking well-formedness of Json without building anything.
+     *
+     * @return JsonValidator instance with default nesting depth limit and no length limit, it is not thread-safe
+     */
+    public static JsonValidator validator() {
+        return new ValidatorImpl();
+    }
+
+    /**
+     * Create validator, checking well-formedness of Json without building anything.
+     *
+     * @param maxDepth - maximal number of nested Objects and Arrays
+     * @param maxLength - maximal length of input in chars or bytes
+     * @return JsonValidator instance, it is not thread-safe
+     */
+    public static JsonValidator validator(int maxDepth, int maxLength) {
+        return new ValidatorImpl(maxDepth, maxLength);
+    }
+
+    /**
+     * Check whether Json String is well-formed, no Json Element tree is built.
+     *
+     * @param jsonString - Json String to check
+     * @return true when Json String is a single well-formed Json value
+     */
+    public static boolean isValid(String jsonString) {
+        return new ValidatorImpl().validate(jsonString);
+    }
+
+    /**
+     * Parse Json String pushing parsing events into handler, no Json Element tree is built.
+     *
+     * @param jsonString - Json String to process
+     * @param handler - handler to receive events
+     * @throws JsonException when Json Parsing Error had occurred or handler had stopped parsing
+     */
+    public static void parse(String jsonString, JsonHandler handler) throws JsonException {
+        new ParserEvent().parse(jsonString, handler);
+    }
+
+    /**
+     * Parse Json from Reader pushing parsing events into handler, no Json Element tree is built.
+     *
+     * @param reader - Reader to process, it is not closed
+     * @param handler - handler to receive events
+     * @throws JsonException when Json Parsing Error had occurred or handler had stopped parsing
+     */
+    public static void parse(Reader reader, JsonHandler handler) throws JsonException {
+        new ParserEvent().parse(reader, handler);
+    }
+
+    /**
+     * Parse UTF-8 encoded Json from InputStream pushing parsing events into handler, no Json Element tree is built.
+     *
+     * @param stream - InputStream to process, it is not closed
+     * @param handler - handler to receive events
+     * @throws JsonException when Json Parsing Error had occurred or handler had stopped parsing
+     */
+    public static void parse(InputStream stream, JsonHandler handler) throws JsonException {
+        new ParserEvent().parse(stream, handler);
+    }
+
     /**
      * Create class, annotated as @JsonObject from Json String.
      *
@@ -184,6 +488,90 @@ public class LightJson<T> implements Json<T> {
         }
     }
 
+    /**
+     * Create class, annotated as @JsonObject from Json read from Reader through fixed-size buffer.
+     *
+     * @param reader - Reader to process, it is not closed
+     * @param entityClass - reference to class, annotated as @JsonObject
+     * @param <T> - generic class type
+     * @return Resulting class or null, when Json Parsing Error had occurred.
+     */
+    public static <T> T from(Reader reader, Class<T> entityClass) {
+        try {
+            return new UnmarshallerImpl(new ParserStreaming().parse(reader)).unmarshal(entityClass);
+        } catch (JsonException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create class, annotated as @JsonObject from UTF-8 encoded Json read from InputStream through fixed-size buffer.
+     *
+     * @param stream - InputStream to process, it is not closed
+     * @param entityClass - reference to class, annotated as @JsonObject
+     * @param <T> - generic class type
+     * @return Resulting class or null, when Json Parsing Error had occurred.
+     */
+    public static <T> T from(InputStream stream, Class<T> entityClass) {
+        try {
+            return new UnmarshallerImpl(new ParserStreaming().parse(stream)).unmarshal(entityClass);
+        } catch (JsonException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create class, annotated as @JsonObject from Json String, binding values to fields while reading tokens,
+     * without building Json Element tree. Unlike from(), Parser Type is not used and null or missing values
+     * leave primitive fields untouched instead of failing.
+     *
+     * @param jsonString - Json String to process
+     * @param entityClass - reference to class, annotated as @JsonObject
+     * @param <T> - generic class type
+     * @return Resulting class or null, when Json Parsing Error had occurred.
+     */
+    public static <T> T bind(String jsonString, Class<T> entityClass) {
+        try {
+            return new UnmarshallerStreaming(jsonString).unmarshal(entityClass);
+        } catch (JsonException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create class, annotated as @JsonObject from Json read from Reader through fixed-size buffer, binding values
+     * to fields while reading tokens, see bind(String, Class).
+     *
+     * @param reader - Reader to process, it is not closed
+     * @param entityClass - reference to class, annotated as @JsonObject
+     * @param <T> - generic class type
+     * @return Resulting class or null, when Json Parsing Error had occurred.
+     */
+    public static <T> T bind(Reader reader, Class<T> entityClass) {
+        try {
+            return new UnmarshallerStreaming(reader).unmarshal(entityClass);
+        } catch (JsonException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create class, annotated as @JsonObject from UTF-8 encoded Json read from InputStream through fixed-size
+     * buffer, binding values to fields while reading tokens, see bind(String, Class).
+     *
+     * @param stream - InputStream to process, it is not closed
+     * @param entityClass - reference to class, annotated as @JsonObject
+     * @param <T> - generic class type
+     * @return Resulting class or null, when Json Parsing Error had occurred.
+     */
+    public static <T> T bind(InputStream stream, Class<T> entityClass) {
+        try {
+            return new UnmarshallerStreaming(stream).unmarshal(entityClass);
+        } catch (JsonException e) {
+            return null;
+        }
+    }
+
     /**
      * Marshal java object, annotated as @JsonObject, into Json String.
      *
@@ -208,4 +596,26 @@ public class LightJson<T> implements Json<T> {
     public static String to(JsonElement jsonElement) {
         return json().serializer().serialize(jsonElement);
     }
+
+    /**
+     * Serialize JsonElement to Appendable (Writer, StringBuilder...).
+     *
+     * @param jsonElement - Json Element to process.
+     * @param out - target, is neither flushed nor closed
+     * @throws JsonException when writing fails
+     */
+    public static void to(JsonElement jsonElement, Appendable out) throws JsonException {
+        json().serializer().serialize(jsonElement, out);
+    }
+
+    /**
+     * Serialize JsonElement to UTF-8 encoded stream.
+     *
+     * @param jsonElement - Json Element to process.
+     * @param out - target stream, is flushed but not closed
+     * @throws JsonException when writing fails
+     */
+    public static void to(JsonElement jsonElement, OutputStream out) throws JsonException {
+        json().serializer().serialize(jsonElement, out);
+    }
 }
@@ -4,14 +4,17 @@ import com.staim.lightjson.JsonBuilder;
 import com.staim.lightjson.JsonElement;
 import com.staim.lightjson.JsonType;
 import com.staim.lightjson.implementations.elements.JsonArrayElement;
+import com.staim.lightjson.implementations.elements.JsonBooleanElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleElement;
+import com.staim.lightjson.implementations.elements.JsonLongElement;
 import com.staim.lightjson.implementations.elements.JsonNullElement;
 import com.staim.lightjson.implementations.elements.JsonObjectElement;
+import com.staim.lightjson.implementations.elements.JsonObjectMap;
 import com.staim.lightjson.implementations.elements.JsonPlainElement;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 /**
  * Json Builder Implementation
@@ -22,7 +25,7 @@ public class BuilderImpl implements JsonBuilder {
     @Override
     public ObjectBuilder objectBuilder() {
         return new ObjectBuilder() {
-            Map<String, JsonElement> data = new TreeMap<>(); // Using TreeMap to maintain order
+            Map<String, JsonElement> data = new JsonObjectMap(); // keeps members in order of appending
             @Override
             public ObjectBuilder append(String key, JsonElement element) {
                 data.put(key, element);
@@ -50,9 +53,16 @@ public class BuilderImpl implements JsonBuilder {
         };
     }
 
-    @Override public JsonElement string(String string) { return new JsonPlainElement<>(string, JsonType.STRING); }
-    @Override public JsonElement number(Number number) { return new JsonPlainElement<>(number, JsonType.NUMBER); }
-    @Override public JsonElement bool(boolean bool) { return new JsonPlainElement<>(bool, JsonType.BOOLEAN); }
-    @Override public <T> JsonElement auto(T object) { return new JsonPlainElement<>(object); }
-    @Override public JsonElement nil() { return new JsonNullElement(); }
+    @Override public JsonElement string(String string) { return JsonPlainElement.string(string); }
+
+    @Override
+    public JsonElement number(Number number) {
+        if (number instanceof Long) return JsonLongElement.valueOf((Long)number);
+        if (number instanceof Double) return new JsonDoubleElement((Double)number);
+        return new JsonPlainElement<>(number, JsonType.NUMBER);
+    }
+
+    @Override public JsonElement bool(boolean bool) { return JsonBooleanElement.valueOf(bool); }
+    @Override public <T> JsonElement auto(T object) { return JsonPlainElement.of(object); }
+    @Override public JsonElement nil() { return JsonNullElement.NULL; }
 }
@@ -0,0 +1,51 @@
+package com.staim.lightjson.implementations;
+
+/**
+ * Reusable CharSequence view of char array region
+ *
+ * Used to pass keys and values to callers without creating Strings. Contents are valid only until the owner
+ * reuses the view, use toString() to keep them.
+ */
+public final class CharSlice implements CharSequence {
+    private char[] chars;
+    private int offset;
+    private int length;
+
+    public CharSlice set(char[] chars, int offset, int length) {
+        this.chars = chars;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    public char[] array() { return chars; }
+    public int offset() { return offset; }
+
+    @Override public int length() { return length; }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+        return chars[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) throw new IndexOutOfBoundsException("Range: " + start + " - " + end + ", length: " + length);
+        return new String(chars, offset + start, end - start);
+    }
+
+    /**
+     * Compare contents with String without creating one
+     * @param string - String to compare with
+     * @return true when contents are equal
+     */
+    public boolean contentEquals(String string) {
+        if (string.length() != length) return false;
+        for (int i = 0; i < length; i++)
+            if (chars[offset + i] != string.charAt(i)) return false;
+        return true;
+    }
+
+    @Override public String toString() { return new String(chars, offset, length); }
+}
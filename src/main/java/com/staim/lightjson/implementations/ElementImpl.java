@@ -4,10 +4,10 @@ import com.staim.lightjson.JsonElement;
 import com.staim.lightjson.JsonException;
 import com.staim.lightjson.JsonSerializable;
 import com.staim.lightjson.JsonType;
+import com.staim.lightjson.implementations.serializers.JsonEscape;
+import com.staim.lightjson.implementations.serializers.SerializerUtil;
 
-import java.text.CharacterIterator;
 import java.text.SimpleDateFormat;
-import java.text.StringCharacterIterator;
 import java.util.*;
 
 /**
@@ -166,6 +166,26 @@ public class ElementImpl implements JsonElement {
         return null;
     }
 
+    @Override
+    public long getLong() throws JsonException {
+        if (type != JsonType.NUMBER || numberData == null) throw new JsonException("Number Operation error: JSON Element is not Number");
+        return numberData.longValue();
+    }
+
+    @Override
+    public double getDouble() throws JsonException {
+        if (type != JsonType.NUMBER || numberData == null) throw new JsonException("Number Operation error: JSON Element is not Number");
+        return numberData.doubleValue();
+    }
+
+    @Override
+    public boolean getBoolean() throws JsonException {
+        if (type != JsonType.BOOLEAN || booleanData == null) throw new JsonException("Boolean Operation error: JSON Element is not Boolean");
+        return booleanData;
+    }
+
+    @Override public boolean isNull() { return type == JsonType.NULL; }
+
     @Override
     public JsonElement get(int index) throws JsonException {
         verifyArray();
@@ -410,7 +430,7 @@ public class ElementImpl implements JsonElement {
                 String resObject = "";
                 for (Map.Entry<String, JsonElement> entry : this.objectData.entrySet()) {
                     if (!resObject.isEmpty()) resObject += ", ";
-                    final String key = entry.getKey();
+                    final String key = JsonEscape.escape(entry.getKey());
                     final JsonElement value = entry.getValue();
                     resObject += String.format("\"%1$s\" : %2$s", key, (value != null ? value.serialize() : "\"null\""));
                 }
@@ -426,17 +446,10 @@ public class ElementImpl implements JsonElement {
             case BOOLEAN:
                 return this.booleanData ? "true" : "false";
             case NUMBER:
-                String res = "";
-                if (this.numberData instanceof Byte) res += this.numberData.byteValue();
-                else if (this.numberData instanceof Short) res += this.numberData.shortValue();
-                else if (this.numberData instanceof Integer) res += this.numberData.intValue();
-                else if (this.numberData instanceof Long) res += this.numberData.longValue();
-                else if (this.numberData instanceof Float) res += this.numberData.floatValue();
-                else if (this.numberData instanceof Double) res += this.numberData.doubleValue();
-                return res;
+                return SerializerUtil.serializeNumber(this.numberData);
             case STRING:
                 //return "\"" + this.stringData.replaceAll("\\\\", "\\\\\\\\") + "\"";
-                return "\"" + stringForJSON(this.stringData) + "\"";
+                return "\"" + JsonEscape.escape(this.stringData) + "\"";
             case DATE:
                 @SuppressWarnings("SpellCheckingInspection") final
                 SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
@@ -517,35 +530,6 @@ public class ElementImpl implements JsonElement {
         return JsonType.NULL;
     }
 
-    /**
-     * Format String for JSON Serialization
-     * @param input - string to format
-     * @return result String
-     */
-    private static String stringForJSON(String input) {
-        if (input == null || input.isEmpty()) return "";
-
-        final int len = input.length();
-        final StringBuilder result = new StringBuilder(len + len / 4);
-        final StringCharacterIterator iterator = new StringCharacterIterator(input);
-        char ch = iterator.current();
-        while (ch != CharacterIterator.DONE) {
-            if (ch == '\n') {
-                result.append("\\n");
-            } else if (ch == '\r') {
-                result.append("\\r");
-            } else if (ch == '\'') {
-                result.append("\\\'");
-            } else if (ch == '"') {
-                result.append("\\\"");
-            } else {
-                result.append(ch);
-            }
-            ch = iterator.next();
-        }
-        return result.toString();
-    }
-
     private void verifyArray() throws JsonException {
         if (type != JsonType.ARRAY) throw new JsonException("Array Operation error: JSON Element is not Array");
         if (arrayData == null) throw new JsonException("Array Operation error: JSON Array data is null");
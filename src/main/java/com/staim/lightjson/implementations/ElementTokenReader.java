@@ -0,0 +1,175 @@
+package com.staim.lightjson.implementations;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonToken;
+import com.staim.lightjson.JsonTokenReader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Json Reader over already built Json Element tree
+ *
+ * Walks the tree and returns the same tokens, which TokenReaderImpl returns for its serialized form, so code
+ * reading tokens can bind elements without serializing and parsing them again. Dates are returned as STRING
+ * tokens of their data.
+ */
+public class ElementTokenReader implements JsonTokenReader {
+    private final ArrayList<Frame> stack = new ArrayList<>();
+    private JsonElement root;
+    private boolean hasRoot = true;
+    private JsonElement pending; // value following the current NAME token
+    private boolean hasPending;
+    private JsonToken token;
+    private String name;
+    private Object value; // data of the current STRING, NUMBER or BOOLEAN token
+
+    /**
+     * @param root - Json Element to read, null is read as Json null
+     */
+    public ElementTokenReader(JsonElement root) { this.root = root; }
+
+    @Override
+    public JsonToken nextToken() throws JsonException {
+        value = null;
+        if (hasPending) {
+            final JsonElement element = pending;
+            pending = null;
+            hasPending = false;
+            return token = start(element);
+        }
+        if (stack.isEmpty()) {
+            name = null;
+            if (!hasRoot) return token = JsonToken.END_DOCUMENT;
+            final JsonElement element = root;
+            root = null;
+            hasRoot = false;
+            return token = start(element);
+        }
+        final Frame frame = stack.get(stack.size() - 1);
+        if (!frame.items.hasNext()) return token = end();
+        final Object item = frame.items.next();
+        if (!frame.object) {
+            name = null;
+            return token = start((JsonElement)item);
+        }
+        final Map.Entry<?, ?> entry = (Map.Entry<?, ?>)item;
+        name = (String)entry.getKey();
+        pending = (JsonElement)entry.getValue();
+        hasPending = true;
+        return token = JsonToken.NAME;
+    }
+
+    @Override public JsonToken currentToken() { return token; }
+
+    @Override
+    public int depth() {
+        return token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY ? stack.size() - 1 : stack.size();
+    }
+
+    @Override public String currentName() { return name; }
+
+    @Override
+    public String getString() throws JsonException {
+        if (token == JsonToken.NAME) return name;
+        if (token != JsonToken.STRING && token != JsonToken.NUMBER) throw new JsonException("Current token " + token + " has no text");
+        return value.toString();
+    }
+
+    @Override
+    public CharSequence getText() throws JsonException { return getString(); }
+
+    @Override
+    public boolean isIntegral() throws JsonException {
+        final Number number = number();
+        return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    @Override
+    public long getLong() throws JsonException {
+        if (isIntegral()) return number().longValue();
+        final double value = number().doubleValue(); // exact long values only, as in TokenReaderImpl
+        if (value >= 0x1p63 || value < -0x1p63 || value != Math.rint(value)) throw new JsonException("Number " + getString() + " is not a long value");
+        return (long)value;
+    }
+
+    @Override
+    public double getDouble() throws JsonException { return number().doubleValue(); }
+
+    @Override
+    public Number getNumber() throws JsonException {
+        return isIntegral() ? (Number)number().longValue() : (Number)number().doubleValue();
+    }
+
+    @Override
+    public boolean getBoolean() throws JsonException {
+        checkToken(JsonToken.BOOLEAN);
+        return (Boolean)value;
+    }
+
+    @Override
+    public void skipChildren() throws JsonException {
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) token = end();
+    }
+
+    @Override
+    public void close() {}
+
+    //////////////////////////// WALKING ///////////////////////////////////////////////////////////////////////////////
+
+    @SuppressWarnings("unchecked")
+    private JsonToken start(JsonElement element) {
+        if (element == null) return JsonToken.NULL;
+        final Object data = element.getData();
+        switch (element.getType()) {
+            case OBJECT:
+                stack.add(new Frame(((Map<String, JsonElement>)data).entrySet().iterator(), true, name));
+                return JsonToken.START_OBJECT;
+            case ARRAY:
+                stack.add(new Frame(((Collection<JsonElement>)data).iterator(), false, name));
+                return JsonToken.START_ARRAY;
+            case NUMBER:
+                value = data;
+                return JsonToken.NUMBER;
+            case BOOLEAN:
+                value = data;
+                return JsonToken.BOOLEAN;
+            case NULL:
+                return JsonToken.NULL;
+            default:
+                if (data == null) return JsonToken.NULL;
+                value = data.toString();
+                return JsonToken.STRING;
+        }
+    }
+
+    private JsonToken end() {
+        final Frame frame = stack.remove(stack.size() - 1);
+        name = frame.name;
+        return frame.object ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+    }
+
+    private Number number() throws JsonException {
+        checkToken(JsonToken.NUMBER);
+        return (Number)value;
+    }
+
+    private void checkToken(JsonToken expected) throws JsonException {
+        if (token != expected) throw new JsonException("Current token " + token + " is not " + expected);
+    }
+
+    private static final class Frame {
+        final Iterator<?> items;
+        final boolean object;
+        final String name; // name of the container in its parent Object
+
+        Frame(Iterator<?> items, boolean object, String name) {
+            this.items = items;
+            this.object = object;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.staim.lightjson.implementations;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonFeeder;
+import com.staim.lightjson.JsonHandler;
+import com.staim.lightjson.implementations.parsers.NumberParser;
+import com.staim.lightjson.implementations.parsers.TreeHandler;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Feedable Json Parser Implementation
+ *
+ * Resumable state machine: structural state is kept in a stack of containers and expected token, state of a token
+ * split between chunks (string, number or literal) is kept in lexer state and bytes of the token collected so far.
+ * Strings are collected as raw bytes and decoded once complete, so chunks may split multi-byte characters and
+ * escapes anywhere.
+ */
+public class FeederImpl implements JsonFeeder {
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+
+    private static final int EXPECT_VALUE = 0;          // root value or value after ':'
+    private static final int EXPECT_FIRST_NAME = 1;     // after '{'
+    private static final int EXPECT_NAME = 2;           // after ',' in Object
+    private static final int EXPECT_COLON = 3;          // after name
+    private static final int EXPECT_FIRST_VALUE = 4;    // after '['
+    private static final int EXPECT_ARRAY_VALUE = 5;    // after ',' in Array
+    private static final int EXPECT_SEPARATOR = 6;      // after value in Object or Array
+
+    private static final int LEX_NONE = 0;
+    private static final int LEX_STRING = 1;
+    private static final int LEX_NUMBER = 2;
+    private static final int LEX_LITERAL = 3;
+
+    private static final byte[] BYTE_ORDER_MARK = { (byte)0xEF, (byte)0xBB, (byte)0xBF };
+
+    private final JsonHandler handler;
+    private final TreeHandler tree;
+    private final ArrayDeque<JsonElement> elements = new ArrayDeque<>();
+
+    private byte[] stack = new byte[16];
+    private int depth;
+    private int expect = EXPECT_VALUE;
+    private long roots;
+
+    private int lex = LEX_NONE;
+    private byte[] token = new byte[64];
+    private int tokenLength;
+    private long tokenStart;
+    private ByteBuffer tokenBuffer = ByteBuffer.wrap(token);
+    private boolean key;
+    private boolean escape;
+    private String literal;
+    private int literalIndex;
+    private int byteOrderMark; // matched bytes of Byte Order Mark, -1 when it can not start anymore
+
+    private char[] chars = new char[64];
+    private final CharSlice slice = new CharSlice();
+    private final NumberParser numbers = new NumberParser();
+
+    private long consumed; // bytes fed before the current chunk
+    private String failure;
+
+    /**
+     * Create feeder building Json Elements, available from nextElement()
+     */
+    public FeederImpl() {
+        this.tree = new TreeHandler();
+        this.handler = tree;
+    }
+
+    /**
+     * Create feeder pushing parsing events to handler
+     * @param handler - handler to receive events
+     */
+    public FeederImpl(JsonHandler handler) {
+        this.tree = null;
+        this.handler = handler;
+    }
+
+    //////////////////////////// INTERFACE /////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void feed(byte[] bytes, int offset, int length) throws JsonException {
+        feed(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    @Override
+    public void feed(ByteBuffer chunk) throws JsonException {
+        if (failure != null) throw new JsonException(failure);
+        final int start = chunk.position();
+        final int end = chunk.limit();
+        try {
+            parse(chunk, start, end);
+        } catch (JsonException e) {
+            failure = e.getMessage();
+            throw e;
+        } finally {
+            consumed += end - start;
+            chunk.position(end);
+        }
+    }
+
+    @Override
+    public void finish() throws JsonException {
+        if (failure != null) throw new JsonException(failure);
+        if (lex == LEX_NUMBER) {
+            lex = LEX_NONE;
+            number();
+        }
+        if (lex != LEX_NONE || depth > 0 || roots == 0) {
+            failure = "Unexpected End of Json";
+            throw new JsonException(failure);
+        }
+    }
+
+    @Override
+    public boolean isComplete() { return failure == null && lex == LEX_NONE && depth == 0 && roots > 0; }
+
+    @Override
+    public JsonElement nextElement() throws JsonException {
+        if (tree == null) throw new JsonException("Feeder pushes events to handler");
+        return elements.poll();
+    }
+
+    //////////////////////////// PARSING ///////////////////////////////////////////////////////////////////////////////
+
+    private JsonException unexpected(int b, long position) {
+        return new JsonException("Unexpected symbol: '" + (char)(b & 0xFF) + "' at position " + position);
+    }
+
+    private void parse(ByteBuffer chunk, int start, int end) throws JsonException {
+        int i = start;
+        while (i < end) {
+            final byte b = chunk.get(i);
+            switch (lex) {
+                case LEX_STRING: {
+                    int j = i;
+                    while (j < end) {
+                        final byte c = chunk.get(j);
+                        if (escape) escape = false;
+                        else if (c == '\\') escape = true;
+                        else if (c == '"') break;
+                        j++;
+                    }
+                    append(chunk, i, j);
+                    if (j == end) return;
+                    lex = LEX_NONE;
+                    string();
+                    i = j + 1;
+                    continue;
+                }
+                case LEX_NUMBER:
+                    if ((b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+                        append(b);
+                        i++;
+                        continue;
+                    }
+                    lex = LEX_NONE;
+                    number();
+                    break; // b is not consumed yet
+                case LEX_LITERAL:
+                    if (b != literal.charAt(literalIndex)) throw unexpected(b, consumed + i - start);
+                    i++;
+                    if (++literalIndex == literal.length()) {
+                        lex = LEX_NONE;
+                        literal();
+                    }
+                    continue;
+            }
+
+            if (byteOrderMark >= 0) {
+                if (roots == 0 && depth == 0 && b == BYTE_ORDER_MARK[byteOrderMark]) {
+                    if (++byteOrderMark == BYTE_ORDER_MARK.length) byteOrderMark = -1;
+                    i++;
+                    continue;
+                }
+                if (byteOrderMark > 0) throw unexpected(b, consumed + i - start);
+                byteOrderMark = -1;
+            }
+            structural(b, consumed + i - start);
+            i++;
+        }
+    }
+
+    private void structural(byte b, long position) throws JsonException {
+        switch (b) {
+            case ' ': case '\t': case '\n': case '\r': return;
+        }
+        switch (expect) {
+            case EXPECT_FIRST_VALUE:
+                if (b == ']') {
+                    depth--;
+                    handler.endArray();
+                    valueCompleted();
+                    return;
+                }
+                // fall through
+            case EXPECT_VALUE:
+            case EXPECT_ARRAY_VALUE:
+                switch (b) {
+                    case '{':
+                        push(OBJECT);
+                        handler.startObject();
+                        expect = EXPECT_FIRST_NAME;
+                        return;
+                    case '[':
+                        push(ARRAY);
+                        handler.startArray();
+                        expect = EXPECT_FIRST_VALUE;
+                        return;
+                    case '"':
+                        startString(false);
+                        return;
+                    case 't': startLiteral("true"); return;
+                    case 'f': startLiteral("false"); return;
+                    case 'n': startLiteral("null"); return;
+                    case '-': case '0': case '1': case '2': case '3': case '4':
+                    case '5': case '6': case '7': case '8': case '9':
+                        lex = LEX_NUMBER;
+                        tokenLength = 0;
+                        tokenStart = position;
+                        append(b);
+                        return;
+                }
+                break;
+            case EXPECT_FIRST_NAME:
+                if (b == '}') {
+                    depth--;
+                    handler.endObject();
+                    valueCompleted();
+                    return;
+                }
+                // fall through
+            case EXPECT_NAME:
+                if (b == '"') {
+                    startString(true);
+                    return;
+                }
+                break;
+            case EXPECT_COLON:
+                if (b == ':') {
+                    expect = EXPECT_VALUE;
+                    return;
+                }
+                break;
+            case EXPECT_SEPARATOR:
+                final byte container = stack[depth - 1];
+                if (b == ',') {
+                    expect = container == OBJECT ? EXPECT_NAME : EXPECT_ARRAY_VALUE;
+                    return;
+                }
+                if (b == '}' && container == OBJECT) {
+                    depth--;
+                    handler.endObject();
+                    valueCompleted();
+                    return;
+                }
+                if (b == ']' && container == ARRAY) {
+                    depth--;
+                    handler.endArray();
+                    valueCompleted();
+                    return;
+                }
+                break;
+        }
+        throw unexpected(b, position);
+    }
+
+    private void push(byte container) {
+        if (depth == stack.length) {
+            byte[] newStack = new byte[depth * 2];
+            System.arraycopy(stack, 0, newStack, 0, depth);
+            stack = newStack;
+        }
+        stack[depth++] = container;
+    }
+
+    private void valueCompleted() {
+        if (depth > 0) {
+            expect = EXPECT_SEPARATOR;
+            return;
+        }
+        expect = EXPECT_VALUE;
+        roots++;
+        if (tree != null) {
+            elements.add(tree.getResult());
+            tree.reset();
+        }
+    }
+
+    //////////////////////////// TOKENS ////////////////////////////////////////////////////////////////////////////////
+
+    private void startString(boolean key) {
+        lex = LEX_STRING;
+        tokenLength = 0;
+        escape = false;
+        this.key = key;
+    }
+
+    private void startLiteral(String literal) {
+        lex = LEX_LITERAL;
+        this.literal = literal;
+        literalIndex = 1;
+    }
+
+    private void ensureToken(int capacity) {
+        if (token.length < capacity) {
+            byte[] newToken = new byte[Math.max(capacity, token.length * 2)];
+            System.arraycopy(token, 0, newToken, 0, tokenLength);
+            token = newToken;
+            tokenBuffer = ByteBuffer.wrap(token);
+        }
+    }
+
+    private void append(byte b) {
+        ensureToken(tokenLength + 1);
+        token[tokenLength++] = b;
+    }
+
+    private void append(ByteBuffer chunk, int from, int to) {
+        final int length = to - from;
+        ensureToken(tokenLength + length);
+        if (chunk.hasArray()) {
+            System.arraycopy(chunk.array(), chunk.arrayOffset() + from, token, tokenLength, length);
+        } else {
+            for (int i = from; i < to; i++) token[tokenLength + i - from] = chunk.get(i);
+        }
+        tokenLength += length;
+    }
+
+    private void literal() throws JsonException {
+        switch (literal.charAt(0)) {
+            case 't': handler.booleanValue(true); break;
+            case 'f': handler.booleanValue(false); break;
+            default: handler.nullValue();
+        }
+        valueCompleted();
+    }
+
+    private void number() throws JsonException {
+        if (numbers.scan(tokenBuffer, 0, tokenLength) != tokenLength)
+            throw new JsonException("Malformed number at position " + tokenStart);
+        if (numbers.isLong()) handler.numberValue(numbers.longValue());
+        else handler.numberValue(numbers.doubleValue());
+        valueCompleted();
+    }
+
+    private void string() throws JsonException {
+        final int length = decode();
+        slice.set(chars, 0, length);
+        if (key) {
+            handler.key(slice);
+            expect = EXPECT_COLON;
+        } else {
+            handler.stringValue(slice);
+            valueCompleted();
+        }
+    }
+
+    /**
+     * Decode collected string bytes: escapes and UTF-8 sequences
+     * @return number of decoded characters in chars
+     */
+    private int decode() throws JsonException {
+        if (chars.length < tokenLength) chars = new char[Math.max(tokenLength, chars.length * 2)];
+        final byte[] token = this.token;
+        final char[] chars = this.chars;
+        int length = 0;
+        int i = 0;
+        while (i < tokenLength) {
+            final int b = token[i++];
+            if (b == '\\') {
+                final byte e = token[i++];
+                switch (e) {
+                    case '"': chars[length++] = '"'; break;
+                    case '\\': chars[length++] = '\\'; break;
+                    case '/': chars[length++] = '/'; break;
+                    case 'b': chars[length++] = '\b'; break;
+                    case 'f': chars[length++] = '\f'; break;
+                    case 'n': chars[length++] = '\n'; break;
+                    case 'r': chars[length++] = '\r'; break;
+                    case 't': chars[length++] = '\t'; break;
+                    case 'u':
+                        if (tokenLength - i < 4) throw new JsonException("Wrong unicode escape");
+                        int code = 0;
+                        for (int j = 0; j < 4; j++) {
+                            final int digit = Character.digit(token[i++], 16);
+                            if (digit < 0) throw new JsonException("Wrong unicode escape");
+                            code = (code << 4) | digit;
+                        }
+                        chars[length++] = (char)code;
+                        break;
+                    default:
+                        throw new JsonException("Wrong escape sequence '\\" + (char)e + "'");
+                }
+            } else if (b >= 0) {
+                chars[length++] = (char)b;
+            } else {
+                final int extra;
+                int code;
+                if ((b & 0xE0) == 0xC0) { extra = 1; code = b & 0x1F; }
+                else if ((b & 0xF0) == 0xE0) { extra = 2; code = b & 0x0F; }
+                else if ((b & 0xF8) == 0xF0) { extra = 3; code = b & 0x07; }
+                else throw new JsonException("Malformed UTF-8");
+                if (tokenLength - i < extra) throw new JsonException("Malformed UTF-8");
+                for (int j = 0; j < extra; j++) {
+                    final int c = token[i++];
+                    if ((c & 0xC0) != 0x80) throw new JsonException("Malformed UTF-8");
+                    code = (code << 6) | (c & 0x3F);
+                }
+                if (code >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                    chars[length++] = Character.highSurrogate(code);
+                    chars[length++] = Character.lowSurrogate(code);
+                } else chars[length++] = (char)code;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,292 @@
+package com.staim.lightjson.implementations;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonLinesReader;
+import com.staim.lightjson.implementations.parsers.ParserParallel;
+import com.staim.lightjson.implementations.parsers.ParserUtf8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * NDJSON Reader Implementation
+ *
+ * Input is read on the calling thread in batches of about batchSize bytes, cut at line ends. Each batch is split
+ * into lines and parsed with ParserUtf8 on the pool, at most maxBatches batches are in flight. ByteBuffer input
+ * is parsed in place. Stream input is read until batchSize bytes are buffered (or input is over) and cut after
+ * the last line end, arrays of parsed batches are reused for the next ones.
+ */
+public class JsonLinesReaderImpl implements JsonLinesReader {
+    public static final int DEFAULT_BATCH_SIZE = 256 * 1024;
+
+    private static final ThreadLocal<ParserUtf8> parsers = new ThreadLocal<ParserUtf8>() {
+        @Override protected ParserUtf8 initialValue() { return new ParserUtf8(); }
+    };
+
+    private final InputStream stream;
+    private final ByteBuffer buffer;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private byte[] carry = new byte[0]; // bytes of incomplete line after the last batch of stream
+    private int carryLength;
+    private final ArrayDeque<byte[]> spare = new ArrayDeque<>(); // arrays of stream batches, which are parsed
+    private int bufferPosition;
+    private boolean eof;
+
+    private final ArrayDeque<Future<Batch>> batches = new ArrayDeque<>();
+    private Batch current;
+    private int currentIndex;
+    private long lineBase; // lines before the current batch
+    private long lineNumber;
+    private JsonElement peeked;
+
+    public JsonLinesReaderImpl(InputStream stream) { this(stream, ParserParallel.sharedPool(), DEFAULT_BATCH_SIZE); }
+
+    public JsonLinesReaderImpl(InputStream stream, ForkJoinPool pool, int batchSize) {
+        this.stream = stream;
+        this.buffer = null;
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.maxBatches = pool.getParallelism() * 2;
+    }
+
+    /**
+     * Create reader over bytes between position and limit of the buffer, buffer position is left untouched
+     */
+    public JsonLinesReaderImpl(ByteBuffer buffer) { this(buffer, ParserParallel.sharedPool(), DEFAULT_BATCH_SIZE); }
+
+    public JsonLinesReaderImpl(ByteBuffer buffer, ForkJoinPool pool, int batchSize) {
+        this.stream = null;
+        this.buffer = buffer;
+        this.bufferPosition = buffer.position();
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.maxBatches = pool.getParallelism() * 2;
+    }
+
+    //////////////////////////// INTERFACE /////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public JsonElement nextElement() throws JsonException {
+        if (peeked != null) {
+            final JsonElement element = peeked;
+            peeked = null;
+            return element;
+        }
+        while (current == null || currentIndex >= current.count) {
+            if (current != null) lineBase += current.lines;
+            current = null;
+            fill();
+            if (batches.isEmpty()) return null;
+            current = take(batches.poll());
+            if (current.bytes != null) spare.add(current.bytes);
+            currentIndex = 0;
+            fill();
+        }
+        final int index = currentIndex++;
+        lineNumber = lineBase + current.lineOffsets[index] + 1;
+        if (current.errors != null && current.errors[index] != null)
+            throw new JsonException("Malformed record at line " + lineNumber + ": " + current.errors[index].getMessage());
+        return current.elements[index];
+    }
+
+    @Override
+    public long lineNumber() { return lineNumber; }
+
+    @Override
+    public void readAll(Consumer consumer) throws JsonException {
+        JsonElement element;
+        while ((element = nextElement()) != null) consumer.accept(element);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (peeked != null) return true;
+        try {
+            peeked = nextElement();
+        } catch (JsonException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        return peeked != null;
+    }
+
+    @Override
+    public JsonElement next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        final JsonElement element = peeked;
+        peeked = null;
+        return element;
+    }
+
+    @Override
+    public void remove() { throw new UnsupportedOperationException(); }
+
+    @Override
+    public void close() throws IOException {
+        for (Future<Batch> batch : batches) batch.cancel(false);
+        batches.clear();
+        eof = true;
+        if (stream != null) stream.close();
+    }
+
+    //////////////////////////// BATCHES ///////////////////////////////////////////////////////////////////////////////
+
+    private static class Batch implements Callable<Batch> {
+        private final ByteBuffer buffer;
+        private final byte[] bytes; // array of stream input, null for ByteBuffer input
+        private final int start;
+        private final int end;
+
+        JsonElement[] elements;
+        int[] lineOffsets; // line of each record, counted from the first line of batch
+        JsonException[] errors;
+        int count;
+        int lines;
+
+        Batch(ByteBuffer buffer, int start, int end) {
+            this(buffer, null, start, end);
+        }
+
+        Batch(byte[] bytes, int start, int end) {
+            this(ByteBuffer.wrap(bytes), bytes, start, end);
+        }
+
+        private Batch(ByteBuffer buffer, byte[] bytes, int start, int end) {
+            this.buffer = buffer;
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public Batch call() {
+            final ParserUtf8 parser = parsers.get();
+            final ByteBuffer line = buffer.duplicate();
+            elements = new JsonElement[16];
+            lineOffsets = new int[16];
+            int i = start;
+            while (i < end) {
+                final int lineStart = i;
+                boolean blank = true;
+                while (i < end && buffer.get(i) != '\n') {
+                    switch (buffer.get(i)) {
+                        case ' ': case '\t': case '\r': break;
+                        default: blank = false;
+                    }
+                    i++;
+                }
+                if (!blank) {
+                    if (count == elements.length) grow();
+                    line.clear();
+                    line.position(lineStart);
+                    line.limit(i);
+                    try {
+                        elements[count] = parser.parse(line);
+                    } catch (JsonException e) {
+                        if (errors == null) errors = new JsonException[elements.length];
+                        errors[count] = e;
+                    }
+                    lineOffsets[count++] = lines;
+                }
+                lines++;
+                i++; // '\n'
+            }
+            return this;
+        }
+
+        private void grow() {
+            final int length = elements.length * 2;
+            JsonElement[] newElements = new JsonElement[length];
+            int[] newLineOffsets = new int[length];
+            System.arraycopy(elements, 0, newElements, 0, count);
+            System.arraycopy(lineOffsets, 0, newLineOffsets, 0, count);
+            elements = newElements;
+            lineOffsets = newLineOffsets;
+            if (errors != null) {
+                JsonException[] newErrors = new JsonException[length];
+                System.arraycopy(errors, 0, newErrors, 0, count);
+                errors = newErrors;
+            }
+        }
+    }
+
+    private Batch take(Future<Batch> batch) throws JsonException {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonException("Reading interrupted");
+        } catch (ExecutionException e) {
+            throw new JsonException("Parsing failed: " + e.getCause());
+        }
+    }
+
+    /**
+     * Read and submit batches until maxBatches are in flight or input is over
+     */
+    private void fill() throws JsonException {
+        while (!eof && batches.size() < maxBatches) {
+            final Batch batch = buffer != null ? nextBufferBatch() : nextStreamBatch();
+            if (batch == null) eof = true;
+            else batches.add(pool.submit(batch));
+        }
+    }
+
+    private Batch nextBufferBatch() {
+        final int limit = buffer.limit();
+        if (bufferPosition >= limit) return null;
+        final int start = bufferPosition;
+        int end = Math.min(start + batchSize, limit);
+        while (end < limit && buffer.get(end - 1) != '\n') end++;
+        bufferPosition = end;
+        return new Batch(buffer, start, end);
+    }
+
+    private Batch nextStreamBatch() throws JsonException {
+        int size = Math.max(batchSize, carryLength * 2); // bytes to read before cutting the batch
+        byte[] bytes = spare.poll();
+        if (bytes == null || bytes.length < size) bytes = new byte[size];
+        System.arraycopy(carry, 0, bytes, 0, carryLength);
+        int length = carryLength;
+        int scanned = carryLength; // bytes before it are known to have no line end
+        try {
+            while (true) {
+                int read = 0;
+                while (length < size && (read = stream.read(bytes, length, size - length)) >= 0) length += read;
+                if (read < 0) {
+                    carryLength = 0;
+                    if (length > 0) return new Batch(bytes, 0, length);
+                    spare.add(bytes);
+                    return null;
+                }
+                int lineEnd = length - 1;
+                while (lineEnd >= scanned && bytes[lineEnd] != '\n') lineEnd--;
+                if (lineEnd >= scanned) {
+                    carryLength = length - lineEnd - 1;
+                    if (carry.length < carryLength) carry = new byte[Math.max(carryLength, batchSize)];
+                    System.arraycopy(bytes, lineEnd + 1, carry, 0, carryLength);
+                    return new Batch(bytes, 0, lineEnd + 1);
+                }
+                scanned = length; // line is longer than the batch
+                size *= 2;
+                if (bytes.length < size) {
+                    byte[] newBytes = new byte[size];
+                    System.arraycopy(bytes, 0, newBytes, 0, length);
+                    bytes = newBytes;
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonException("Read error: " + e.getMessage());
+        }
+    }
+}
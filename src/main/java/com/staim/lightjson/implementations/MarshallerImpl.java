@@ -4,6 +4,8 @@ import com.staim.lightjson.*;
 import com.staim.lightjson.annotations.JsonField;
 import com.staim.lightjson.annotations.JsonObject;
 import com.staim.lightjson.implementations.elements.JsonArrayElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleArrayElement;
+import com.staim.lightjson.implementations.elements.JsonLongArrayElement;
 import com.staim.lightjson.implementations.elements.JsonNullElement;
 import com.staim.lightjson.implementations.elements.JsonObjectElement;
 
@@ -35,7 +37,7 @@ public class MarshallerImpl implements JsonMarshaller {
     }
 
     private static JsonElement marshal(Object object) throws JsonException {
-        if (object == null) return new JsonNullElement();
+        if (object == null) return JsonNullElement.NULL;
 
         Class aClass = object.getClass();
         if (!aClass.isAnnotationPresent(JsonObject.class)) throw new JsonException("Class is not annotated as JsonObject");
@@ -69,7 +71,7 @@ public class MarshallerImpl implements JsonMarshaller {
                     field.setAccessible(true);
 
                     if (field.get(object) == null) {
-                        jsonElement.add(name, new JsonNullElement());
+                        jsonElement.add(name, JsonNullElement.NULL);
                         continue;
                     }
 
@@ -125,7 +127,7 @@ public class MarshallerImpl implements JsonMarshaller {
                             } else throw new JsonException("Wrong return type");
                             break;
                         case NULL:
-                            jsonElement.add(jsonName, new JsonNullElement());
+                            jsonElement.add(jsonName, JsonNullElement.NULL);
                             break;
                         case RAW:
                             if (JsonElement.class.isAssignableFrom(fieldType)) {
@@ -186,6 +188,10 @@ public class MarshallerImpl implements JsonMarshaller {
     }
 
     private static JsonElement processArray(Object array, Class<?> componentType) throws JsonException {
+        // primitive Arrays are copied in bulk into packed elements, without boxing items
+        if (componentType == int.class) return JsonLongArrayElement.of((int[])array);
+        if (componentType == long.class) return new JsonLongArrayElement(((long[])array).clone(), ((long[])array).length);
+        if (componentType == double.class) return new JsonDoubleArrayElement(((double[])array).clone(), ((double[])array).length);
         JsonElement jsonElement = new JsonArrayElement();
         int length = Array.getLength(array);
         if (length == 0) return jsonElement;
@@ -0,0 +1,437 @@
+package com.staim.lightjson.implementations;
+
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonToken;
+import com.staim.lightjson.JsonTokenReader;
+import com.staim.lightjson.implementations.parsers.KeyCache;
+import com.staim.lightjson.implementations.parsers.NumberParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming Json Reader Implementation
+ *
+ * Input is read through one fixed-size buffer, which is refilled when exhausted. Strings and numbers, which fit
+ * into the buffer without escapes, are exposed as slices of it, others are copied into a reusable text buffer,
+ * which only grows up to the longest single value. Skipping of containers does not decode anything.
+ */
+public class TokenReaderImpl implements JsonTokenReader {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+
+    private static final int EXPECT_VALUE = 0;          // root value or value after name
+    private static final int EXPECT_FIRST_NAME = 1;     // after '{'
+    private static final int EXPECT_NAME = 2;           // after ',' in Object
+    private static final int EXPECT_FIRST_VALUE = 3;    // after '['
+    private static final int EXPECT_ARRAY_VALUE = 4;    // after ',' in Array
+    private static final int EXPECT_SEPARATOR = 5;      // after value in Object or Array
+
+    private final Reader source;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private long consumed;
+    private boolean eof;
+
+    private byte[] stack = new byte[16];
+    private int depth;
+    private int expect = EXPECT_VALUE;
+    private JsonToken token;
+    private int tokenDepth;
+
+    // text of current token: slice of buffer or of textBuffer
+    private char[] text;
+    private int textStart;
+    private int textLength;
+    private char[] textBuffer = new char[64];
+    private String textString;
+    private final NumberParser numbers = new NumberParser();
+    private boolean booleanValue;
+
+    private final CharSlice slice = new CharSlice();
+
+    private final KeyCache keyCache = KeyCache.local();
+    private char[] nameBuffer = new char[32];
+    private int nameLength;
+    private boolean hasName;
+    private String nameString;
+
+    public TokenReaderImpl(Reader source) { this(source, DEFAULT_BUFFER_SIZE); }
+
+    public TokenReaderImpl(Reader source, int bufferSize) {
+        this.source = source;
+        this.buffer = new char[bufferSize];
+    }
+
+    public TokenReaderImpl(InputStream source) {
+        this(new InputStreamReader(source, StandardCharsets.UTF_8));
+    }
+
+    //////////////////////////// INTERFACE /////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public JsonToken nextToken() throws JsonException {
+        text = null;
+        textString = null;
+        int c = nextSignificant();
+        switch (expect) {
+            case EXPECT_SEPARATOR:
+                if (c == ',') {
+                    position++;
+                    expect = stack[depth - 1] == OBJECT ? EXPECT_NAME : EXPECT_ARRAY_VALUE;
+                    c = nextSignificant();
+                    break;
+                }
+                if (c == '}' || c == ']') return closeContainer(c);
+                throw unexpected(c);
+            case EXPECT_FIRST_NAME:
+                if (c == '}') return closeContainer(c);
+                break;
+            case EXPECT_FIRST_VALUE:
+                if (c == ']') return closeContainer(c);
+                break;
+        }
+
+        if (expect == EXPECT_FIRST_NAME || expect == EXPECT_NAME) {
+            if (c != '"') throw unexpected(c);
+            position++;
+            readString();
+            if (nameBuffer.length < textLength) nameBuffer = new char[Math.max(textLength, nameBuffer.length * 2)];
+            System.arraycopy(text, textStart, nameBuffer, 0, textLength);
+            nameLength = textLength;
+            nameString = null;
+            hasName = true;
+            c = nextSignificant();
+            if (c != ':') throw unexpected(c);
+            position++;
+            expect = EXPECT_VALUE;
+            tokenDepth = depth;
+            return token = JsonToken.NAME;
+        }
+
+        if (expect != EXPECT_VALUE) hasName = false; // Array item
+        tokenDepth = depth;
+        switch (c) {
+            case -1:
+                if (depth == 0) {
+                    hasName = false;
+                    return token = JsonToken.END_DOCUMENT;
+                }
+                throw unexpected(c);
+            case '{':
+                position++;
+                push(OBJECT);
+                expect = EXPECT_FIRST_NAME;
+                return token = JsonToken.START_OBJECT;
+            case '[':
+                position++;
+                push(ARRAY);
+                expect = EXPECT_FIRST_VALUE;
+                return token = JsonToken.START_ARRAY;
+            case '"':
+                position++;
+                readString();
+                return valueDone(JsonToken.STRING);
+            case '-':
+            case '0': case '1': case '2': case '3': case '4':
+            case '5': case '6': case '7': case '8': case '9':
+                readNumber();
+                return valueDone(JsonToken.NUMBER);
+            case 't':
+                readLiteral("true");
+                booleanValue = true;
+                return valueDone(JsonToken.BOOLEAN);
+            case 'f':
+                readLiteral("false");
+                booleanValue = false;
+                return valueDone(JsonToken.BOOLEAN);
+            case 'n':
+                readLiteral("null");
+                return valueDone(JsonToken.NULL);
+            default:
+                throw unexpected(c);
+        }
+    }
+
+    @Override public JsonToken currentToken() { return token; }
+    @Override public int depth() { return tokenDepth; }
+
+    @Override
+    public String currentName() {
+        if (!hasName) return null;
+        if (nameString == null) nameString = keyCache.get(nameBuffer, 0, nameLength);
+        return nameString;
+    }
+
+    @Override
+    public String getString() throws JsonException {
+        if (token == JsonToken.NAME) return currentName();
+        if (text == null) throw new JsonException("Current token " + token + " has no text");
+        if (textString == null) textString = new String(text, textStart, textLength);
+        return textString;
+    }
+
+    @Override
+    public CharSequence getText() throws JsonException {
+        if (token == JsonToken.NAME) return slice.set(nameBuffer, 0, nameLength);
+        if (text == null) throw new JsonException("Current token " + token + " has no text");
+        return slice.set(text, textStart, textLength);
+    }
+
+    @Override
+    public boolean isIntegral() throws JsonException {
+        checkToken(JsonToken.NUMBER);
+        return numbers.isLong();
+    }
+
+    @Override
+    public long getLong() throws JsonException {
+        checkToken(JsonToken.NUMBER);
+        if (numbers.isLong()) return numbers.longValue();
+        final double value = numbers.doubleValue(); // e.g. 1.0 or 1e3, exact long values only
+        if (value >= 0x1p63 || value < -0x1p63 || value != Math.rint(value)) throw new JsonException("Number " + getString() + " is not a long value");
+        return (long)value;
+    }
+
+    @Override
+    public double getDouble() throws JsonException {
+        checkToken(JsonToken.NUMBER);
+        return numbers.doubleValue();
+    }
+
+    @Override
+    public Number getNumber() throws JsonException {
+        checkToken(JsonToken.NUMBER);
+        return numbers.numberValue();
+    }
+
+    @Override
+    public boolean getBoolean() throws JsonException {
+        checkToken(JsonToken.BOOLEAN);
+        return booleanValue;
+    }
+
+    @Override
+    public void skipChildren() throws JsonException {
+        if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) return;
+        int level = 1;
+        boolean inString = false;
+        boolean escaped = false;
+        while (true) {
+            if (position >= limit && !fill()) throw unexpected(-1);
+            final char[] buffer = this.buffer;
+            final int limit = this.limit;
+            int i = position;
+            while (i < limit) {
+                final char c = buffer[i++];
+                if (inString) {
+                    if (escaped) escaped = false;
+                    else if (c == '\\') escaped = true;
+                    else if (c == '"') inString = false;
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    level++;
+                } else if (c == '}' || c == ']') {
+                    if (--level == 0) {
+                        position = i - 1;
+                        closeContainer(c);
+                        return;
+                    }
+                }
+            }
+            position = i;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    //////////////////////////// READING ///////////////////////////////////////////////////////////////////////////////
+
+    private boolean fill() throws JsonException {
+        if (eof) return false;
+        consumed += limit;
+        position = 0;
+        limit = 0;
+        try {
+            int count;
+            do { count = source.read(buffer, 0, buffer.length); } while (count == 0);
+            if (count < 0) {
+                eof = true;
+                return false;
+            }
+            limit = count;
+            if (consumed == 0 && buffer[0] == '\uFEFF') position = 1; // Byte Order Mark
+            return true;
+        } catch (IOException e) {
+            throw new JsonException("Read error: " + e.getMessage());
+        }
+    }
+
+    private int nextSignificant() throws JsonException {
+        while (true) {
+            if (position >= limit && !fill()) return -1;
+            final char c = buffer[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return c;
+            position++;
+        }
+    }
+
+    private char readChar() throws JsonException {
+        if (position >= limit && !fill()) throw unexpected(-1);
+        return buffer[position++];
+    }
+
+    private JsonException unexpected(int c) {
+        if (c < 0) return new JsonException("Unexpected End of Json");
+        return new JsonException("Unexpected symbol: '" + (char)c + "' at position " + (consumed + position));
+    }
+
+    private void checkToken(JsonToken expected) throws JsonException {
+        if (token != expected) throw new JsonException("Current token " + token + " is not " + expected);
+    }
+
+    private void push(byte container) {
+        if (depth == stack.length) {
+            byte[] newStack = new byte[stack.length * 2];
+            System.arraycopy(stack, 0, newStack, 0, depth);
+            stack = newStack;
+        }
+        stack[depth++] = container;
+    }
+
+    private JsonToken closeContainer(int c) throws JsonException {
+        final byte container = stack[depth - 1];
+        if ((c == '}' && container != OBJECT) || (c == ']' && container != ARRAY)) throw unexpected(c);
+        position++;
+        depth--;
+        tokenDepth = depth;
+        hasName = false;
+        return valueDone(container == OBJECT ? JsonToken.END_OBJECT : JsonToken.END_ARRAY);
+    }
+
+    private JsonToken valueDone(JsonToken valueToken) {
+        expect = depth == 0 ? EXPECT_VALUE : EXPECT_SEPARATOR;
+        return token = valueToken;
+    }
+
+    private void ensureText(int capacity) {
+        if (textBuffer.length >= capacity) return;
+        char[] newBuffer = new char[Math.max(capacity, textBuffer.length * 2)];
+        System.arraycopy(textBuffer, 0, newBuffer, 0, textBuffer.length);
+        textBuffer = newBuffer;
+    }
+
+    /**
+     * Read String after opening quote into text
+     */
+    private void readString() throws JsonException {
+        for (int i = position; i < limit; i++) {
+            final char c = buffer[i];
+            if (c == '"') {
+                text = buffer;
+                textStart = position;
+                textLength = i - position;
+                position = i + 1;
+                return;
+            }
+            if (c == '\\') break;
+        }
+
+        int length = 0;
+        while (true) {
+            if (position >= limit && !fill()) throw unexpected(-1);
+            final int start = position;
+            while (position < limit) {
+                final char c = buffer[position];
+                if (c == '"' || c == '\\') break;
+                position++;
+            }
+            final int run = position - start;
+            if (run > 0) {
+                ensureText(length + run);
+                System.arraycopy(buffer, start, textBuffer, length, run);
+                length += run;
+            }
+            if (position >= limit) continue;
+            final char c = buffer[position++];
+            if (c == '"') break;
+            ensureText(length + 1);
+            textBuffer[length++] = readEscape();
+        }
+        text = textBuffer;
+        textStart = 0;
+        textLength = length;
+    }
+
+    private char readEscape() throws JsonException {
+        final char c = readChar();
+        switch (c) {
+            case '"': return '"';
+            case '\\': return '\\';
+            case '/': return '/';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    final int digit = Character.digit(readChar(), 16);
+                    if (digit < 0) throw new JsonException("Wrong unicode escape at position " + (consumed + position - 1));
+                    code = (code << 4) | digit;
+                }
+                return (char)code;
+            default:
+                throw new JsonException("Wrong escape sequence at position " + (consumed + position - 1));
+        }
+    }
+
+    private static boolean isNumberChar(char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private void readNumber() throws JsonException {
+        final int start = position;
+        int i = position;
+        while (i < limit && isNumberChar(buffer[i])) i++;
+        if (i < limit || eof) {
+            text = buffer;
+            textStart = start;
+            textLength = i - start;
+            position = i;
+        } else { // number crosses buffer boundary
+            int length = 0;
+            while (true) {
+                if (position >= limit && !fill()) break;
+                final char c = buffer[position];
+                if (!isNumberChar(c)) break;
+                ensureText(length + 1);
+                textBuffer[length++] = c;
+                position++;
+            }
+            text = textBuffer;
+            textStart = 0;
+            textLength = length;
+        }
+        if (numbers.scan(text, textStart, textStart + textLength) != textStart + textLength)
+            throw new JsonException("Malformed number: " + new String(text, textStart, textLength) + " at position " + (consumed + position - textLength));
+    }
+
+    private void readLiteral(String literal) throws JsonException {
+        for (int i = 0, length = literal.length(); i < length; i++) {
+            final char c = readChar();
+            if (c != literal.charAt(i)) throw unexpected(c);
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.staim.lightjson.implementations;
 import com.staim.lightjson.*;
 import com.staim.lightjson.annotations.JsonField;
 import com.staim.lightjson.annotations.JsonObject;
+import com.staim.lightjson.implementations.elements.JsonDoubleArrayElement;
+import com.staim.lightjson.implementations.elements.JsonLongArrayElement;
+import com.staim.lightjson.implementations.parsers.NumberParser;
 
 import java.lang.reflect.*;
 import java.text.ParseException;
@@ -120,14 +123,7 @@ public class UnmarshallerImpl implements JsonUnmarshaller {
                             switch (numberElement.getType()) {
                                 case STRING: {
                                     String stringData = jsonElement.get(jsonName).getData(String.class);
-                                    try {
-                                        if (stringData != null && !stringData.isEmpty()) {
-                                            if (stringData.contains(".") || stringData.contains(","))
-                                                numberData = Double.parseDouble(stringData);
-                                            else
-                                                numberData = Long.parseLong(stringData);
-                                        }
-                                    } catch (NumberFormatException ignored) {}
+                                    if (stringData != null) numberData = NumberParser.parseText(stringData);
                                     break;
                                 }
                                 case NUMBER: numberData = numberElement.getData(Number.class); break;
@@ -272,6 +268,8 @@ public class UnmarshallerImpl implements JsonUnmarshaller {
 
     private static Object processJsonArray(JsonElement jsonElement, Class<?> componentType) throws JsonException, IllegalAccessException, InstantiationException {
         if (jsonElement.getType() != JsonType.ARRAY) throw new JsonException("Json Element is not Array");
+        if (componentType == int.class || componentType == long.class || componentType == double.class)
+            return processJsonPrimitiveArray(jsonElement, componentType);
         Object array = Array.newInstance(componentType, jsonElement.size());
 
         Iterator<JsonElement> it = jsonElement.iterator();
@@ -280,6 +278,40 @@ public class UnmarshallerImpl implements JsonUnmarshaller {
         return array;
     }
 
+    /**
+     * Bulk copy of Numbers to int[], long[] or double[]: packed Arrays are converted from their storage,
+     * other Arrays are read item by item without boxing
+     */
+    private static Object processJsonPrimitiveArray(JsonElement jsonElement, Class<?> componentType) throws JsonException {
+        if (jsonElement instanceof JsonLongArrayElement && ((JsonLongArrayElement)jsonElement).isPacked()) {
+            final JsonLongArrayElement packed = (JsonLongArrayElement)jsonElement;
+            if (componentType == int.class) return packed.toIntArray();
+            if (componentType == long.class) return packed.toLongArray();
+            return packed.toDoubleArray();
+        }
+        if (jsonElement instanceof JsonDoubleArrayElement && ((JsonDoubleArrayElement)jsonElement).isPacked()) {
+            final JsonDoubleArrayElement packed = (JsonDoubleArrayElement)jsonElement;
+            if (componentType == int.class) return packed.toIntArray();
+            if (componentType == long.class) return packed.toLongArray();
+            return packed.toDoubleArray();
+        }
+        final int size = jsonElement.size();
+        final Iterator<JsonElement> it = jsonElement.iterator();
+        if (componentType == int.class) {
+            final int[] array = new int[size];
+            for (int i = 0; i < size; i++) array[i] = (int)it.next().getLong();
+            return array;
+        }
+        if (componentType == long.class) {
+            final long[] array = new long[size];
+            for (int i = 0; i < size; i++) array[i] = it.next().getLong();
+            return array;
+        }
+        final double[] array = new double[size];
+        for (int i = 0; i < size; i++) array[i] = it.next().getDouble();
+        return array;
+    }
+
     private static Map processJsonAsMap(JsonElement jsonElement, Class<?> mapClass, Class<?> valueClass) throws JsonException, IllegalAccessException, InstantiationException {
         Map map;
         if (mapClass.isInterface()) {
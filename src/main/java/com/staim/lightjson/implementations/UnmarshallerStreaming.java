@@ -0,0 +1,627 @@
+package com.staim.lightjson.implementations;
+
+import com.staim.lightjson.*;
+import com.staim.lightjson.annotations.JsonField;
+import com.staim.lightjson.annotations.JsonObject;
+import com.staim.lightjson.implementations.parsers.NumberParser;
+import com.staim.lightjson.implementations.parsers.ParserStreaming;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.*;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming JSON Unmarshaller: binds Json directly to @JsonObject classes while reading tokens
+ *
+ * No Json Element tree is built. Field bindings are resolved once per class and cached, names are looked up
+ * from token text without creating Strings, numbers and booleans go into primitive fields (and primitive arrays)
+ * without boxing, values of unknown keys are skipped. Binding rules are the same as in UnmarshallerImpl, except
+ * that null or missing values leave primitive fields untouched.
+ */
+@SuppressWarnings("unchecked")
+public class UnmarshallerStreaming implements JsonUnmarshaller {
+    private static final ConcurrentHashMap<Class<?>, ClassBinding> bindings = new ConcurrentHashMap<>();
+
+    // kinds of binding targets
+    private static final int INT = 0;
+    private static final int LONG = 1;
+    private static final int DOUBLE = 2;
+    private static final int FLOAT = 3;
+    private static final int BOOLEAN = 4;
+    private static final int INTEGER_BOXED = 5;
+    private static final int LONG_BOXED = 6;
+    private static final int DOUBLE_BOXED = 7;
+    private static final int FLOAT_BOXED = 8;
+    private static final int BOOLEAN_BOXED = 9;
+    private static final int NUMBER = 10;     // any other Number class, value is kept as parsed
+    private static final int STRING = 11;
+    private static final int DATE = 12;
+    private static final int DATA = 13;       // raw data of the value: String, Number, Boolean, Map or List
+    private static final int BEAN = 14;
+    private static final int MAP = 15;
+    private static final int ARRAY = 16;
+    private static final int COLLECTION = 17;
+    private static final int RAW = 18;
+    private static final int NULL = 19;
+    private static final int ERROR = 20;      // unsupported binding, reported when non-null value is met
+
+    private final JsonTokenReader reader;
+    private final String string;
+    private JsonElement element;
+
+    public UnmarshallerStreaming(String string) {
+        this.reader = new TokenReaderImpl(new StringReader(string), Math.max(16, Math.min(string.length(), TokenReaderImpl.DEFAULT_BUFFER_SIZE)));
+        this.string = string;
+    }
+
+    public UnmarshallerStreaming(Reader reader) {
+        this.reader = new TokenReaderImpl(reader);
+        this.string = null;
+    }
+
+    public UnmarshallerStreaming(InputStream stream) {
+        this.reader = new TokenReaderImpl(stream);
+        this.string = null;
+    }
+
+    @Override
+    public <T> T unmarshal(Class<T> unmarshalClass) throws JsonException {
+        final ClassBinding binding = binding(unmarshalClass);
+        if (reader.nextToken() == JsonToken.END_DOCUMENT) throw new JsonException("Unexpected End of Json");
+        if (reader.currentToken() != JsonToken.START_OBJECT) throw new JsonException("Json Element is not Object");
+        try {
+            final T object = (T)readBean(reader, binding);
+            if (reader.nextToken() != JsonToken.END_DOCUMENT) throw new JsonException("Unexpected " + reader.currentToken() + " after end of Json");
+            return object;
+        } catch (IllegalAccessException e) {
+            throw new JsonException("Illegal Access problem: " + e.getMessage());
+        } catch (InstantiationException e) {
+            throw new JsonException("Unable to create instance: " + e.getMessage());
+        } catch (InvocationTargetException e) {
+            throw new JsonException("Invocation Target Problem: " + e.getMessage());
+        } catch (IllegalArgumentException | ClassCastException | ArrayStoreException e) {
+            throw new JsonException("Class Cast Problem: " + e.getMessage());
+        }
+    }
+
+    /**
+     * No tree is built while unmarshalling, so String source is parsed again on request
+     * @return Json Element of String source, null for Reader and InputStream sources or when parsing was unsuccessful
+     */
+    @Override
+    public JsonElement getElement() {
+        if (element == null && string != null) {
+            try {
+                element = new ParserStreaming().parse(string);
+            } catch (JsonException ignored) {}
+        }
+        return element;
+    }
+
+    //////////////////////////// BINDINGS //////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Type of value to bind: kind with nested target for items of Arrays, Collections and Maps
+     */
+    private static final class Target {
+        final int kind;
+        final Class<?> type;
+        final Target item;
+        final Constructor<?> constructor; // of concrete Map and Collection classes
+        final String error;
+
+        Target(int kind, Class<?> type, Target item) { this(kind, type, item, null); }
+
+        Target(int kind, Class<?> type, Target item, Constructor<?> constructor) {
+            this.kind = kind;
+            this.type = type;
+            this.item = item;
+            this.constructor = constructor;
+            this.error = null;
+        }
+
+        Target(String error) {
+            this.kind = ERROR;
+            this.type = null;
+            this.item = null;
+            this.constructor = null;
+            this.error = error;
+        }
+
+        boolean isPrimitive() { return kind <= BOOLEAN; }
+    }
+
+    private static final class FieldBinding {
+        final String name;
+        final int hash;
+        final int index;
+        final Field field;
+        final Target target;
+        FieldBinding next; // another field bound to the same name
+
+        FieldBinding(String name, int index, Field field, Target target) {
+            this.name = name;
+            this.hash = name.hashCode();
+            this.index = index;
+            this.field = field;
+            this.target = target;
+        }
+    }
+
+    private static final class ClassBinding {
+        final Constructor<?> constructor;
+        final FieldBinding[] fields;
+        final FieldBinding[] table; // open addressing by String hash of name
+        final int mask;
+
+        ClassBinding(Constructor<?> constructor, List<FieldBinding> fields) {
+            this.constructor = constructor;
+            this.fields = fields.toArray(new FieldBinding[fields.size()]);
+            int size = 4;
+            while (size < fields.size() * 2) size <<= 1;
+            this.table = new FieldBinding[size];
+            this.mask = size - 1;
+            for (FieldBinding field : this.fields) {
+                int i = field.hash & mask;
+                while (table[i] != null && !table[i].name.equals(field.name)) i = (i + 1) & mask;
+                if (table[i] == null) table[i] = field;
+                else {
+                    FieldBinding last = table[i];
+                    while (last.next != null) last = last.next;
+                    last.next = field;
+                }
+            }
+        }
+
+        FieldBinding find(CharSequence name) {
+            final int length = name.length();
+            int hash = 0;
+            if (name instanceof CharSlice) {
+                final CharSlice slice = (CharSlice)name;
+                final char[] chars = slice.array();
+                for (int i = slice.offset(), end = i + length; i < end; i++) hash = 31 * hash + chars[i];
+            } else {
+                for (int i = 0; i < length; i++) hash = 31 * hash + name.charAt(i);
+            }
+            int i = hash & mask;
+            FieldBinding field;
+            while ((field = table[i]) != null) {
+                if (field.hash == hash && (name instanceof CharSlice ? ((CharSlice)name).contentEquals(field.name) : field.name.contentEquals(name)))
+                    return field;
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    private static ClassBinding binding(Class<?> aClass) throws JsonException {
+        ClassBinding binding = bindings.get(aClass);
+        if (binding == null) {
+            binding = createBinding(aClass);
+            final ClassBinding existing = bindings.putIfAbsent(aClass, binding);
+            if (existing != null) binding = existing;
+        }
+        return binding;
+    }
+
+    private static ClassBinding createBinding(Class<?> aClass) throws JsonException {
+        if (!aClass.isAnnotationPresent(JsonObject.class))
+            throw new JsonException("Class is not annotated as JsonObject");
+        final boolean isAutomaticBinding = aClass.getAnnotation(JsonObject.class).AutomaticBinding();
+
+        final Constructor<?> constructor;
+        try {
+            constructor = aClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new JsonException("No such method problem: " + e.getMessage());
+        }
+
+        final List<FieldBinding> fields = new ArrayList<>();
+        for (Field field : aClass.getDeclaredFields()) {
+            JsonType type;
+            String jsonName = "";
+            if (field.isAnnotationPresent(JsonField.class)) {
+                JsonField annotation = field.getAnnotation(JsonField.class);
+                type = annotation.type();
+                jsonName = annotation.name();
+            } else if (isAutomaticBinding) {
+                type = JsonType.ANY;
+            } else continue;
+            if (type == null) continue;
+
+            if (jsonName.isEmpty()) jsonName = field.getName();
+            final Class<?> fieldType = field.getType();
+            if (type == JsonType.ANY) {
+                try { type = typeForClass(fieldType); }
+                catch (UnsupportedOperationException e) { continue; }
+            }
+            field.setAccessible(true);
+            fields.add(new FieldBinding(jsonName, fields.size(), field, fieldTarget(field, type, jsonName)));
+        }
+        return new ClassBinding(constructor, fields);
+    }
+
+    private static Target fieldTarget(Field field, JsonType type, String jsonName) {
+        final Class<?> fieldType = field.getType();
+        switch (type) {
+            case ARRAY:
+                if (fieldType.isArray())
+                    return new Target(ARRAY, fieldType.getComponentType(), itemTarget(fieldType.getComponentType()));
+                if (Collection.class.isAssignableFrom(fieldType)) {
+                    final Type generic = field.getGenericType();
+                    if (!(generic instanceof ParameterizedType) || !(((ParameterizedType)generic).getActualTypeArguments()[0] instanceof Class))
+                        return new Target("Class Cast Problem: no item class of field " + jsonName);
+                    final Class<?> itemClass = (Class<?>)((ParameterizedType)generic).getActualTypeArguments()[0];
+                    return containerTarget(COLLECTION, fieldType, itemTarget(itemClass));
+                }
+                return new Target("Wrong return type in field: " + jsonName);
+            case OBJECT:
+                if (Map.class.isAssignableFrom(fieldType)) {
+                    final Type generic = field.getGenericType();
+                    if (!(generic instanceof ParameterizedType))
+                        return new Target("Class Cast Problem: no value class of field " + jsonName);
+                    final Type[] arguments = ((ParameterizedType)generic).getActualTypeArguments();
+                    if (!String.class.equals(arguments[0])) return new Target("Map fields must have string key types");
+                    if (!(arguments[1] instanceof Class)) return new Target("Class Cast Problem: no value class of field " + jsonName);
+                    return containerTarget(MAP, fieldType, itemTarget((Class<?>)arguments[1]));
+                }
+                if (fieldType.isAnnotationPresent(JsonObject.class)) return new Target(BEAN, fieldType, null);
+                return new Target("Wrong return type in field: " + jsonName);
+            case STRING:
+                if (String.class.isAssignableFrom(fieldType)) return new Target(STRING, fieldType, null);
+                return new Target("Wrong parameter type in field: " + jsonName);
+            case NUMBER:
+                if (Number.class.isAssignableFrom(fieldType) && numberKind(fieldType) == NUMBER)
+                    return new Target("Wrong number format in field: " + jsonName);
+                final int kind = numberKind(fieldType);
+                if (kind < 0) return new Target("Wrong parameter type in field: " + jsonName);
+                return new Target(kind, fieldType, null);
+            case BOOLEAN:
+                if (boolean.class.equals(fieldType)) return new Target(BOOLEAN, fieldType, null);
+                if (Boolean.class.isAssignableFrom(fieldType)) return new Target(BOOLEAN_BOXED, fieldType, null);
+                return new Target("Wrong parameter type in field: " + jsonName);
+            case DATE:
+                if (Date.class.isAssignableFrom(fieldType)) return new Target(DATE, fieldType, null);
+                return new Target("Wrong parameter type in field: " + jsonName);
+            case NULL:
+                return new Target(NULL, fieldType, null);
+            case RAW:
+                if (JsonElement.class.isAssignableFrom(fieldType)) return new Target(RAW, fieldType, null);
+                return new Target("Raw field: " + jsonName + " must be a subtype of JsonElement");
+            default:
+                return new Target("Wrong parameter type in field: " + jsonName);
+        }
+    }
+
+    /**
+     * Target of Array, Collection or Map item, same rules as UnmarshallerImpl.getSubObject
+     */
+    private static Target itemTarget(Class<?> itemClass) {
+        final JsonType type;
+        try { type = typeForClass(itemClass); }
+        catch (UnsupportedOperationException e) { return new Target("Unsupported Value Class"); }
+        switch (type) {
+            case ARRAY:
+                return new Target("Lists of Lists are not supported at the moment");
+            case OBJECT:
+                if (!Map.class.isAssignableFrom(itemClass)) return new Target(BEAN, itemClass, null);
+                Type superclass = itemClass.getGenericSuperclass();
+                if (!(superclass instanceof ParameterizedType) && itemClass.getSuperclass() != null)
+                    superclass = itemClass.getSuperclass().getGenericSuperclass();
+                if (!(superclass instanceof ParameterizedType)) return new Target("Class Cast Problem: no value class of " + itemClass.getName());
+                final Type[] arguments = ((ParameterizedType)superclass).getActualTypeArguments();
+                if (!String.class.equals(arguments[0])) return new Target("Map fields must have string key types");
+                if (!(arguments[1] instanceof Class)) return new Target("Class Cast Problem: no value class of " + itemClass.getName());
+                return containerTarget(MAP, itemClass, itemTarget((Class<?>)arguments[1]));
+            case NUMBER:
+                return new Target(numberKind(itemClass), itemClass, null);
+            default:
+                return new Target(DATA, itemClass, null);
+        }
+    }
+
+    /**
+     * Target of Map or Collection, constructor of concrete class is resolved once here
+     */
+    private static Target containerTarget(int kind, Class<?> type, Target item) {
+        if (type.isInterface()) return new Target(kind, type, item);
+        try {
+            final Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return new Target(kind, type, item, constructor);
+        } catch (NoSuchMethodException e) {
+            return new Target("No such method problem: " + e.getMessage());
+        }
+    }
+
+    private static int numberKind(Class<?> aClass) {
+        if (int.class.equals(aClass)) return INT;
+        if (long.class.equals(aClass)) return LONG;
+        if (double.class.equals(aClass)) return DOUBLE;
+        if (float.class.equals(aClass)) return FLOAT;
+        if (Integer.class.equals(aClass)) return INTEGER_BOXED;
+        if (Long.class.equals(aClass)) return LONG_BOXED;
+        if (Double.class.equals(aClass)) return DOUBLE_BOXED;
+        if (Float.class.equals(aClass)) return FLOAT_BOXED;
+        if (Number.class.isAssignableFrom(aClass)) return NUMBER;
+        return -1;
+    }
+
+    private static JsonType typeForClass(Class<?> aClass) {
+        if (Number.class.isAssignableFrom(aClass) || int.class.equals(aClass) || long.class.equals(aClass) || float.class.equals(aClass) || double.class.equals(aClass))
+            return JsonType.NUMBER;
+        if (String.class.isAssignableFrom(aClass)) return JsonType.STRING;
+        if (boolean.class.equals(aClass) || Boolean.class.isAssignableFrom(aClass)) return JsonType.BOOLEAN;
+        if (aClass.isArray() || Collection.class.isAssignableFrom(aClass)) return JsonType.ARRAY;
+        if (Date.class.isAssignableFrom(aClass)) return JsonType.DATE;
+        if (Map.class.isAssignableFrom(aClass) || aClass.isAnnotationPresent(JsonObject.class)) return JsonType.OBJECT;
+        throw new UnsupportedOperationException();
+    }
+
+    //////////////////////////// READING ///////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Read Object into new instance of bound class, current token is START_OBJECT
+     */
+    private static Object readBean(JsonTokenReader reader, ClassBinding binding) throws JsonException, IllegalAccessException, InstantiationException, InvocationTargetException {
+        final Object object = binding.constructor.newInstance();
+        final FieldBinding[] fields = binding.fields;
+        final long[] seen = new long[(fields.length + 63) >>> 6];
+        while (reader.nextToken() == JsonToken.NAME) {
+            FieldBinding field = binding.find(reader.getText());
+            reader.nextToken();
+            if (field == null) {
+                reader.skipChildren();
+                continue;
+            }
+            if (field.next == null) {
+                seen[field.index >>> 6] |= 1L << field.index;
+                readField(reader, object, field);
+                continue;
+            }
+            // several fields bound to the same name: read value once as a tree
+            final JsonElement value = ParserStreaming.readElement(reader);
+            for (; field != null; field = field.next) {
+                seen[field.index >>> 6] |= 1L << field.index;
+                final JsonTokenReader valueReader = new ElementTokenReader(value);
+                valueReader.nextToken();
+                readField(valueReader, object, field);
+            }
+        }
+        for (FieldBinding field : fields)
+            if ((seen[field.index >>> 6] & (1L << field.index)) == 0 && !field.target.isPrimitive())
+                field.field.set(object, null);
+        return object;
+    }
+
+    /**
+     * Read the current value into field, primitives are set without boxing
+     */
+    private static void readField(JsonTokenReader reader, Object object, FieldBinding binding) throws JsonException, IllegalAccessException, InstantiationException, InvocationTargetException {
+        final Field field = binding.field;
+        final Target target = binding.target;
+        final JsonToken token = reader.currentToken();
+        if (token == JsonToken.NULL) {
+            if (!target.isPrimitive()) field.set(object, null);
+            return;
+        }
+        switch (target.kind) {
+            case INT:
+            case LONG:
+            case DOUBLE:
+            case FLOAT:
+                if (token == JsonToken.STRING) {
+                    final Number number = NumberParser.parseText(reader.getString());
+                    if (number == null) throw new JsonException("No number data in field: " + binding.name);
+                    field.set(object, convertNumber(number, target.kind));
+                } else if (token != JsonToken.NUMBER) {
+                    throw new JsonException("No number data in field: " + binding.name);
+                } else if (target.kind == INT) {
+                    field.setInt(object, reader.isIntegral() ? (int)reader.getLong() : (int)reader.getDouble());
+                } else if (target.kind == LONG) {
+                    field.setLong(object, reader.isIntegral() ? reader.getLong() : (long)reader.getDouble());
+                } else if (target.kind == DOUBLE) {
+                    field.setDouble(object, reader.getDouble());
+                } else {
+                    field.setFloat(object, reader.isIntegral() ? (float)reader.getLong() : (float)reader.getDouble());
+                }
+                return;
+            case BOOLEAN:
+                if (token == JsonToken.BOOLEAN) field.setBoolean(object, reader.getBoolean());
+                else {
+                    final Boolean bool = readBoolean(reader);
+                    if (bool != null) field.setBoolean(object, bool);
+                }
+                return;
+            default:
+                field.set(object, readValue(reader, target));
+        }
+    }
+
+    /**
+     * Read the current value as Object of target type, current token is the last token of value after return
+     */
+    private static Object readValue(JsonTokenReader reader, Target target) throws JsonException, IllegalAccessException, InstantiationException, InvocationTargetException {
+        final JsonToken token = reader.currentToken();
+        if (token == JsonToken.NULL) return null;
+        switch (target.kind) {
+            case INT: case LONG: case DOUBLE: case FLOAT:
+            case INTEGER_BOXED: case LONG_BOXED: case DOUBLE_BOXED: case FLOAT_BOXED: case NUMBER:
+                return convertNumber(readNumber(reader), target.kind);
+            case BOOLEAN:
+            case BOOLEAN_BOXED:
+                return readBoolean(reader);
+            case STRING:
+                if (token == JsonToken.STRING || token == JsonToken.NUMBER) return reader.getString();
+                if (token == JsonToken.BOOLEAN) return reader.getBoolean() ? "true" : "false";
+                return ParserStreaming.readElement(reader).getData().toString();
+            case DATE:
+                if (token != JsonToken.STRING) {
+                    reader.skipChildren();
+                    return null;
+                }
+                try { return (new SimpleDateFormat()).parse(reader.getString()); }
+                catch (ParseException ignored) { return null; }
+            case DATA:
+                switch (token) {
+                    case STRING: return reader.getString();
+                    case NUMBER: return reader.getNumber();
+                    case BOOLEAN: return reader.getBoolean();
+                    default: return ParserStreaming.readElement(reader).getData();
+                }
+            case BEAN:
+                if (token != JsonToken.START_OBJECT) throw new JsonException("Json Element is not Object");
+                return readBean(reader, binding(target.type));
+            case MAP:
+                return readMap(reader, target);
+            case ARRAY:
+                return readArray(reader, target);
+            case COLLECTION:
+                return readCollection(reader, target);
+            case RAW:
+                return ParserStreaming.readElement(reader);
+            case NULL:
+                reader.skipChildren();
+                return null;
+            default:
+                throw new JsonException(target.error);
+        }
+    }
+
+    private static Number readNumber(JsonTokenReader reader) throws JsonException {
+        switch (reader.currentToken()) {
+            case NUMBER:
+                return reader.getNumber();
+            case STRING:
+                return NumberParser.parseText(reader.getString());
+            default:
+                reader.skipChildren();
+                return null;
+        }
+    }
+
+    private static Object convertNumber(Number number, int kind) {
+        if (number == null) return null;
+        switch (kind) {
+            case INT: case INTEGER_BOXED: return number.intValue();
+            case LONG: case LONG_BOXED: return number.longValue();
+            case DOUBLE: case DOUBLE_BOXED: return number.doubleValue();
+            case FLOAT: case FLOAT_BOXED: return number.floatValue();
+            default: return number;
+        }
+    }
+
+    private static Boolean readBoolean(JsonTokenReader reader) throws JsonException {
+        switch (reader.currentToken()) {
+            case BOOLEAN:
+                return reader.getBoolean();
+            case STRING: {
+                final CharSequence text = reader.getText();
+                if (equalsIgnoreCase(text, "true") || equalsIgnoreCase(text, "yes")) return true;
+                if (equalsIgnoreCase(text, "false") || equalsIgnoreCase(text, "no")) return false;
+                return null;
+            }
+            default:
+                reader.skipChildren();
+                return null;
+        }
+    }
+
+    private static boolean equalsIgnoreCase(CharSequence text, String string) {
+        final int length = string.length();
+        if (text.length() != length) return false;
+        for (int i = 0; i < length; i++)
+            if (Character.toLowerCase(text.charAt(i)) != string.charAt(i)) return false;
+        return true;
+    }
+
+    private static Map readMap(JsonTokenReader reader, Target target) throws JsonException, IllegalAccessException, InstantiationException, InvocationTargetException {
+        if (reader.currentToken() != JsonToken.START_OBJECT) throw new JsonException("Json Element is not Object");
+        final Map map;
+        if (target.type.isInterface()) {
+            if (target.type.isAssignableFrom(HashMap.class)) map = new HashMap();
+            else throw new JsonException("Unsupported collection type");
+        } else map = (Map)target.constructor.newInstance();
+        while (reader.nextToken() == JsonToken.NAME) {
+            final String name = reader.currentName();
+            reader.nextToken();
+            map.put(name, readValue(reader, target.item));
+        }
+        return map;
+    }
+
+    private static Collection readCollection(JsonTokenReader reader, Target target) throws JsonException, IllegalAccessException, InstantiationException, InvocationTargetException {
+        if (reader.currentToken() != JsonToken.START_ARRAY) throw new JsonException("Json Element is not Array");
+        final Collection collection;
+        if (target.type.isInterface()) {
+            if (target.type.isAssignableFrom(ArrayList.class)) collection = new ArrayList();
+            else throw new JsonException("Unsupported collection type");
+        } else collection = (Collection)target.constructor.newInstance();
+        while (reader.nextToken() != JsonToken.END_ARRAY) collection.add(readValue(reader, target.item));
+        return collection;
+    }
+
+    /**
+     * Read Java array, items of primitive component types are collected in primitive buffers
+     */
+    private static Object readArray(JsonTokenReader reader, Target target) throws JsonException, IllegalAccessException, InstantiationException, InvocationTargetException {
+        if (reader.currentToken() != JsonToken.START_ARRAY) throw new JsonException("Json Element is not Array");
+        final Target item = target.item;
+        switch (item.kind) {
+            case INT: case LONG: case BOOLEAN: {
+                long[] values = new long[16];
+                int size = 0;
+                while (reader.nextToken() != JsonToken.END_ARRAY) {
+                    if (size == values.length) values = Arrays.copyOf(values, size * 2);
+                    final JsonToken token = reader.currentToken();
+                    if (token == JsonToken.NUMBER && item.kind != BOOLEAN)
+                        values[size++] = reader.isIntegral() ? reader.getLong() : (long)reader.getDouble();
+                    else if (token == JsonToken.BOOLEAN && item.kind == BOOLEAN)
+                        values[size++] = reader.getBoolean() ? 1 : 0;
+                    else {
+                        final Object value = readValue(reader, item);
+                        values[size++] = value == null ? 0 : value instanceof Boolean ? ((Boolean)value ? 1 : 0) : ((Number)value).longValue();
+                    }
+                }
+                if (item.kind == BOOLEAN) {
+                    final boolean[] array = new boolean[size];
+                    for (int i = 0; i < size; i++) array[i] = values[i] != 0;
+                    return array;
+                }
+                if (item.kind == LONG) return Arrays.copyOf(values, size);
+                final int[] array = new int[size];
+                for (int i = 0; i < size; i++) array[i] = (int)values[i];
+                return array;
+            }
+            case DOUBLE: case FLOAT: {
+                double[] values = new double[16];
+                int size = 0;
+                while (reader.nextToken() != JsonToken.END_ARRAY) {
+                    if (size == values.length) values = Arrays.copyOf(values, size * 2);
+                    if (reader.currentToken() == JsonToken.NUMBER) values[size++] = reader.getDouble();
+                    else {
+                        final Object value = readValue(reader, item);
+                        values[size++] = value == null ? 0 : ((Number)value).doubleValue();
+                    }
+                }
+                if (item.kind == DOUBLE) return Arrays.copyOf(values, size);
+                final float[] array = new float[size];
+                for (int i = 0; i < size; i++) array[i] = (float)values[i];
+                return array;
+            }
+            default: {
+                final List<Object> values = new ArrayList<>();
+                while (reader.nextToken() != JsonToken.END_ARRAY) values.add(readValue(reader, item));
+                final Object array = Array.newInstance(target.type, values.size());
+                for (int i = 0; i < values.size(); i++) Array.set(array, i, values.get(i));
+                return array;
+            }
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.staim.lightjson.implementations;
+
+import com.staim.lightjson.JsonValidator;
+
+/**
+ * Json Validator Implementation
+ *
+ * Iterative scanner over the whole input: kinds of open containers are kept as bits of a reusable stack, strings
+ * are skipped by tight loops, which stop only on quotes, escapes, control characters (and non-ASCII bytes, whose
+ * UTF-8 sequences are checked). Strings, char arrays and byte arrays are read in place through a small Source
+ * wrapper, so one state machine serves all of them.
+ */
+public class ValidatorImpl implements JsonValidator {
+    public static final int DEFAULT_MAX_DEPTH = 1024;
+
+    private static final int VALUE = 0;          // root value or value after ':' or ','
+    private static final int FIRST_NAME = 1;     // after '{'
+    private static final int NAME = 2;           // after ',' in Object
+    private static final int FIRST_VALUE = 3;    // after '['
+    private static final int SEPARATOR = 4;      // after value
+
+    private static final String END = "Unexpected End of Json";
+    private static final String UNEXPECTED = "Unexpected character";
+    private static final String TRAILING = "Unexpected character after end of Json";
+    private static final String COLON = "Expected ':' after name";
+    private static final String NUMBER = "Malformed number";
+    private static final String ESCAPE = "Malformed escape sequence";
+    private static final String CONTROL = "Unescaped control character in string";
+    private static final String UTF8 = "Malformed UTF-8 sequence";
+    private static final String TOO_DEEP = "Nesting is too deep";
+    private static final String TOO_LONG = "Json is too long";
+
+    private final int maxDepth;
+    private final int maxLength;
+
+    private long[] stack = new long[4]; // bit is set for Object, clear for Array
+    private int errorOffset = -1;
+    private String errorMessage;
+
+    public ValidatorImpl() { this(DEFAULT_MAX_DEPTH, Integer.MAX_VALUE); }
+
+    /**
+     * @param maxDepth - maximal number of nested Objects and Arrays
+     * @param maxLength - maximal length of input in chars or bytes
+     */
+    public ValidatorImpl(int maxDepth, int maxLength) {
+        this.maxDepth = maxDepth;
+        this.maxLength = maxLength;
+    }
+
+    //////////////////////////// INTERFACE /////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public boolean validate(String s) { return validate(new StringSource(s), 0, s.length()); }
+
+    @Override
+    public boolean validate(char[] s, int offset, int length) { return validate(new CharSource(s), offset, length); }
+
+    @Override
+    public boolean validate(byte[] s, int offset, int length) { return validate(new ByteSource(s), offset, length); }
+
+    @Override
+    public int errorOffset() { return errorOffset; }
+
+    @Override
+    public String errorMessage() { return errorMessage; }
+
+    //////////////////////////// STATE /////////////////////////////////////////////////////////////////////////////////
+
+    private boolean pass() {
+        errorOffset = -1;
+        errorMessage = null;
+        return true;
+    }
+
+    private boolean fail(int offset, String message) {
+        errorOffset = offset;
+        errorMessage = message;
+        return false;
+    }
+
+    /**
+     * Same as fail(), for scanning methods returning position
+     * @return -1
+     */
+    private int error(int offset, String message) {
+        fail(offset, message);
+        return -1;
+    }
+
+    /**
+     * Check for ASCII hex digit, Character.digit() accepts other Unicode digits too
+     */
+    private static boolean isHex(int c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private void push(int depth, boolean object) {
+        final int word = depth >>> 6;
+        if (word == stack.length) {
+            long[] newStack = new long[stack.length * 2];
+            System.arraycopy(stack, 0, newStack, 0, stack.length);
+            stack = newStack;
+        }
+        if (object) stack[word] |= 1L << depth;
+        else stack[word] &= ~(1L << depth);
+    }
+
+    /**
+     * @param depth - number of open containers
+     * @return true when the innermost container is Object
+     */
+    private boolean isObject(int depth) {
+        return (stack[(depth - 1) >>> 6] & (1L << (depth - 1))) != 0;
+    }
+
+    //////////////////////////// SCANNING //////////////////////////////////////////////////////////////////////////////
+
+    private boolean validate(Source s, int offset, int length) {
+        if (length > maxLength) return fail(maxLength, TOO_LONG);
+        final int end = offset + length;
+        int i = s.skipByteOrderMark(offset, end);
+        int depth = 0;
+        int state = VALUE;
+        while (true) {
+            int c = 0;
+            while (i < end && ((c = s.at(i)) == ' ' || c == '\n' || c == '\r' || c == '\t')) i++;
+            if (i == end) return state == SEPARATOR && depth == 0 ? pass() : fail(i - offset, END);
+            switch (state) {
+                case SEPARATOR:
+                    if (depth == 0) return fail(i - offset, TRAILING);
+                    final boolean object = isObject(depth);
+                    if (c == ',') {
+                        i++;
+                        state = object ? NAME : VALUE;
+                    } else if (c == (object ? '}' : ']')) {
+                        i++;
+                        depth--;
+                    } else return fail(i - offset, UNEXPECTED);
+                    continue;
+                case FIRST_NAME:
+                    if (c == '}') {
+                        i++;
+                        depth--;
+                        state = SEPARATOR;
+                        continue;
+                    }
+                    // fall through
+                case NAME:
+                    if (c != '"') return fail(i - offset, UNEXPECTED);
+                    if ((i = skipString(s, i + 1, end, offset)) < 0) return false;
+                    while (i < end && ((c = s.at(i)) == ' ' || c == '\n' || c == '\r' || c == '\t')) i++;
+                    if (i == end) return fail(i - offset, END);
+                    if (c != ':') return fail(i - offset, COLON);
+                    i++;
+                    state = VALUE;
+                    continue;
+                case FIRST_VALUE:
+                    if (c == ']') {
+                        i++;
+                        depth--;
+                        state = SEPARATOR;
+                        continue;
+                    }
+                    // fall through
+                default:
+                    switch (c) {
+                        case '{':
+                        case '[':
+                            if (depth == maxDepth) return fail(i - offset, TOO_DEEP);
+                            push(depth++, c == '{');
+                            i++;
+                            state = c == '{' ? FIRST_NAME : FIRST_VALUE;
+                            continue;
+                        case '"':
+                            i = skipString(s, i + 1, end, offset);
+                            break;
+                        case '-':
+                        case '0': case '1': case '2': case '3': case '4':
+                        case '5': case '6': case '7': case '8': case '9':
+                            i = skipNumber(s, i, end, offset);
+                            break;
+                        case 't':
+                            i = skipLiteral(s, i, end, offset, "true");
+                            break;
+                        case 'f':
+                            i = skipLiteral(s, i, end, offset, "false");
+                            break;
+                        case 'n':
+                            i = skipLiteral(s, i, end, offset, "null");
+                            break;
+                        default:
+                            return fail(i - offset, UNEXPECTED);
+                    }
+                    if (i < 0) return false;
+                    state = SEPARATOR;
+            }
+        }
+    }
+
+    /**
+     * @param i - position after opening quote
+     * @return position after closing quote or -1 on error
+     */
+    private int skipString(Source s, int i, int end, int offset) {
+        final int limit = s.limit();
+        while (true) {
+            int c = 0;
+            while (i < end && (c = s.at(i)) != '"' && c != '\\' && c >= 0x20 && c < limit) i++;
+            if (i == end) return error(i - offset, END);
+            if (c == '"') return i + 1;
+            if (c == '\\') {
+                if (++i == end) return error(i - offset, END);
+                switch (s.at(i)) {
+                    case '"': case '\\': case '/': case 'b': case 'f': case 'n': case 'r': case 't':
+                        i++;
+                        break;
+                    case 'u':
+                        for (int k = 0; k < 4; k++) {
+                            if (++i == end) return error(i - offset, END);
+                            if (!isHex(s.at(i))) return error(i - offset, ESCAPE);
+                        }
+                        i++;
+                        break;
+                    default:
+                        return error(i - offset, ESCAPE);
+                }
+                continue;
+            }
+            if (c < 0x20) return error(i - offset, CONTROL);
+            // multi-byte UTF-8 sequence: ranges of the second byte exclude overlong forms, surrogates and > U+10FFFF
+            final int count;
+            int lower = 0x80;
+            int upper = 0xBF;
+            if (c >= 0xC2 && c <= 0xDF) count = 1;
+            else if (c >= 0xE0 && c <= 0xEF) {
+                count = 2;
+                if (c == 0xE0) lower = 0xA0;
+                else if (c == 0xED) upper = 0x9F;
+            } else if (c >= 0xF0 && c <= 0xF4) {
+                count = 3;
+                if (c == 0xF0) lower = 0x90;
+                else if (c == 0xF4) upper = 0x8F;
+            } else return error(i - offset, UTF8);
+            for (int k = 0; k < count; k++) {
+                if (++i == end) return error(i - offset, END);
+                final int next = s.at(i);
+                if (next < lower || next > upper) return error(i - offset, UTF8);
+                lower = 0x80;
+                upper = 0xBF;
+            }
+            i++;
+        }
+    }
+
+    private int skipNumber(Source s, int i, int end, int offset) {
+        if (s.at(i) == '-') i++;
+        if (i == end) return error(i - offset, END);
+        int c = s.at(i);
+        if (c == '0') i++;
+        else if (c >= '1' && c <= '9') {
+            i++;
+            while (i < end && (c = s.at(i)) >= '0' && c <= '9') i++;
+        } else return error(i - offset, NUMBER);
+        if (i < end && s.at(i) == '.') {
+            if (++i == end) return error(i - offset, END);
+            if ((c = s.at(i)) < '0' || c > '9') return error(i - offset, NUMBER);
+            while (i < end && (c = s.at(i)) >= '0' && c <= '9') i++;
+        }
+        if (i < end && ((c = s.at(i)) == 'e' || c == 'E')) {
+            if (++i < end && ((c = s.at(i)) == '+' || c == '-')) i++;
+            if (i == end) return error(i - offset, END);
+            if ((c = s.at(i)) < '0' || c > '9') return error(i - offset, NUMBER);
+            while (i < end && (c = s.at(i)) >= '0' && c <= '9') i++;
+        }
+        return i;
+    }
+
+    private int skipLiteral(Source s, int i, int end, int offset, String literal) {
+        for (int k = 0; k < literal.length(); k++, i++) {
+            if (i == end) return error(i - offset, END);
+            if (s.at(i) != literal.charAt(k)) return error(i - offset, UNEXPECTED);
+        }
+        return i;
+    }
+
+    //////////////////////////// SOURCES ///////////////////////////////////////////////////////////////////////////////
+
+    private static abstract class Source {
+        abstract int at(int i);
+
+        /**
+         * @return first code, which skipString() passes to UTF-8 check, above any code for text sources
+         */
+        int limit() { return 0x10000; }
+
+        int skipByteOrderMark(int i, int end) { return i < end && at(i) == '\uFEFF' ? i + 1 : i; }
+    }
+
+    private static final class StringSource extends Source {
+        private final String s;
+
+        StringSource(String s) { this.s = s; }
+
+        @Override int at(int i) { return s.charAt(i); }
+    }
+
+    private static final class CharSource extends Source {
+        private final char[] chars;
+
+        CharSource(char[] chars) { this.chars = chars; }
+
+        @Override int at(int i) { return chars[i]; }
+    }
+
+    private static final class ByteSource extends Source {
+        private final byte[] bytes;
+
+        ByteSource(byte[] bytes) { this.bytes = bytes; }
+
+        @Override int at(int i) { return bytes[i] & 0xFF; }
+
+        @Override int limit() { return 0x80; } // non-ASCII bytes start UTF-8 sequences
+
+        @Override
+        int skipByteOrderMark(int i, int end) {
+            return end - i >= 3 && bytes[i] == (byte)0xEF && bytes[i + 1] == (byte)0xBB && bytes[i + 2] == (byte)0xBF ? i + 3 : i;
+        }
+    }
+}
@@ -3,10 +3,10 @@ package com.staim.lightjson.implementations.elements;
 import com.staim.lightjson.JsonElement;
 import com.staim.lightjson.JsonException;
 import com.staim.lightjson.JsonType;
+import com.staim.lightjson.implementations.serializers.JsonEscape;
+import com.staim.lightjson.implementations.serializers.SerializerUtil;
 
-import java.text.CharacterIterator;
 import java.text.SimpleDateFormat;
-import java.text.StringCharacterIterator;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
@@ -29,6 +29,27 @@ abstract class JsonAbstractElement implements JsonElement {
 
     protected abstract Object getObjectData();
 
+    @Override
+    public long getLong() throws JsonException { return number().longValue(); }
+
+    @Override
+    public double getDouble() throws JsonException { return number().doubleValue(); }
+
+    @Override
+    public boolean getBoolean() throws JsonException {
+        final Object data = getType() == JsonType.BOOLEAN ? getObjectData() : null;
+        if (!(data instanceof Boolean)) throw new JsonException("Boolean Operation error: JSON Element is not Boolean");
+        return (Boolean)data;
+    }
+
+    @Override public boolean isNull() { return getType() == JsonType.NULL; }
+
+    private Number number() throws JsonException {
+        final Object data = getType() == JsonType.NUMBER ? getObjectData() : null;
+        if (!(data instanceof Number)) throw new JsonException("Number Operation error: JSON Element is not Number");
+        return (Number)data;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <T> T getData() { return (T)getObjectData(); }
@@ -89,7 +110,7 @@ abstract class JsonAbstractElement implements JsonElement {
                 Map<String, JsonElement> objectData = getData();
                 for (Map.Entry<String, JsonElement> entry : objectData.entrySet()) {
                     if (!resObject.isEmpty()) resObject += ", ";
-                    final String key = entry.getKey();
+                    final String key = JsonEscape.escape(entry.getKey());
                     final JsonElement value = entry.getValue();
                     resObject += String.format("\"%1$s\" : %2$s", key, (value != null ? value.serialize() : "\"null\""));
                 }
@@ -105,17 +126,9 @@ abstract class JsonAbstractElement implements JsonElement {
             case BOOLEAN:
                 return this.getBooleanData() ? "true" : "false";
             case NUMBER:
-                String res = "";
-                Number numberData = getNumberData();
-                if (numberData instanceof Byte) res += numberData.byteValue();
-                else if (numberData instanceof Short) res += numberData.shortValue();
-                else if (numberData instanceof Integer) res += numberData.intValue();
-                else if (numberData instanceof Long) res += numberData.longValue();
-                else if (numberData instanceof Float) res += numberData.floatValue();
-                else if (numberData instanceof Double) res += numberData.doubleValue();
-                return res;
+                return SerializerUtil.serializeNumber(getNumberData());
             case STRING:
-                return "\"" + stringForJSON(this.getStringData()) + "\"";
+                return "\"" + JsonEscape.escape(this.getStringData()) + "\"";
             case DATE:
                 @SuppressWarnings("SpellCheckingInspection")
                 final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
@@ -126,35 +139,6 @@ abstract class JsonAbstractElement implements JsonElement {
         }
     }
 
-    /**
-     * Format String for JSON Serialization
-     * @param input - string to format
-     * @return result String
-     */
-    private static String stringForJSON(String input) {
-        if (input == null || input.isEmpty()) return "";
-
-        final int len = input.length();
-        final StringBuilder result = new StringBuilder(len + len / 4);
-        final StringCharacterIterator iterator = new StringCharacterIterator(input);
-        char ch = iterator.current();
-        while (ch != CharacterIterator.DONE) {
-            if (ch == '\n') {
-                result.append("\\n");
-            } else if (ch == '\r') {
-                result.append("\\r");
-            } else if (ch == '\'') {
-                result.append("\\\'");
-            } else if (ch == '"') {
-                result.append("\\\"");
-            } else {
-                result.append(ch);
-            }
-            ch = iterator.next();
-        }
-        return result.toString();
-    }
-
     /**
      * Get Json Element from plain object
      *
@@ -164,11 +148,11 @@ abstract class JsonAbstractElement implements JsonElement {
      */
     @SuppressWarnings("unchecked")
     protected JsonElement getJsonElementFromObject(Object object) throws JsonException {
-        if (object == null)                return new JsonNullElement();
+        if (object == null)                return JsonNullElement.NULL;
         if (object instanceof JsonElement) return (JsonElement)object;
         if (object instanceof Map)         return new JsonObjectElement((Map<String, JsonElement>) object);
         if (object instanceof Collection)  return new JsonArrayElement((Collection<JsonElement>)object);
-        return new JsonPlainElement<>(object);
+        return JsonPlainElement.of(object);
     }
 
     /**
@@ -31,6 +31,17 @@ public class JsonArrayElement extends JsonAbstractElement implements JsonElement
      */
     public JsonArrayElement(Collection<JsonElement> data) { this.data = new ArrayList<>(data); }
 
+    /**
+     * Create JSON Element from region of elements array
+     * @param elements - array of elements
+     * @param from - index of the first element, inclusive
+     * @param to - index of the last element, exclusive
+     */
+    public JsonArrayElement(JsonElement[] elements, int from, int to) {
+        data = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) data.add(elements[i]);
+    }
+
     //////////////////////////// INTERFACE /////////////////////////////////////////////////////////////////////////////
 
     //// Getters ////
@@ -0,0 +1,27 @@
+package com.staim.lightjson.implementations.elements;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonType;
+
+/**
+ * Json Boolean Element, there are only two shared instances
+ */
+public final class JsonBooleanElement extends JsonAbstractElement implements JsonElement {
+    public static final JsonBooleanElement TRUE = new JsonBooleanElement(true);
+    public static final JsonBooleanElement FALSE = new JsonBooleanElement(false);
+
+    private final boolean value;
+
+    private JsonBooleanElement(boolean value) { this.value = value; }
+
+    /**
+     * Get shared element of value
+     * @param value - boolean
+     * @return TRUE or FALSE
+     */
+    public static JsonBooleanElement valueOf(boolean value) { return value ? TRUE : FALSE; }
+
+    @Override public JsonType getType() { return JsonType.BOOLEAN; }
+    @Override public Object getObjectData() { return Boolean.valueOf(value); }
+    @Override public boolean getBoolean() { return value; }
+}
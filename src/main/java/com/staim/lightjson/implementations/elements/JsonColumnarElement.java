@@ -0,0 +1,357 @@
+package com.staim.lightjson.implementations.elements;
+
+import com.staim.lightjson.JsonColumn;
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonType;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only Json Array of uniform Objects stored by columns
+ *
+ * All rows share one JsonShape, values of each key are kept in a JsonColumn. Rows are exposed as Object views
+ * (element reference and row index), their members and the List and Maps of getData() are created on access.
+ * Column access, see column(), is the efficient way to read such Arrays.
+ */
+public class JsonColumnarElement extends JsonAbstractElement implements JsonElement {
+    private static final double MAX_EXACT_LONG = 9007199254740992.0; // 2^53, longs above lose precision in double
+
+    private final JsonShape shape;
+    private final Column[] columns;
+    private final int rows;
+
+    private JsonColumnarElement(JsonShape shape, Column[] columns, int rows) {
+        this.shape = shape;
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Build columnar Array from items, when all of them are Objects of the same shape
+     * @param items - Array items
+     * @return columnar element or null when items are not uniform Objects
+     */
+    public static JsonColumnarElement of(List<JsonElement> items) {
+        final int rows = items.size();
+        if (rows == 0) return null;
+        final JsonObjectMap[] maps = new JsonObjectMap[rows];
+        JsonShape shape = null;
+        for (int r = 0; r < rows; r++) {
+            final JsonElement item = items.get(r);
+            if (item == null || item.getType() != JsonType.OBJECT) return null;
+            final Object data = item.getData();
+            if (!(data instanceof JsonObjectMap)) return null;
+            final JsonObjectMap map = (JsonObjectMap)data;
+            if (map.shape() == null || map.size() == 0 || (shape != null && map.shape() != shape)) return null;
+            shape = map.shape();
+            maps[r] = map;
+        }
+        final Column[] columns = new Column[shape.size()];
+        for (int c = 0; c < columns.length; c++) columns[c] = Column.build(shape.key(c), maps, c);
+        return new JsonColumnarElement(shape, columns, rows);
+    }
+
+    /**
+     * Get column by key
+     * @param name - key of the Objects
+     * @return column or null when Objects have no such key
+     */
+    public JsonColumn column(String name) {
+        final int c = shape.indexOf(name);
+        return c < 0 ? null : columns[c];
+    }
+
+    /**
+     * Get all columns in order of keys
+     * @return unmodifiable list of columns
+     */
+    public List<JsonColumn> columns() { return Collections.<JsonColumn>unmodifiableList(Arrays.asList(columns)); }
+
+    //////////////////////////// INTERFACE /////////////////////////////////////////////////////////////////////////////
+
+    //// Getters ////
+
+    @Override public JsonType getType() { return JsonType.ARRAY; }
+
+    @Override
+    public Object getObjectData() {
+        return new AbstractList<JsonElement>() {
+            @Override public JsonElement get(int index) { return row(index); }
+            @Override public int size() { return rows; }
+        };
+    }
+
+    @Override
+    public JsonElement get(int index) throws JsonException { return row(index); }
+
+    @Override
+    public Iterator<JsonElement> iterator() throws JsonException {
+        return new Iterator<JsonElement>() {
+            private int next;
+
+            @Override public boolean hasNext() { return next < rows; }
+
+            @Override
+            public JsonElement next() {
+                if (next >= rows) throw new NoSuchElementException();
+                return new Row(next++);
+            }
+
+            @Override public void remove() { throw new UnsupportedOperationException(); }
+        };
+    }
+
+    @Override public int size() throws JsonException { return rows; }
+
+    //// Adders ////
+
+    @Override
+    public void add(Object object) throws JsonException {
+        throw new JsonException("Columnar Json Element is read-only");
+    }
+
+    private JsonElement row(int index) {
+        if (index < 0 || index >= rows) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + rows);
+        return new Row(index);
+    }
+
+    //////////////////////////// ROW ///////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Object view of one row
+     */
+    private class Row extends JsonAbstractElement implements JsonElement {
+        private final int row;
+
+        Row(int row) { this.row = row; }
+
+        @Override public JsonType getType() { return JsonType.OBJECT; }
+
+        @Override
+        public Object getObjectData() {
+            final Map<String, JsonElement> map = new JsonObjectMap(columns.length);
+            for (Column column : columns) map.put(column.name, column.get(row));
+            return map;
+        }
+
+        @Override
+        public JsonElement get(String name) throws JsonException {
+            final int c = shape.indexOf(name);
+            return c < 0 ? null : columns[c].get(row);
+        }
+
+        @Override
+        public Iterator<JsonElement> iterator() throws JsonException {
+            return new Iterator<JsonElement>() {
+                private int next;
+
+                @Override public boolean hasNext() { return next < columns.length; }
+
+                @Override
+                public JsonElement next() {
+                    if (next >= columns.length) throw new NoSuchElementException();
+                    return columns[next++].get(row);
+                }
+
+                @Override public void remove() { throw new UnsupportedOperationException(); }
+            };
+        }
+
+        @Override public int size() throws JsonException { return columns.length; }
+
+        @Override
+        public void add(String name, Object object) throws JsonException {
+            throw new JsonException("Columnar Json Element is read-only");
+        }
+    }
+
+    //////////////////////////// COLUMN ////////////////////////////////////////////////////////////////////////////////
+
+    private static final int LONG = 0;
+    private static final int DOUBLE = 1;
+    private static final int BOOLEAN = 2;
+    private static final int STRING = 3;
+    private static final int ELEMENT = 4;
+
+    private static final class Column implements JsonColumn {
+        private final String name;
+        private final int kind;
+        private final int size;
+        private long[] nulls;     // bitmap of nulls, null when there are none
+        private long[] longs;
+        private double[] doubles;
+        private long[] integral;  // bitmap of DOUBLE column values, which were parsed as longs
+        private boolean[] booleans;
+        private String[] dictionary;
+        private int[] codes;
+        private JsonElement[] elements;
+
+        private Column(String name, int kind, int size) {
+            this.name = name;
+            this.kind = kind;
+            this.size = size;
+        }
+
+        static Column build(String name, JsonObjectMap[] maps, int position) {
+            final int rows = maps.length;
+            final JsonElement[] values = new JsonElement[rows];
+            boolean longs = false, doubles = false, bigLongs = false, booleans = false, strings = false, other = false;
+            for (int r = 0; r < rows; r++) {
+                final JsonElement value = maps[r].valueAt(position);
+                values[r] = value;
+                final JsonType type = value == null ? JsonType.NULL : value.getType();
+                switch (type) {
+                    case NULL: break;
+                    case NUMBER: {
+                        final Object number = value.getData();
+                        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+                            longs = true;
+                            if (Math.abs(((Number)number).doubleValue()) > MAX_EXACT_LONG) bigLongs = true;
+                        } else if (number instanceof Double || number instanceof Float) doubles = true;
+                        else other = true;
+                        break;
+                    }
+                    case BOOLEAN: booleans = true; break;
+                    case STRING: strings = true; break;
+                    default: other = true;
+                }
+            }
+            final int numbers = longs || doubles ? 1 : 0;
+            final int kinds = numbers + (booleans ? 1 : 0) + (strings ? 1 : 0);
+            final int kind;
+            if (other || kinds != 1 || (doubles && bigLongs)) kind = ELEMENT;
+            else if (numbers == 1) kind = doubles ? DOUBLE : LONG;
+            else kind = booleans ? BOOLEAN : STRING;
+
+            final Column column = new Column(name, kind, rows);
+            if (kind == ELEMENT) {
+                column.elements = values;
+                return column;
+            }
+            Map<String, Integer> dictionary = null;
+            switch (kind) {
+                case LONG: column.longs = new long[rows]; break;
+                case DOUBLE: column.doubles = new double[rows]; column.integral = new long[(rows + 63) >>> 6]; break;
+                case BOOLEAN: column.booleans = new boolean[rows]; break;
+                case STRING: column.codes = new int[rows]; dictionary = new HashMap<>(); break;
+            }
+            for (int r = 0; r < rows; r++) {
+                final JsonElement value = values[r];
+                if (value == null || value.getType() == JsonType.NULL) {
+                    if (column.nulls == null) column.nulls = new long[(rows + 63) >>> 6];
+                    column.nulls[r >>> 6] |= 1L << r;
+                    if (kind == STRING) column.codes[r] = -1;
+                    continue;
+                }
+                switch (kind) {
+                    case LONG: column.longs[r] = ((Number)value.getData()).longValue(); break;
+                    case DOUBLE: {
+                        final Number number = value.getData();
+                        column.doubles[r] = number.doubleValue();
+                        if (!(number instanceof Double || number instanceof Float)) column.integral[r >>> 6] |= 1L << r;
+                        break;
+                    }
+                    case BOOLEAN: column.booleans[r] = (Boolean)value.getData(); break;
+                    case STRING: {
+                        final String string = value.getData();
+                        Integer code = dictionary.get(string);
+                        if (code == null) dictionary.put(string, code = dictionary.size());
+                        column.codes[r] = code;
+                        break;
+                    }
+                }
+            }
+            if (kind == STRING) {
+                column.dictionary = new String[dictionary.size()];
+                for (Map.Entry<String, Integer> entry : dictionary.entrySet()) column.dictionary[entry.getValue()] = entry.getKey();
+            }
+            return column;
+        }
+
+        @Override public String getName() { return name; }
+
+        @Override
+        public JsonType getType() {
+            switch (kind) {
+                case LONG:
+                case DOUBLE: return JsonType.NUMBER;
+                case BOOLEAN: return JsonType.BOOLEAN;
+                case STRING: return JsonType.STRING;
+                default: return JsonType.NULL;
+            }
+        }
+
+        @Override public int size() { return size; }
+        @Override public boolean isLong() { return kind == LONG; }
+
+        @Override
+        public boolean isNull(int row) {
+            if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + size);
+            if (kind == ELEMENT) return elements[row] == null || elements[row].getType() == JsonType.NULL;
+            return nulls != null && (nulls[row >>> 6] & (1L << row)) != 0;
+        }
+
+        @Override
+        public JsonElement get(int row) {
+            if (isNull(row)) return kind == ELEMENT && elements[row] != null ? elements[row] : JsonNullElement.NULL;
+            switch (kind) {
+                case LONG: return JsonLongElement.valueOf(longs[row]);
+                case DOUBLE:
+                    if ((integral[row >>> 6] & (1L << row)) != 0) return JsonLongElement.valueOf((long)doubles[row]);
+                    return new JsonDoubleElement(doubles[row]);
+                case BOOLEAN: return JsonBooleanElement.valueOf(booleans[row]);
+                case STRING: return JsonPlainElement.string(dictionary[codes[row]]);
+                default: return elements[row];
+            }
+        }
+
+        @Override
+        public long[] asLongArray() throws JsonException {
+            if (kind != LONG) throw new JsonException("Column '" + name + "' is not integral Number");
+            return longs;
+        }
+
+        @Override
+        public double[] asDoubleArray() throws JsonException {
+            if (kind == DOUBLE) return doubles;
+            if (kind != LONG) throw new JsonException("Column '" + name + "' is not Number");
+            final double[] result = new double[size];
+            for (int i = 0; i < size; i++) result[i] = longs[i];
+            return result;
+        }
+
+        @Override
+        public boolean[] asBooleanArray() throws JsonException {
+            if (kind != BOOLEAN) throw new JsonException("Column '" + name + "' is not Boolean");
+            return booleans;
+        }
+
+        @Override
+        public String[] asStringArray() throws JsonException {
+            final int[] codes = codes();
+            final String[] result = new String[size];
+            for (int i = 0; i < size; i++) if (codes[i] >= 0) result[i] = dictionary[codes[i]];
+            return result;
+        }
+
+        @Override
+        public String[] dictionary() throws JsonException {
+            if (kind != STRING) throw new JsonException("Column '" + name + "' is not String");
+            return dictionary;
+        }
+
+        @Override
+        public int[] codes() throws JsonException {
+            if (kind != STRING) throw new JsonException("Column '" + name + "' is not String");
+            return codes;
+        }
+    }
+}
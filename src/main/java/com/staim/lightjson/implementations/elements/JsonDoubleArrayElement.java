@@ -0,0 +1,124 @@
+package com.staim.lightjson.implementations.elements;
+
+import com.staim.lightjson.JsonElement;
+
+import java.util.Arrays;
+
+/**
+ * Json Array of Numbers backed by double[]
+ *
+ * Integral values up to 2^53 may be packed too: they are marked in a bitmap and are returned as JsonLongElements,
+ * so Arrays like [1.5, 2] keep the form of their items. Only Double and Long values and JsonDoubleElements and
+ * JsonLongElements are kept packed, see JsonPackedArrayElement.
+ */
+public class JsonDoubleArrayElement extends JsonPackedArrayElement implements JsonElement {
+    private static final long MAX_EXACT_LONG = 1L << 53; // longs above lose precision in double
+
+    private double[] values;
+    private long[] integral; // bitmap of values, which are integral Numbers, null when there are none
+
+    /**
+     * Create empty Array
+     */
+    public JsonDoubleArrayElement() { values = new double[8]; }
+
+    /**
+     * Create Array over values, array is not copied
+     * @param values - storage, may be longer than size
+     * @param size - number of items
+     */
+    public JsonDoubleArrayElement(double[] values, int size) {
+        if (size < 0 || size > values.length) throw new IllegalArgumentException("Wrong size: " + size);
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Create Array over values with integral items marked, arrays are not copied
+     * @param values - storage, may be longer than size
+     * @param integral - bitmap of items, which are integral Numbers, bit (i & 63) of word (i >>> 6) for item i
+     * @param size - number of items
+     */
+    public JsonDoubleArrayElement(double[] values, long[] integral, int size) {
+        this(values, size);
+        this.integral = integral;
+    }
+
+    /**
+     * Check whether value can be packed as integral item
+     * @param value - long value
+     * @return true when value is exactly representable as double
+     */
+    public static boolean fits(long value) { return value >= -MAX_EXACT_LONG && value <= MAX_EXACT_LONG; }
+
+    /**
+     * Get backing storage, valid in range [0, size()) while Array is packed and not modified
+     * @return storage
+     */
+    public double[] array() { return values; }
+
+    /**
+     * Check whether item is integral Number, Array must be packed
+     * @param index - item index
+     * @return true for integral item
+     */
+    public boolean isIntegral(int index) {
+        return integral != null && (index >>> 6) < integral.length && (integral[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Get item value without creating element, Array must be packed
+     * @param index - item index
+     * @return item value
+     */
+    public double getDouble(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return values[index];
+    }
+
+    public double[] toDoubleArray() { return Arrays.copyOf(values, size); }
+
+    public long[] toLongArray() {
+        final long[] result = new long[size];
+        for (int i = 0; i < size; i++) result[i] = (long)values[i];
+        return result;
+    }
+
+    public int[] toIntArray() {
+        final int[] result = new int[size];
+        for (int i = 0; i < size; i++) result[i] = (int)values[i];
+        return result;
+    }
+
+    @Override
+    protected JsonElement item(int index) {
+        if (isIntegral(index)) return JsonLongElement.valueOf((long)values[index]);
+        return new JsonDoubleElement(values[index]);
+    }
+
+    @Override
+    protected boolean append(Object object) {
+        final double value;
+        boolean isLong = false;
+        if (object instanceof Double) value = (Double)object;
+        else if (object instanceof JsonDoubleElement) value = ((JsonDoubleElement)object).getDouble();
+        else {
+            final long longValue;
+            if (object instanceof Long) longValue = (Long)object;
+            else if (object instanceof JsonLongElement) longValue = ((JsonLongElement)object).getLong();
+            else return false;
+            if (!fits(longValue)) return false;
+            value = longValue;
+            isLong = true;
+        }
+        if (size == values.length) values = Arrays.copyOf(values, Math.max(8, size * 2));
+        if (isLong) {
+            final int words = (values.length + 63) >>> 6;
+            if (integral == null) integral = new long[words];
+            else if (integral.length < words) integral = Arrays.copyOf(integral, words);
+            integral[size >>> 6] |= 1L << size;
+        }
+        values[size++] = value;
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.staim.lightjson.implementations.elements;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonType;
+
+/**
+ * Json Number Element holding double without boxing
+ *
+ * getData() boxes the value on each call, use getDouble().
+ */
+public final class JsonDoubleElement extends JsonAbstractElement implements JsonElement {
+    private final double value;
+
+    public JsonDoubleElement(double value) { this.value = value; }
+
+    @Override public JsonType getType() { return JsonType.NUMBER; }
+    @Override public Object getObjectData() { return value; }
+    @Override public long getLong() { return (long)value; }
+    @Override public double getDouble() { return value; }
+}
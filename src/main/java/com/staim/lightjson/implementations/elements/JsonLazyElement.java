@@ -0,0 +1,173 @@
+package com.staim.lightjson.implementations.elements;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonType;
+import com.staim.lightjson.implementations.parsers.LazyDocument;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy Json Object or Array Element
+ *
+ * Keeps only position of the value in the document. Members are indexed on first access and each of them is
+ * parsed when it is accessed for the first time, so untouched subtrees are never parsed. Full Map or List is
+ * built only when data is requested or element is modified. Objects are iterated and counted through that Map, so
+ * duplicate keys collapse to the last value before and after materialization alike. Since getData() and iteration
+ * can not throw JsonException, malformed Json found there is reported with IllegalStateException.
+ *
+ * Elements of one document share its LazyDocument and fill their indexes on first access, so they are not
+ * thread-safe, even for reading: use one document from one thread at a time.
+ */
+public class JsonLazyElement extends JsonAbstractElement implements JsonElement {
+    private final LazyDocument document;
+    private final int start;
+    private final JsonType type;
+    private int[] spans;
+    private int count;
+    private JsonElement[] children;
+    private Object data;
+
+    //////////////////////////// CONSTRUCTORS //////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create lazy JSON Object or Array
+     * @param document - document containing the value
+     * @param start - index of opening bracket
+     * @param type - OBJECT or ARRAY
+     * @param spans - result of LazyDocument.index for this value or null when it is not indexed yet
+     */
+    public JsonLazyElement(LazyDocument document, int start, JsonType type, int[] spans) {
+        this.document = document;
+        this.start = start;
+        this.type = type;
+        if (spans != null) setSpans(spans);
+    }
+
+    private void setSpans(int[] spans) {
+        this.spans = spans;
+        this.count = (spans.length - 1) / stride();
+    }
+
+    private int stride() { return type == JsonType.OBJECT ? 4 : 2; }
+
+    private void index() throws JsonException {
+        if (spans == null) setSpans(document.index(start, type == JsonType.OBJECT));
+    }
+
+    private JsonElement child(int i) throws JsonException {
+        if (children == null) children = new JsonElement[count];
+        JsonElement child = children[i];
+        if (child == null) {
+            final int offset = 1 + i * stride() + stride() - 2;
+            child = children[i] = document.value(spans[offset], spans[offset + 1]);
+        }
+        return child;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object materialize() throws JsonException {
+        if (data != null) return data;
+        index();
+        if (type == JsonType.OBJECT) {
+            Map<String, JsonElement> map = new JsonObjectMap(count);
+            for (int i = 0; i < count; i++) map.put(document.string(spans[1 + i * 4], spans[2 + i * 4]), child(i));
+            data = map;
+        } else {
+            List<JsonElement> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) list.add(child(i));
+            data = list;
+        }
+        return data;
+    }
+
+    //////////////////////////// INTERFACE /////////////////////////////////////////////////////////////////////////////
+
+    //// Getters ////
+
+    @Override public JsonType getType() { return type; }
+
+    @Override
+    public Object getObjectData() {
+        try {
+            return materialize();
+        } catch (JsonException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public JsonElement get(int index) throws JsonException {
+        if (type != JsonType.ARRAY) return super.get(index);
+        if (data != null) return ((List<JsonElement>)data).get(index);
+        index();
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        return child(index);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public JsonElement get(String name) throws JsonException {
+        if (type != JsonType.OBJECT) return super.get(name);
+        if (data != null) return ((Map<String, JsonElement>)data).get(name);
+        index();
+        for (int i = count - 1; i >= 0; i--) // the last one of duplicate keys wins, as in Map
+            if (document.keyEquals(spans[1 + i * 4], spans[2 + i * 4], name)) return child(i);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Iterator<JsonElement> iterator() throws JsonException {
+        if (type == JsonType.OBJECT) return ((Map<String, JsonElement>)materialize()).values().iterator();
+        if (data != null) return ((List<JsonElement>)data).iterator();
+        index();
+        return new Iterator<JsonElement>() {
+            private int next = 0;
+
+            @Override public boolean hasNext() { return next < count; }
+
+            @Override
+            public JsonElement next() {
+                if (next >= count) throw new NoSuchElementException();
+                try {
+                    return child(next++);
+                } catch (JsonException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            }
+
+            @Override public void remove() { throw new UnsupportedOperationException(); }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public int size() throws JsonException {
+        if (type == JsonType.OBJECT) return ((Map<String, JsonElement>)materialize()).size();
+        if (data != null) return ((List<JsonElement>)data).size();
+        index();
+        return count;
+    }
+
+    //// Adders ////
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void add(Object object) throws JsonException {
+        if (type != JsonType.ARRAY) { super.add(object); return; }
+        ((List<JsonElement>)materialize()).add(getJsonElementFromObject(object));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void add(String name, Object object) throws JsonException {
+        if (type != JsonType.OBJECT) { super.add(name, object); return; }
+        ((Map<String, JsonElement>)materialize()).put(name, getJsonElementFromObject(object));
+    }
+}
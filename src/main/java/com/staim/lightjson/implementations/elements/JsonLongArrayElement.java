@@ -0,0 +1,85 @@
+package com.staim.lightjson.implementations.elements;
+
+import com.staim.lightjson.JsonElement;
+
+import java.util.Arrays;
+
+/**
+ * Json Array of integral Numbers backed by long[]
+ *
+ * Only Long values and JsonLongElements are kept packed, see JsonPackedArrayElement.
+ */
+public class JsonLongArrayElement extends JsonPackedArrayElement implements JsonElement {
+    private long[] values;
+
+    /**
+     * Create empty Array
+     */
+    public JsonLongArrayElement() { values = new long[8]; }
+
+    /**
+     * Create Array over values, array is not copied
+     * @param values - storage, may be longer than size
+     * @param size - number of items
+     */
+    public JsonLongArrayElement(long[] values, int size) {
+        if (size < 0 || size > values.length) throw new IllegalArgumentException("Wrong size: " + size);
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Create Array from int values
+     * @param values - values to copy
+     * @return new Array
+     */
+    public static JsonLongArrayElement of(int[] values) {
+        final long[] longs = new long[values.length];
+        for (int i = 0; i < values.length; i++) longs[i] = values[i];
+        return new JsonLongArrayElement(longs, longs.length);
+    }
+
+    /**
+     * Get backing storage, valid in range [0, size()) while Array is packed and not modified
+     * @return storage
+     */
+    public long[] array() { return values; }
+
+    /**
+     * Get item value without creating element, Array must be packed
+     * @param index - item index
+     * @return item value
+     */
+    public long getLong(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return values[index];
+    }
+
+    public long[] toLongArray() { return Arrays.copyOf(values, size); }
+
+    public int[] toIntArray() {
+        final int[] result = new int[size];
+        for (int i = 0; i < size; i++) result[i] = (int)values[i];
+        return result;
+    }
+
+    public double[] toDoubleArray() {
+        final double[] result = new double[size];
+        for (int i = 0; i < size; i++) result[i] = values[i];
+        return result;
+    }
+
+    @Override
+    protected JsonElement item(int index) { return JsonLongElement.valueOf(values[index]); }
+
+    @Override
+    protected boolean append(Object object) {
+        final long value;
+        if (object instanceof Long) value = (Long)object;
+        else if (object instanceof JsonLongElement) value = ((JsonLongElement)object).getLong();
+        else return false;
+        if (size == values.length) values = Arrays.copyOf(values, Math.max(8, size * 2));
+        values[size++] = value;
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package com.staim.lightjson.implementations.elements;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonType;
+
+/**
+ * Json Number Element holding long without boxing
+ *
+ * Elements of small values are shared, see valueOf(). getData() boxes the value on each call, use getLong().
+ */
+public final class JsonLongElement extends JsonAbstractElement implements JsonElement {
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+    private static final JsonLongElement[] cache = new JsonLongElement[CACHE_HIGH - CACHE_LOW + 1];
+    static {
+        for (int i = 0; i < cache.length; i++) cache[i] = new JsonLongElement(i + CACHE_LOW);
+    }
+
+    private final long value;
+
+    public JsonLongElement(long value) { this.value = value; }
+
+    /**
+     * Get element of value, shared for small values
+     * @param value - number
+     * @return Json Element
+     */
+    public static JsonLongElement valueOf(long value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) return cache[(int)value - CACHE_LOW];
+        return new JsonLongElement(value);
+    }
+
+    @Override public JsonType getType() { return JsonType.NUMBER; }
+    @Override public Object getObjectData() { return value; }
+    @Override public long getLong() { return value; }
+    @Override public double getDouble() { return value; }
+}
@@ -11,6 +11,12 @@ import com.staim.lightjson.JsonType;
 public class JsonNullElement extends JsonAbstractElement implements JsonElement {
     private static final JsonType type = JsonType.NULL;
 
+    /**
+     * Shared instance, Null Element has no state
+     */
+    public static final JsonNullElement NULL = new JsonNullElement();
+
     @Override public JsonType getType() { return type; }
     @Override public Object getObjectData() { return null; }
+    @Override public boolean isNull() { return true; }
 }
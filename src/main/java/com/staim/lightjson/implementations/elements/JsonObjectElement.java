@@ -4,7 +4,6 @@ import com.staim.lightjson.JsonElement;
 import com.staim.lightjson.JsonException;
 import com.staim.lightjson.JsonType;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -22,7 +21,7 @@ public class JsonObjectElement extends JsonAbstractElement implements JsonElemen
     /**
      * Create empty JSON Object
      */
-    public JsonObjectElement() { data = new HashMap<>(); }
+    public JsonObjectElement() { data = new JsonObjectMap(); }
 
     /**
      * Create JSON Element of given type with initializer
@@ -0,0 +1,351 @@
+package com.staim.lightjson.implementations.elements;
+
+import com.staim.lightjson.JsonElement;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact insertion-ordered Map of Json Object members
+ *
+ * Keys and values are kept in parallel arrays in insertion order, so there are no entry objects and iteration
+ * order is stable. Small maps are searched linearly (keys from parsers are usually canonical instances, so most
+ * comparisons end on identity or hash), above HASH_THRESHOLD members an open addressing index of positions is
+ * built. Replacing value of existing key keeps its position. Entries are created only by entrySet() iteration.
+ *
+ * Map created with a JsonShape advances through its transitions while the parser appends keys with append() and
+ * uses key array and index of the shape, so maps of the same shape store only their values. Transitions belong
+ * to the parser, which owns the shape tree: put() never extends or reads them, so putting a new key, removing
+ * members or appending keys, which the shape does not accept, detaches the map to its own copy of keys.
+ */
+public class JsonObjectMap extends AbstractMap<String, JsonElement> {
+    static final int HASH_THRESHOLD = 8;
+
+    private String[] keys;
+    private JsonElement[] values;
+    private int size;
+    private int[] index; // position + 1 of key by hash, 0 for empty slot; null while map is small
+    private int modCount;
+    private JsonShape shape; // shape, whose keys and index are used, null for detached map
+
+    public JsonObjectMap() { this(4); }
+
+    /**
+     * @param capacity - expected number of members
+     */
+    public JsonObjectMap(int capacity) {
+        keys = new String[Math.max(capacity, 1)];
+        values = new JsonElement[keys.length];
+    }
+
+    /**
+     * Create map sharing keys with other maps built from the same shape
+     * @param shape - shape to start with, usually JsonShape root
+     * @param capacity - expected number of members
+     */
+    public JsonObjectMap(JsonShape shape, int capacity) {
+        this.shape = shape;
+        this.keys = shape.keys;
+        this.index = shape.index;
+        this.size = shape.keys.length;
+        this.values = new JsonElement[Math.max(capacity, size)];
+    }
+
+    /**
+     * Get shape of the map
+     * @return shape, whose key array is used by the map, or null when map has its own keys
+     */
+    public JsonShape shape() { return shape; }
+
+    /**
+     * Get value by position in insertion order, for maps of known shape
+     */
+    JsonElement valueAt(int position) { return values[position]; }
+
+    //////////////////////////// MAP ///////////////////////////////////////////////////////////////////////////////////
+
+    @Override public int size() { return size; }
+    @Override public boolean isEmpty() { return size == 0; }
+
+    @Override
+    public JsonElement get(Object key) {
+        final int i = find(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public boolean containsKey(Object key) { return find(key) >= 0; }
+
+    @Override
+    public JsonElement put(String key, JsonElement value) { return put(key, value, false); }
+
+    /**
+     * Put member while parsing, new key advances the map to the child shape, extending the shape tree when needed.
+     * Must be called only by the thread owning the shape tree.
+     * @param key - key
+     * @param value - value
+     * @return previous value of the key or null
+     */
+    public JsonElement append(String key, JsonElement value) { return put(key, value, true); }
+
+    private JsonElement put(String key, JsonElement value, boolean extend) {
+        if (key == null) throw new NullPointerException("Json Object key must not be null");
+        final int i = find(key);
+        if (i >= 0) {
+            final JsonElement old = values[i];
+            values[i] = value;
+            return old;
+        }
+        if (shape != null) {
+            final JsonShape next = extend ? shape.with(key) : null;
+            if (next != null) {
+                if (size == values.length) values = Arrays.copyOf(values, size * 2);
+                values[size++] = value;
+                shape = next;
+                keys = next.keys;
+                index = next.index;
+                modCount++;
+                return null;
+            }
+            detach();
+        }
+        if (size == keys.length) grow();
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        modCount++;
+        if (index != null) insert(key, size);
+        else if (size > HASH_THRESHOLD) rebuildIndex();
+        return null;
+    }
+
+    @Override
+    public JsonElement remove(Object key) {
+        final int i = find(key);
+        return i < 0 ? null : removeAt(i);
+    }
+
+    @Override
+    public void clear() {
+        if (shape != null) {
+            shape = null;
+            keys = new String[values.length];
+        }
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        index = null;
+        modCount++;
+    }
+
+    //////////////////////////// VIEWS /////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public Set<Entry<String, JsonElement>> entrySet() {
+        return new AbstractSet<Entry<String, JsonElement>>() {
+            @Override public int size() { return size; }
+            @Override public void clear() { JsonObjectMap.this.clear(); }
+            @Override
+            public Iterator<Entry<String, JsonElement>> iterator() {
+                return new Position<Entry<String, JsonElement>>() {
+                    @Override Entry<String, JsonElement> at(int i) { return new MemberEntry(i); }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override public int size() { return size; }
+            @Override public boolean contains(Object key) { return containsKey(key); }
+            @Override public void clear() { JsonObjectMap.this.clear(); }
+            @Override
+            public Iterator<String> iterator() {
+                return new Position<String>() {
+                    @Override String at(int i) { return keys[i]; }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Collection<JsonElement> values() {
+        return new AbstractCollection<JsonElement>() {
+            @Override public int size() { return size; }
+            @Override public void clear() { JsonObjectMap.this.clear(); }
+            @Override
+            public Iterator<JsonElement> iterator() {
+                return new Position<JsonElement>() {
+                    @Override JsonElement at(int i) { return values[i]; }
+                };
+            }
+        };
+    }
+
+    /**
+     * Iterator over positions in insertion order
+     */
+    private abstract class Position<T> implements Iterator<T> {
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        abstract T at(int i);
+
+        @Override public boolean hasNext() { return next < size; }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (next >= size) throw new NoSuchElementException();
+            last = next++;
+            return at(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private class MemberEntry implements Entry<String, JsonElement> {
+        private final String key;
+        private int position;
+
+        MemberEntry(int position) {
+            this.key = keys[position];
+            this.position = position;
+        }
+
+        @Override public String getKey() { return key; }
+
+        @Override
+        public JsonElement getValue() {
+            if (position < 0 || position >= size || keys[position] != key) position = find(key);
+            return position < 0 ? null : values[position];
+        }
+
+        @Override
+        public JsonElement setValue(JsonElement value) {
+            if (position < 0 || position >= size || keys[position] != key) position = find(key);
+            if (position < 0) throw new IllegalStateException("Entry was removed");
+            final JsonElement old = values[position];
+            values[position] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>)o;
+            final Object value = getValue();
+            return key.equals(entry.getKey()) && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            final Object value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override public String toString() { return key + "=" + getValue(); }
+    }
+
+    //////////////////////////// STORAGE ///////////////////////////////////////////////////////////////////////////////
+
+    private int find(Object key) {
+        if (!(key instanceof String)) return -1;
+        final int hash = key.hashCode();
+        final String[] keys = this.keys;
+        if (index == null) {
+            for (int i = 0; i < size; i++) {
+                final String candidate = keys[i];
+                if (candidate == key || (candidate.hashCode() == hash && candidate.equals(key))) return i;
+            }
+            return -1;
+        }
+        final int[] index = this.index;
+        final int mask = index.length - 1;
+        int slot = spread(hash) & mask;
+        int position;
+        while ((position = index[slot]) != 0) {
+            final String candidate = keys[position - 1];
+            if (candidate == key || (candidate.hashCode() == hash && candidate.equals(key))) return position - 1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private JsonElement removeAt(int i) {
+        if (shape != null) detach();
+        final JsonElement old = values[i];
+        final int moved = size - i - 1;
+        System.arraycopy(keys, i + 1, keys, i, moved);
+        System.arraycopy(values, i + 1, values, i, moved);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+        if (index != null) {
+            if (size > HASH_THRESHOLD) rebuildIndex();
+            else index = null;
+        }
+        return old;
+    }
+
+    /**
+     * Switch from keys and index of the shape to own copies
+     */
+    private void detach() {
+        final int capacity = Math.max(values.length, 4);
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        index = size > HASH_THRESHOLD ? buildIndex(keys, size) : null;
+        shape = null;
+    }
+
+    private void grow() {
+        final int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        if (index != null && index.length < capacity * 2) rebuildIndex();
+    }
+
+    private void rebuildIndex() { index = buildIndex(keys, size); }
+
+    private void insert(String key, int position) { insert(index, key, position); }
+
+    /**
+     * Build open addressing index of positions, at most half full while size does not exceed keys.length
+     */
+    static int[] buildIndex(String[] keys, int size) {
+        int capacity = 16;
+        while (capacity < keys.length * 2) capacity <<= 1;
+        final int[] index = new int[capacity];
+        for (int i = 0; i < size; i++) insert(index, keys[i], i + 1);
+        return index;
+    }
+
+    private static void insert(int[] index, String key, int position) {
+        final int mask = index.length - 1;
+        int slot = spread(key.hashCode()) & mask;
+        while (index[slot] != 0) slot = (slot + 1) & mask;
+        index[slot] = position;
+    }
+
+    private static int spread(int hash) { return hash ^ (hash >>> 16); }
+}
@@ -0,0 +1,113 @@
+package com.staim.lightjson.implementations.elements;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonType;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Json Array Element backed by growable primitive array
+ *
+ * Items are kept unboxed while everything added fits the primitive storage, item elements are created on access.
+ * Adding anything else unpacks the Array to a List of elements, after that it behaves as JsonArrayElement and
+ * isPacked() returns false. Lists returned by getData() of packed Array are views, modifying them unpacks it.
+ */
+public abstract class JsonPackedArrayElement extends JsonAbstractElement implements JsonElement {
+    protected int size;
+    private List<JsonElement> items; // items after unpacking, null while packed
+
+    /**
+     * Get packed item as element
+     */
+    protected abstract JsonElement item(int index);
+
+    /**
+     * Append object to primitive storage
+     * @return false when object does not fit the storage
+     */
+    protected abstract boolean append(Object object);
+
+    /**
+     * Check that items are still kept in primitive storage
+     * @return true while packed
+     */
+    public boolean isPacked() { return items == null; }
+
+    /**
+     * Get number of items, same as size() without checked exception
+     * @return number of items
+     */
+    public int length() { return items != null ? items.size() : size; }
+
+    //////////////////////////// INTERFACE /////////////////////////////////////////////////////////////////////////////
+
+    //// Getters ////
+
+    @Override public JsonType getType() { return JsonType.ARRAY; }
+
+    @Override
+    public Object getObjectData() {
+        if (items != null) return items;
+        return new AbstractList<JsonElement>() {
+            @Override public JsonElement get(int index) { return items != null ? items.get(index) : checkedItem(index); }
+            @Override public int size() { return items != null ? items.size() : size; }
+            @Override public JsonElement set(int index, JsonElement element) { return unpack().set(index, element); }
+            @Override public void add(int index, JsonElement element) { unpack().add(index, element); }
+            @Override public JsonElement remove(int index) { return unpack().remove(index); }
+        };
+    }
+
+    @Override
+    public JsonElement get(int index) throws JsonException {
+        return items != null ? items.get(index) : checkedItem(index);
+    }
+
+    @Override
+    public Iterator<JsonElement> iterator() throws JsonException {
+        if (items != null) return items.iterator();
+        return new Iterator<JsonElement>() {
+            private int next;
+
+            @Override public boolean hasNext() { return next < size; }
+
+            @Override
+            public JsonElement next() {
+                if (items != null) throw new IllegalStateException("Array was unpacked during iteration");
+                if (next >= size) throw new NoSuchElementException();
+                return item(next++);
+            }
+
+            @Override public void remove() { throw new UnsupportedOperationException(); }
+        };
+    }
+
+    @Override
+    public int size() throws JsonException { return length(); }
+
+    //// Adders ////
+
+    @Override
+    public void add(Object object) throws JsonException {
+        if (items == null && append(object)) return;
+        unpack().add(getJsonElementFromObject(object));
+    }
+
+    private JsonElement checkedItem(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return item(index);
+    }
+
+    private List<JsonElement> unpack() {
+        if (items == null) {
+            final List<JsonElement> list = new ArrayList<>(size + 1);
+            for (int i = 0; i < size; i++) list.add(item(i));
+            items = list;
+        }
+        return items;
+    }
+}
@@ -9,12 +9,40 @@ import com.staim.lightjson.JsonType;
  * Created by alexeyshcherbinin on 08.12.14.
  */
 public class JsonPlainElement<T> extends JsonAbstractElement implements JsonElement {
+    /**
+     * Shared empty String Element
+     */
+    public static final JsonPlainElement<String> EMPTY_STRING = new JsonPlainElement<>("", JsonType.STRING);
+
     private final JsonType _type;
-    private T _data;
+    private final T _data;
 
     public JsonPlainElement(T data, JsonType type) { _data = data; _type = type; }
     public JsonPlainElement(T data) { _data = data; _type = getType(data); }
 
+    /**
+     * Get String Element, empty String gives shared EMPTY_STRING
+     * @param string - String value
+     * @return Json Element
+     */
+    public static JsonElement string(String string) {
+        return string != null && string.isEmpty() ? EMPTY_STRING : new JsonPlainElement<>(string, JsonType.STRING);
+    }
+
+    /**
+     * Get Element of plain value: Long, Double and Boolean values and nulls give unboxed or shared elements
+     * @param object - plain value
+     * @return Json Element
+     */
+    public static JsonElement of(Object object) {
+        if (object == null) return JsonNullElement.NULL;
+        if (object instanceof Long) return JsonLongElement.valueOf((Long)object);
+        if (object instanceof Double) return new JsonDoubleElement((Double)object);
+        if (object instanceof Boolean) return JsonBooleanElement.valueOf((Boolean)object);
+        if (object instanceof String) return string((String)object);
+        return new JsonPlainElement<>(object);
+    }
+
     @Override public JsonType getType() { return _type; }
     @Override public Object getObjectData() { return _data; }
 }
@@ -0,0 +1,114 @@
+package com.staim.lightjson.implementations.elements;
+
+import java.util.Arrays;
+
+/**
+ * Shape (hidden class) of Json Object: immutable sequence of keys with index for lookup
+ *
+ * Shapes form a transition tree from the root (empty) shape, the child for a key is created once and reused,
+ * so Objects with the same keys in the same order share one shape. Tree is bounded: Objects with more than
+ * MAX_KEYS keys, nodes with more than MAX_TRANSITIONS children, duplicate keys and transitions beyond
+ * MAX_SHAPES shapes per tree get no shape.
+ *
+ * Keys and index are immutable and may be read from any thread. Transitions are read and created without
+ * synchronization only by the single thread, which owns the tree (a parser instance), through
+ * JsonObjectMap.append(). Parsers start a new tree, when the old one is full.
+ */
+public final class JsonShape {
+    public static final int MAX_KEYS = 64;
+    public static final int MAX_TRANSITIONS = 16;
+    public static final int MAX_SHAPES = 4096;
+
+    final String[] keys;
+    final int[] index; // same layout as JsonObjectMap index, null for small shapes
+
+    private final int[] count; // number of shapes in the tree, shared by all of them
+    private String[] transitionKeys;
+    private JsonShape[] transitions;
+    private int transitionCount;
+
+    /**
+     * Create root of a new transition tree
+     */
+    public JsonShape() { this(new String[0], new int[1]); }
+
+    private JsonShape(String[] keys, int[] count) {
+        this.keys = keys;
+        this.index = keys.length > JsonObjectMap.HASH_THRESHOLD ? JsonObjectMap.buildIndex(keys, keys.length) : null;
+        this.count = count;
+        count[0]++;
+    }
+
+    /**
+     * Check if the tree reached MAX_SHAPES shapes and does not create new ones
+     * @return true when tree is full
+     */
+    public boolean isFull() { return count[0] >= MAX_SHAPES; }
+
+    /**
+     * Get number of keys
+     * @return number of keys
+     */
+    public int size() { return keys.length; }
+
+    /**
+     * Get key at position
+     * @param position - index of the key in order of appending
+     * @return key
+     */
+    public String key(int position) { return keys[position]; }
+
+    /**
+     * Find position of key
+     * @param key - key to find
+     * @return index of the key in order of appending, -1 when shape has no such key
+     */
+    public int indexOf(String key) {
+        final int hash = key.hashCode();
+        if (index == null) {
+            for (int i = 0; i < keys.length; i++) {
+                final String candidate = keys[i];
+                if (candidate == key || (candidate.hashCode() == hash && candidate.equals(key))) return i;
+            }
+            return -1;
+        }
+        final int mask = index.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        int position;
+        while ((position = index[slot]) != 0) {
+            final String candidate = keys[position - 1];
+            if (candidate == key || (candidate.hashCode() == hash && candidate.equals(key))) return position - 1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Get shape with key appended
+     * @param key - key to append
+     * @return shared child shape or null when key is already present or tree limits are reached
+     */
+    public JsonShape with(String key) {
+        final int hash = key.hashCode();
+        for (int i = 0; i < transitionCount; i++) {
+            final String candidate = transitionKeys[i];
+            if (candidate == key || (candidate.hashCode() == hash && candidate.equals(key))) return transitions[i];
+        }
+        if (keys.length == MAX_KEYS || transitionCount == MAX_TRANSITIONS || count[0] >= MAX_SHAPES) return null;
+        for (String existing : keys) if (existing.equals(key)) return null;
+
+        final String[] childKeys = Arrays.copyOf(keys, keys.length + 1);
+        childKeys[keys.length] = key;
+        final JsonShape child = new JsonShape(childKeys, count);
+        if (transitions == null) {
+            transitionKeys = new String[2];
+            transitions = new JsonShape[2];
+        } else if (transitionCount == transitions.length) {
+            transitionKeys = Arrays.copyOf(transitionKeys, transitionCount * 2);
+            transitions = Arrays.copyOf(transitions, transitionCount * 2);
+        }
+        transitionKeys[transitionCount] = key;
+        transitions[transitionCount++] = child;
+        return child;
+    }
+}
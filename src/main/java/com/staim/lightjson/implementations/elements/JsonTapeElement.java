@@ -0,0 +1,158 @@
+package com.staim.lightjson.implementations.elements;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonType;
+import com.staim.lightjson.implementations.parsers.TapeDocument;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only Json Element view over Tape Document
+ *
+ * Cursor is just a document reference and a tape index. Children are found by walking the tape, values, Maps and
+ * Lists are created only when getData() is called. Arrays remember the last item found by get(int), so indexed
+ * loops continue walking from it instead of from the first item.
+ */
+public class JsonTapeElement extends JsonAbstractElement implements JsonElement {
+    private final TapeDocument document;
+    private final int index;
+    private Position last; // last item found by get(int), immutable, so it may be shared between threads
+
+    public JsonTapeElement(TapeDocument document, int index) {
+        this.document = document;
+        this.index = index;
+    }
+
+    //////////////////////////// INTERFACE /////////////////////////////////////////////////////////////////////////////
+
+    //// Getters ////
+
+    @Override public JsonType getType() { return document.type(index); }
+
+    @Override
+    public Object getObjectData() {
+        switch (document.type(index)) {
+            case OBJECT: {
+                Map<String, JsonElement> map = new JsonObjectMap(document.count(index));
+                for (int i = index + 1, end = document.end(index); i < end; i = document.next(i + 1))
+                    map.put(document.string(i), new JsonTapeElement(document, i + 1));
+                return map;
+            }
+            case ARRAY: {
+                List<JsonElement> list = new ArrayList<>(document.count(index));
+                for (int i = index + 1, end = document.end(index); i < end; i = document.next(i))
+                    list.add(new JsonTapeElement(document, i));
+                return list;
+            }
+            case STRING: return document.string(index);
+            case NUMBER: return document.isLong(index) ? (Number)document.longValue(index) : (Number)document.doubleValue(index);
+            case BOOLEAN: return document.booleanValue(index);
+            default: return null;
+        }
+    }
+
+    @Override
+    public long getLong() throws JsonException {
+        if (getType() != JsonType.NUMBER) return super.getLong();
+        return document.isLong(index) ? document.longValue(index) : (long)document.doubleValue(index);
+    }
+
+    @Override
+    public double getDouble() throws JsonException {
+        if (getType() != JsonType.NUMBER) return super.getDouble();
+        return document.isLong(index) ? document.longValue(index) : document.doubleValue(index);
+    }
+
+    @Override
+    public boolean getBoolean() throws JsonException {
+        if (getType() != JsonType.BOOLEAN) return super.getBoolean();
+        return document.booleanValue(index);
+    }
+
+    @Override
+    public JsonElement get(int index) throws JsonException {
+        if (getType() != JsonType.ARRAY) return super.get(index);
+        if (index >= 0) {
+            final Position last = this.last;
+            int n = 0;
+            int i = this.index + 1;
+            if (last != null && last.item <= index) {
+                n = last.item;
+                i = last.tape;
+            }
+            for (final int end = document.end(this.index); i < end; i = document.next(i), n++) {
+                if (n == index) {
+                    this.last = new Position(n, i);
+                    return new JsonTapeElement(document, i);
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
+
+    @Override
+    public JsonElement get(String name) throws JsonException {
+        if (getType() != JsonType.OBJECT) return super.get(name);
+        int found = -1;
+        for (int i = index + 1, end = document.end(index); i < end; i = document.next(i + 1))
+            if (document.stringEquals(i, name)) found = i + 1; // the last one of duplicate keys wins, as in Map
+        return found < 0 ? null : new JsonTapeElement(document, found);
+    }
+
+    @Override
+    public Iterator<JsonElement> iterator() throws JsonException {
+        final JsonType type = getType();
+        if (type != JsonType.OBJECT && type != JsonType.ARRAY) return super.iterator();
+        final int stride = type == JsonType.OBJECT ? 1 : 0; // keys precede values in Objects
+        final int end = document.end(index);
+        return new Iterator<JsonElement>() {
+            private int next = index + 1;
+
+            @Override public boolean hasNext() { return next < end; }
+
+            @Override
+            public JsonElement next() {
+                if (next >= end) throw new NoSuchElementException();
+                final int value = next + stride;
+                next = document.next(value);
+                return new JsonTapeElement(document, value);
+            }
+
+            @Override public void remove() { throw new UnsupportedOperationException(); }
+        };
+    }
+
+    @Override
+    public int size() throws JsonException {
+        final JsonType type = getType();
+        if (type != JsonType.OBJECT && type != JsonType.ARRAY) return super.size();
+        return document.count(index);
+    }
+
+    //// Adders ////
+
+    @Override
+    public void add(Object object) throws JsonException {
+        throw new JsonException("Tape Json Element is read-only");
+    }
+
+    @Override
+    public void add(String name, Object object) throws JsonException {
+        throw new JsonException("Tape Json Element is read-only");
+    }
+
+    private static final class Position {
+        final int item; // index of Array item
+        final int tape; // its tape index
+
+        Position(int item, int tape) {
+            this.item = item;
+            this.tape = tape;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.implementations.CharSlice;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bounded symbol table of Object keys
+ *
+ * Returns canonical String for key characters found in parser buffer, String is created only on a miss. Table is
+ * direct-mapped by String hash of the key, colliding key replaces the previous one, keys longer than
+ * MAX_KEY_LENGTH are not cached. Canonical keys make later HashMap lookups short-circuit on identity.
+ *
+ * Each thread has its own cache, see local(). Sharing a cache between threads is safe, races only cause misses.
+ */
+public final class KeyCache {
+    public static final int DEFAULT_SIZE = 4096;
+    public static final int MAX_KEY_LENGTH = 64;
+
+    private static final ThreadLocal<KeyCache> local = new ThreadLocal<KeyCache>() {
+        @Override protected KeyCache initialValue() { return new KeyCache(); }
+    };
+
+    /**
+     * Get cache of the current thread
+     * @return KeyCache instance
+     */
+    public static KeyCache local() { return local.get(); }
+
+    private final String[] keys;
+    private final int mask;
+
+    public KeyCache() { this(DEFAULT_SIZE); }
+
+    /**
+     * @param size - number of slots, rounded up to power of 2
+     */
+    public KeyCache(int size) {
+        int capacity = 16;
+        while (capacity < size) capacity <<= 1;
+        keys = new String[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Get canonical String of chars
+     * @param chars - array containing key
+     * @param offset - index of the first char
+     * @param length - number of chars
+     * @return String equal to the key
+     */
+    public String get(char[] chars, int offset, int length) {
+        if (length > MAX_KEY_LENGTH) return new String(chars, offset, length);
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) hash = 31 * hash + chars[i];
+        final int index = slot(hash);
+        final String key = keys[index];
+        if (key != null && key.hashCode() == hash && key.length() == length) {
+            int i = 0;
+            while (i < length && key.charAt(i) == chars[offset + i]) i++;
+            if (i == length) return key;
+        }
+        return keys[index] = new String(chars, offset, length);
+    }
+
+    /**
+     * Get canonical String of region of CharSequence
+     * @param chars - text containing key
+     * @param start - index of the first char
+     * @param end - index after the last char
+     * @return String equal to the key
+     */
+    public String get(CharSequence chars, int start, int end) {
+        final int length = end - start;
+        if (length > MAX_KEY_LENGTH) return chars.subSequence(start, end).toString();
+        int hash = 0;
+        for (int i = start; i < end; i++) hash = 31 * hash + chars.charAt(i);
+        final int index = slot(hash);
+        final String key = keys[index];
+        if (key != null && key.hashCode() == hash && key.length() == length) {
+            int i = 0;
+            while (i < length && key.charAt(i) == chars.charAt(start + i)) i++;
+            if (i == length) return key;
+        }
+        return keys[index] = chars.subSequence(start, end).toString();
+    }
+
+    /**
+     * Get canonical String of whole CharSequence
+     * @param chars - key
+     * @return String equal to the key
+     */
+    public String get(CharSequence chars) {
+        if (chars instanceof CharSlice) {
+            final CharSlice slice = (CharSlice)chars;
+            return get(slice.array(), slice.offset(), slice.length());
+        }
+        return get(chars, 0, chars.length());
+    }
+
+    /**
+     * Get canonical String of ASCII bytes
+     * @param bytes - buffer containing key, position is not used
+     * @param start - index of the first byte
+     * @param length - number of bytes, all of them must be ASCII
+     * @return String equal to the key
+     */
+    public String get(ByteBuffer bytes, int start, int length) {
+        if (length > MAX_KEY_LENGTH) return ascii(bytes, start, length);
+        int hash = 0;
+        for (int i = start, end = start + length; i < end; i++) hash = 31 * hash + bytes.get(i);
+        final int index = slot(hash);
+        final String key = keys[index];
+        if (key != null && key.hashCode() == hash && key.length() == length) {
+            int i = 0;
+            while (i < length && key.charAt(i) == bytes.get(start + i)) i++;
+            if (i == length) return key;
+        }
+        return keys[index] = ascii(bytes, start, length);
+    }
+
+    private int slot(int hash) { return (hash ^ (hash >>> 16)) & mask; }
+
+    private static String ascii(ByteBuffer bytes, int start, int length) {
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) chars[i] = (char)bytes.get(start + i);
+        return new String(chars);
+    }
+}
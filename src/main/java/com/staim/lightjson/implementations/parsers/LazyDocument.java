@@ -0,0 +1,255 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonType;
+import com.staim.lightjson.implementations.elements.JsonBooleanElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleElement;
+import com.staim.lightjson.implementations.elements.JsonLazyElement;
+import com.staim.lightjson.implementations.elements.JsonLongElement;
+import com.staim.lightjson.implementations.elements.JsonNullElement;
+import com.staim.lightjson.implementations.elements.JsonPlainElement;
+
+/**
+ * Source of lazy Json Elements
+ *
+ * Holds characters of the whole document and knows how to skip values, index members of Objects and Arrays and
+ * decode scalar values on demand. Shared by all lazy elements of one document, not thread-safe.
+ */
+public final class LazyDocument {
+    private final char[] chars;
+    private final int end;
+    private final NumberParser numbers = new NumberParser();
+    private int[] spans = new int[64];
+    private byte[] brackets = new byte[32];
+
+    LazyDocument(char[] chars, int end) {
+        this.chars = chars;
+        this.end = end;
+    }
+
+    int skipSpaces(int i) {
+        while (i < end) {
+            switch (chars[i]) {
+                case ' ': case '\t': case '\n': case '\r': i++; break;
+                default: return i;
+            }
+        }
+        return i;
+    }
+
+    private JsonException unexpected(int i) {
+        if (i >= end) return new JsonException("Unexpected End of Json");
+        return new JsonException("Unexpected symbol: '" + chars[i] + "' at position " + i);
+    }
+
+    /**
+     * Skip string starting at opening quote
+     * @return index following closing quote
+     */
+    private int skipString(int i) throws JsonException {
+        final char[] chars = this.chars;
+        i++;
+        while (i < end) {
+            final char c = chars[i++];
+            if (c == '"') return i;
+            if (c == '\\') i++;
+        }
+        throw new JsonException("Unexpected End of Json");
+    }
+
+    /**
+     * Skip value starting at given index. Only brackets and strings are checked, scalars and separators inside
+     * skipped Objects and Arrays are validated when they are accessed.
+     * @param i - index of the first character of value
+     * @return index following the value
+     * @throws JsonException on unbalanced brackets or unexpected end of Json
+     */
+    int skipValue(int i) throws JsonException {
+        if (i >= end) throw unexpected(i);
+        final char[] chars = this.chars;
+        switch (chars[i]) {
+            case '"': return skipString(i);
+            case '{': case '[': break;
+            case '}': case ']': case ',': case ':': throw unexpected(i);
+            default:
+                while (i < end) {
+                    switch (chars[i]) {
+                        case ',': case '}': case ']': case ' ': case '\t': case '\n': case '\r': return i;
+                        default: i++;
+                    }
+                }
+                return i;
+        }
+
+        int depth = 0;
+        while (i < end) {
+            final char c = chars[i];
+            switch (c) {
+                case '"':
+                    i = skipString(i);
+                    continue;
+                case '{': case '[':
+                    if (depth == brackets.length) {
+                        byte[] newBrackets = new byte[depth * 2];
+                        System.arraycopy(brackets, 0, newBrackets, 0, depth);
+                        brackets = newBrackets;
+                    }
+                    brackets[depth++] = (byte)(c == '{' ? '}' : ']');
+                    break;
+                case '}': case ']':
+                    if (brackets[--depth] != c) throw unexpected(i);
+                    if (depth == 0) return i + 1;
+                    break;
+            }
+            i++;
+        }
+        throw new JsonException("Unexpected End of Json");
+    }
+
+    /**
+     * Index members of Object or items of Array, each of them is skipped once
+     * @param start - index of opening bracket
+     * @param object - true for Object, false for Array
+     * @return array, starting with the index following closing bracket, followed by (key start, key end, value start,
+     * value end) for each Object member or (value start, value end) for each Array item
+     * @throws JsonException on malformed Json
+     */
+    public int[] index(int start, boolean object) throws JsonException {
+        final char[] chars = this.chars;
+        final char close = object ? '}' : ']';
+        int size = 1;
+        int i = skipSpaces(start + 1);
+        if (i < end && chars[i] == close) return new int[] { i + 1 };
+        while (true) {
+            if (spans.length - size < 4) {
+                int[] newSpans = new int[spans.length * 2];
+                System.arraycopy(spans, 0, newSpans, 0, size);
+                spans = newSpans;
+            }
+            if (object) {
+                if (i >= end || chars[i] != '"') throw unexpected(i);
+                spans[size++] = i + 1;
+                i = skipString(i);
+                spans[size++] = i - 1;
+                i = skipSpaces(i);
+                if (i >= end || chars[i] != ':') throw unexpected(i);
+                i = skipSpaces(i + 1);
+            }
+            spans[size++] = i;
+            i = skipValue(i);
+            spans[size++] = i;
+            i = skipSpaces(i);
+            if (i >= end) throw unexpected(i);
+            final char c = chars[i++];
+            if (c == close) break;
+            if (c != ',') throw unexpected(i - 1);
+            i = skipSpaces(i);
+        }
+        spans[0] = i;
+        final int[] result = new int[size];
+        System.arraycopy(spans, 0, result, 0, size);
+        return result;
+    }
+
+    /**
+     * Create Json Element for value, Objects and Arrays are not parsed until accessed
+     * @param start - index of the first character of value
+     * @param end - index following the value
+     * @return Json Element
+     * @throws JsonException on malformed value
+     */
+    public JsonElement value(int start, int end) throws JsonException {
+        switch (chars[start]) {
+            case '{': return new JsonLazyElement(this, start, JsonType.OBJECT, null);
+            case '[': return new JsonLazyElement(this, start, JsonType.ARRAY, null);
+            case '"': return JsonPlainElement.string(string(start + 1, end - 1));
+            case 't':
+                if (!regionEquals(start, end, "true")) throw unexpected(start);
+                return JsonBooleanElement.TRUE;
+            case 'f':
+                if (!regionEquals(start, end, "false")) throw unexpected(start);
+                return JsonBooleanElement.FALSE;
+            case 'n':
+                if (!regionEquals(start, end, "null")) throw unexpected(start);
+                return JsonNullElement.NULL;
+            default:
+                if (numbers.scan(chars, start, end) != end) throw new JsonException("Malformed number at position " + start);
+                if (numbers.isLong()) return JsonLongElement.valueOf(numbers.longValue());
+                return new JsonDoubleElement(numbers.doubleValue());
+        }
+    }
+
+    private boolean regionEquals(int start, int end, String literal) {
+        if (end - start != literal.length()) return false;
+        for (int i = start; i < end; i++)
+            if (chars[i] != literal.charAt(i - start)) return false;
+        return true;
+    }
+
+    /**
+     * Check whether raw string contents equal to the name, without decoding when there are no escapes
+     * @param start - index of the first character of string contents
+     * @param end - index of closing quote
+     * @param name - name to compare with
+     * @return true when decoded string equals to the name
+     * @throws JsonException on malformed escape
+     */
+    public boolean keyEquals(int start, int end, String name) throws JsonException {
+        final int length = name.length();
+        for (int i = start; i < end; i++) {
+            final char c = chars[i];
+            if (c == '\\') return string(start, end).equals(name);
+            if (i - start >= length || c != name.charAt(i - start)) return false;
+        }
+        return end - start == length;
+    }
+
+    /**
+     * Decode string contents
+     * @param start - index of the first character of string contents
+     * @param end - index of closing quote
+     * @return decoded String
+     * @throws JsonException on malformed escape
+     */
+    public String string(int start, int end) throws JsonException {
+        int clean = start;
+        while (clean < end && chars[clean] != '\\') clean++;
+        if (clean == end) return new String(chars, start, end - start);
+
+        final StringBuilder builder = new StringBuilder(end - start);
+        builder.append(chars, start, clean - start);
+        int i = clean;
+        while (i < end) {
+            final char c = chars[i++];
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            final char e = chars[i++];
+            switch (e) {
+                case '"': builder.append('"'); break;
+                case '\\': builder.append('\\'); break;
+                case '/': builder.append('/'); break;
+                case 'b': builder.append('\b'); break;
+                case 'f': builder.append('\f'); break;
+                case 'n': builder.append('\n'); break;
+                case 'r': builder.append('\r'); break;
+                case 't': builder.append('\t'); break;
+                case 'u':
+                    if (end - i < 4) throw new JsonException("Wrong unicode escape at position " + (i - 1));
+                    int code = 0;
+                    for (int j = 0; j < 4; j++) {
+                        final int digit = Character.digit(chars[i++], 16);
+                        if (digit < 0) throw new JsonException("Wrong unicode escape at position " + (i - 1));
+                        code = (code << 4) | digit;
+                    }
+                    builder.append((char)code);
+                    break;
+                default:
+                    throw new JsonException("Wrong escape sequence at position " + (i - 1));
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.staim.lightjson.implementations.parsers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * InputStream over memory-mapped file
+ *
+ * File is mapped segment by segment, so files larger than 2 GB can be read. Bytes are copied from the page cache
+ * straight into the buffer of reader, the file is never loaded into heap as a whole.
+ */
+public class MappedInputStream extends InputStream {
+    public static final long DEFAULT_SEGMENT_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long segmentSize;
+    private long segmentStart;
+    private MappedByteBuffer segment;
+
+    public MappedInputStream(Path path) throws IOException { this(path, DEFAULT_SEGMENT_SIZE); }
+
+    public MappedInputStream(Path path, long segmentSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.segmentSize = Math.min(segmentSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get mapped segment with remaining bytes, mapping the next one when current is exhausted
+     * @return segment or null at the end of file
+     */
+    private MappedByteBuffer segment() throws IOException {
+        if (segment != null && segment.hasRemaining()) return segment;
+        if (segment != null) segmentStart += segment.capacity();
+        if (segmentStart >= size) return null;
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, Math.min(segmentSize, size - segmentStart));
+        return segment;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final MappedByteBuffer segment = segment();
+        return segment == null ? -1 : segment.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) return 0;
+        final MappedByteBuffer segment = segment();
+        if (segment == null) return -1;
+        final int count = Math.min(length, segment.remaining());
+        segment.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long count) throws IOException {
+        long skipped = 0;
+        while (skipped < count) {
+            final MappedByteBuffer segment = segment();
+            if (segment == null) break;
+            final int step = (int)Math.min(count - skipped, segment.remaining());
+            segment.position(segment.position() + step);
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        final long position = segment == null ? 0 : segmentStart + segment.position();
+        return (int)Math.min(size - position, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        segment = null;
+        channel.close();
+    }
+}
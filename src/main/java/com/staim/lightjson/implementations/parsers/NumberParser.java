@@ -0,0 +1,401 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonException;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * In-place Json Number decoder
+ *
+ * Scans number directly in the source buffer, accumulating up to 19 significant digits into long mantissa and
+ * decimal exponent, no intermediate Strings are created. Integral values are returned as is, doubles are computed
+ * with exact fast path for small values, then with Eisel-Lemire algorithm, which is correctly rounded whenever it
+ * succeeds. Rare ambiguous cases (halfway points, subnormals, more than 19 digits) fall back to Double.parseDouble.
+ *
+ * Instance keeps the result of the last scan, so it must not be shared between threads.
+ */
+public final class NumberParser {
+    private static final int MIN_EXPONENT = -348;
+    private static final int MAX_EXPONENT = 347;
+    private static final int MAX_EXPLICIT_EXPONENT = 100000;
+
+    /** 128-bit mantissas of 10^e (rounded down), high and low halves, for e in [MIN_EXPONENT, MAX_EXPONENT] */
+    private static final long[] POWERS_HIGH = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+    private static final long[] POWERS_LOW = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+    static {
+        final BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int e = MIN_EXPONENT; e <= MAX_EXPONENT; e++) {
+            BigInteger mantissa;
+            if (e >= 0) {
+                mantissa = BigInteger.TEN.pow(e);
+                final int shift = mantissa.bitLength() - 128;
+                mantissa = shift > 0 ? mantissa.shiftRight(shift) : mantissa.shiftLeft(-shift);
+            } else {
+                final BigInteger divisor = BigInteger.TEN.pow(-e);
+                mantissa = BigInteger.ONE.shiftLeft(divisor.bitLength() + 127).divide(divisor);
+                if (mantissa.bitLength() > 128) mantissa = mantissa.shiftRight(mantissa.bitLength() - 128);
+            }
+            POWERS_HIGH[e - MIN_EXPONENT] = mantissa.shiftRight(64).longValue();
+            POWERS_LOW[e - MIN_EXPONENT] = mantissa.and(mask).longValue();
+        }
+    }
+
+    private static final double[] SMALL_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // result of the last scan
+    private boolean negative;
+    private long mantissa;      // unsigned, up to 19 significant digits
+    private int exponent;       // decimal exponent of mantissa
+    private int significant;    // number of significant digits in mantissa
+    private boolean truncated;  // some non-zero digits did not fit into mantissa
+    private boolean integral;   // no fraction and no exponent in text
+
+    // source of the last scan, used for rare fallback only
+    private Object source;
+    private int start;
+    private int end;
+
+    //////////////////////////// SCANNING //////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Scan Json Number starting at offset
+     * @param chars - source characters
+     * @param offset - index of the first character of number
+     * @param limit - end of source, exclusive
+     * @return index after the last character of number
+     * @throws JsonException when number is malformed
+     */
+    public int scan(char[] chars, int offset, int limit) throws JsonException {
+        reset(chars, offset);
+        int i = offset;
+        if (i < limit && chars[i] == '-') { negative = true; i++; }
+
+        int digitsStart = i;
+        for (; i < limit; i++) {
+            final int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) break;
+            addDigit(digit, false);
+        }
+        if (i == digitsStart) throw malformed(i);
+
+        if (i < limit && chars[i] == '.') {
+            integral = false;
+            digitsStart = ++i;
+            for (; i < limit; i++) {
+                final int digit = chars[i] - '0';
+                if (digit < 0 || digit > 9) break;
+                addDigit(digit, true);
+            }
+            if (i == digitsStart) throw malformed(i);
+        }
+
+        if (i < limit && (chars[i] == 'e' || chars[i] == 'E')) {
+            integral = false;
+            boolean negativeExponent = false;
+            if (++i < limit && (chars[i] == '+' || chars[i] == '-')) negativeExponent = chars[i++] == '-';
+            digitsStart = i;
+            int explicit = 0;
+            for (; i < limit; i++) {
+                final int digit = chars[i] - '0';
+                if (digit < 0 || digit > 9) break;
+                if (explicit < MAX_EXPLICIT_EXPONENT) explicit = explicit * 10 + digit;
+            }
+            if (i == digitsStart) throw malformed(i);
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        return end = i;
+    }
+
+    /**
+     * Scan Json Number starting at offset
+     * @param chars - source characters
+     * @param offset - index of the first character of number
+     * @param limit - end of source, exclusive
+     * @return index after the last character of number
+     * @throws JsonException when number is malformed
+     */
+    public int scan(CharSequence chars, int offset, int limit) throws JsonException {
+        reset(chars, offset);
+        int i = offset;
+        if (i < limit && chars.charAt(i) == '-') { negative = true; i++; }
+
+        int digitsStart = i;
+        for (; i < limit; i++) {
+            final int digit = chars.charAt(i) - '0';
+            if (digit < 0 || digit > 9) break;
+            addDigit(digit, false);
+        }
+        if (i == digitsStart) throw malformed(i);
+
+        if (i < limit && chars.charAt(i) == '.') {
+            integral = false;
+            digitsStart = ++i;
+            for (; i < limit; i++) {
+                final int digit = chars.charAt(i) - '0';
+                if (digit < 0 || digit > 9) break;
+                addDigit(digit, true);
+            }
+            if (i == digitsStart) throw malformed(i);
+        }
+
+        if (i < limit && (chars.charAt(i) == 'e' || chars.charAt(i) == 'E')) {
+            integral = false;
+            boolean negativeExponent = false;
+            if (++i < limit && (chars.charAt(i) == '+' || chars.charAt(i) == '-')) negativeExponent = chars.charAt(i++) == '-';
+            digitsStart = i;
+            int explicit = 0;
+            for (; i < limit; i++) {
+                final int digit = chars.charAt(i) - '0';
+                if (digit < 0 || digit > 9) break;
+                if (explicit < MAX_EXPLICIT_EXPONENT) explicit = explicit * 10 + digit;
+            }
+            if (i == digitsStart) throw malformed(i);
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        return end = i;
+    }
+
+    /**
+     * Scan Json Number starting at offset
+     * @param bytes - source ASCII or UTF-8 bytes, accessed by absolute index
+     * @param offset - index of the first byte of number
+     * @param limit - end of source, exclusive
+     * @return index after the last byte of number
+     * @throws JsonException when number is malformed
+     */
+    public int scan(ByteBuffer bytes, int offset, int limit) throws JsonException {
+        reset(bytes, offset);
+        int i = offset;
+        if (i < limit && bytes.get(i) == '-') { negative = true; i++; }
+
+        int digitsStart = i;
+        for (; i < limit; i++) {
+            final int digit = bytes.get(i) - '0';
+            if (digit < 0 || digit > 9) break;
+            addDigit(digit, false);
+        }
+        if (i == digitsStart) throw malformed(i);
+
+        if (i < limit && bytes.get(i) == '.') {
+            integral = false;
+            digitsStart = ++i;
+            for (; i < limit; i++) {
+                final int digit = bytes.get(i) - '0';
+                if (digit < 0 || digit > 9) break;
+                addDigit(digit, true);
+            }
+            if (i == digitsStart) throw malformed(i);
+        }
+
+        if (i < limit && (bytes.get(i) == 'e' || bytes.get(i) == 'E')) {
+            integral = false;
+            boolean negativeExponent = false;
+            if (++i < limit && (bytes.get(i) == '+' || bytes.get(i) == '-')) negativeExponent = bytes.get(i++) == '-';
+            digitsStart = i;
+            int explicit = 0;
+            for (; i < limit; i++) {
+                final int digit = bytes.get(i) - '0';
+                if (digit < 0 || digit > 9) break;
+                if (explicit < MAX_EXPLICIT_EXPONENT) explicit = explicit * 10 + digit;
+            }
+            if (i == digitsStart) throw malformed(i);
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        return end = i;
+    }
+
+    private void reset(Object source, int offset) {
+        this.source = source;
+        start = offset;
+        negative = false;
+        mantissa = 0;
+        exponent = 0;
+        significant = 0;
+        truncated = false;
+        integral = true;
+    }
+
+    private void addDigit(int digit, boolean fraction) {
+        if (significant < 19) {
+            mantissa = mantissa * 10 + digit;
+            if (mantissa != 0) significant++;
+            if (fraction) exponent--;
+        } else {
+            if (!fraction) exponent++;
+            if (digit != 0) truncated = true;
+        }
+    }
+
+    private JsonException malformed(int position) {
+        return new JsonException("Malformed number at position " + position);
+    }
+
+    //////////////////////////// RESULT ////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return true when scanned number has no fraction and exponent and fits into long
+     */
+    public boolean isLong() {
+        if (!integral || truncated || exponent != 0) return false;
+        if (significant < 19) return true;
+        return mantissa >= 0 || (negative && mantissa == Long.MIN_VALUE);
+    }
+
+    /**
+     * @return scanned number as long, valid only when isLong() is true
+     */
+    public long longValue() { return negative ? -mantissa : mantissa; }
+
+    /**
+     * @return scanned number as correctly rounded double
+     */
+    public double doubleValue() {
+        if (mantissa == 0) return negative ? -0.0 : 0.0;
+        double value = toDouble(negative, mantissa, exponent);
+        if (truncated && !Double.isNaN(value) && value != toDouble(negative, mantissa + 1, exponent))
+            value = Double.NaN;
+        if (Double.isNaN(value)) value = Double.parseDouble(text());
+        return value;
+    }
+
+    /**
+     * @return scanned number as Long when it fits, as Double otherwise
+     */
+    public Number numberValue() {
+        if (isLong()) return longValue();
+        return doubleValue();
+    }
+
+    private String text() {
+        if (source instanceof char[]) return new String((char[])source, start, end - start);
+        if (source instanceof CharSequence) return ((CharSequence)source).subSequence(start, end).toString();
+        final ByteBuffer bytes = (ByteBuffer)source;
+        final char[] chars = new char[end - start];
+        for (int i = 0; i < chars.length; i++) chars[i] = (char)bytes.get(start + i);
+        return new String(chars);
+    }
+
+    /**
+     * Parse whole CharSequence as Json Number
+     * @param chars - text to parse
+     * @return Long or Double, null when text is not a Json Number
+     */
+    public static Number parse(CharSequence chars) {
+        final NumberParser parser = new NumberParser();
+        final int length = chars.length();
+        try {
+            if (parser.scan(chars, 0, length) != length) return null;
+        } catch (JsonException e) {
+            return null;
+        }
+        return parser.numberValue();
+    }
+
+    /**
+     * Parse number written in Json String value
+     *
+     * Surrounding whitespace is ignored. Text, which is not a Json Number (leading '+', leading zeros, "1." and
+     * so on), is parsed as Long.parseLong and Double.parseDouble would parse it.
+     * @param text - text to parse
+     * @return Long or Double, null when text is not a number
+     */
+    public static Number parseText(String text) {
+        final String trimmed = text.trim();
+        final Number number = parse(trimmed);
+        if (number != null || trimmed.isEmpty()) return number;
+        try {
+            return Long.parseLong(trimmed);
+        } catch (NumberFormatException ignored) {}
+        try {
+            return Double.parseDouble(trimmed);
+        } catch (NumberFormatException ignored) {}
+        return null;
+    }
+
+    //////////////////////////// CONVERSION ////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Convert decimal mantissa and exponent to correctly rounded double
+     * @param negative - sign
+     * @param mantissa - non-zero unsigned decimal mantissa
+     * @param exponent - decimal exponent
+     * @return double value or NaN when value cannot be decided without full precision arithmetic
+     */
+    public static double toDouble(boolean negative, long mantissa, int exponent) {
+        // exact: both mantissa and power of ten are exact doubles, so single operation is correctly rounded
+        if (mantissa >= 0 && mantissa <= (1L << 53) && exponent >= -22 && exponent <= 22) {
+            final double value = exponent < 0 ? mantissa / SMALL_POWERS[-exponent] : mantissa * SMALL_POWERS[exponent];
+            return negative ? -value : value;
+        }
+        return eiselLemire(negative, mantissa, exponent);
+    }
+
+    private static double eiselLemire(boolean negative, long mantissa, int exponent) {
+        if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT) return Double.NaN;
+
+        // normalization
+        final int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        mantissa <<= leadingZeros;
+        long exponent2 = ((217706L * exponent) >> 16) + 64 + 1023 - leadingZeros;
+
+        // multiplication
+        final int index = exponent - MIN_EXPONENT;
+        long high = multiplyHigh(mantissa, POWERS_HIGH[index]);
+        long low = mantissa * POWERS_HIGH[index];
+
+        // wider approximation
+        if ((high & 0x1FF) == 0x1FF && unsignedLess(low + mantissa, mantissa)) {
+            final long yHigh = multiplyHigh(mantissa, POWERS_LOW[index]);
+            final long yLow = mantissa * POWERS_LOW[index];
+            long mergedHigh = high;
+            final long mergedLow = low + yHigh;
+            if (unsignedLess(mergedLow, low)) mergedHigh++;
+            if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow + 1 == 0 && unsignedLess(yLow + mantissa, mantissa))
+                return Double.NaN;
+            high = mergedHigh;
+            low = mergedLow;
+        }
+
+        // shifting to 54 bits
+        final long msb = high >>> 63;
+        long result = high >>> (msb + 9);
+        exponent2 -= 1 ^ msb;
+
+        // half-way ambiguity
+        if (low == 0 && (high & 0x1FF) == 0 && (result & 3) == 1) return Double.NaN;
+
+        // from 54 to 53 bits
+        result += result & 1;
+        result >>>= 1;
+        if ((result >>> 53) > 0) {
+            result >>>= 1;
+            exponent2++;
+        }
+        if (exponent2 <= 0 || exponent2 >= 0x7FF) return Double.NaN; // subnormal or infinite
+
+        long bits = (exponent2 << 52) | (result & 0x000FFFFFFFFFFFFFL);
+        if (negative) bits |= Long.MIN_VALUE;
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * High 64 bits of unsigned 128-bit product
+     */
+    private static long multiplyHigh(long x, long y) {
+        final long x0 = x & 0xFFFFFFFFL;
+        final long x1 = x >>> 32;
+        final long y0 = y & 0xFFFFFFFFL;
+        final long y1 = y >>> 32;
+        final long t = x1 * y0 + ((x0 * y0) >>> 32);
+        final long w1 = x0 * y1 + (t & 0xFFFFFFFFL);
+        return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+    }
+
+    private static boolean unsignedLess(long a, long b) {
+        return (a ^ Long.MIN_VALUE) < (b ^ Long.MIN_VALUE);
+    }
+}
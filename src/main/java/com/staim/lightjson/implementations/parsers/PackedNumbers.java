@@ -0,0 +1,86 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.implementations.elements.JsonArrayElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleArrayElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleElement;
+import com.staim.lightjson.implementations.elements.JsonLongArrayElement;
+import com.staim.lightjson.implementations.elements.JsonLongElement;
+
+import java.util.Arrays;
+
+/**
+ * Scratch storage of Array items, while all of them are Numbers
+ *
+ * Parsers collect Numbers here without creating elements and get packed JsonLongArrayElement or
+ * JsonDoubleArrayElement at the end. When a non-number item follows, collected Numbers are taken back as elements
+ * with element(). Storage is kept between Arrays, instance must not be shared between threads.
+ */
+final class PackedNumbers {
+    private long[] values = new long[64]; // long value or raw bits of double
+    private long[] integral = new long[1];
+    private int size;
+    private boolean fractional; // some value is not integral
+    private boolean wide; // some integral value does not fit double exactly
+
+    void clear() {
+        size = 0;
+        fractional = false;
+        wide = false;
+    }
+
+    int size() { return size; }
+
+    /**
+     * Append Number just scanned by NumberParser
+     */
+    void add(NumberParser numbers) {
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        final int words = (values.length + 63) >>> 6;
+        if (integral.length < words) integral = Arrays.copyOf(integral, words);
+        final long bit = 1L << size;
+        if (numbers.isLong()) {
+            final long value = numbers.longValue();
+            values[size] = value;
+            integral[size >>> 6] |= bit;
+            if (!JsonDoubleArrayElement.fits(value)) wide = true;
+        } else {
+            values[size] = Double.doubleToRawLongBits(numbers.doubleValue());
+            integral[size >>> 6] &= ~bit;
+            fractional = true;
+        }
+        size++;
+    }
+
+    /**
+     * Get collected Number as element
+     */
+    JsonElement element(int index) {
+        if (isIntegral(index)) return JsonLongElement.valueOf(values[index]);
+        return new JsonDoubleElement(Double.longBitsToDouble(values[index]));
+    }
+
+    /**
+     * Build Array of collected Numbers: long[] when all are integral, double[] when all fit it exactly
+     */
+    JsonElement toArray() {
+        if (!fractional) return new JsonLongArrayElement(Arrays.copyOf(values, size), size);
+        if (wide) {
+            final JsonElement[] elements = new JsonElement[size];
+            for (int i = 0; i < size; i++) elements[i] = element(i);
+            return new JsonArrayElement(elements, 0, size);
+        }
+        final double[] doubles = new double[size];
+        long[] integralItems = null;
+        for (int i = 0; i < size; i++) {
+            if (isIntegral(i)) {
+                doubles[i] = values[i];
+                if (integralItems == null) integralItems = new long[(size + 63) >>> 6];
+                integralItems[i >>> 6] |= 1L << i;
+            } else doubles[i] = Double.longBitsToDouble(values[i]);
+        }
+        return new JsonDoubleArrayElement(doubles, integralItems, size);
+    }
+
+    private boolean isIntegral(int index) { return (integral[index >>> 6] & (1L << index)) != 0; }
+}
@@ -0,0 +1,61 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonParser;
+import com.staim.lightjson.implementations.elements.JsonColumnarElement;
+import com.staim.lightjson.implementations.elements.JsonPackedArrayElement;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+/**
+ * Columnar Parser
+ *
+ * Parses with ParserFast, then replaces every Array of at least MIN_ROWS Objects with the same keys in the same
+ * order (the same JsonShape) by JsonColumnarElement, which keeps values of each key in primitive arrays. Arrays
+ * are converted bottom-up, so nested uniform Arrays become columnar too. Instance must not be shared between threads.
+ */
+public class ParserColumnar implements JsonParser {
+    public static final int MIN_ROWS = 2;
+
+    private final ParserFast parser = new ParserFast();
+
+    @Override
+    public JsonElement parse(String json) throws JsonException { return convert(parser.parse(json)); }
+
+    @Override
+    public JsonElement parse(byte[] json, int offset, int length) throws JsonException {
+        return convert(parser.parse(json, offset, length));
+    }
+
+    @Override
+    public JsonElement parse(ByteBuffer json) throws JsonException { return convert(parser.parse(json)); }
+
+    private static JsonElement convert(JsonElement element) {
+        switch (element.getType()) {
+            case OBJECT: {
+                final Map<String, JsonElement> members = element.getData();
+                for (Map.Entry<String, JsonElement> entry : members.entrySet())
+                    entry.setValue(convert(entry.getValue()));
+                return element;
+            }
+            case ARRAY: {
+                if (element instanceof JsonPackedArrayElement) return element; // Numbers only
+                final List<JsonElement> items = element.getData();
+                for (ListIterator<JsonElement> iterator = items.listIterator(); iterator.hasNext(); ) {
+                    final JsonElement item = iterator.next();
+                    final JsonElement converted = convert(item);
+                    if (converted != item) iterator.set(converted);
+                }
+                if (items.size() < MIN_ROWS) return element;
+                final JsonElement columnar = JsonColumnarElement.of(items);
+                return columnar != null ? columnar : element;
+            }
+            default:
+                return element;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonHandler;
+import com.staim.lightjson.JsonParser;
+import com.staim.lightjson.JsonToken;
+import com.staim.lightjson.JsonTokenReader;
+import com.staim.lightjson.implementations.TokenReaderImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+
+/**
+ * Event (SAX-style) Parser
+ *
+ * Pushes tokens of streaming reader into JsonHandler. Keys, strings and numbers are passed without creating
+ * Strings or boxes, so handler only pays for what it keeps. Tree parsing is done with TreeHandler.
+ */
+public class ParserEvent implements JsonParser {
+    @Override
+    public JsonElement parse(String json) throws JsonException {
+        TreeHandler handler = new TreeHandler();
+        parse(json, handler);
+        return handler.getResult();
+    }
+
+    @Override
+    public JsonElement parse(byte[] json, int offset, int length) throws JsonException {
+        TreeHandler handler = new TreeHandler();
+        parse(json, offset, length, handler);
+        return handler.getResult();
+    }
+
+    @Override
+    public JsonElement parse(ByteBuffer json) throws JsonException {
+        if (json.hasArray()) return parse(json.array(), json.arrayOffset() + json.position(), json.remaining());
+        return parse(ParserUtil.decode(json));
+    }
+
+    public void parse(String json, JsonHandler handler) throws JsonException {
+        parse(new TokenReaderImpl(new StringReader(json)), handler);
+    }
+
+    public void parse(byte[] json, int offset, int length, JsonHandler handler) throws JsonException {
+        parse(new TokenReaderImpl(new ByteArrayInputStream(json, offset, length)), handler);
+    }
+
+    /**
+     * Parse Json from Reader pushing events into handler
+     * @param reader - reader to parse, it is not closed
+     * @param handler - handler to receive events
+     * @throws JsonException on malformed Json or when thrown by handler
+     */
+    public void parse(Reader reader, JsonHandler handler) throws JsonException {
+        parse(new TokenReaderImpl(reader), handler);
+    }
+
+    /**
+     * Parse UTF-8 encoded Json from InputStream pushing events into handler
+     * @param stream - stream to parse, it is not closed
+     * @param handler - handler to receive events
+     * @throws JsonException on malformed Json or when thrown by handler
+     */
+    public void parse(InputStream stream, JsonHandler handler) throws JsonException {
+        parse(new TokenReaderImpl(stream), handler);
+    }
+
+    private void parse(JsonTokenReader reader, JsonHandler handler) throws JsonException {
+        if (reader.nextToken() == JsonToken.END_DOCUMENT) throw new JsonException("Unexpected End of Json");
+        push(reader, handler);
+        if (reader.nextToken() != JsonToken.END_DOCUMENT) throw new JsonException("Unexpected " + reader.currentToken() + " after end of Json");
+    }
+
+    /**
+     * Push the current value of reader with all its children into handler.
+     * After return current token is the last token of the value.
+     * @param reader - token reader, positioned at value token
+     * @param handler - handler to receive events
+     * @throws JsonException on malformed Json or when thrown by handler
+     */
+    public static void push(JsonTokenReader reader, JsonHandler handler) throws JsonException {
+        int depth = 0;
+        while (true) {
+            switch (reader.currentToken()) {
+                case START_OBJECT: depth++; handler.startObject(); break;
+                case END_OBJECT: depth--; handler.endObject(); break;
+                case START_ARRAY: depth++; handler.startArray(); break;
+                case END_ARRAY: depth--; handler.endArray(); break;
+                case NAME: handler.key(reader.getText()); break;
+                case STRING: handler.stringValue(reader.getText()); break;
+                case NUMBER:
+                    if (reader.isIntegral()) handler.numberValue(reader.getLong());
+                    else handler.numberValue(reader.getDouble());
+                    break;
+                case BOOLEAN: handler.booleanValue(reader.getBoolean()); break;
+                case NULL: handler.nullValue(); break;
+                default: throw new JsonException("Unexpected End of Json");
+            }
+            if (depth == 0) return;
+            reader.nextToken();
+        }
+    }
+}
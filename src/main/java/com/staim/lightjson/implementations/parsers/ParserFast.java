@@ -0,0 +1,349 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonParser;
+import com.staim.lightjson.implementations.elements.JsonArrayElement;
+import com.staim.lightjson.implementations.elements.JsonBooleanElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleElement;
+import com.staim.lightjson.implementations.elements.JsonLongElement;
+import com.staim.lightjson.implementations.elements.JsonNullElement;
+import com.staim.lightjson.implementations.elements.JsonObjectElement;
+import com.staim.lightjson.implementations.elements.JsonObjectMap;
+import com.staim.lightjson.implementations.elements.JsonPlainElement;
+import com.staim.lightjson.implementations.elements.JsonShape;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Table-driven allocation-free Parser
+ *
+ * Characters are classified with lookup tables and dispatched with a flat switch. Input characters, pending
+ * Array items and Object members and string decoding all use scratch buffers, which are kept between calls,
+ * so no garbage is produced besides the resulting tree. Instance must not be shared between threads.
+ */
+public class ParserFast implements JsonParser {
+    private static final byte C_OTHER = 0;
+    private static final byte C_SPACE = 1;
+    private static final byte C_OBJECT = 2;
+    private static final byte C_ARRAY = 3;
+    private static final byte C_STRING = 4;
+    private static final byte C_NUMBER = 5;
+    private static final byte C_TRUE = 6;
+    private static final byte C_FALSE = 7;
+    private static final byte C_NULL = 8;
+
+    private static final byte[] CHAR_CLASS = new byte[128];
+    private static final boolean[] STRING_STOP = new boolean[128]; // characters ending fast string scan
+    static {
+        CHAR_CLASS[' '] = CHAR_CLASS['\t'] = CHAR_CLASS['\n'] = CHAR_CLASS['\r'] = C_SPACE;
+        CHAR_CLASS['{'] = C_OBJECT;
+        CHAR_CLASS['['] = C_ARRAY;
+        CHAR_CLASS['"'] = C_STRING;
+        CHAR_CLASS['-'] = C_NUMBER;
+        for (char c = '0'; c <= '9'; c++) CHAR_CLASS[c] = C_NUMBER;
+        CHAR_CLASS['t'] = C_TRUE;
+        CHAR_CLASS['f'] = C_FALSE;
+        CHAR_CLASS['n'] = C_NULL;
+
+        STRING_STOP['"'] = STRING_STOP['\\'] = true;
+    }
+
+    private char[] chars = new char[1024];
+    private int next;
+    private int end;
+
+    private char[] scratch = new char[64];
+    private final NumberParser numbers = new NumberParser();
+    private JsonElement[] values = new JsonElement[64];
+    private String[] keys = new String[64];
+    private final KeyCache keyCache = KeyCache.local();
+    private JsonShape shapes = new JsonShape();
+    private final PackedNumbers packed = new PackedNumbers();
+    private int stackSize;
+
+    private CharsetDecoder decoder;
+
+    @Override
+    public JsonElement parse(String json) throws JsonException {
+        final int length = json.length();
+        if (chars.length < length) chars = new char[length];
+        json.getChars(0, length, chars, 0);
+        return parse(chars, 0, length);
+    }
+
+    @Override
+    public JsonElement parse(byte[] json, int offset, int length) throws JsonException {
+        return parse(ByteBuffer.wrap(json, offset, length));
+    }
+
+    @Override
+    public JsonElement parse(ByteBuffer json) throws JsonException {
+        if (decoder == null)
+            decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+        if (chars.length < json.remaining()) chars = new char[json.remaining()];
+        final ByteBuffer in = json.duplicate();
+        final CharBuffer out = CharBuffer.wrap(chars);
+        decoder.reset();
+        CoderResult result = decoder.decode(in, out, true);
+        if (!result.isError()) result = decoder.flush(out);
+        if (result.isError()) throw new JsonException("Malformed UTF-8 at position " + in.position());
+        return parse(chars, 0, out.position());
+    }
+
+    /**
+     * Parse Json characters to Json Element
+     * @param json - array containing Json
+     * @param offset - index of the first character of Json
+     * @param length - number of characters to parse
+     * @return Json Element
+     * @throws JsonException
+     */
+    public JsonElement parse(char[] json, int offset, int length) throws JsonException {
+        final char[] saved = chars;
+        chars = json;
+        next = offset;
+        end = offset + length;
+        stackSize = 0;
+        if (shapes.isFull()) shapes = new JsonShape(); // parser may be pooled, do not keep a full tree forever
+        try {
+            if (next < end && chars[next] == '\uFEFF') next++; // Byte Order Mark
+            JsonElement element = parseValue();
+            if (skipSpaces() < end) throw unexpected();
+            return element;
+        } finally {
+            chars = saved;
+            for (int i = 0; i < stackSize; i++) { values[i] = null; keys[i] = null; }
+        }
+    }
+
+    //////////////////////////// PARSING ///////////////////////////////////////////////////////////////////////////////
+
+    private static byte classOf(char c) { return c < 128 ? CHAR_CLASS[c] : C_OTHER; }
+
+    private int skipSpaces() {
+        final char[] chars = this.chars;
+        int i = next;
+        while (i < end && classOf(chars[i]) == C_SPACE) i++;
+        return next = i;
+    }
+
+    private JsonException unexpected() {
+        if (next >= end) return new JsonException("Unexpected End of Json");
+        return new JsonException("Unexpected symbol: '" + chars[next] + "' at position " + next);
+    }
+
+    private JsonElement parseValue() throws JsonException {
+        if (skipSpaces() >= end) throw unexpected();
+        switch (classOf(chars[next])) {
+            case C_OBJECT: return parseObject();
+            case C_ARRAY: return parseArray();
+            case C_STRING: return JsonPlainElement.string(parseString());
+            case C_NUMBER: return parseNumber();
+            case C_TRUE: expectLiteral("true"); return JsonBooleanElement.TRUE;
+            case C_FALSE: expectLiteral("false"); return JsonBooleanElement.FALSE;
+            case C_NULL: expectLiteral("null"); return JsonNullElement.NULL;
+            default: throw unexpected();
+        }
+    }
+
+    private void push(String key, JsonElement value) {
+        if (stackSize == values.length) {
+            JsonElement[] newValues = new JsonElement[stackSize * 2];
+            String[] newKeys = new String[stackSize * 2];
+            System.arraycopy(values, 0, newValues, 0, stackSize);
+            System.arraycopy(keys, 0, newKeys, 0, stackSize);
+            values = newValues;
+            keys = newKeys;
+        }
+        keys[stackSize] = key;
+        values[stackSize++] = value;
+    }
+
+    private JsonElement parseObject() throws JsonException {
+        final int base = stackSize;
+        next++; // '{'
+        if (skipSpaces() < end && chars[next] == '}') {
+            next++;
+            return new JsonObjectElement();
+        }
+        while (true) {
+            if (skipSpaces() >= end || chars[next] != '"') throw unexpected();
+            final String key = parseKey();
+            if (skipSpaces() >= end || chars[next] != ':') throw unexpected();
+            next++;
+            push(key, parseValue());
+            if (skipSpaces() >= end) throw unexpected();
+            final char c = chars[next++];
+            if (c == '}') break;
+            if (c != ',') { next--; throw unexpected(); }
+        }
+
+        final int count = stackSize - base;
+        final JsonObjectMap elements = new JsonObjectMap(shapes, count);
+        for (int i = base; i < stackSize; i++) {
+            elements.append(keys[i], values[i]);
+            keys[i] = null;
+            values[i] = null;
+        }
+        stackSize = base;
+        return new JsonObjectElement(elements);
+    }
+
+    private JsonElement parseArray() throws JsonException {
+        final int base = stackSize;
+        next++; // '['
+        if (skipSpaces() < end && chars[next] == ']') {
+            next++;
+            return new JsonArrayElement();
+        }
+        if (classOf(chars[next]) == C_NUMBER) {
+            final JsonElement numbers = parseNumbers();
+            if (numbers != null) return numbers;
+        }
+        while (true) {
+            push(null, parseValue());
+            if (skipSpaces() >= end) throw unexpected();
+            final char c = chars[next++];
+            if (c == ']') break;
+            if (c != ',') { next--; throw unexpected(); }
+        }
+
+        JsonArrayElement array = new JsonArrayElement(values, base, stackSize);
+        for (int i = base; i < stackSize; i++) values[i] = null;
+        stackSize = base;
+        return array;
+    }
+
+    /**
+     * Parse items of Array, while they are Numbers, into packed storage
+     * @return packed Array, or null when non-number item was met: Numbers before it are pushed to the stack
+     *         and parsing stops at that item
+     */
+    private JsonElement parseNumbers() throws JsonException {
+        packed.clear();
+        while (true) {
+            next = numbers.scan(chars, next, end);
+            packed.add(numbers);
+            if (skipSpaces() >= end) throw unexpected();
+            final char c = chars[next++];
+            if (c == ']') return packed.toArray();
+            if (c != ',') { next--; throw unexpected(); }
+            if (skipSpaces() >= end) throw unexpected();
+            if (classOf(chars[next]) != C_NUMBER) break;
+        }
+        for (int i = 0, count = packed.size(); i < count; i++) push(null, packed.element(i));
+        return null;
+    }
+
+    private void expectLiteral(String literal) throws JsonException {
+        final int length = literal.length();
+        if (end - next < length) throw new JsonException("Unexpected End of Json");
+        for (int i = 0; i < length; i++) {
+            if (chars[next] != literal.charAt(i)) throw unexpected();
+            next++;
+        }
+    }
+
+    /**
+     * Parse Object key, keys without escapes are taken from key cache
+     */
+    private String parseKey() throws JsonException {
+        final char[] chars = this.chars;
+        final int start = ++next;
+        int i = start;
+        while (i < end) {
+            final char c = chars[i];
+            if (c < 128 && STRING_STOP[c]) break;
+            i++;
+        }
+        if (i >= end) throw new JsonException("Unexpected End of Json");
+        if (chars[i] == '"') {
+            next = i + 1;
+            return keyCache.get(chars, start, i - start);
+        }
+        return decodeString(start, i);
+    }
+
+    private String parseString() throws JsonException {
+        final char[] chars = this.chars;
+        final int start = ++next;
+        int i = start;
+        while (i < end) {
+            final char c = chars[i];
+            if (c < 128 && STRING_STOP[c]) break;
+            i++;
+        }
+        if (i >= end) throw new JsonException("Unexpected End of Json");
+        if (chars[i] == '"') {
+            next = i + 1;
+            return new String(chars, start, i - start);
+        }
+        return decodeString(start, i);
+    }
+
+    /**
+     * Slow path of string parsing: decode escapes into scratch buffer
+     * @param start - index of the first character of string
+     * @param clean - index of the first escape, characters before it are copied as is
+     * @return decoded String
+     * @throws JsonException on malformed escape or unexpected end of Json
+     */
+    private String decodeString(int start, int clean) throws JsonException {
+        final char[] chars = this.chars;
+        if (scratch.length < end - start) scratch = new char[Math.max(end - start, scratch.length * 2)];
+        final char[] out = scratch;
+        int length = clean - start;
+        System.arraycopy(chars, start, out, 0, length);
+
+        int i = clean;
+        while (true) {
+            if (i >= end) throw new JsonException("Unexpected End of Json");
+            final char c = chars[i++];
+            if (c == '"') break;
+            if (c != '\\') {
+                out[length++] = c;
+                continue;
+            }
+            if (i >= end) throw new JsonException("Unexpected End of Json");
+            final char e = chars[i++];
+            switch (e) {
+                case '"': out[length++] = '"'; break;
+                case '\\': out[length++] = '\\'; break;
+                case '/': out[length++] = '/'; break;
+                case 'b': out[length++] = '\b'; break;
+                case 'f': out[length++] = '\f'; break;
+                case 'n': out[length++] = '\n'; break;
+                case 'r': out[length++] = '\r'; break;
+                case 't': out[length++] = '\t'; break;
+                case 'u':
+                    if (end - i < 4) throw new JsonException("Unexpected End of Json");
+                    int code = 0;
+                    for (int j = 0; j < 4; j++) {
+                        final int digit = Character.digit(chars[i++], 16);
+                        if (digit < 0) throw new JsonException("Wrong unicode escape at position " + (i - 1));
+                        code = (code << 4) | digit;
+                    }
+                    out[length++] = (char)code;
+                    break;
+                default:
+                    throw new JsonException("Wrong escape sequence at position " + (i - 1));
+            }
+        }
+        next = i;
+        return new String(out, 0, length);
+    }
+
+    private JsonElement parseNumber() throws JsonException {
+        next = numbers.scan(chars, next, end);
+        if (numbers.isLong()) return JsonLongElement.valueOf(numbers.longValue());
+        return new JsonDoubleElement(numbers.doubleValue());
+    }
+}
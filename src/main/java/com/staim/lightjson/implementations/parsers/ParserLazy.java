@@ -0,0 +1,62 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonParser;
+import com.staim.lightjson.JsonType;
+import com.staim.lightjson.implementations.elements.JsonLazyElement;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Lazy Parser
+ *
+ * Only indexes top-level members by skipping balanced brackets, nested Objects and Arrays are indexed and parsed
+ * when they are accessed (see JsonLazyElement). Untouched subtrees cost one linear skip, but they are validated
+ * only as far as brackets and strings are concerned. Resulting elements keep the whole document in memory and
+ * share its scratch buffers, so elements of one document must not be used from several threads at once. The
+ * parser itself keeps no state and may be shared.
+ */
+public class ParserLazy implements JsonParser {
+    @Override
+    public JsonElement parse(String json) throws JsonException {
+        final char[] chars = json.toCharArray();
+        return parse(chars, chars.length);
+    }
+
+    @Override
+    public JsonElement parse(byte[] json, int offset, int length) throws JsonException {
+        return parse(ParserUtil.decode(json, offset, length));
+    }
+
+    @Override
+    public JsonElement parse(ByteBuffer json) throws JsonException {
+        return parse(ParserUtil.decode(json));
+    }
+
+    private JsonElement parse(char[] chars, int length) throws JsonException {
+        final LazyDocument document = new LazyDocument(chars, length);
+        int start = 0;
+        if (length > 0 && chars[0] == '\uFEFF') start++; // Byte Order Mark
+        start = document.skipSpaces(start);
+        if (start >= length) throw new JsonException("Unexpected End of Json");
+
+        final JsonElement element;
+        final int end;
+        switch (chars[start]) {
+            case '{':
+            case '[':
+                final boolean object = chars[start] == '{';
+                final int[] spans = document.index(start, object);
+                element = new JsonLazyElement(document, start, object ? JsonType.OBJECT : JsonType.ARRAY, spans);
+                end = spans[0];
+                break;
+            default:
+                end = document.skipValue(start);
+                element = document.value(start, end);
+        }
+        final int trailing = document.skipSpaces(end);
+        if (trailing < length) throw new JsonException("Unexpected symbol: '" + chars[trailing] + "' at position " + trailing);
+        return element;
+    }
+}
@@ -0,0 +1,293 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonParser;
+import com.staim.lightjson.implementations.elements.JsonArrayElement;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel Parser for huge top-level Arrays
+ *
+ * Finds boundaries of top-level Array items with one quick scan, which only tracks strings, escapes and nesting,
+ * then items are parsed in chunks on shared ForkJoinPool and stitched into one Array Element. Characters are
+ * parsed with ParserFast and bytes with ParserUtf8. Other documents, small inputs and inputs on single-core
+ * machines are parsed sequentially.
+ *
+ * Positions are int offsets into one String, array or ByteBuffer, so input is limited to MAX_LENGTH characters
+ * or bytes and larger Strings are rejected. Files over 2 GB can not be mapped into one ByteBuffer, they are
+ * parsed by ParserStreaming through mapped segments (see LightJson.from(Path)).
+ */
+public class ParserParallel implements JsonParser {
+    public static final int MAX_LENGTH = Integer.MAX_VALUE - 8; // largest array, which VMs allocate
+    private static final int PARALLEL_THRESHOLD = 256 * 1024; // smaller inputs are parsed sequentially
+    private static final int CHUNK_SIZE = 64 * 1024; // characters or bytes parsed by one task
+
+    private static final ForkJoinPool sharedPool = new ForkJoinPool();
+
+    private static final ThreadLocal<ParserFast> charParsers = new ThreadLocal<ParserFast>() {
+        @Override protected ParserFast initialValue() { return new ParserFast(); }
+    };
+    private static final ThreadLocal<ParserUtf8> byteParsers = new ThreadLocal<ParserUtf8>() {
+        @Override protected ParserUtf8 initialValue() { return new ParserUtf8(); }
+    };
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Create parser running on shared ForkJoinPool with parallelism equal to the number of processors
+     */
+    public ParserParallel() { this(sharedPool); }
+
+    /**
+     * Create parser running on given ForkJoinPool
+     * @param pool - pool to parse items on
+     */
+    public ParserParallel(ForkJoinPool pool) { this.pool = pool; }
+
+    /**
+     * Get shared ForkJoinPool used by default for parsing
+     * @return pool with parallelism equal to the number of processors
+     */
+    public static ForkJoinPool sharedPool() { return sharedPool; }
+
+    @Override
+    public JsonElement parse(String json) throws JsonException {
+        if (json.length() > MAX_LENGTH) throw new JsonException("Json is too long: " + json.length() + " characters, limit is " + MAX_LENGTH);
+        final char[] chars = json.toCharArray();
+        if (chars.length < PARALLEL_THRESHOLD || pool.getParallelism() < 2) return charParsers.get().parse(chars, 0, chars.length);
+        return parse(new CharSource(chars));
+    }
+
+    @Override
+    public JsonElement parse(byte[] json, int offset, int length) throws JsonException {
+        return parse(ByteBuffer.wrap(json, offset, length));
+    }
+
+    @Override
+    public JsonElement parse(ByteBuffer json) throws JsonException {
+        if (json.remaining() < PARALLEL_THRESHOLD || pool.getParallelism() < 2) return byteParsers.get().parse(json);
+        return parse(new ByteSource(json));
+    }
+
+    private JsonElement parse(Source source) throws JsonException {
+        final int i = source.skipSpaces(source.skipByteOrderMark(source.start()));
+        if (i >= source.end() || source.at(i) != '[') return source.parseAll();
+
+        final Boundaries items = findItems(source, i);
+        final JsonElement[] elements = new JsonElement[items.count];
+        try {
+            pool.invoke(new ChunkTask(source, items, elements, 0, items.count));
+        } catch (ParseFailure failure) {
+            throw failure.exception;
+        }
+        return new JsonArrayElement(elements, 0, elements.length);
+    }
+
+    //////////////////////////// BOUNDARIES ////////////////////////////////////////////////////////////////////////////
+
+    private static class Boundaries {
+        int[] starts = new int[1024];
+        int[] ends = new int[1024];
+        int count;
+
+        void add(int start, int end) {
+            if (count == starts.length) {
+                int[] newStarts = new int[count * 2];
+                int[] newEnds = new int[count * 2];
+                System.arraycopy(starts, 0, newStarts, 0, count);
+                System.arraycopy(ends, 0, newEnds, 0, count);
+                starts = newStarts;
+                ends = newEnds;
+            }
+            starts[count] = start;
+            ends[count++] = end;
+        }
+    }
+
+    /**
+     * Find boundaries of top-level Array items. Items themselves are validated later by item parser,
+     * so only strings and nesting are tracked here.
+     * @param source - source to scan
+     * @param open - index of opening bracket of Array
+     * @return item boundaries, end is exclusive
+     * @throws JsonException on unexpected end of Json or trailing symbols
+     */
+    private static Boundaries findItems(Source source, int open) throws JsonException {
+        final Boundaries items = new Boundaries();
+        final int end = source.end();
+        int depth = 0;
+        int start = open + 1;
+        int i = start;
+        boolean empty = true; // nothing but spaces since the last separator
+        while (i < end) {
+            final int c = source.at(i);
+            switch (c) {
+                case '"':
+                    i = source.skipString(i);
+                    empty = false;
+                    continue;
+                case '{': case '[':
+                    depth++;
+                    empty = false;
+                    break;
+                case '}':
+                    if (depth == 0) throw new JsonException("Unexpected symbol: '}' at position " + i);
+                    depth--;
+                    break;
+                case ']':
+                    if (depth == 0) {
+                        if (!empty || items.count > 0) items.add(start, i);
+                        final int trailing = source.skipSpaces(i + 1);
+                        if (trailing < end) throw new JsonException("Unexpected symbol: '" + (char)source.at(trailing) + "' at position " + trailing);
+                        return items;
+                    }
+                    depth--;
+                    break;
+                case ',':
+                    if (depth == 0) {
+                        items.add(start, i);
+                        start = i + 1;
+                        empty = true;
+                    }
+                    break;
+                case ' ': case '\t': case '\n': case '\r':
+                    break;
+                default:
+                    empty = false;
+            }
+            i++;
+        }
+        throw new JsonException("Unexpected End of Json");
+    }
+
+    //////////////////////////// PARSING ///////////////////////////////////////////////////////////////////////////////
+
+    private static class ParseFailure extends RuntimeException {
+        final JsonException exception;
+
+        ParseFailure(JsonException exception) {
+            super(exception);
+            this.exception = exception;
+        }
+    }
+
+    private static class ChunkTask extends RecursiveAction {
+        private final Source source;
+        private final Boundaries items;
+        private final JsonElement[] elements;
+        private final int from;
+        private final int to;
+
+        ChunkTask(Source source, Boundaries items, JsonElement[] elements, int from, int to) {
+            this.source = source;
+            this.items = items;
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && items.ends[to - 1] - items.starts[from] > CHUNK_SIZE) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(source, items, elements, from, middle), new ChunkTask(source, items, elements, middle, to));
+                return;
+            }
+            try {
+                for (int i = from; i < to; i++) elements[i] = source.parse(items.starts[i], items.ends[i]);
+            } catch (JsonException e) {
+                throw new ParseFailure(e);
+            }
+        }
+    }
+
+    //////////////////////////// SOURCES ///////////////////////////////////////////////////////////////////////////////
+
+    private static abstract class Source {
+        abstract int start();
+        abstract int end();
+        abstract int at(int i);
+        abstract JsonElement parse(int start, int end) throws JsonException;
+        abstract JsonElement parseAll() throws JsonException;
+        abstract int skipByteOrderMark(int i);
+
+        int skipSpaces(int i) {
+            final int end = end();
+            while (i < end) {
+                switch (at(i)) {
+                    case ' ': case '\t': case '\n': case '\r': i++; break;
+                    default: return i;
+                }
+            }
+            return i;
+        }
+
+        int skipString(int i) throws JsonException {
+            final int end = end();
+            i++;
+            while (i < end) {
+                final int c = at(i++);
+                if (c == '"') return i;
+                if (c == '\\') i++;
+            }
+            throw new JsonException("Unexpected End of Json");
+        }
+    }
+
+    private static class CharSource extends Source {
+        private final char[] chars;
+
+        CharSource(char[] chars) { this.chars = chars; }
+
+        @Override int start() { return 0; }
+        @Override int end() { return chars.length; }
+        @Override int at(int i) { return chars[i]; }
+        @Override int skipByteOrderMark(int i) { return i < chars.length && chars[i] == '\uFEFF' ? i + 1 : i; }
+
+        @Override
+        JsonElement parse(int start, int end) throws JsonException {
+            return charParsers.get().parse(chars, start, end - start);
+        }
+
+        @Override
+        JsonElement parseAll() throws JsonException {
+            return charParsers.get().parse(chars, 0, chars.length);
+        }
+    }
+
+    private static class ByteSource extends Source {
+        private final ByteBuffer buffer;
+
+        ByteSource(ByteBuffer buffer) { this.buffer = buffer; }
+
+        @Override int start() { return buffer.position(); }
+        @Override int end() { return buffer.limit(); }
+
+        @Override int at(int i) { return buffer.get(i) & 0xFF; }
+
+        @Override
+        int skipByteOrderMark(int i) {
+            if (end() - i >= 3 && buffer.get(i) == (byte)0xEF && buffer.get(i + 1) == (byte)0xBB && buffer.get(i + 2) == (byte)0xBF)
+                return i + 3;
+            return i;
+        }
+
+        @Override
+        JsonElement parse(int start, int end) throws JsonException {
+            final ByteBuffer item = buffer.duplicate();
+            item.clear();
+            item.position(start);
+            item.limit(end);
+            return byteParsers.get().parse(item);
+        }
+
+        @Override
+        JsonElement parseAll() throws JsonException {
+            return byteParsers.get().parse(buffer);
+        }
+    }
+}
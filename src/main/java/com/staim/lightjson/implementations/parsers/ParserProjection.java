@@ -0,0 +1,236 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonParser;
+import com.staim.lightjson.JsonToken;
+import com.staim.lightjson.JsonTokenReader;
+import com.staim.lightjson.implementations.CharSlice;
+import com.staim.lightjson.implementations.TokenReaderImpl;
+import com.staim.lightjson.implementations.elements.JsonArrayElement;
+import com.staim.lightjson.implementations.elements.JsonObjectElement;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Projecting Parser: builds only requested paths of document
+ *
+ * Paths are names separated by dots with optional Array selectors: "user.id", "items[*].sku", "[0].name".
+ * Objects and Arrays along the paths are kept (possibly empty), matching values are built with all their
+ * children, everything else is skipped by token reader without creating keys or elements. Values, which do not
+ * match the shape of path (e.g. number where Object is expected), are dropped.
+ */
+public class ParserProjection implements JsonParser {
+    private static final int ANY = -1;
+
+    /**
+     * Node of projection tree
+     */
+    private static class Node {
+        final List<String> names = new ArrayList<>(); // names of Object members
+        final List<Node> members = new ArrayList<>();
+        final List<Integer> indexes = new ArrayList<>(); // indexes of Array items, ANY for all of them
+        final List<Node> items = new ArrayList<>();
+        boolean leaf; // whole value is requested
+
+        Node member(CharSequence name) {
+            for (int i = 0; i < names.size(); i++) {
+                final String candidate = names.get(i);
+                if (name instanceof CharSlice ? ((CharSlice)name).contentEquals(candidate) : candidate.contentEquals(name))
+                    return members.get(i);
+            }
+            return null;
+        }
+
+        Node item(int index) {
+            Node any = null;
+            for (int i = 0; i < indexes.size(); i++) {
+                final int candidate = indexes.get(i);
+                if (candidate == index) return items.get(i);
+                if (candidate == ANY) any = items.get(i);
+            }
+            return any;
+        }
+
+        /**
+         * Add path starting at given segment. Paths under [*] are also added to nodes of specific indexes,
+         * which are created as copies of [*] node, so item lookup needs only one node.
+         * @param segments - names of Object members and indexes of Array items
+         * @param from - index of the first segment to add
+         */
+        void add(List<Object> segments, int from) {
+            if (from == segments.size()) {
+                leaf = true;
+                return;
+            }
+            final Object segment = segments.get(from);
+            if (segment instanceof String) {
+                final String name = (String)segment;
+                int i = names.indexOf(name);
+                if (i < 0) {
+                    names.add(name);
+                    members.add(new Node());
+                    i = names.size() - 1;
+                }
+                members.get(i).add(segments, from + 1);
+                return;
+            }
+            final int index = (Integer)segment;
+            int i = indexes.indexOf(index);
+            if (i < 0) {
+                final int any = indexes.indexOf(ANY);
+                indexes.add(index);
+                items.add(any >= 0 && index != ANY ? items.get(any).copy() : new Node());
+                i = indexes.size() - 1;
+            }
+            items.get(i).add(segments, from + 1);
+            if (index == ANY)
+                for (int j = 0; j < indexes.size(); j++)
+                    if (indexes.get(j) != ANY) items.get(j).add(segments, from + 1);
+        }
+
+        Node copy() {
+            final Node node = new Node();
+            node.leaf = leaf;
+            node.names.addAll(names);
+            for (Node member : members) node.members.add(member.copy());
+            node.indexes.addAll(indexes);
+            for (Node item : items) node.items.add(item.copy());
+            return node;
+        }
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Create parser for given paths
+     * @param paths - paths to keep, e.g. "user.id", "items[*].sku"
+     * @throws IllegalArgumentException on malformed path
+     */
+    public ParserProjection(String... paths) {
+        for (String path : paths) addPath(path);
+    }
+
+    private void addPath(String path) {
+        final List<Object> segments = new ArrayList<>();
+        final int length = path.length();
+        int i = 0;
+        while (i < length) {
+            if (path.charAt(i) == '[') {
+                final int close = path.indexOf(']', i);
+                if (close < 0) throw new IllegalArgumentException("Malformed path: " + path);
+                final String selector = path.substring(i + 1, close);
+                try {
+                    final int index = selector.equals("*") ? ANY : Integer.parseInt(selector);
+                    if (index < ANY) throw new IllegalArgumentException("Malformed path: " + path);
+                    segments.add(index);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Malformed path: " + path);
+                }
+                i = close + 1;
+            } else {
+                int end = i;
+                while (end < length && path.charAt(end) != '.' && path.charAt(end) != '[') end++;
+                if (end == i) throw new IllegalArgumentException("Malformed path: " + path);
+                segments.add(path.substring(i, end));
+                i = end;
+            }
+            if (i < length && path.charAt(i) == '.' && ++i == length) throw new IllegalArgumentException("Malformed path: " + path);
+        }
+        if (segments.isEmpty()) throw new IllegalArgumentException("Empty path");
+        root.add(segments, 0);
+    }
+
+    @Override
+    public JsonElement parse(String json) throws JsonException {
+        return parse(new StringReader(json));
+    }
+
+    @Override
+    public JsonElement parse(byte[] json, int offset, int length) throws JsonException {
+        return parse(new ByteArrayInputStream(json, offset, length));
+    }
+
+    @Override
+    public JsonElement parse(ByteBuffer json) throws JsonException {
+        if (json.hasArray())
+            return parse(json.array(), json.arrayOffset() + json.position(), json.remaining());
+        return parse(ParserUtil.decode(json));
+    }
+
+    /**
+     * Parse projection of Json from Reader
+     * @param reader - reader to parse, it is not closed
+     * @return projection of root Json Element or null when root does not match the paths
+     * @throws JsonException on malformed Json
+     */
+    public JsonElement parse(Reader reader) throws JsonException {
+        return parse(new TokenReaderImpl(reader));
+    }
+
+    /**
+     * Parse projection of UTF-8 encoded Json from InputStream
+     * @param stream - stream to parse, it is not closed
+     * @return projection of root Json Element or null when root does not match the paths
+     * @throws JsonException on malformed Json
+     */
+    public JsonElement parse(InputStream stream) throws JsonException {
+        return parse(new TokenReaderImpl(stream));
+    }
+
+    private JsonElement parse(JsonTokenReader reader) throws JsonException {
+        if (reader.nextToken() == JsonToken.END_DOCUMENT) throw new JsonException("Unexpected End of Json");
+        JsonElement element = read(reader, root);
+        if (reader.nextToken() != JsonToken.END_DOCUMENT) throw new JsonException("Unexpected " + reader.currentToken() + " after end of Json");
+        return element;
+    }
+
+    /**
+     * Build projection of the current value, after return current token is the last token of the value
+     * @return Json Element or null when value does not match the node
+     */
+    private static JsonElement read(JsonTokenReader reader, Node node) throws JsonException {
+        if (node.leaf) return ParserStreaming.readElement(reader);
+        switch (reader.currentToken()) {
+            case START_OBJECT: {
+                final JsonObjectElement object = new JsonObjectElement();
+                while (reader.nextToken() == JsonToken.NAME) {
+                    final Node member = node.member(reader.getText());
+                    if (member == null) {
+                        reader.nextToken();
+                        reader.skipChildren();
+                        continue;
+                    }
+                    final String name = reader.currentName();
+                    reader.nextToken();
+                    final JsonElement element = read(reader, member);
+                    if (element != null) object.add(name, element);
+                }
+                return object;
+            }
+            case START_ARRAY: {
+                final JsonArrayElement array = new JsonArrayElement();
+                int index = 0;
+                while (reader.nextToken() != JsonToken.END_ARRAY) {
+                    final Node item = node.item(index++);
+                    if (item == null) {
+                        reader.skipChildren();
+                        continue;
+                    }
+                    final JsonElement element = read(reader, item);
+                    if (element != null) array.add(element);
+                }
+                return array;
+            }
+            default:
+                reader.skipChildren();
+                return null;
+        }
+    }
+}
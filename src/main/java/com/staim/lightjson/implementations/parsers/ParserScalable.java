@@ -3,16 +3,19 @@ package com.staim.lightjson.implementations.parsers;
 import com.staim.lightjson.JsonElement;
 import com.staim.lightjson.JsonException;
 import com.staim.lightjson.JsonParser;
-import com.staim.lightjson.JsonType;
 import com.staim.lightjson.implementations.elements.JsonArrayElement;
+import com.staim.lightjson.implementations.elements.JsonBooleanElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleElement;
+import com.staim.lightjson.implementations.elements.JsonLongElement;
 import com.staim.lightjson.implementations.elements.JsonNullElement;
 import com.staim.lightjson.implementations.elements.JsonObjectElement;
+import com.staim.lightjson.implementations.elements.JsonObjectMap;
 import com.staim.lightjson.implementations.elements.JsonPlainElement;
+import com.staim.lightjson.implementations.elements.JsonShape;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * New Parser, scalable for BIG JSONs
@@ -20,6 +23,9 @@ import java.util.Map;
  * Created by alexeyshcherbinin on 03.12.14.
  */
 public class ParserScalable implements JsonParser {
+    private final NumberParser numbers = new NumberParser();
+    private JsonShape shapes = new JsonShape();
+
     @Override
     public JsonElement parse(String json) throws JsonException {
         final String jsonString = json.trim();
@@ -30,6 +36,7 @@ public class ParserScalable implements JsonParser {
         if ("[]".equals(jsonString) || "[ ]".equals(jsonString)) // Empty Array
             return new JsonArrayElement();
 
+        if (shapes.isFull()) shapes = new JsonShape();
         JsonReader reader = new JsonReader(jsonString);
         try {
             return parse(reader);
@@ -38,6 +45,16 @@ public class ParserScalable implements JsonParser {
         }
     }
 
+    @Override
+    public JsonElement parse(byte[] json, int offset, int length) throws JsonException {
+        return parse(ParserUtil.decode(json, offset, length));
+    }
+
+    @Override
+    public JsonElement parse(ByteBuffer json) throws JsonException {
+        return parse(ParserUtil.decode(json));
+    }
+
     private int checkChar(char c) {
         switch (c) {
             case '{': return 1;
@@ -85,7 +102,7 @@ public class ParserScalable implements JsonParser {
     }
 
     private JsonElement parseObject(JsonReader reader) throws JsonException {
-        Map<String, JsonElement> elements = new HashMap<>();
+        final JsonObjectMap elements = new JsonObjectMap(shapes, 4);
         try {
             char c = reader.read();
             if (c != '{') throw new JsonException("Internal Error");
@@ -101,15 +118,7 @@ public class ParserScalable implements JsonParser {
                 String key;
                 if (c == '}') break;
                 else if (c == '\"') {
-                    key = reader.read(new CharacterChecker() {
-                        char lastChar = 0;
-                        @Override
-                        public boolean check(char c) {
-                            boolean terminated = lastChar == '\\';
-                            lastChar = c;
-                            return terminated || c != '\"';
-                        }
-                    });
+                    key = reader.readKey();
                 } else {
                     reader.stepBack();
                     key = reader.read(new CharacterChecker() {
@@ -121,7 +130,7 @@ public class ParserScalable implements JsonParser {
                 }
 
                 reader.skipToCharNoBack(':');
-                elements.put(key, parse(reader));
+                elements.append(key, parse(reader));
                 reader.skip(new CharacterChecker() {
                     @Override
                     public boolean check(char c) {
@@ -164,35 +173,12 @@ public class ParserScalable implements JsonParser {
             }
         });
 
-        String string = reader.read(new CharacterChecker() {
-            char lastChar = 0;
-            @Override
-            public boolean check(char c) {
-                boolean terminated = lastChar == '\\';
-                lastChar = c;
-                return terminated || c != '\"';
-            }
-        });
-
-        if (string.startsWith("\""))
-            string = string.substring(1, string.length() - 1);
-        return new JsonPlainElement<>(string, JsonType.STRING);
+        return JsonPlainElement.string(reader.readString());
     }
 
     private JsonElement parseNumber(JsonReader reader) throws JsonException {
-        final boolean[] isSeparatorGlobal = new boolean[1];
-        isSeparatorGlobal[0] = false;
-        String string = reader.read(new CharacterChecker() {
-            @Override
-            public boolean check(char c) {
-                boolean isSeparator = (c == '.');
-                if (isSeparator) isSeparatorGlobal[0] = true;
-                return Character.isDigit(c) || c == '-' || isSeparator || c == 'e';
-            }
-        });
-        @SuppressWarnings("RedundantCast")
-        Number number = isSeparatorGlobal[0] ? (Number)Double.parseDouble(string) : (Number)Long.parseLong(string);
-        return new JsonPlainElement<>(number, JsonType.NUMBER);
+        reader.readNumber(numbers);
+        return numbers.isLong() ? JsonLongElement.valueOf(numbers.longValue()) : new JsonDoubleElement(numbers.doubleValue());
     }
 
     private JsonElement parseOther(JsonReader reader) throws JsonException {
@@ -203,20 +189,20 @@ public class ParserScalable implements JsonParser {
             }
         });
         if (string.equalsIgnoreCase("true") || string.equalsIgnoreCase("yes"))
-            return new JsonPlainElement<>(true, JsonType.BOOLEAN);
+            return JsonBooleanElement.TRUE;
         if (string.equalsIgnoreCase("false") || string.equalsIgnoreCase("no"))
-            return new JsonPlainElement<>(false, JsonType.BOOLEAN);
+            return JsonBooleanElement.FALSE;
         if (string.equalsIgnoreCase("null") || string.equalsIgnoreCase("nil"))
-            return new JsonNullElement();
+            return JsonNullElement.NULL;
 
         if (string.equalsIgnoreCase("nan"))
-            return new JsonPlainElement<>(Double.NaN, JsonType.NUMBER);
+            return new JsonDoubleElement(Double.NaN);
         if (string.equalsIgnoreCase("inf") || string.equalsIgnoreCase("+inf") || string.equalsIgnoreCase("infinity") || string.equalsIgnoreCase("+infinity"))
-            return new JsonPlainElement<>(Double.POSITIVE_INFINITY, JsonType.NUMBER);
+            return new JsonDoubleElement(Double.POSITIVE_INFINITY);
         if (string.equalsIgnoreCase("-inf") || string.equalsIgnoreCase("-infinity"))
-            return new JsonPlainElement<>(Double.NEGATIVE_INFINITY, JsonType.NUMBER);
+            return new JsonDoubleElement(Double.NEGATIVE_INFINITY);
 
-        return new JsonPlainElement<>(string, JsonType.STRING);
+        return JsonPlainElement.string(string);
     }
 
     interface CharacterChecker {
@@ -228,6 +214,8 @@ public class ParserScalable implements JsonParser {
         private int length;
         private int next = 0;
 
+        private final KeyCache keys = KeyCache.local();
+
         public JsonReader(String string)  {
             this.string = string;
             this.length = string.length();
@@ -256,6 +244,91 @@ public class ParserScalable implements JsonParser {
             return stringBuilder.toString();
         }
 
+        /**
+         * Read quoted Object key up to closing quote, keys without escapes go through key cache
+         * @return canonical key String
+         * @throws JsonException on unexpected end of Json or wrong escape
+         */
+        public String readKey() throws JsonException {
+            final int start = next;
+            for (int i = start; i < length; i++) {
+                final char c = string.charAt(i);
+                if (c == '\"') {
+                    next = i + 1;
+                    return keys.get(string, start, i);
+                }
+                if (c == '\\') return decode(start, i);
+            }
+            throw new JsonException("Unexpected End of Json");
+        }
+
+        /**
+         * Read string value after opening quote up to closing quote, decoding escapes
+         * @return string
+         * @throws JsonException on unexpected end of Json or wrong escape
+         */
+        public String readString() throws JsonException {
+            final int start = next;
+            for (int i = start; i < length; i++) {
+                final char c = string.charAt(i);
+                if (c == '\"') {
+                    next = i + 1;
+                    return string.substring(start, i);
+                }
+                if (c == '\\') return decode(start, i);
+            }
+            throw new JsonException("Unexpected End of Json");
+        }
+
+        /**
+         * Decode string with escapes, clean part up to the first backslash is copied at once
+         * @param start - index after opening quote
+         * @param i - index of the first backslash
+         */
+        private String decode(int start, int i) throws JsonException {
+            final StringBuilder builder = new StringBuilder(i - start + 16).append(string, start, i);
+            while (true) {
+                if (i >= length) throw new JsonException("Unexpected End of Json");
+                final char c = string.charAt(i++);
+                if (c == '\"') break;
+                if (c != '\\') {
+                    builder.append(c);
+                    continue;
+                }
+                if (i >= length) throw new JsonException("Unexpected End of Json");
+                final char e = string.charAt(i++);
+                switch (e) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                    case '\'': builder.append(e); break; // apostrophe escape was written by older versions
+                    case 'b': builder.append('\b'); break;
+                    case 'f': builder.append('\f'); break;
+                    case 'n': builder.append('\n'); break;
+                    case 'r': builder.append('\r'); break;
+                    case 't': builder.append('\t'); break;
+                    case 'u': {
+                        if (length - i < 4) throw new JsonException("Unexpected End of Json");
+                        int code = 0;
+                        for (int j = 0; j < 4; j++) {
+                            final char h = string.charAt(i++);
+                            final int digit = h >= '0' && h <= '9' ? h - '0'
+                                    : h >= 'a' && h <= 'f' ? h - 'a' + 10
+                                    : h >= 'A' && h <= 'F' ? h - 'A' + 10 : -1;
+                            if (digit < 0) throw new JsonException("Wrong unicode escape at position " + (i - 1));
+                            code = (code << 4) | digit;
+                        }
+                        builder.append((char)code);
+                        break;
+                    }
+                    default:
+                        throw new JsonException("Wrong escape sequence at position " + (i - 1));
+                }
+            }
+            next = i;
+            return builder.toString();
+        }
+
         public void skip(CharacterChecker checker) throws JsonException {
             char c;
             do { c = read(); } while (checker.check(c));
@@ -267,6 +340,10 @@ public class ParserScalable implements JsonParser {
             do { c = read(); } while (checker.check(c));
         }
 
+        public void readNumber(NumberParser numbers) throws JsonException {
+            next = numbers.scan(string, next, length);
+        }
+
         public void skipToCharNoBack(char ch) throws JsonException {
             int found = string.indexOf(ch, next);
             if (found == -1) throw new JsonException("Unexpected End of Json");
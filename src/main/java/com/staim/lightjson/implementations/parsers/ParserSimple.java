@@ -5,6 +5,8 @@ import com.staim.lightjson.JsonException;
 import com.staim.lightjson.JsonParser;
 import com.staim.lightjson.implementations.ElementImpl;
 
+import java.nio.ByteBuffer;
+
 /**
  * Old good simple parser
  *
@@ -15,4 +17,14 @@ public class ParserSimple implements JsonParser {
     public JsonElement parse(String json) throws JsonException {
         return new ElementImpl(json);
     }
+
+    @Override
+    public JsonElement parse(byte[] json, int offset, int length) throws JsonException {
+        return parse(ParserUtil.decode(json, offset, length));
+    }
+
+    @Override
+    public JsonElement parse(ByteBuffer json) throws JsonException {
+        return parse(ParserUtil.decode(json));
+    }
 }
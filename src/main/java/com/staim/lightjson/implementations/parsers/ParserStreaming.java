@@ -0,0 +1,118 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonParser;
+import com.staim.lightjson.JsonToken;
+import com.staim.lightjson.JsonTokenReader;
+import com.staim.lightjson.implementations.TokenReaderImpl;
+import com.staim.lightjson.implementations.elements.JsonArrayElement;
+import com.staim.lightjson.implementations.elements.JsonBooleanElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleElement;
+import com.staim.lightjson.implementations.elements.JsonLongElement;
+import com.staim.lightjson.implementations.elements.JsonNullElement;
+import com.staim.lightjson.implementations.elements.JsonObjectElement;
+import com.staim.lightjson.implementations.elements.JsonObjectMap;
+import com.staim.lightjson.implementations.elements.JsonPlainElement;
+import com.staim.lightjson.implementations.elements.JsonShape;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tree Parser built on top of streaming JsonTokenReader
+ *
+ * Reads input through the fixed-size buffer of token reader, so only the resulting tree is kept in memory.
+ */
+public class ParserStreaming implements JsonParser {
+    @Override
+    public JsonElement parse(String json) throws JsonException {
+        return parse(new StringReader(json));
+    }
+
+    @Override
+    public JsonElement parse(byte[] json, int offset, int length) throws JsonException {
+        return parse(new ByteArrayInputStream(json, offset, length));
+    }
+
+    @Override
+    public JsonElement parse(ByteBuffer json) throws JsonException {
+        if (json.hasArray())
+            return parse(json.array(), json.arrayOffset() + json.position(), json.remaining());
+        return parse(ParserUtil.stream(json));
+    }
+
+    /**
+     * Parse Json from Reader
+     * @param reader - reader to parse, it is not closed
+     * @return Json Element
+     * @throws JsonException
+     */
+    public JsonElement parse(Reader reader) throws JsonException {
+        return parse(new TokenReaderImpl(reader));
+    }
+
+    /**
+     * Parse UTF-8 encoded Json from InputStream
+     * @param stream - stream to parse, it is not closed
+     * @return Json Element
+     * @throws JsonException
+     */
+    public JsonElement parse(InputStream stream) throws JsonException {
+        return parse(new TokenReaderImpl(stream));
+    }
+
+    private JsonElement parse(JsonTokenReader reader) throws JsonException {
+        if (reader.nextToken() == JsonToken.END_DOCUMENT) throw new JsonException("Unexpected End of Json");
+        JsonElement element = readElement(reader, new JsonShape());
+        if (reader.nextToken() != JsonToken.END_DOCUMENT) throw new JsonException("Unexpected " + reader.currentToken() + " after end of Json");
+        return element;
+    }
+
+    /**
+     * Build Json Element from the current value token of reader and its children.
+     * After return current token is the last token of the value.
+     * @param reader - token reader, positioned at value token
+     * @return Json Element
+     * @throws JsonException on malformed Json or when current token is not a value
+     */
+    public static JsonElement readElement(JsonTokenReader reader) throws JsonException {
+        return readElement(reader, null);
+    }
+
+    /**
+     * Build Json Element from the current value token of reader and its children, Objects share shapes of the tree.
+     * @param reader - token reader, positioned at value token
+     * @param shapes - root of shape tree or null to build Objects without shapes
+     * @return Json Element
+     * @throws JsonException on malformed Json or when current token is not a value
+     */
+    public static JsonElement readElement(JsonTokenReader reader, JsonShape shapes) throws JsonException {
+        switch (reader.currentToken()) {
+            case START_OBJECT: {
+                final JsonObjectMap elements = shapes != null ? new JsonObjectMap(shapes, 4) : new JsonObjectMap();
+                while (reader.nextToken() == JsonToken.NAME) {
+                    final String key = reader.currentName();
+                    reader.nextToken();
+                    elements.append(key, readElement(reader, shapes));
+                }
+                return new JsonObjectElement(elements);
+            }
+            case START_ARRAY: {
+                List<JsonElement> elementList = new ArrayList<>();
+                while (reader.nextToken() != JsonToken.END_ARRAY) elementList.add(readElement(reader, shapes));
+                return new JsonArrayElement(elementList);
+            }
+            case STRING: return JsonPlainElement.string(reader.getString());
+            case NUMBER: return reader.isIntegral() ? JsonLongElement.valueOf(reader.getLong()) : new JsonDoubleElement(reader.getDouble());
+            case BOOLEAN: return JsonBooleanElement.valueOf(reader.getBoolean());
+            case NULL: return JsonNullElement.NULL;
+            default: throw new JsonException("Unexpected " + reader.currentToken());
+        }
+    }
+}
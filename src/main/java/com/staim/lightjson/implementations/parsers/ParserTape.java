@@ -0,0 +1,228 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonParser;
+import com.staim.lightjson.implementations.elements.JsonTapeElement;
+
+import java.nio.ByteBuffer;
+
+import static com.staim.lightjson.implementations.parsers.TapeDocument.*;
+
+/**
+ * Tape Parser
+ *
+ * Stores the whole document in one long[] tape and one char[] string area (see TapeDocument) instead of a tree
+ * of elements, resulting Json Elements are lightweight read-only cursors over the tape. Parser keeps its
+ * buffers between calls, so instance must not be shared between threads.
+ */
+public class ParserTape implements JsonParser {
+    private char[] chars = new char[1024];
+    private int next;
+    private int end;
+
+    private long[] tape = new long[256];
+    private int tapeSize;
+    private char[] strings = new char[1024];
+    private int stringsSize;
+
+    private final NumberParser numbers = new NumberParser();
+
+    @Override
+    public JsonElement parse(String json) throws JsonException {
+        final int length = json.length();
+        if (chars.length < length) chars = new char[length];
+        json.getChars(0, length, chars, 0);
+        return new JsonTapeElement(parseDocument(chars, 0, length), 0);
+    }
+
+    @Override
+    public JsonElement parse(byte[] json, int offset, int length) throws JsonException {
+        return parse(ParserUtil.decode(json, offset, length));
+    }
+
+    @Override
+    public JsonElement parse(ByteBuffer json) throws JsonException {
+        return parse(ParserUtil.decode(json));
+    }
+
+    /**
+     * Parse Json characters to Tape Document, root value is at index 0
+     * @param json - array containing Json
+     * @param offset - index of the first character of Json
+     * @param length - number of characters to parse
+     * @return Tape Document
+     * @throws JsonException
+     */
+    public TapeDocument parseDocument(char[] json, int offset, int length) throws JsonException {
+        final char[] saved = chars;
+        chars = json;
+        next = offset;
+        end = offset + length;
+        tapeSize = 0;
+        stringsSize = 0;
+        try {
+            if (next < end && chars[next] == '\uFEFF') next++; // Byte Order Mark
+            parseValue();
+            if (skipSpaces() < end) throw unexpected();
+        } finally {
+            chars = saved;
+        }
+
+        final long[] resultTape = new long[tapeSize];
+        System.arraycopy(tape, 0, resultTape, 0, tapeSize);
+        final char[] resultStrings = new char[stringsSize];
+        System.arraycopy(strings, 0, resultStrings, 0, stringsSize);
+        return new TapeDocument(resultTape, resultStrings);
+    }
+
+    //////////////////////////// PARSING ///////////////////////////////////////////////////////////////////////////////
+
+    private int skipSpaces() {
+        final char[] chars = this.chars;
+        int i = next;
+        while (i < end) {
+            final char c = chars[i];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') break;
+            i++;
+        }
+        return next = i;
+    }
+
+    private JsonException unexpected() {
+        if (next >= end) return new JsonException("Unexpected End of Json");
+        return new JsonException("Unexpected symbol: '" + chars[next] + "' at position " + next);
+    }
+
+    private int append(long entry) {
+        if (tapeSize == tape.length) {
+            long[] newTape = new long[tapeSize * 2];
+            System.arraycopy(tape, 0, newTape, 0, tapeSize);
+            tape = newTape;
+        }
+        tape[tapeSize] = entry;
+        return tapeSize++;
+    }
+
+    private static long entry(long tag, long payload) { return (tag << TAG_SHIFT) | payload; }
+
+    private void parseValue() throws JsonException {
+        if (skipSpaces() >= end) throw unexpected();
+        switch (chars[next]) {
+            case '{': parseContainer(TAG_OBJECT, TAG_OBJECT_END, '}'); break;
+            case '[': parseContainer(TAG_ARRAY, TAG_ARRAY_END, ']'); break;
+            case '"': parseString(); break;
+            case 't': expectLiteral("true"); append(entry(TAG_TRUE, 0)); break;
+            case 'f': expectLiteral("false"); append(entry(TAG_FALSE, 0)); break;
+            case 'n': expectLiteral("null"); append(entry(TAG_NULL, 0)); break;
+            case '-': case '0': case '1': case '2': case '3': case '4': case '5': case '6': case '7': case '8': case '9':
+                next = numbers.scan(chars, next, end);
+                if (numbers.isLong()) {
+                    append(entry(TAG_LONG, 0));
+                    append(numbers.longValue());
+                } else {
+                    append(entry(TAG_DOUBLE, 0));
+                    append(Double.doubleToRawLongBits(numbers.doubleValue()));
+                }
+                break;
+            default: throw unexpected();
+        }
+    }
+
+    private void parseContainer(long tag, long endTag, char close) throws JsonException {
+        final int start = append(0);
+        final boolean object = tag == TAG_OBJECT;
+        int count = 0;
+        next++; // '{' or '['
+        if (skipSpaces() < end && chars[next] == close) {
+            next++;
+        } else {
+            while (true) {
+                if (object) {
+                    if (skipSpaces() >= end || chars[next] != '"') throw unexpected();
+                    parseString();
+                    if (skipSpaces() >= end || chars[next] != ':') throw unexpected();
+                    next++;
+                }
+                parseValue();
+                count++;
+                if (skipSpaces() >= end) throw unexpected();
+                final char c = chars[next++];
+                if (c == close) break;
+                if (c != ',') { next--; throw unexpected(); }
+            }
+        }
+        final int closeIndex = append(entry(endTag, start));
+        tape[start] = entry(tag, ((long)Math.min(count, MAX_COUNT) << COUNT_SHIFT) | (closeIndex + 1));
+    }
+
+    private void expectLiteral(String literal) throws JsonException {
+        final int length = literal.length();
+        if (end - next < length) throw new JsonException("Unexpected End of Json");
+        for (int i = 0; i < length; i++) {
+            if (chars[next] != literal.charAt(i)) throw unexpected();
+            next++;
+        }
+    }
+
+    /**
+     * Parse string starting at opening quote and decode it directly into the string area
+     */
+    private void parseString() throws JsonException {
+        final char[] chars = this.chars;
+        final int offset = stringsSize;
+        int i = ++next;
+        int length = offset + 2;
+        ensureStrings(length + 16, offset);
+        char[] out = strings;
+        while (true) {
+            if (i >= end) throw new JsonException("Unexpected End of Json");
+            if (length == out.length) out = ensureStrings(length + 1, length);
+            final char c = chars[i++];
+            if (c == '"') break;
+            if (c != '\\') {
+                out[length++] = c;
+                continue;
+            }
+            if (i >= end) throw new JsonException("Unexpected End of Json");
+            final char e = chars[i++];
+            switch (e) {
+                case '"': out[length++] = '"'; break;
+                case '\\': out[length++] = '\\'; break;
+                case '/': out[length++] = '/'; break;
+                case 'b': out[length++] = '\b'; break;
+                case 'f': out[length++] = '\f'; break;
+                case 'n': out[length++] = '\n'; break;
+                case 'r': out[length++] = '\r'; break;
+                case 't': out[length++] = '\t'; break;
+                case 'u':
+                    if (end - i < 4) throw new JsonException("Unexpected End of Json");
+                    int code = 0;
+                    for (int j = 0; j < 4; j++) {
+                        final int digit = Character.digit(chars[i++], 16);
+                        if (digit < 0) throw new JsonException("Wrong unicode escape at position " + (i - 1));
+                        code = (code << 4) | digit;
+                    }
+                    out[length++] = (char)code;
+                    break;
+                default:
+                    throw new JsonException("Wrong escape sequence at position " + (i - 1));
+            }
+        }
+        next = i;
+        final int stringLength = length - offset - 2;
+        out[offset] = (char)(stringLength >>> 16);
+        out[offset + 1] = (char)stringLength;
+        stringsSize = length;
+        append(entry(TAG_STRING, offset));
+    }
+
+    private char[] ensureStrings(int capacity, int used) {
+        if (strings.length < capacity) {
+            char[] newStrings = new char[Math.max(capacity, strings.length * 2)];
+            System.arraycopy(strings, 0, newStrings, 0, used);
+            strings = newStrings;
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,311 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonParser;
+import com.staim.lightjson.implementations.elements.JsonArrayElement;
+import com.staim.lightjson.implementations.elements.JsonBooleanElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleElement;
+import com.staim.lightjson.implementations.elements.JsonLongElement;
+import com.staim.lightjson.implementations.elements.JsonNullElement;
+import com.staim.lightjson.implementations.elements.JsonObjectElement;
+import com.staim.lightjson.implementations.elements.JsonObjectMap;
+import com.staim.lightjson.implementations.elements.JsonPlainElement;
+import com.staim.lightjson.implementations.elements.JsonShape;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * UTF-8 byte-level Parser
+ *
+ * Tokenizes UTF-8 bytes directly (heap, direct or mapped buffers), strings are decoded only when keys and
+ * string elements are created. Parser keeps its scratch buffer between calls, so instance must not be shared
+ * between threads.
+ */
+public class ParserUtf8 implements JsonParser {
+    private ByteBuffer buffer;
+    private int next;
+    private int limit;
+    private char[] scratch = new char[64];
+    private final NumberParser numbers = new NumberParser();
+    private final KeyCache keyCache = KeyCache.local();
+    private JsonShape shapes = new JsonShape();
+    private final PackedNumbers packed = new PackedNumbers();
+
+    @Override
+    public JsonElement parse(String json) throws JsonException {
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return parse(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public JsonElement parse(byte[] json, int offset, int length) throws JsonException {
+        return parse(ByteBuffer.wrap(json, offset, length));
+    }
+
+    @Override
+    public JsonElement parse(ByteBuffer json) throws JsonException {
+        buffer = json;
+        next = json.position();
+        limit = json.limit();
+        if (shapes.isFull()) shapes = new JsonShape(); // parser may be pooled, do not keep a full tree forever
+        try {
+            skipByteOrderMark();
+            JsonElement element = parseValue();
+            if (skipWhitespace() < limit) throw unexpected();
+            return element;
+        } finally {
+            buffer = null;
+        }
+    }
+
+    private void skipByteOrderMark() {
+        if (limit - next >= 3 && buffer.get(next) == (byte)0xEF && buffer.get(next + 1) == (byte)0xBB && buffer.get(next + 2) == (byte)0xBF)
+            next += 3;
+    }
+
+    private int skipWhitespace() {
+        while (next < limit) {
+            switch (buffer.get(next)) {
+                case ' ': case '\t': case '\n': case '\r': next++; break;
+                default: return next;
+            }
+        }
+        return next;
+    }
+
+    private byte nextSignificant() throws JsonException {
+        if (skipWhitespace() >= limit) throw new JsonException("Unexpected End of Json");
+        return buffer.get(next);
+    }
+
+    private JsonException unexpected() {
+        if (next >= limit) return new JsonException("Unexpected End of Json");
+        return new JsonException("Unexpected symbol: '" + (char)(buffer.get(next) & 0xFF) + "' at position " + next);
+    }
+
+    private JsonElement parseValue() throws JsonException {
+        switch (nextSignificant()) {
+            case '{': return parseObject();
+            case '[': return parseArray();
+            case '"': return JsonPlainElement.string(parseString());
+            case '-':
+            case '0': case '1': case '2': case '3': case '4':
+            case '5': case '6': case '7': case '8': case '9':
+                return parseNumber();
+            case 't':
+                expectLiteral("true");
+                return JsonBooleanElement.TRUE;
+            case 'f':
+                expectLiteral("false");
+                return JsonBooleanElement.FALSE;
+            case 'n':
+                expectLiteral("null");
+                return JsonNullElement.NULL;
+            default:
+                throw unexpected();
+        }
+    }
+
+    private JsonElement parseObject() throws JsonException {
+        final JsonObjectMap elements = new JsonObjectMap(shapes, 4);
+        next++; // '{'
+        if (nextSignificant() == '}') {
+            next++;
+            return new JsonObjectElement(elements);
+        }
+        while (true) {
+            if (nextSignificant() != '"') throw unexpected();
+            String key = parseKey();
+            if (nextSignificant() != ':') throw unexpected();
+            next++;
+            elements.append(key, parseValue());
+            byte b = nextSignificant();
+            next++;
+            if (b == '}') return new JsonObjectElement(elements);
+            if (b != ',') { next--; throw unexpected(); }
+        }
+    }
+
+    private JsonElement parseArray() throws JsonException {
+        List<JsonElement> elementList = new ArrayList<>();
+        next++; // '['
+        if (nextSignificant() == ']') {
+            next++;
+            return new JsonArrayElement(elementList);
+        }
+        if (isNumberStart(buffer.get(next))) {
+            final JsonElement numbers = parseNumbers(elementList);
+            if (numbers != null) return numbers;
+        }
+        while (true) {
+            elementList.add(parseValue());
+            byte b = nextSignificant();
+            next++;
+            if (b == ']') return new JsonArrayElement(elementList);
+            if (b != ',') { next--; throw unexpected(); }
+        }
+    }
+
+    /**
+     * Parse items of Array, while they are Numbers, into packed storage
+     * @param elementList - receives Numbers as elements, when non-number item was met
+     * @return packed Array, or null when parsing stopped at non-number item
+     */
+    private JsonElement parseNumbers(List<JsonElement> elementList) throws JsonException {
+        packed.clear();
+        while (true) {
+            next = numbers.scan(buffer, next, limit);
+            packed.add(numbers);
+            byte b = nextSignificant();
+            next++;
+            if (b == ']') return packed.toArray();
+            if (b != ',') { next--; throw unexpected(); }
+            if (!isNumberStart(nextSignificant())) break;
+        }
+        for (int i = 0, count = packed.size(); i < count; i++) elementList.add(packed.element(i));
+        return null;
+    }
+
+    private static boolean isNumberStart(byte b) { return b == '-' || (b >= '0' && b <= '9'); }
+
+    private void expectLiteral(String literal) throws JsonException {
+        final int length = literal.length();
+        if (limit - next < length) throw new JsonException("Unexpected End of Json");
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(next) != literal.charAt(i)) throw unexpected();
+            next++;
+        }
+    }
+
+    /**
+     * Parse String starting at opening quote
+     * @return decoded String
+     * @throws JsonException on malformed string or unexpected end of Json
+     */
+    private String parseString() throws JsonException {
+        final int start = ++next;
+        for (int i = start; i < limit; i++) {
+            final byte b = buffer.get(i);
+            if (b == '"') {
+                next = i + 1;
+                return asciiString(start, i - start);
+            }
+            if (b == '\\' || b < 0) return decodeString(start, i);
+        }
+        throw new JsonException("Unexpected End of Json");
+    }
+
+    /**
+     * Parse Object key starting at opening quote, ASCII keys without escapes are taken from key cache
+     */
+    private String parseKey() throws JsonException {
+        final int start = ++next;
+        for (int i = start; i < limit; i++) {
+            final byte b = buffer.get(i);
+            if (b == '"') {
+                next = i + 1;
+                return keyCache.get(buffer, start, i - start);
+            }
+            if (b == '\\' || b < 0) return decodeString(start, i);
+        }
+        throw new JsonException("Unexpected End of Json");
+    }
+
+    private String asciiString(int start, int length) {
+        if (length == 0) return "";
+        if (buffer.hasArray())
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.ISO_8859_1);
+        final char[] chars = scratch(length);
+        for (int i = 0; i < length; i++) chars[i] = (char)buffer.get(start + i);
+        return new String(chars, 0, length);
+    }
+
+    private char[] scratch(int length) {
+        if (scratch.length < length) scratch = new char[Math.max(length, scratch.length * 2)];
+        return scratch;
+    }
+
+    /**
+     * Slow path of string parsing: decode escapes and multi-byte sequences into scratch buffer
+     * @param start - index of the first byte of string
+     * @param clean - index of the first byte requiring decoding, bytes before it are plain ASCII
+     * @return decoded String
+     * @throws JsonException on malformed string or unexpected end of Json
+     */
+    private String decodeString(int start, int clean) throws JsonException {
+        char[] chars = scratch(Math.max(16, (clean - start) * 2));
+        int length = 0;
+        for (int i = start; i < clean; i++) chars[length++] = (char)buffer.get(i);
+
+        int i = clean;
+        while (true) {
+            if (i >= limit) throw new JsonException("Unexpected End of Json");
+            if (chars.length - length < 2) chars = grow(length);
+            int b = buffer.get(i++);
+            if (b == '"') break;
+            if (b == '\\') {
+                if (i >= limit) throw new JsonException("Unexpected End of Json");
+                final byte e = buffer.get(i++);
+                switch (e) {
+                    case '"': chars[length++] = '"'; break;
+                    case '\\': chars[length++] = '\\'; break;
+                    case '/': chars[length++] = '/'; break;
+                    case 'b': chars[length++] = '\b'; break;
+                    case 'f': chars[length++] = '\f'; break;
+                    case 'n': chars[length++] = '\n'; break;
+                    case 'r': chars[length++] = '\r'; break;
+                    case 't': chars[length++] = '\t'; break;
+                    case 'u':
+                        if (limit - i < 4) throw new JsonException("Unexpected End of Json");
+                        int code = 0;
+                        for (int j = 0; j < 4; j++) {
+                            final int digit = Character.digit(buffer.get(i++), 16);
+                            if (digit < 0) throw new JsonException("Wrong unicode escape at position " + (i - 1));
+                            code = (code << 4) | digit;
+                        }
+                        chars[length++] = (char)code;
+                        break;
+                    default:
+                        throw new JsonException("Wrong escape sequence at position " + (i - 1));
+                }
+            } else if (b >= 0) {
+                chars[length++] = (char)b;
+            } else {
+                final int extra;
+                int code;
+                if ((b & 0xE0) == 0xC0) { extra = 1; code = b & 0x1F; }
+                else if ((b & 0xF0) == 0xE0) { extra = 2; code = b & 0x0F; }
+                else if ((b & 0xF8) == 0xF0) { extra = 3; code = b & 0x07; }
+                else throw new JsonException("Malformed UTF-8 at position " + (i - 1));
+                if (limit - i < extra) throw new JsonException("Unexpected End of Json");
+                for (int j = 0; j < extra; j++) {
+                    final int c = buffer.get(i++);
+                    if ((c & 0xC0) != 0x80) throw new JsonException("Malformed UTF-8 at position " + (i - 1));
+                    code = (code << 6) | (c & 0x3F);
+                }
+                if (code >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                    chars[length++] = Character.highSurrogate(code);
+                    chars[length++] = Character.lowSurrogate(code);
+                } else chars[length++] = (char)code;
+            }
+        }
+        next = i;
+        return new String(chars, 0, length);
+    }
+
+    private char[] grow(int length) {
+        char[] chars = new char[scratch.length * 2];
+        System.arraycopy(scratch, 0, chars, 0, length);
+        return scratch = chars;
+    }
+
+    private JsonElement parseNumber() throws JsonException {
+        next = numbers.scan(buffer, next, limit);
+        if (numbers.isLong()) return JsonLongElement.valueOf(numbers.longValue());
+        return new JsonDoubleElement(numbers.doubleValue());
+    }
+}
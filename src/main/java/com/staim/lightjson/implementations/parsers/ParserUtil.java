@@ -0,0 +1,78 @@
+package com.staim.lightjson.implementations.parsers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Common Parsing Functions
+ */
+public final class ParserUtil {
+    private ParserUtil() {}
+
+    /**
+     * Decode UTF-8 bytes into String for parsers working on Strings
+     * @param bytes - UTF-8 bytes
+     * @param offset - index of the first byte
+     * @param length - number of bytes
+     * @return decoded String
+     */
+    public static String decode(byte[] bytes, int offset, int length) {
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode UTF-8 bytes between position and limit of the buffer into String, buffer position is left untouched
+     * @param buffer - buffer with UTF-8 bytes
+     * @return decoded String
+     */
+    public static String decode(ByteBuffer buffer) {
+        if (buffer.hasArray())
+            return decode(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        return StandardCharsets.UTF_8.decode(buffer.duplicate()).toString();
+    }
+
+    /**
+     * Create InputStream over bytes between position and limit of the buffer, buffer position is left untouched
+     * @param buffer - buffer, e.g. direct or mapped one
+     * @return stream reading the bytes in place
+     */
+    public static InputStream stream(ByteBuffer buffer) {
+        final ByteBuffer bytes = buffer.duplicate();
+        return new InputStream() {
+            @Override
+            public int read() { return bytes.hasRemaining() ? bytes.get() & 0xFF : -1; }
+
+            @Override
+            public int read(byte[] target, int offset, int length) {
+                if (length == 0) return 0;
+                if (!bytes.hasRemaining()) return -1;
+                final int count = Math.min(length, bytes.remaining());
+                bytes.get(target, offset, count);
+                return count;
+            }
+
+            @Override
+            public int available() { return bytes.remaining(); }
+        };
+    }
+
+    /**
+     * Map the whole file into memory, mapping stays valid after the file is closed
+     * @param path - file to map, its size must not exceed Integer.MAX_VALUE
+     * @return read-only mapped buffer
+     * @throws IOException when file could not be mapped or is too large for one buffer
+     */
+    public static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("File " + path + " has " + size + " bytes, files over 2 GB can not be mapped into one buffer");
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonType;
+
+/**
+ * Compact Json document: structural tape and string area
+ *
+ * Every value takes one long on the tape, its high byte is a tag and the rest is payload:
+ * <ul>
+ *     <li>'{' / '[' - count of members (24 bits, saturated) and index following the matching close entry (32 bits)</li>
+ *     <li>'}' / ']' - index of the matching open entry</li>
+ *     <li>'"' - offset of string in the string area, where it is stored as two chars of length followed by contents</li>
+ *     <li>'l' / 'd' - value is stored in the next tape entry as long or as raw bits of double</li>
+ *     <li>'t', 'f', 'n' - true, false and null, no payload</li>
+ * </ul>
+ * Object members are stored as key string entry followed by value entries. Document is immutable once parsed.
+ */
+public final class TapeDocument {
+    static final long TAG_OBJECT = '{';
+    static final long TAG_OBJECT_END = '}';
+    static final long TAG_ARRAY = '[';
+    static final long TAG_ARRAY_END = ']';
+    static final long TAG_STRING = '"';
+    static final long TAG_LONG = 'l';
+    static final long TAG_DOUBLE = 'd';
+    static final long TAG_TRUE = 't';
+    static final long TAG_FALSE = 'f';
+    static final long TAG_NULL = 'n';
+
+    static final int TAG_SHIFT = 56;
+    static final long PAYLOAD_MASK = (1L << TAG_SHIFT) - 1;
+    static final int COUNT_SHIFT = 32;
+    static final int MAX_COUNT = 0xFFFFFF;
+
+    private final long[] tape;
+    private final char[] strings;
+
+    TapeDocument(long[] tape, char[] strings) {
+        this.tape = tape;
+        this.strings = strings;
+    }
+
+    private long tag(int index) { return tape[index] >>> TAG_SHIFT; }
+
+    /**
+     * Get type of value
+     * @param index - tape index of value
+     * @return Json Type
+     */
+    public JsonType type(int index) {
+        switch ((int)tag(index)) {
+            case '{': return JsonType.OBJECT;
+            case '[': return JsonType.ARRAY;
+            case '"': return JsonType.STRING;
+            case 'l': case 'd': return JsonType.NUMBER;
+            case 't': case 'f': return JsonType.BOOLEAN;
+            default: return JsonType.NULL;
+        }
+    }
+
+    /**
+     * Get tape index following the value, children of Objects and Arrays are skipped in one step
+     * @param index - tape index of value
+     * @return index of the next sibling or of the close entry of parent
+     */
+    public int next(int index) {
+        switch ((int)tag(index)) {
+            case '{': case '[': return (int)tape[index];
+            case 'l': case 'd': return index + 2;
+            default: return index + 1;
+        }
+    }
+
+    /**
+     * Get tape index of close entry of Object or Array
+     * @param index - tape index of Object or Array
+     * @return index of '}' or ']' entry
+     */
+    public int end(int index) { return (int)tape[index] - 1; }
+
+    /**
+     * Get count of members of Object or items of Array
+     * @param index - tape index of Object or Array
+     * @return count
+     */
+    public int count(int index) {
+        final int count = (int)((tape[index] & PAYLOAD_MASK) >>> COUNT_SHIFT);
+        if (count < MAX_COUNT) return count;
+        final int stride = tag(index) == TAG_OBJECT ? 2 : 1;
+        int result = 0;
+        for (int i = index + 1, end = end(index); i < end; i = next(i + stride - 1)) result++;
+        return result;
+    }
+
+    public boolean isLong(int index) { return tag(index) == TAG_LONG; }
+    public long longValue(int index) { return tape[index + 1]; }
+    public double doubleValue(int index) { return Double.longBitsToDouble(tape[index + 1]); }
+    public boolean booleanValue(int index) { return tag(index) == TAG_TRUE; }
+
+    private int stringOffset(int index) { return (int)(tape[index] & PAYLOAD_MASK); }
+    private int stringLength(int offset) { return (strings[offset] << 16) | strings[offset + 1]; }
+
+    /**
+     * Get String value
+     * @param index - tape index of string
+     * @return String
+     */
+    public String string(int index) {
+        final int offset = stringOffset(index);
+        return new String(strings, offset + 2, stringLength(offset));
+    }
+
+    /**
+     * Compare String value with the name without creating String
+     * @param index - tape index of string
+     * @param name - name to compare with
+     * @return true when equal
+     */
+    public boolean stringEquals(int index, String name) {
+        final int offset = stringOffset(index);
+        final int length = stringLength(offset);
+        if (length != name.length()) return false;
+        for (int i = 0; i < length; i++)
+            if (strings[offset + 2 + i] != name.charAt(i)) return false;
+        return true;
+    }
+
+    /**
+     * Approximate memory used by the document
+     * @return size of tape and string area in bytes
+     */
+    public long footprint() { return tape.length * 8L + strings.length * 2L; }
+}
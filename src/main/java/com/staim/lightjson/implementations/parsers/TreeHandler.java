@@ -0,0 +1,97 @@
+package com.staim.lightjson.implementations.parsers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonHandler;
+import com.staim.lightjson.JsonType;
+import com.staim.lightjson.implementations.elements.JsonArrayElement;
+import com.staim.lightjson.implementations.elements.JsonBooleanElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleElement;
+import com.staim.lightjson.implementations.elements.JsonLongElement;
+import com.staim.lightjson.implementations.elements.JsonNullElement;
+import com.staim.lightjson.implementations.elements.JsonObjectElement;
+import com.staim.lightjson.implementations.elements.JsonObjectMap;
+import com.staim.lightjson.implementations.elements.JsonPlainElement;
+import com.staim.lightjson.implementations.elements.JsonShape;
+
+import java.util.ArrayList;
+
+/**
+ * Json Handler building Json Element tree from parsing events
+ */
+public class TreeHandler implements JsonHandler {
+    private final ArrayList<JsonElement> containers = new ArrayList<>();
+    private final KeyCache keyCache = KeyCache.local();
+    private JsonShape shapes = new JsonShape();
+    private final ArrayList<String> keys = new ArrayList<>();
+    private String key;
+    private JsonElement result;
+
+    /**
+     * Get built Json Element
+     * @return root Json Element or null when document is not complete yet
+     */
+    public JsonElement getResult() { return result; }
+
+    /**
+     * Prepare handler for the next document
+     */
+    public void reset() {
+        containers.clear();
+        keys.clear();
+        key = null;
+        result = null;
+        if (shapes.isFull()) shapes = new JsonShape();
+    }
+
+    @Override
+    public void startObject() throws JsonException { open(new JsonObjectElement(new JsonObjectMap(shapes, 4))); }
+
+    @Override
+    public void key(CharSequence key) throws JsonException { this.key = keyCache.get(key); }
+
+    @Override
+    public void endObject() throws JsonException { close(); }
+
+    @Override
+    public void startArray() throws JsonException { open(new JsonArrayElement()); }
+
+    @Override
+    public void endArray() throws JsonException { close(); }
+
+    @Override
+    public void stringValue(CharSequence value) throws JsonException { value(JsonPlainElement.string(value.toString())); }
+
+    @Override
+    public void numberValue(long value) throws JsonException { value(JsonLongElement.valueOf(value)); }
+
+    @Override
+    public void numberValue(double value) throws JsonException { value(new JsonDoubleElement(value)); }
+
+    @Override
+    public void booleanValue(boolean value) throws JsonException { value(JsonBooleanElement.valueOf(value)); }
+
+    @Override
+    public void nullValue() throws JsonException { value(JsonNullElement.NULL); }
+
+    private void open(JsonElement container) throws JsonException {
+        value(container);
+        containers.add(container);
+        keys.add(key);
+    }
+
+    private void close() {
+        containers.remove(containers.size() - 1);
+        key = keys.remove(keys.size() - 1);
+    }
+
+    private void value(JsonElement element) throws JsonException {
+        if (containers.isEmpty()) {
+            result = element;
+            return;
+        }
+        final JsonElement parent = containers.get(containers.size() - 1);
+        if (parent.getType() == JsonType.OBJECT) parent.<JsonObjectMap>getData().append(key, element);
+        else parent.add(element);
+    }
+}
@@ -0,0 +1,61 @@
+package com.staim.lightjson.implementations.serializers;
+
+/**
+ * Bounded pool of byte[] chunks of one size
+ *
+ * Chunks are kept in a plain array stack guarded by the pool monitor, so acquiring and releasing allocate nothing.
+ * When the pool is empty a new chunk is created, chunks released over the limit are dropped. Thread-safe.
+ */
+public final class ChunkPool {
+    public static final int DEFAULT_CHUNK_SIZE = 16384;
+    public static final int DEFAULT_MAX_CHUNKS = 256;
+
+    private static final ChunkPool shared = new ChunkPool(DEFAULT_CHUNK_SIZE, DEFAULT_MAX_CHUNKS);
+
+    /**
+     * Get pool shared by default serializers
+     * @return shared pool
+     */
+    public static ChunkPool shared() { return shared; }
+
+    private final int chunkSize;
+    private final byte[][] free;
+    private int count;
+
+    /**
+     * @param chunkSize - size of chunks, at least 16
+     * @param maxChunks - maximum number of idle chunks kept
+     */
+    public ChunkPool(int chunkSize, int maxChunks) {
+        this.chunkSize = Math.max(chunkSize, 16);
+        this.free = new byte[Math.max(maxChunks, 0)][];
+    }
+
+    public int chunkSize() { return chunkSize; }
+
+    /**
+     * Take idle chunk or create a new one, contents of the chunk are undefined
+     * @return chunk of chunkSize() bytes
+     */
+    public byte[] acquire() {
+        synchronized (this) {
+            if (count > 0) {
+                final byte[] chunk = free[--count];
+                free[count] = null;
+                return chunk;
+            }
+        }
+        return new byte[chunkSize];
+    }
+
+    /**
+     * Return chunk to the pool, chunk must not be used after that
+     * @param chunk - chunk from acquire(), chunks of other size are ignored
+     */
+    public void release(byte[] chunk) {
+        if (chunk == null || chunk.length != chunkSize) return;
+        synchronized (this) {
+            if (count < free.length) free[count++] = chunk;
+        }
+    }
+}
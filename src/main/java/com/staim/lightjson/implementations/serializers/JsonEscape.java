@@ -0,0 +1,70 @@
+package com.staim.lightjson.implementations.serializers;
+
+/**
+ * String escaping shared by all serializers
+ *
+ * Escape sequences of ASCII characters are kept in a 128-entry table, null for characters written as is,
+ * characters above ASCII are never escaped. Strings are scanned with one table lookup per character and clean runs
+ * are copied with one call. Quote, backslash and control characters are escaped, control characters
+ * without short escape as \\u00XX.
+ */
+public final class JsonEscape {
+    static final String[] ESCAPES = new String[128];
+
+    static {
+        final String hex = "0123456789abcdef";
+        for (char c = 0; c < 0x20; c++) ESCAPES[c] = "\\u00" + hex.charAt(c >> 4) + hex.charAt(c & 0xF);
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\t'] = "\\t";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['\r'] = "\\r";
+        ESCAPES['"'] = "\\\"";
+        ESCAPES['\\'] = "\\\\";
+    }
+
+    private JsonEscape() {}
+
+    /**
+     * Get escape sequence of character
+     * @param c - character
+     * @return escape sequence or null when character is written as is
+     */
+    public static String escape(char c) { return c < 128 ? ESCAPES[c] : null; }
+
+    /**
+     * Find the first character to escape
+     * @param string - string to scan
+     * @param from - index to start at
+     * @param to - index to stop at
+     * @return index of the character or to when there is nothing to escape
+     */
+    public static int scan(String string, int from, int to) {
+        final String[] escapes = ESCAPES;
+        for (int i = from; i < to; i++) {
+            final char c = string.charAt(i);
+            if (c < 128 && escapes[c] != null) return i;
+        }
+        return to;
+    }
+
+    /**
+     * Escape string for Json, without quotes
+     * @param string - string to escape
+     * @return escaped string, the same instance when there is nothing to escape, empty string for null
+     */
+    public static String escape(String string) {
+        if (string == null) return "";
+        final int length = string.length();
+        int i = scan(string, 0, length);
+        if (i == length) return string;
+        final StringBuilder builder = new StringBuilder(length + 16);
+        int start = 0;
+        while (i < length) {
+            builder.append(string, start, i).append(ESCAPES[string.charAt(i)]);
+            start = i + 1;
+            i = scan(string, start, length);
+        }
+        return builder.append(string, start, length).toString();
+    }
+}
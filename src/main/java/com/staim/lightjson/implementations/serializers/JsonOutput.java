@@ -0,0 +1,160 @@
+package com.staim.lightjson.implementations.serializers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleArrayElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleElement;
+import com.staim.lightjson.implementations.elements.JsonLongArrayElement;
+import com.staim.lightjson.implementations.elements.JsonLongElement;
+import com.staim.lightjson.implementations.elements.JsonPackedArrayElement;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Single-pass tree walk shared by char and byte outputs
+ *
+ * Subclasses only put characters to their buffers. Numbers are formatted by NumberFormatter into a scratch array,
+ * unboxed Number elements are written without getData(). Output format is the same as of SerializerUtil functions.
+ */
+abstract class JsonOutput {
+    private char[] digits; // number formatting scratch
+
+    /**
+     * Write Json Element
+     * @param element - element to write, null is written as null
+     * @throws IOException when target fails
+     */
+    @SuppressWarnings("unchecked")
+    public void write(JsonElement element) throws IOException {
+        if (element == null) {
+            writeAscii("null");
+            return;
+        }
+        switch (element.getType()) {
+            case OBJECT: {
+                writeAscii('{');
+                boolean first = true;
+                for (Map.Entry<String, JsonElement> entry : ((Map<String, JsonElement>)element.getData()).entrySet()) {
+                    if (!first) writeAscii(',');
+                    first = false;
+                    writeString(entry.getKey());
+                    writeAscii(':');
+                    final JsonElement value = entry.getValue();
+                    if (value != null) write(value);
+                    else writeAscii("\"null\"");
+                }
+                writeAscii('}');
+                break;
+            }
+            case ARRAY: {
+                if (element instanceof JsonPackedArrayElement && ((JsonPackedArrayElement)element).isPacked()) {
+                    writePacked((JsonPackedArrayElement)element);
+                    break;
+                }
+                writeAscii('[');
+                boolean first = true;
+                for (JsonElement item : (Collection<JsonElement>)element.getData()) {
+                    if (!first) writeAscii(',');
+                    first = false;
+                    write(item);
+                }
+                writeAscii(']');
+                break;
+            }
+            case STRING: writeString((String)element.getData()); break;
+            case NUMBER: writeNumber(element); break;
+            case BOOLEAN: writeAscii(SerializerUtil.serializeBoolean((Boolean)element.getData())); break;
+            case DATE: writeRaw(SerializerUtil.serializeDate((Date)element.getData())); break;
+            case NULL:
+            default: writeAscii("null");
+        }
+    }
+
+    /**
+     * Write buffered output to the target
+     * @throws IOException when target fails
+     */
+    public abstract void flush() throws IOException;
+
+    /**
+     * Write ASCII character
+     */
+    protected abstract void writeAscii(char c) throws IOException;
+
+    /**
+     * Write string of ASCII characters
+     */
+    protected abstract void writeAscii(String ascii) throws IOException;
+
+    /**
+     * Write ASCII characters from array
+     */
+    protected abstract void writeAscii(char[] chars, int offset, int length) throws IOException;
+
+    /**
+     * Write any characters as is
+     */
+    protected abstract void writeRaw(String string) throws IOException;
+
+    /**
+     * Write quoted string with the escapes of JsonEscape
+     */
+    protected abstract void writeString(String string) throws IOException;
+
+    /**
+     * Write long, formatted by NumberFormatter
+     */
+    protected void writeLong(long value) throws IOException {
+        final char[] digits = digits();
+        writeAscii(digits, 0, NumberFormatter.format(value, digits, 0));
+    }
+
+    /**
+     * Write double, formatted by NumberFormatter
+     */
+    protected void writeDouble(double value) throws IOException {
+        final char[] digits = digits();
+        writeAscii(digits, 0, NumberFormatter.format(value, digits, 0));
+    }
+
+    private void writeNumber(JsonElement element) throws IOException {
+        if (element instanceof JsonLongElement) {
+            writeLong(((JsonLongElement)element).getLong());
+        } else if (element instanceof JsonDoubleElement) {
+            writeDouble(((JsonDoubleElement)element).getDouble());
+        } else {
+            final Number number = element.getData();
+            final char[] digits = digits();
+            final int end = NumberFormatter.format(number, digits, 0);
+            if (end >= 0) writeAscii(digits, 0, end);
+            else writeAscii(NumberFormatter.toString(number));
+        }
+    }
+
+    private char[] digits() {
+        if (digits == null) digits = new char[NumberFormatter.MAX_LENGTH];
+        return digits;
+    }
+
+    private void writePacked(JsonPackedArrayElement array) throws IOException {
+        writeAscii('[');
+        if (array instanceof JsonLongArrayElement) {
+            final long[] values = ((JsonLongArrayElement)array).array();
+            for (int i = 0, size = array.length(); i < size; i++) {
+                if (i > 0) writeAscii(',');
+                writeLong(values[i]);
+            }
+        } else {
+            final JsonDoubleArrayElement doubles = (JsonDoubleArrayElement)array;
+            final double[] values = doubles.array();
+            for (int i = 0, size = array.length(); i < size; i++) {
+                if (i > 0) writeAscii(',');
+                if (doubles.isIntegral(i)) writeLong((long)values[i]);
+                else writeDouble(values[i]);
+            }
+        }
+        writeAscii(']');
+    }
+}
@@ -0,0 +1,99 @@
+package com.staim.lightjson.implementations.serializers;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * Writes Json Elements through one fixed-size char buffer to Appendable
+ *
+ * Output is produced in a single pass in linear time, buffer is flushed whenever it is full, so memory does not
+ * depend on output size. Clean runs of strings are copied to the buffer with one getChars call, see JsonEscape,
+ * longs and doubles are formatted right in the buffer.
+ * Output format is the same as of SerializerUtil functions. Call flush() at the end, the
+ * target itself is neither flushed nor closed. Instance must not be shared between threads.
+ */
+public final class JsonWriter extends JsonOutput {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Appendable out;
+    private final char[] buffer;
+    private int position;
+
+    public JsonWriter(Appendable out) { this(out, DEFAULT_BUFFER_SIZE); }
+
+    /**
+     * @param out - target
+     * @param bufferSize - size of char buffer, at least NumberFormatter.MAX_LENGTH
+     */
+    public JsonWriter(Appendable out, int bufferSize) {
+        this.out = out;
+        this.buffer = new char[Math.max(bufferSize, NumberFormatter.MAX_LENGTH)];
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (position == 0) return;
+        if (out instanceof Writer) ((Writer)out).write(buffer, 0, position);
+        else if (out instanceof StringBuilder) ((StringBuilder)out).append(buffer, 0, position);
+        else out.append(CharBuffer.wrap(buffer, 0, position));
+        position = 0;
+    }
+
+    @Override
+    protected void writeString(String string) throws IOException {
+        write('"');
+        if (string != null) {
+            final int length = string.length();
+            int start = 0;
+            while (start < length) {
+                final int i = JsonEscape.scan(string, start, length);
+                write(string, start, i);
+                if (i == length) break;
+                write(JsonEscape.escape(string.charAt(i)));
+                start = i + 1;
+            }
+        }
+        write('"');
+    }
+
+    @Override protected void writeAscii(char c) throws IOException { write(c); }
+    @Override protected void writeAscii(String ascii) throws IOException { write(ascii); }
+    @Override protected void writeRaw(String string) throws IOException { write(string); }
+
+    @Override
+    protected void writeAscii(char[] chars, int offset, int length) throws IOException {
+        if (buffer.length - position < length) flush();
+        System.arraycopy(chars, offset, buffer, position, length);
+        position += length;
+    }
+
+    @Override
+    protected void writeLong(long value) throws IOException {
+        if (buffer.length - position < NumberFormatter.MAX_LENGTH) flush();
+        position = NumberFormatter.format(value, buffer, position);
+    }
+
+    @Override
+    protected void writeDouble(double value) throws IOException {
+        if (buffer.length - position < NumberFormatter.MAX_LENGTH) flush();
+        position = NumberFormatter.format(value, buffer, position);
+    }
+
+    private void write(char c) throws IOException {
+        if (position == buffer.length) flush();
+        buffer[position++] = c;
+    }
+
+    private void write(String string) throws IOException { write(string, 0, string.length()); }
+
+    private void write(String string, int offset, int length) throws IOException {
+        while (offset < length) {
+            if (position == buffer.length) flush();
+            final int count = Math.min(length - offset, buffer.length - position);
+            string.getChars(offset, offset + count, buffer, position);
+            position += count;
+            offset += count;
+        }
+    }
+}
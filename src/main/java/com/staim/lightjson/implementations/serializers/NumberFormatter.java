@@ -0,0 +1,281 @@
+package com.staim.lightjson.implementations.serializers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number formatting into char arrays without allocation
+ *
+ * Longs are written two digits at a time from a digit-pair table. Doubles are written with the shortest decimal
+ * that rounds back to the same double (Schubfach algorithm by Raffaello Giulietti), in the layout of
+ * Double.toString(): plain for 10^-3 <= |v| < 10^7, otherwise d.dddEn. NaN and Infinity are written as by
+ * Double.toString().
+ */
+public final class NumberFormatter {
+    /**
+     * Maximum number of characters written by format functions
+     */
+    public static final int MAX_LENGTH = 32;
+
+    private static final char[] TENS = new char[100];
+    private static final char[] ONES = new char[100];
+    private static final char[] MIN_LONG = "-9223372036854775808".toCharArray();
+
+    // Schubfach parameters of double
+    private static final int P = 53;             // precision
+    private static final int Q_MIN = -1074;      // minimum binary exponent
+    private static final int K_MIN = -324;       // minimum decimal exponent of table
+    private static final int K_MAX = 292;        // maximum decimal exponent of table
+    private static final int C_TINY = 3;         // subnormal significands below are scaled by 10
+    private static final long C_MIN = 1L << (P - 1);
+    private static final long T_MASK = C_MIN - 1;
+    private static final long MASK_63 = 0x7FFFFFFFFFFFFFFFL;
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) * 2]; // g = floor(10^-k 2^(125 - r)) + 1, split in 63-bit halves
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            TENS[i] = (char)('0' + i / 10);
+            ONES[i] = (char)('0' + i % 10);
+        }
+        final BigInteger mask63 = BigInteger.valueOf(MASK_63);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            final int shift = 125 - flog2pow10(-k);
+            final BigInteger g = k <= 0
+                    ? BigInteger.TEN.pow(-k).shiftLeft(shift).add(BigInteger.ONE)
+                    : BigInteger.ONE.shiftLeft(shift).divide(BigInteger.TEN.pow(k)).add(BigInteger.ONE);
+            G[(k - K_MIN) << 1] = g.shiftRight(63).longValue();
+            G[(k - K_MIN) << 1 | 1] = g.and(mask63).longValue();
+        }
+    }
+
+    private NumberFormatter() {}
+
+    /**
+     * Format Number as Json, without allocation for primitive wrappers
+     * @param number - Number
+     * @param out - target, at least MAX_LENGTH characters from position
+     * @param position - position to write at
+     * @return position after the number or -1 when number needs toString(), see toString()
+     */
+    public static int format(Number number, char[] out, int position) {
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte
+                || number instanceof AtomicLong || number instanceof AtomicInteger)
+            return format(number.longValue(), out, position);
+        if (number instanceof Double) return format(number.doubleValue(), out, position);
+        if (number instanceof Float || number instanceof BigDecimal || number instanceof BigInteger) return -1;
+        return format(number.doubleValue(), out, position);
+    }
+
+    /**
+     * Format Number as Json
+     * @param number - Number
+     * @return Json Number String
+     */
+    public static String toString(Number number) {
+        if (number instanceof Float) return Float.toString(number.floatValue()); // Float keeps its own shortest digits
+        if (number instanceof BigDecimal || number instanceof BigInteger) return number.toString();
+        final char[] chars = new char[MAX_LENGTH];
+        return new String(chars, 0, format(number, chars, 0));
+    }
+
+    /**
+     * Format long
+     * @param value - value
+     * @param out - target, at least 20 characters from position
+     * @param position - position to write at
+     * @return position after the number
+     */
+    public static int format(long value, char[] out, int position) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                System.arraycopy(MIN_LONG, 0, out, position, MIN_LONG.length);
+                return position + MIN_LONG.length;
+            }
+            out[position++] = '-';
+            value = -value;
+        }
+        return digits(value, digitCount(value), out, position);
+    }
+
+    /**
+     * Format double with the shortest decimal, which parses back to the same value
+     * @param value - value
+     * @param out - target, at least 24 characters from position
+     * @param position - position to write at
+     * @return position after the number
+     */
+    public static int format(double value, char[] out, int position) {
+        final long bits = Double.doubleToRawLongBits(value);
+        final long t = bits & T_MASK;
+        final int bq = (int)(bits >>> (P - 1)) & 0x7FF;
+        if (bq == 0x7FF) return ascii(t != 0 ? "NaN" : bits < 0 ? "-Infinity" : "Infinity", out, position);
+        if (bits < 0) out[position++] = '-';
+        if (bq != 0) {
+            final int mq = -Q_MIN + 1 - bq;
+            final long c = C_MIN | t;
+            if (0 < mq && mq < P) { // integral values below 2^53
+                final long f = c >> mq;
+                if (f << mq == c) return chars(f, 0, out, position);
+            }
+            return decimal(-mq, c, 0, out, position);
+        }
+        if (t != 0) return t < C_TINY ? decimal(Q_MIN, 10 * t, -1, out, position) : decimal(Q_MIN, t, 0, out, position);
+        return ascii("0.0", out, position);
+    }
+
+    /**
+     * Find the shortest decimal in the rounding interval of c 2^q
+     */
+    private static int decimal(int q, long c, int dk, char[] out, int position) {
+        final int odd = (int)c & 1;
+        final long cb = c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != C_MIN || q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else { // interval is asymmetric at powers of 2
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 2;
+        final long g1 = G[(k - K_MIN) << 1];
+        final long g0 = G[(k - K_MIN) << 1 | 1];
+        final long vb = rop(g1, g0, cb << h);
+        final long vbl = rop(g1, g0, cbl << h);
+        final long vbr = rop(g1, g0, cbr << h);
+
+        final long s = vb >> 2;
+        if (s >= 100) { // try one digit less
+            final long sp10 = s / 10 * 10;
+            final long tp10 = sp10 + 10;
+            final boolean upin = vbl + odd <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + odd <= vbr;
+            if (upin != wpin) return chars(upin ? sp10 : tp10, k + dk, out, position);
+        }
+        final long t = s + 1;
+        final boolean uin = vbl + odd <= s << 2;
+        final boolean win = (t << 2) + odd <= vbr;
+        if (uin != win) return chars(uin ? s : t, k + dk, out, position);
+        final long cmp = vb - (s + t << 1);
+        return chars(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, out, position);
+    }
+
+    /**
+     * Write f 10^e in the layout of Double.toString()
+     */
+    private static int chars(long f, int e, char[] out, int position) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        final int n = digitCount(f);
+        final int exponent = n + e - 1;
+        if (exponent >= -3 && exponent < 7) {
+            if (exponent < 0) { // 0.00ddd
+                out[position++] = '0';
+                out[position++] = '.';
+                for (int i = -1; i > exponent; i--) out[position++] = '0';
+                return digits(f, n, out, position);
+            }
+            final int integer = exponent + 1;
+            if (n <= integer) { // ddd00.0
+                position = digits(f, n, out, position);
+                for (int i = n; i < integer; i++) out[position++] = '0';
+                out[position++] = '.';
+                out[position++] = '0';
+                return position;
+            }
+            digits(f, n, out, position + 1); // dd.ddd, shift integer part left over the dot
+            System.arraycopy(out, position + 1, out, position, integer);
+            out[position + integer] = '.';
+            return position + n + 1;
+        }
+        digits(f, n, out, position + 1); // d.dddEn
+        out[position] = out[position + 1];
+        out[position + 1] = '.';
+        position += n + 1;
+        if (n == 1) out[position++] = '0';
+        out[position++] = 'E';
+        return format((long)exponent, out, position);
+    }
+
+    /**
+     * Write exactly n digits of non-negative value, two at a time
+     */
+    private static int digits(long value, int n, char[] out, int position) {
+        final int end = position + n;
+        int p = end;
+        while (value >= Integer.MAX_VALUE) {
+            final long q = value / 100;
+            final int r = (int)(value - q * 100);
+            value = q;
+            out[--p] = ONES[r];
+            out[--p] = TENS[r];
+        }
+        int v = (int)value;
+        while (v >= 100) {
+            final int q = v / 100;
+            final int r = v - q * 100;
+            v = q;
+            out[--p] = ONES[r];
+            out[--p] = TENS[r];
+        }
+        if (v >= 10) {
+            out[--p] = ONES[v];
+            out[--p] = TENS[v];
+        } else {
+            out[--p] = (char)('0' + v);
+        }
+        return end;
+    }
+
+    private static int digitCount(long value) {
+        long limit = 10;
+        for (int n = 1; n < 19; n++, limit *= 10)
+            if (value < limit) return n;
+        return 19;
+    }
+
+    private static int ascii(String string, char[] out, int position) {
+        string.getChars(0, string.length(), out, position);
+        return position + string.length();
+    }
+
+    //////////////////////////// SCHUBFACH ARITHMETIC //////////////////////////////////////////////////////////////////
+
+    /**
+     * Round to odd of g cp / 2^127
+     */
+    private static long rop(long g1, long g0, long cp) {
+        final long x1 = multiplyHigh(g0, cp);
+        final long y0 = g1 * cp;
+        final long y1 = multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1;
+        final long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /**
+     * High 64 bits of signed 128-bit product, Math.multiplyHigh() is not available in Java 7
+     */
+    private static long multiplyHigh(long x, long y) {
+        final long x1 = x >> 32, x2 = x & 0xFFFFFFFFL;
+        final long y1 = y >> 32, y2 = y & 0xFFFFFFFFL;
+        final long z2 = x2 * y2;
+        final long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        final long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    private static int flog10pow2(int e) { return (int)(e * 661971961083L >> 41); } // floor(log10(2^e))
+
+    private static int flog10threeQuartersPow2(int e) { return (int)(e * 661971961083L - 274743187321L >> 41); } // floor(log10(3/4 2^e))
+
+    private static int flog2pow10(int e) { return (int)(e * 913124641741L >> 38); } // floor(log2(10^e))
+}
@@ -1,85 +1,348 @@
 package com.staim.lightjson.implementations.serializers;
 
 import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
 import com.staim.lightjson.JsonSerializer;
+import com.staim.lightjson.JsonType;
+import com.staim.lightjson.implementations.elements.JsonPackedArrayElement;
+import com.staim.lightjson.implementations.parsers.ParserParallel;
 
-import java.util.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.RecursiveTask;
-
-import static com.staim.lightjson.implementations.serializers.SerializerUtil.*;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Serializer Using ForkJoinPool
  *
+ * Sizes of subtrees are estimated up to the split threshold. Trees estimated below it are written sequentially
+ * on the calling thread. Larger Objects and Arrays are split: their big children become separate tasks, runs of
+ * small children are grouped into tasks of about threshold size. Only the first children of a container are
+ * estimated, the rest are grouped by their average size. Every task writes into its own buffer (chars,
+ * or pooled UTF-8 chunks for OutputStream), buffers are then written to the target in order without merging
+ * them into one String first. Output is the same as of SerializerRecursive. Thread-safe.
+ *
  * Created by alexeyshcherbinin on 05.12.14.
  */
 public class SerializerForkJoin implements JsonSerializer {
+    public static final int DEFAULT_SPLIT_THRESHOLD = 32 * 1024; // estimated characters written by one task
+    private static final int SAMPLE_SIZE = 32; // children estimated one by one, the rest are grouped by their average
+
+    private final ForkJoinPool pool;
+    private final int splitThreshold;
+    private final ChunkPool chunks = ChunkPool.shared();
+
+    /**
+     * Create serializer running on ForkJoinPool shared with ParserParallel
+     */
+    public SerializerForkJoin() { this(ParserParallel.sharedPool(), DEFAULT_SPLIT_THRESHOLD); }
+
+    /**
+     * Create serializer running on given ForkJoinPool
+     * @param pool - pool to serialize subtrees on
+     */
+    public SerializerForkJoin(ForkJoinPool pool) { this(pool, DEFAULT_SPLIT_THRESHOLD); }
+
+    /**
+     * @param pool - pool to serialize subtrees on
+     * @param splitThreshold - estimated output size in characters, below which subtrees are not split
+     */
+    public SerializerForkJoin(ForkJoinPool pool, int splitThreshold) {
+        this.pool = pool;
+        this.splitThreshold = Math.max(splitThreshold, 1);
+    }
+
     public String serialize(JsonElement element) {
-        return new ForkJoinPool().invoke(new SerializerWorker(element));
+        if (element == null) return null;
+        final StringBuilder builder = new StringBuilder();
+        try {
+            write(element, builder);
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e); // StringBuilder does not throw
+        }
+        return builder.toString();
     }
 
-    @SuppressWarnings("unchecked")
-    private class SerializerWorker extends RecursiveTask<String> {
-        private final JsonElement element;
+    @Override
+    public void serialize(JsonElement element, Appendable out) throws JsonException {
+        try {
+            write(element, out);
+        } catch (IOException e) {
+            throw new JsonException("Write error: " + e.getMessage());
+        }
+    }
 
-        public SerializerWorker(JsonElement element) { this.element = element; }
+    @Override
+    public void serialize(JsonElement element, OutputStream out) throws JsonException {
+        try {
+            if (!parallel(element)) {
+                final Utf8Output output = new Utf8Output(chunks, out);
+                try {
+                    output.write(element);
+                    output.flush();
+                } finally {
+                    output.release();
+                }
+            } else {
+                final Part root = new Part(element, true);
+                try {
+                    pool.invoke(root);
+                    emit(root, out);
+                } finally {
+                    release(root);
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new JsonException("Write error: " + e.getMessage());
+        }
+    }
 
-        @Override
-        protected String compute() {
-            if (element == null) return null;
-
-            switch (element.getType()) {
-                case OBJECT: return serializeObject();
-                case ARRAY: return serializeArray();
-                case STRING: return serializeString((String)element.getData());
-                case NUMBER: return serializeNumber((Number)element.getData());
-                case BOOLEAN: return serializeBoolean((Boolean)element.getData());
-                case DATE: return serializeDate((Date)element.getData());
-                case NULL:
-                default: return "null";
+    private void write(JsonElement element, Appendable out) throws IOException {
+        if (!parallel(element)) {
+            final JsonWriter writer = new JsonWriter(out);
+            writer.write(element);
+            writer.flush();
+            return;
+        }
+        final Part root = new Part(element, false);
+        pool.invoke(root);
+        emit(root, out, out instanceof Writer ? new char[JsonWriter.DEFAULT_BUFFER_SIZE] : null);
+    }
+
+    private boolean parallel(JsonElement element) {
+        return pool.getParallelism() > 1 && splittable(element) && estimate(element, 0, splitThreshold) >= splitThreshold;
+    }
+
+    private static boolean splittable(JsonElement element) {
+        if (element == null) return false;
+        final JsonType type = element.getType();
+        if (type == JsonType.OBJECT) return true;
+        return type == JsonType.ARRAY && !(element instanceof JsonPackedArrayElement && ((JsonPackedArrayElement)element).isPacked());
+    }
+
+    /**
+     * Estimate size of serialized element, walk stops as soon as total reaches the limit
+     * @param element - element
+     * @param total - size estimated so far
+     * @param limit - size to stop at
+     * @return total with the element, may be above the limit
+     */
+    @SuppressWarnings("unchecked")
+    private static int estimate(JsonElement element, int total, int limit) {
+        if (element == null) return total + 6;
+        switch (element.getType()) {
+            case OBJECT: {
+                total += 2;
+                for (Map.Entry<String, JsonElement> entry : ((Map<String, JsonElement>)element.getData()).entrySet()) {
+                    if (total >= limit) return total;
+                    total = estimate(entry.getValue(), total + entry.getKey().length() + 4, limit);
+                }
+                return total;
+            }
+            case ARRAY: {
+                if (element instanceof JsonPackedArrayElement && ((JsonPackedArrayElement)element).isPacked())
+                    return total + 2 + (int)Math.min(limit, ((JsonPackedArrayElement)element).length() * 8L);
+                total += 2;
+                for (JsonElement item : (Collection<JsonElement>)element.getData()) {
+                    if (total >= limit) return total;
+                    total = estimate(item, total + 1, limit);
+                }
+                return total;
             }
+            case STRING: {
+                final String string = element.getData();
+                return total + (string != null ? string.length() : 0) + 2;
+            }
+            case DATE: return total + 26;
+            default: return total + 8;
         }
+    }
 
-        private String serializeObject() {
-            String resObject = "";
-            Map<String, JsonElement> objectData = element.getData();
-            Map<String, SerializerWorker> subTasks = new HashMap<>();
+    //////////////////////////// OUTPUT ////////////////////////////////////////////////////////////////////////////////
 
-            for (Map.Entry<String, JsonElement> childEntry : objectData.entrySet()) {
-                SerializerWorker task = new SerializerWorker(childEntry.getValue());
-                task.fork(); // execute async
-                subTasks.put(childEntry.getKey(), task);
+    /**
+     * Write parts in order, joining them
+     */
+    private static void emit(Part part, Appendable out, char[] scratch) throws IOException {
+        part.join();
+        for (Object piece : part.pieces) {
+            if (piece instanceof Part) {
+                emit((Part)piece, out, scratch);
+            } else if (piece instanceof StringBuilder && scratch != null) {
+                final StringBuilder text = (StringBuilder)piece;
+                for (int offset = 0, length = text.length(); offset < length; ) {
+                    final int count = Math.min(scratch.length, length - offset);
+                    text.getChars(offset, offset + count, scratch, 0);
+                    ((Writer)out).write(scratch, 0, count);
+                    offset += count;
+                }
+            } else {
+                out.append((CharSequence)piece);
             }
+        }
+    }
 
-            for (Map.Entry<String, SerializerWorker> taskEntry : subTasks.entrySet()) {
-                final String value = taskEntry.getValue().join();
-                if (!resObject.isEmpty()) resObject += ",";
-                final String key = taskEntry.getKey();
-                resObject += serializeObjectEntry(key, value);
+    private static void emit(Part part, OutputStream out) throws IOException {
+        part.join();
+        for (Object piece : part.pieces) {
+            if (piece instanceof Part) {
+                emit((Part)piece, out);
+            } else if (piece instanceof Utf8Chunks) {
+                final Utf8Chunks chunks = (Utf8Chunks)piece;
+                chunks.writeTo(out);
+                chunks.close();
+            } else {
+                out.write(((String)piece).getBytes(StandardCharsets.UTF_8));
             }
+        }
+    }
 
-            return "{" + resObject + "}";
+    /**
+     * Return chunks of all parts to the pool, after failure or when done
+     */
+    private static void release(Part part) {
+        part.quietlyJoin();
+        for (Object piece : part.pieces) {
+            if (piece instanceof Part) release((Part)piece);
+            else if (piece instanceof Utf8Chunks) ((Utf8Chunks)piece).close();
         }
+    }
 
-        private String serializeArray() {
-            String resArray = "";
-            Collection<JsonElement> arrayData = element.getData();
-            List<SerializerWorker> subTasks = new LinkedList<>();
+    //////////////////////////// TASK //////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Serializes either the whole large element, splitting it, or a range of its children without brackets.
+     * Result is the list of pieces in output order: Strings of punctuation and keys, buffers of written children
+     * (StringBuilder or Utf8Chunks) and nested Parts.
+     */
+    private final class Part extends RecursiveAction {
+        private final JsonElement element;
+        private final Object[] children; // Map.Entry for Object members, JsonElement for Array items
+        private final int from;
+        private final int to;
+        private final boolean bytes;
+        private final List<Object> pieces = new ArrayList<>();
+
+        Part(JsonElement element, boolean bytes) {
+            this(element, null, 0, 0, bytes);
+        }
+
+        Part(JsonElement element, Object[] children, int from, int to, boolean bytes) {
+            this.element = element;
+            this.children = children;
+            this.from = from;
+            this.to = to;
+            this.bytes = bytes;
+        }
 
-            for (JsonElement child : arrayData) {
-                SerializerWorker task = new SerializerWorker(child);
-                task.fork(); // execute async
-                subTasks.add(task);
+        @Override
+        protected void compute() {
+            if (children == null) split();
+            else writeRange();
+        }
+
+        private void split() {
+            final boolean object = element.getType() == JsonType.OBJECT;
+            final Object[] children = object ? ((Map<?, ?>)element.getData()).entrySet().toArray()
+                                             : ((Collection<?>)element.getData()).toArray();
+            final StringBuilder glue = new StringBuilder();
+            glue.append(object ? '{' : '[');
+            boolean first = true;
+            int start = 0, size = 0;
+            long sampled = 0;
+            for (int i = 0; i < children.length; i++) {
+                final JsonElement child = value(children[i]);
+                final int childSize;
+                if (i < SAMPLE_SIZE) {
+                    childSize = estimate(child, object ? key(children[i]).length() + 4 : 1, splitThreshold);
+                    sampled += childSize;
+                } else {
+                    childSize = (int)(sampled / SAMPLE_SIZE);
+                }
+                if (i < SAMPLE_SIZE && childSize >= splitThreshold && splittable(child)) {
+                    if (start < i) first = fork(glue, first, new Part(element, children, start, i, bytes));
+                    if (!first) glue.append(',');
+                    if (object) glue.append('"').append(JsonEscape.escape(key(children[i]))).append("\":");
+                    first = fork(glue, true, new Part(child, bytes));
+                    start = i + 1;
+                    size = 0;
+                } else if ((size += childSize) >= splitThreshold) {
+                    first = fork(glue, first, new Part(element, children, start, i + 1, bytes));
+                    start = i + 1;
+                    size = 0;
+                }
+            }
+            if (start < children.length) fork(glue, first, new Part(element, children, start, children.length, bytes));
+            glue.append(object ? '}' : ']');
+            pieces.add(glue.toString());
+        }
+
+        /**
+         * Add separator and glue written so far, then fork the part after it
+         * @return false, the next part is not the first one
+         */
+        private boolean fork(StringBuilder glue, boolean first, Part part) {
+            if (!first) glue.append(',');
+            if (glue.length() > 0) {
+                pieces.add(glue.toString());
+                glue.setLength(0);
             }
+            pieces.add(part);
+            part.fork();
+            return false;
+        }
 
-            for (SerializerWorker task : subTasks) {
-                final String value = task.join();
-                if (!resArray.isEmpty()) resArray += ",";
-                resArray += value;
+        private void writeRange() {
+            if (bytes) {
+                final Utf8Output output = new Utf8Output(chunks, null);
+                try {
+                    writeRange(output);
+                } catch (IOException | RuntimeException e) {
+                    output.release();
+                    if (e instanceof RuntimeException) throw (RuntimeException)e;
+                    throw new IllegalStateException(e.getMessage(), e); // chunks are not written anywhere
+                }
+                pieces.add(output.finish());
+            } else {
+                final StringBuilder builder = new StringBuilder();
+                try {
+                    final JsonWriter writer = new JsonWriter(builder, 1024);
+                    writeRange(writer);
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e.getMessage(), e); // StringBuilder does not throw
+                }
+                pieces.add(builder);
             }
+        }
 
-            return "[" + resArray + "]";
+        private void writeRange(JsonOutput output) throws IOException {
+            final boolean object = element.getType() == JsonType.OBJECT;
+            for (int i = from; i < to; i++) {
+                if (i > from) output.writeAscii(',');
+                if (object) {
+                    output.writeString(key(children[i]));
+                    output.writeAscii(':');
+                    final JsonElement value = value(children[i]);
+                    if (value != null) output.write(value);
+                    else output.writeAscii("\"null\"");
+                } else {
+                    output.write((JsonElement)children[i]);
+                }
+            }
         }
     }
+
+    private static String key(Object child) { return (String)((Map.Entry<?, ?>)child).getKey(); }
+
+    private static JsonElement value(Object child) {
+        return child instanceof Map.Entry ? (JsonElement)((Map.Entry<?, ?>)child).getValue() : (JsonElement)child;
+    }
 }
@@ -1,72 +1,58 @@
 package com.staim.lightjson.implementations.serializers;
 
 import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
 import com.staim.lightjson.JsonSerializer;
 
-import java.util.Collection;
-import java.util.Date;
-import java.util.Map;
-
-import static com.staim.lightjson.implementations.serializers.SerializerUtil.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Simple Recursive Serializer
  *
+ * Walks the tree once writing through JsonWriter buffer, so time is linear and streaming overloads need
+ * constant memory besides the tree.
+ *
  * Created by alexeyshcherbinin on 05.12.14.
  */
 public class SerializerRecursive implements JsonSerializer {
     public String serialize(JsonElement element) {
-        return (new SerializerWorker(element)).compute();
+        if (element == null) return null;
+        final StringBuilder builder = new StringBuilder();
+        try {
+            write(element, builder);
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e); // StringBuilder does not throw
+        }
+        return builder.toString();
     }
 
-    @SuppressWarnings("unchecked")
-    private class SerializerWorker {
-        private final JsonElement element;
-
-        public SerializerWorker(JsonElement element) { this.element = element; }
-
-        protected String compute() {
-            if (element == null) return null;
-
-            switch (element.getType()) {
-                case OBJECT: return serializeObject();
-                case ARRAY: return serializeArray();
-                case STRING: return serializeString((String)element.getData());
-                case NUMBER: return serializeNumber((Number)element.getData());
-                case BOOLEAN: return serializeBoolean((Boolean)element.getData());
-                case DATE: return serializeDate((Date)element.getData());
-                case NULL:
-                default: return "null";
-            }
+    @Override
+    public void serialize(JsonElement element, Appendable out) throws JsonException {
+        try {
+            write(element, out);
+        } catch (IOException e) {
+            throw new JsonException("Write error: " + e.getMessage());
         }
+    }
 
-        private String serializeObject() {
-            String resObject = "";
-            Map<String, JsonElement> objectData = element.getData();
-
-            for (Map.Entry<String, JsonElement> childEntry : objectData.entrySet()) {
-                SerializerWorker task = new SerializerWorker(childEntry.getValue());
-                final String value = task.compute();
-                if (!resObject.isEmpty()) resObject += ",";
-                final String key = childEntry.getKey();
-                resObject += serializeObjectEntry(key, value);
-            }
-
-            return "{" + resObject + "}";
+    @Override
+    public void serialize(JsonElement element, OutputStream out) throws JsonException {
+        try {
+            final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            write(element, writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new JsonException("Write error: " + e.getMessage());
         }
+    }
 
-        private String serializeArray() {
-            String resArray = "";
-            Collection<JsonElement> arrayData = element.getData();
-
-            for (JsonElement child : arrayData) {
-                SerializerWorker task = new SerializerWorker(child);
-                final String value = task.compute();
-                if (!resArray.isEmpty()) resArray += ",";
-                resArray += value;
-            }
-
-            return "[" + resArray + "]";
-        }
+    private static void write(JsonElement element, Appendable out) throws IOException {
+        final JsonWriter writer = new JsonWriter(out);
+        writer.write(element);
+        writer.flush();
     }
 }
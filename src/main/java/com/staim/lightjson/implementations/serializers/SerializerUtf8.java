@@ -0,0 +1,77 @@
+package com.staim.lightjson.implementations.serializers;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * UTF-8 Serializer
+ *
+ * Encodes Json straight to UTF-8 bytes in pooled chunks (see ChunkPool), without intermediate String and separate
+ * encoding pass. Results are available as byte[] (toBytes) or as chunks for gathering writes (toChunks), streams
+ * are written through one pooled chunk. String and Appendable output goes through JsonWriter as in
+ * SerializerRecursive. Output is the same as of SerializerRecursive. Thread-safe.
+ */
+public class SerializerUtf8 implements JsonSerializer {
+    private final ChunkPool pool;
+
+    public SerializerUtf8() { this(ChunkPool.shared()); }
+
+    /**
+     * @param pool - pool of output chunks
+     */
+    public SerializerUtf8(ChunkPool pool) { this.pool = pool; }
+
+    @Override
+    public String serialize(JsonElement element) { return new SerializerRecursive().serialize(element); }
+
+    @Override
+    public void serialize(JsonElement element, Appendable out) throws JsonException {
+        new SerializerRecursive().serialize(element, out);
+    }
+
+    @Override
+    public void serialize(JsonElement element, OutputStream out) throws JsonException {
+        final Utf8Output output = new Utf8Output(pool, out);
+        try {
+            output.write(element);
+            output.flush();
+            out.flush();
+        } catch (IOException e) {
+            throw new JsonException("Write error: " + e.getMessage());
+        } finally {
+            output.release();
+        }
+    }
+
+    /**
+     * Serialize Json Element to UTF-8 bytes
+     * @param element Json Element
+     * @return UTF-8 encoded Json
+     */
+    public byte[] toBytes(JsonElement element) {
+        try (Utf8Chunks chunks = toChunks(element)) {
+            return chunks.toByteArray();
+        }
+    }
+
+    /**
+     * Serialize Json Element to UTF-8 bytes in pooled chunks, close the result to return chunks to the pool
+     * @param element Json Element
+     * @return chunks
+     */
+    public Utf8Chunks toChunks(JsonElement element) {
+        final Utf8Output output = new Utf8Output(pool, null);
+        try {
+            output.write(element);
+        } catch (IOException | RuntimeException e) {
+            output.release();
+            if (e instanceof RuntimeException) throw (RuntimeException)e;
+            throw new IllegalStateException(e.getMessage(), e); // chunks are not written anywhere
+        }
+        return output.finish();
+    }
+}
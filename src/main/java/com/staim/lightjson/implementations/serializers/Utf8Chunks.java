@@ -0,0 +1,102 @@
+package com.staim.lightjson.implementations.serializers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+/**
+ * UTF-8 output of SerializerUtf8 in pooled chunks
+ *
+ * All chunks but the last one are full. close() returns chunks to the pool, after that they must not be used,
+ * including ByteBuffers from buffers(). Not thread-safe.
+ */
+public final class Utf8Chunks implements Closeable {
+    private final ChunkPool pool;
+    private byte[][] chunks;
+    private final int count;
+    private final int lastLength;
+
+    Utf8Chunks(ChunkPool pool, byte[][] chunks, int count, int lastLength) {
+        this.pool = pool;
+        this.chunks = chunks;
+        this.count = count;
+        this.lastLength = lastLength;
+    }
+
+    /**
+     * Get number of bytes
+     * @return total length of chunks
+     */
+    public long length() { return count == 0 ? 0 : (long)(count - 1) * pool.chunkSize() + lastLength; }
+
+    /**
+     * Get chunks as buffers ready for gathering write, one buffer per chunk
+     * @return buffers over chunks
+     */
+    public ByteBuffer[] buffers() {
+        checkOpen();
+        final ByteBuffer[] buffers = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) buffers[i] = ByteBuffer.wrap(chunks[i], 0, length(i));
+        return buffers;
+    }
+
+    /**
+     * Copy chunks to one array
+     * @return UTF-8 bytes
+     */
+    public byte[] toByteArray() {
+        checkOpen();
+        final long length = length();
+        if (length > Integer.MAX_VALUE - 8) throw new IllegalStateException("Output is too large for byte[]: " + length);
+        final byte[] bytes = new byte[(int)length];
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(chunks[i], 0, bytes, offset, length(i));
+            offset += length(i);
+        }
+        return bytes;
+    }
+
+    /**
+     * Write all chunks to stream
+     * @param out - target stream, is neither flushed nor closed
+     * @throws IOException when writing fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        checkOpen();
+        for (int i = 0; i < count; i++) out.write(chunks[i], 0, length(i));
+    }
+
+    /**
+     * Write all chunks to channel with gathering writes, until everything is written
+     * @param channel - target channel in blocking mode
+     * @throws IOException when writing fails
+     */
+    public void writeTo(GatheringByteChannel channel) throws IOException {
+        final ByteBuffer[] buffers = buffers();
+        long remaining = length();
+        int first = 0;
+        while (remaining > 0) {
+            remaining -= channel.write(buffers, first, buffers.length - first);
+            while (first < buffers.length && !buffers[first].hasRemaining()) first++;
+        }
+    }
+
+    /**
+     * Return chunks to the pool, repeated calls do nothing
+     */
+    @Override
+    public void close() {
+        if (chunks == null) return;
+        for (int i = 0; i < count; i++) pool.release(chunks[i]);
+        chunks = null;
+    }
+
+    private int length(int index) { return index == count - 1 ? lastLength : pool.chunkSize(); }
+
+    private void checkOpen() {
+        if (chunks == null) throw new IllegalStateException("Chunks are released");
+    }
+}
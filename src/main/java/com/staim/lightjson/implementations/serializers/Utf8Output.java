@@ -0,0 +1,166 @@
+package com.staim.lightjson.implementations.serializers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Writes Json Elements as UTF-8 bytes into pooled chunks
+ *
+ * Collects chunks for Utf8Chunks, or, when created with OutputStream, writes through one chunk. ASCII runs of
+ * strings are copied with a tight loop checking the JsonEscape table, other characters are encoded inline,
+ * unpaired surrogates become '?' as in String.getBytes(). Instance must not be shared between threads.
+ */
+final class Utf8Output extends JsonOutput {
+    private final ChunkPool pool;
+    private final OutputStream out; // null when chunks are collected
+    private byte[][] chunks; // full chunks
+    private int count;
+    private byte[] chunk;
+    private int position;
+
+    Utf8Output(ChunkPool pool, OutputStream out) {
+        this.pool = pool;
+        this.out = out;
+        this.chunk = pool.acquire();
+        if (out == null) chunks = new byte[4][];
+    }
+
+    /**
+     * Write buffered bytes to the stream, does nothing when chunks are collected
+     */
+    @Override
+    public void flush() throws IOException {
+        if (out == null || position == 0) return;
+        out.write(chunk, 0, position);
+        position = 0;
+    }
+
+    /**
+     * Take collected chunks, the output must not be used after that
+     * @return chunks
+     */
+    Utf8Chunks finish() {
+        append(chunk);
+        chunk = null;
+        return new Utf8Chunks(pool, chunks, count, position);
+    }
+
+    /**
+     * Return chunks to the pool, when output was not finished
+     */
+    void release() {
+        for (int i = 0; i < count; i++) pool.release(chunks[i]);
+        count = 0;
+        pool.release(chunk);
+        chunk = null;
+    }
+
+    @Override
+    protected void writeAscii(char c) throws IOException {
+        if (position == chunk.length) next();
+        chunk[position++] = (byte)c;
+    }
+
+    @Override
+    protected void writeAscii(String ascii) throws IOException {
+        for (int i = 0, length = ascii.length(); i < length; ) {
+            if (position == chunk.length) next();
+            final int end = Math.min(length, i + chunk.length - position);
+            while (i < end) chunk[position++] = (byte)ascii.charAt(i++);
+        }
+    }
+
+    @Override
+    protected void writeAscii(char[] chars, int offset, int length) throws IOException {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            if (position == chunk.length) next(); // chunks other than the last one are always full
+            chunk[position++] = (byte)chars[i];
+        }
+    }
+
+    @Override
+    protected void writeRaw(String string) throws IOException {
+        for (int i = 0, length = string.length(); i < length; i++) {
+            final char c = string.charAt(i);
+            if (c < 0x80) writeAscii(c);
+            else i = encode(string, i);
+        }
+    }
+
+    @Override
+    protected void writeString(String string) throws IOException {
+        writeAscii('"');
+        if (string != null) {
+            final String[] escapes = JsonEscape.ESCAPES;
+            final int length = string.length();
+            int i = 0;
+            while (i < length) {
+                // ASCII run without escapes
+                if (position == chunk.length) next();
+                final byte[] chunk = this.chunk;
+                final int end = Math.min(length, i + chunk.length - position);
+                int p = position;
+                char c = 0;
+                while (i < end && (c = string.charAt(i)) < 0x80 && escapes[c] == null) {
+                    chunk[p++] = (byte)c;
+                    i++;
+                }
+                position = p;
+                if (i == end) continue;
+                if (c < 0x80) writeAscii(escapes[c]);
+                else i = encode(string, i);
+                i++;
+            }
+        }
+        writeAscii('"');
+    }
+
+    /**
+     * Encode non-ASCII character
+     * @return index of the last character consumed
+     */
+    private int encode(String string, int i) throws IOException {
+        final char c = string.charAt(i);
+        if (c < 0x800) {
+            put(0xC0 | (c >> 6));
+            put(0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+            final int code = Character.toCodePoint(c, string.charAt(++i));
+            put(0xF0 | (code >> 18));
+            put(0x80 | ((code >> 12) & 0x3F));
+            put(0x80 | ((code >> 6) & 0x3F));
+            put(0x80 | (code & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            put('?');
+        } else {
+            put(0xE0 | (c >> 12));
+            put(0x80 | ((c >> 6) & 0x3F));
+            put(0x80 | (c & 0x3F));
+        }
+        return i;
+    }
+
+    private void put(int b) throws IOException {
+        if (position == chunk.length) next();
+        chunk[position++] = (byte)b;
+    }
+
+    /**
+     * Current chunk is full: write it through or keep it and take a new one
+     */
+    private void next() throws IOException {
+        if (out != null) {
+            out.write(chunk, 0, position);
+        } else {
+            append(chunk);
+            chunk = pool.acquire();
+        }
+        position = 0;
+    }
+
+    private void append(byte[] full) {
+        if (count == chunks.length) chunks = Arrays.copyOf(chunks, count * 2);
+        chunks[count++] = full;
+    }
+}
@@ -0,0 +1,307 @@
+package com.staim.lightjson.test;
+
+import com.staim.lightjson.JsonException;
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonParser;
+import com.staim.lightjson.JsonSerializer;
+import com.staim.lightjson.JsonTokenReader;
+import com.staim.lightjson.LightJson;
+import com.staim.lightjson.implementations.TokenReaderImpl;
+import com.staim.lightjson.implementations.UnmarshallerStreaming;
+import com.staim.lightjson.implementations.ValidatorImpl;
+import com.staim.lightjson.implementations.elements.JsonColumnarElement;
+import com.staim.lightjson.implementations.parsers.ParserColumnar;
+import com.staim.lightjson.implementations.parsers.ParserFast;
+import com.staim.lightjson.implementations.parsers.ParserLazy;
+import com.staim.lightjson.implementations.parsers.ParserParallel;
+import com.staim.lightjson.implementations.parsers.ParserProjection;
+import com.staim.lightjson.implementations.parsers.ParserScalable;
+import com.staim.lightjson.implementations.parsers.ParserStreaming;
+import com.staim.lightjson.implementations.parsers.ParserTape;
+import com.staim.lightjson.implementations.serializers.SerializerForkJoin;
+import com.staim.lightjson.implementations.serializers.SerializerRecursive;
+import com.staim.lightjson.implementations.serializers.SerializerUtf8;
+import com.staim.lightjson.implementations.serializers.Utf8Chunks;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Simple throughput and allocation benchmark, run manually:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.staim.lightjson.test.Benchmark
+ */
+public class Benchmark {
+    private static final int WARM_UP = 2000;
+    private static final int ITERATIONS = 3000;
+
+    public static void main(String[] args) throws JsonException {
+        System.out.println("Parsers (TestJson1, " + TestJson1.jsonString.length() + " chars):");
+        benchmark("Scalable", new ParserScalable());
+        benchmark("Fast", new ParserFast());
+        benchmark("Lazy", new ParserLazy());
+        benchmark("Tape", new ParserTape());
+        benchmark("Projection", new ParserProjection("features[*].id"));
+        validate();
+
+        final String hugeArray = hugeArray(200);
+        System.out.println("Huge Array (" + hugeArray.length() + " chars, " + Runtime.getRuntime().availableProcessors() + " cores):");
+        benchmark("Fast", new ParserFast(), hugeArray, 20);
+        benchmark("Parallel", new ParserParallel(), hugeArray, 20);
+
+        System.out.println("Retained heap (TestJson1):");
+        retained("Fast", new ParserFast());
+        retained("Tape", new ParserTape());
+
+        final JsonElement document = new ParserFast().parse(TestJson1.jsonString);
+        System.out.println("Serializers (TestJson1):");
+        serialize("Recursive", new SerializerRecursive(), document);
+        serialize("ForkJoin", new SerializerForkJoin(), document);
+        serialize("ForkJoin x4", new SerializerForkJoin(new java.util.concurrent.ForkJoinPool(4)), document);
+        final JsonElement large = new ParserFast().parse(records(50000));
+        System.out.println("Serializers (50000 records):");
+        serialize("Recursive", new SerializerRecursive(), large, 20);
+        serialize("ForkJoin", new SerializerForkJoin(), large, 20);
+        serialize("ForkJoin x4", new SerializerForkJoin(new java.util.concurrent.ForkJoinPool(4)), large, 20);
+        final JsonElement texts = new ParserFast().parse(texts(2000));
+        System.out.println("Strings (2000 texts):");
+        serialize("Recursive", new SerializerRecursive(), texts);
+        serialize("Utf8", new SerializerUtf8(), texts);
+        System.out.println("UTF-8 bytes (TestJson1):");
+        encode("getBytes", document, 0);
+        encode("toBytes", document, 1);
+        encode("toChunks", document, 2);
+
+        final String series = series(10000);
+        System.out.println("Number Array (" + series.length() + " chars):");
+        benchmark("Scalable", new ParserScalable(), series, 500);
+        benchmark("Fast", new ParserFast(), series, 500);
+        final JsonElement numbers = new ParserFast().parse(series);
+        serialize("Serialize", new SerializerRecursive(), numbers);
+
+        final String records = records(1000);
+        System.out.println("Retained heap (" + records.length() + " chars of records):");
+        retained("Shapes", new ParserFast(), records);
+        retained("No shapes", new ParserStreaming() {
+            @Override
+            public JsonElement parse(String json) throws JsonException {
+                final JsonTokenReader reader = new TokenReaderImpl(new java.io.StringReader(json));
+                reader.nextToken();
+                return readElement(reader, null);
+            }
+        }, records);
+        retained("Columnar", new ParserColumnar(), records);
+        System.out.println("Sum of score (" + records.length() + " chars of records):");
+        scan(false, records);
+        scan(true, records);
+
+        final String bean = "{\"number\":10,\"string\":\"Hello world\",\"bool\":true,\"integerList\":[0,1,2,3,4,5,6,7,8,9]," +
+                "\"testBean2\":{\"integer2\":25,\"string2\":\"AaBbCcDdEeFf!!!\",\"intArray\":[2,4,6,8,10]," +
+                "\"stringMap\":{\"key1\":\"value1\",\"key2\":\"value2\"}},\"doubleValue\":2.0,\"unknown\":[1,2,3]}";
+        System.out.println("Unmarshal (TestBean, " + bean.length() + " chars):");
+        unmarshal("Tree", bean, false);
+        unmarshal("Streaming", bean, true);
+    }
+
+    private static void validate() {
+        final ValidatorImpl validator = new ValidatorImpl();
+        final byte[] bytes = TestJson1.jsonString.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        for (int i = 0; i < WARM_UP; i++) validator.validate(bytes, 0, bytes.length);
+
+        final long allocatedBefore = allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) validator.validate(bytes, 0, bytes.length);
+        final long time = System.nanoTime() - start;
+        final long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("  %-12s %10.1f us/op %12d bytes/op %8.0f MB/s%n", "Validator", time / 1000.0 / ITERATIONS,
+                allocated / ITERATIONS, bytes.length * (double)ITERATIONS * 1000 / time);
+    }
+
+    private static void scan(boolean columnar, String json) throws JsonException {
+        final JsonElement rows = (columnar ? new ParserColumnar() : new ParserFast()).parse(json);
+        final int iterations = 20000;
+        double total = 0;
+        for (int i = 0; i < iterations; i++) total += sum(rows, columnar);
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) total += sum(rows, columnar);
+        final long time = System.nanoTime() - start;
+
+        System.out.printf("  %-12s %10.2f us/op %16.0f%n", columnar ? "Column" : "Rows", time / 1000.0 / iterations, total);
+    }
+
+    private static double sum(JsonElement rows, boolean columnar) throws JsonException {
+        double sum = 0;
+        if (columnar) {
+            for (double score : ((JsonColumnarElement)rows).column("score").asDoubleArray()) sum += score;
+        } else {
+            for (Iterator<JsonElement> iterator = rows.iterator(); iterator.hasNext(); )
+                sum += iterator.next().get("score").getData(Number.class).doubleValue();
+        }
+        return sum;
+    }
+
+    private static void unmarshal(String name, String json, boolean streaming) throws JsonException {
+        final int iterations = 100000;
+        for (int i = 0; i < iterations; i++) unmarshalOnce(json, streaming);
+
+        final long allocatedBefore = allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) unmarshalOnce(json, streaming);
+        final long time = System.nanoTime() - start;
+        final long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("  %-12s %10.1f us/op %12d bytes/op%n", name, time / 1000.0 / iterations, allocated / iterations);
+    }
+
+    private static TestBean unmarshalOnce(String json, boolean streaming) throws JsonException {
+        if (streaming) return new UnmarshallerStreaming(json).unmarshal(TestBean.class);
+        return LightJson.json().unmarshaller(json).unmarshal(TestBean.class);
+    }
+
+    private static void serialize(String name, JsonSerializer serializer, JsonElement element) {
+        serialize(name, serializer, element, 500);
+    }
+
+    private static void serialize(String name, JsonSerializer serializer, JsonElement element, int iterations) {
+        for (int i = 0; i < iterations; i++) serializer.serialize(element);
+
+        final long allocatedBefore = allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) serializer.serialize(element);
+        final long time = System.nanoTime() - start;
+        final long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("  %-12s %10.1f us/op %12d bytes/op%n", name, time / 1000.0 / iterations, allocated / iterations);
+    }
+
+    /**
+     * @param mode - 0: Recursive and String.getBytes, 1: SerializerUtf8.toBytes, 2: pooled SerializerUtf8.toChunks
+     */
+    private static void encode(String name, JsonElement element, int mode) {
+        final SerializerRecursive recursive = new SerializerRecursive();
+        final SerializerUtf8 utf8 = new SerializerUtf8();
+        final int iterations = 500;
+        long length = 0;
+        for (int round = 0; round < 2; round++) {
+            final long allocatedBefore = allocatedBytes();
+            final long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                switch (mode) {
+                    case 0: length += recursive.serialize(element).getBytes(StandardCharsets.UTF_8).length; break;
+                    case 1: length += utf8.toBytes(element).length; break;
+                    default:
+                        try (Utf8Chunks chunks = utf8.toChunks(element)) {
+                            length += chunks.length();
+                        }
+                }
+            }
+            final long time = System.nanoTime() - start;
+            final long allocated = allocatedBytes() - allocatedBefore;
+            if (round == 1)
+                System.out.printf("  %-12s %10.1f us/op %12d bytes/op%n", name, time / 1000.0 / iterations, allocated / iterations);
+        }
+        if (length == 0) System.out.println(length);
+    }
+
+    private static void benchmark(String name, JsonParser parser) throws JsonException {
+        benchmark(name, parser, TestJson1.jsonString, ITERATIONS);
+    }
+
+    private static void benchmark(String name, JsonParser parser, String json, int iterations) throws JsonException {
+        for (int i = 0; i < Math.min(WARM_UP, iterations); i++) parser.parse(json);
+
+        final long allocatedBefore = allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) parser.parse(json);
+        final long time = System.nanoTime() - start;
+        final long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("  %-12s %10.1f us/op %12d bytes/op%n", name, time / 1000.0 / iterations, allocated / iterations);
+    }
+
+    /**
+     * Top-level Array of copies of TestJson1
+     */
+    private static String hugeArray(int copies) {
+        final StringBuilder builder = new StringBuilder(copies * (TestJson1.jsonString.length() + 2));
+        builder.append('[');
+        for (int i = 0; i < copies; i++) {
+            if (i > 0) builder.append(",\n");
+            builder.append(TestJson1.jsonString);
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Time series: Object with Arrays of timestamps and measurements
+     */
+    private static String series(int count) {
+        final StringBuilder time = new StringBuilder("{\"time\":[");
+        final StringBuilder value = new StringBuilder("],\"value\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) { time.append(','); value.append(','); }
+            time.append(1420070400000L + i * 1000L);
+            value.append(Math.round(Math.sin(i / 100.0) * 1e6) / 1e3);
+        }
+        return time.append(value).append("]}").toString();
+    }
+
+    /**
+     * Top-level Array of Objects with the same keys
+     */
+    /**
+     * Array of long texts, every line ends with escaped newline and some have quotes
+     */
+    private static String texts(int count) {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) builder.append(',');
+            builder.append('"');
+            for (int line = 0; line < 3; line++)
+                builder.append("Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor ")
+                        .append(i % 5 == 0 ? "\\\"incididunt\\\" " : "incididunt ").append(i).append("\\n");
+            builder.append('"');
+        }
+        return builder.append(']').toString();
+    }
+
+    private static String records(int count) {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) builder.append(",\n");
+            builder.append("{\"id\":").append(i).append(",\"name\":\"user").append(i).append("\",\"active\":true,")
+                    .append("\"score\":").append(i * 0.5).append(",\"group\":").append(i % 7).append(",\"email\":null}");
+        }
+        return builder.append(']').toString();
+    }
+
+    private static void retained(String name, JsonParser parser) throws JsonException {
+        retained(name, parser, TestJson1.jsonString);
+    }
+
+    private static void retained(String name, JsonParser parser, String json) throws JsonException {
+        final int count = 200;
+        final Object[] documents = new Object[count];
+        final long before = usedHeap();
+        for (int i = 0; i < count; i++) documents[i] = parser.parse(json);
+        final long used = usedHeap() - before;
+        System.out.printf("  %-12s %12d bytes/document%n", name, used / documents.length);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Bytes allocated by current thread, -1 when JVM does not support allocation measurement
+     */
+    private static long allocatedBytes() {
+        Object bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        return -1;
+    }
+}
@@ -1,17 +1,62 @@
 package com.staim.lightjson.test;
 
 import com.staim.lightjson.*;
+import com.staim.lightjson.implementations.ElementImpl;
+import com.staim.lightjson.implementations.ElementTokenReader;
+import com.staim.lightjson.implementations.JsonLinesReaderImpl;
+import com.staim.lightjson.implementations.TokenReaderImpl;
+import com.staim.lightjson.implementations.UnmarshallerImpl;
+import com.staim.lightjson.implementations.UnmarshallerStreaming;
+import com.staim.lightjson.implementations.ValidatorImpl;
+import com.staim.lightjson.implementations.elements.JsonColumnarElement;
+import com.staim.lightjson.implementations.elements.JsonDoubleArrayElement;
+import com.staim.lightjson.implementations.elements.JsonLongArrayElement;
+import com.staim.lightjson.implementations.elements.JsonNullElement;
+import com.staim.lightjson.implementations.elements.JsonObjectMap;
+import com.staim.lightjson.implementations.elements.JsonPackedArrayElement;
+import com.staim.lightjson.implementations.elements.JsonPlainElement;
+import com.staim.lightjson.implementations.elements.JsonShape;
+import com.staim.lightjson.implementations.parsers.KeyCache;
+import com.staim.lightjson.implementations.parsers.MappedInputStream;
+import com.staim.lightjson.implementations.parsers.NumberParser;
+import com.staim.lightjson.implementations.parsers.ParserColumnar;
+import com.staim.lightjson.implementations.parsers.ParserEvent;
+import com.staim.lightjson.implementations.parsers.ParserFast;
+import com.staim.lightjson.implementations.parsers.ParserLazy;
+import com.staim.lightjson.implementations.parsers.ParserParallel;
+import com.staim.lightjson.implementations.parsers.ParserProjection;
 import com.staim.lightjson.implementations.parsers.ParserScalable;
 import com.staim.lightjson.implementations.parsers.ParserSimple;
+import com.staim.lightjson.implementations.parsers.ParserStreaming;
+import com.staim.lightjson.implementations.parsers.ParserTape;
+import com.staim.lightjson.implementations.parsers.ParserUtf8;
+import com.staim.lightjson.implementations.serializers.ChunkPool;
+import com.staim.lightjson.implementations.serializers.JsonEscape;
+import com.staim.lightjson.implementations.serializers.NumberFormatter;
 import com.staim.lightjson.implementations.serializers.SerializerForkJoin;
 import com.staim.lightjson.implementations.serializers.SerializerRecursive;
+import com.staim.lightjson.implementations.serializers.SerializerUtf8;
+import com.staim.lightjson.implementations.serializers.SerializerUtil;
+import com.staim.lightjson.implementations.serializers.Utf8Chunks;
 import junit.framework.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Primary Testing
@@ -245,4 +290,1374 @@ public class JsonTest {
         String restoredString1 = LightJson.to(element1);
         Assert.assertEquals(57054, restoredString1.length());
     }
+
+    @Test
+    public void testParserUtf8() {
+        try {
+            JsonParser parser = new ParserUtf8();
+            byte[] bytes = TestJson1.jsonString.getBytes(StandardCharsets.UTF_8);
+
+            JsonElement element1 = parser.parse(bytes, 0, bytes.length);
+            Assert.assertEquals(JsonType.OBJECT, element1.getType());
+            Assert.assertEquals(57054, new SerializerRecursive().serialize(element1).length());
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes).flip();
+            JsonElement element2 = parser.parse(direct);
+            Assert.assertEquals(0, direct.position());
+            Assert.assertEquals(57054, new SerializerRecursive().serialize(element2).length());
+
+            JsonElement element3 = parser.parse("{\"s\":\"a\\\"b\\u0041\\n\u0423\u043b\uD83D\uDE00\", \"n\":[-9223372036854775808, 1.5E+2, 12345678901234567890]}");
+            Assert.assertEquals("a\"bA\n\u0423\u043b\uD83D\uDE00", element3.get("s").getData());
+            Assert.assertEquals(Long.MIN_VALUE, element3.get("n").get(0).getData());
+            Assert.assertEquals(150d, element3.get("n").get(1).getData());
+            Assert.assertEquals(12345678901234567890d, element3.get("n").get(2).getData());
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+
+        try {
+            new ParserUtf8().parse("{\"a\":1,}");
+            Assert.fail("Malformed Json accepted");
+        } catch (JsonException ignored) {}
+    }
+
+    @Test
+    public void testTokenReader() {
+        try {
+            JsonTokenReader reader = new TokenReaderImpl(new StringReader(TestJson1.jsonString), 16);
+            JsonElement element1 = new ParserStreaming().parse(new StringReader(TestJson1.jsonString));
+            Assert.assertEquals(57054, new SerializerRecursive().serialize(element1).length());
+
+            int names = 0;
+            Assert.assertEquals(JsonToken.START_OBJECT, reader.nextToken());
+            while (reader.nextToken() == JsonToken.NAME) {
+                names++;
+                if ("features".equals(reader.currentName())) {
+                    Assert.assertEquals(JsonToken.START_ARRAY, reader.nextToken());
+                    reader.skipChildren();
+                    Assert.assertEquals(JsonToken.END_ARRAY, reader.currentToken());
+                } else {
+                    Assert.assertEquals(JsonToken.STRING, reader.nextToken());
+                    Assert.assertEquals("FeatureCollection", reader.getString());
+                }
+            }
+            Assert.assertEquals(JsonToken.END_OBJECT, reader.currentToken());
+            Assert.assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+            Assert.assertEquals(2, names);
+
+            reader = new TokenReaderImpl(new StringReader("{\"long\":-12345678901, \"double\":2.5e-3, \"s\":\"a\\tb\\u0041\"} [true, null]"), 4);
+            Assert.assertEquals(JsonToken.START_OBJECT, reader.nextToken());
+            Assert.assertEquals(JsonToken.NAME, reader.nextToken());
+            Assert.assertEquals(JsonToken.NUMBER, reader.nextToken());
+            Assert.assertEquals("long", reader.currentName());
+            Assert.assertEquals(-12345678901L, reader.getLong());
+            reader.nextToken();
+            Assert.assertEquals(JsonToken.NUMBER, reader.nextToken());
+            Assert.assertEquals(0.0025, reader.getDouble());
+            reader.nextToken();
+            Assert.assertEquals(JsonToken.STRING, reader.nextToken());
+            Assert.assertEquals("a\tbA", reader.getString());
+            Assert.assertEquals(JsonToken.END_OBJECT, reader.nextToken());
+            Assert.assertEquals(JsonToken.START_ARRAY, reader.nextToken());
+            Assert.assertEquals(JsonToken.BOOLEAN, reader.nextToken());
+            Assert.assertTrue(reader.getBoolean());
+            Assert.assertEquals(1, reader.depth());
+            Assert.assertEquals(JsonToken.NULL, reader.nextToken());
+            Assert.assertEquals(JsonToken.END_ARRAY, reader.nextToken());
+            Assert.assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+
+            // getLong() returns only exact long values
+            JsonTokenReader[] readers = {
+                    new TokenReaderImpl(new StringReader("[1.5, 9223372036854775808, -9223372036854777856, 1e3, -9.223372036854775808E18]")),
+                    new ElementTokenReader(new ParserFast().parse("[1.5, 9223372036854775808, -9223372036854777856, 1e3, -9.223372036854775808E18]"))
+            };
+            for (JsonTokenReader numbers : readers) {
+                numbers.nextToken();
+                for (int i = 0; i < 3; i++) {
+                    Assert.assertEquals(JsonToken.NUMBER, numbers.nextToken());
+                    try {
+                        numbers.getLong();
+                        Assert.fail(numbers.getString());
+                    } catch (JsonException e) { /* expected */ }
+                }
+                numbers.nextToken();
+                Assert.assertEquals(1000L, numbers.getLong());
+                numbers.nextToken();
+                Assert.assertEquals(Long.MIN_VALUE, numbers.getLong());
+            }
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testParserEvent() {
+        try {
+            JsonElement element1 = new ParserEvent().parse(TestJson1.jsonString);
+            Assert.assertEquals(JsonType.OBJECT, element1.getType());
+            Assert.assertEquals(57054, new SerializerRecursive().serialize(element1).length());
+
+            final int[] counters = new int[3];
+            LightJson.parse(TestJson1.jsonString, new JsonHandler.Adapter() {
+                @Override public void startObject() { counters[0]++; }
+                @Override public void key(CharSequence key) { if ("type".contentEquals(key)) counters[1]++; }
+                @Override public void numberValue(double value) { counters[2]++; }
+            });
+            Assert.assertEquals(countKey(element1, "type"), counters[1]);
+            Assert.assertTrue(counters[0] > 0);
+            Assert.assertTrue(counters[2] > 0);
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    private static int countKey(JsonElement element, String key) throws JsonException {
+        if (element == null) return 0;
+        int count = 0;
+        if (element.getType() == JsonType.OBJECT) {
+            Map<String, JsonElement> map = element.getData();
+            for (Map.Entry<String, JsonElement> entry : map.entrySet()) {
+                if (key.equals(entry.getKey())) count++;
+                count += countKey(entry.getValue(), key);
+            }
+        } else if (element.getType() == JsonType.ARRAY) {
+            Iterator<JsonElement> it = element.iterator();
+            while (it.hasNext()) count += countKey(it.next(), key);
+        }
+        return count;
+    }
+
+    @Test
+    public void testParserFast() {
+        try {
+            ParserFast parser = new ParserFast();
+            JsonElement element1 = parser.parse(TestJson1.jsonString);
+            JsonElement element2 = new ParserScalable().parse(TestJson1.jsonString);
+            JsonSerializer serializer = new SerializerRecursive();
+            Assert.assertEquals(serializer.serialize(element2).length(), serializer.serialize(element1).length());
+            Assert.assertEquals(element2.get("features").size(), element1.get("features").size());
+            byte[] bytes = TestJson1.jsonString.getBytes(StandardCharsets.UTF_8);
+            Assert.assertEquals(57054, serializer.serialize(parser.parse(bytes, 0, bytes.length)).length());
+
+            JsonElement element3 = parser.parse("[0.1, -2.5e-3, 1E+2, 9223372036854775807, 123456789012345678901, \"\\\"q\\u0041\"]");
+            Assert.assertEquals(0.1, element3.get(0).getData());
+            Assert.assertEquals(-0.0025, element3.get(1).getData());
+            Assert.assertEquals(100d, element3.get(2).getData());
+            Assert.assertEquals(Long.MAX_VALUE, element3.get(3).getData());
+            Assert.assertEquals(123456789012345678901d, element3.get(4).getData());
+            Assert.assertEquals("\"qA", element3.get(5).getData());
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testParserLazy() {
+        try {
+            ParserLazy parser = new ParserLazy();
+            JsonElement element1 = parser.parse(TestJson1.jsonString);
+            JsonElement element2 = new ParserFast().parse(TestJson1.jsonString);
+            Assert.assertEquals(element2.get("features").size(), element1.get("features").size());
+            Assert.assertEquals(element2.get("features").get(3).get("properties").get("id").getData(),
+                    element1.get("features").get(3).get("properties").get("id").getData());
+            Assert.assertEquals(57054, new SerializerRecursive().serialize(element1).length());
+
+            JsonElement element3 = parser.parse(" {\"a\": [1, {\"b\": \"x\\\"y\"}], \"k\\u0065y\": 2.5, \"c\": {\"d\": tru}} ");
+            Assert.assertEquals(1L, element3.get("a").get(0).getData());
+            Assert.assertEquals("x\"y", element3.get("a").get(1).get("b").getData());
+            Assert.assertEquals(2.5, element3.get("key").getData());
+            Assert.assertNull(element3.get("missing"));
+            Assert.assertEquals(3, element3.size());
+            try {
+                element3.get("c").get("d"); // malformed subtree is found only when accessed
+                Assert.fail();
+            } catch (JsonException e) { /* expected */ }
+
+            JsonElement duplicates = parser.parse("{\"a\": 1, \"b\": 2, \"a\": 3}");
+            Assert.assertEquals(2, duplicates.size());
+            long sum = 0;
+            for (Iterator<JsonElement> values = duplicates.iterator(); values.hasNext(); ) sum += values.next().getLong();
+            Assert.assertEquals(5L, sum);
+            Assert.assertEquals(3L, duplicates.get("a").getData());
+
+            JsonElement element4 = parser.parse("[true, null, \"s\"]");
+            element4.add(4);
+            Assert.assertEquals(4, element4.size());
+            Assert.assertEquals(Boolean.TRUE, element4.get(0).getData());
+            Assert.assertEquals(JsonType.NULL, element4.get(1).getType());
+
+            for (String malformed : new String[] {"{\"a\": [1, 2}", "[1, 2] 3", "{\"a\" 1}", "[1,]", ""}) {
+                try {
+                    parser.parse(malformed);
+                    Assert.fail(malformed);
+                } catch (JsonException e) { /* expected */ }
+            }
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testParserTape() {
+        try {
+            ParserTape parser = new ParserTape();
+            JsonElement element1 = parser.parse(TestJson1.jsonString);
+            JsonElement element2 = new ParserFast().parse(TestJson1.jsonString);
+            Assert.assertEquals(element2.get("features").size(), element1.get("features").size());
+            Assert.assertEquals(element2.get("features").get(7).get("geometry").get("coordinates").get(1).get(0).getData(),
+                    element1.get("features").get(7).get("geometry").get("coordinates").get(1).get(0).getData());
+            Assert.assertEquals(57054, new SerializerRecursive().serialize(element1).length());
+
+            JsonElement element3 = parser.parse("{\"a\": [1, {\"b\": \"x\\\"y\"}, [], {}], \"k\\u0065y\": 2.5, \"c\": true, \"d\": null}");
+            Assert.assertEquals(4, element3.size());
+            Assert.assertEquals(4, element3.get("a").size());
+            Assert.assertEquals(1L, element3.get("a").get(0).getData());
+            Assert.assertEquals("x\"y", element3.get("a").get(1).get("b").getData());
+            Assert.assertEquals(0, element3.get("a").get(2).size());
+            Assert.assertEquals(JsonType.OBJECT, element3.get("a").get(3).getType());
+            Assert.assertEquals(2.5, element3.get("key").getData());
+            Assert.assertEquals(Boolean.TRUE, element3.get("c").getData());
+            Assert.assertEquals(JsonType.NULL, element3.get("d").getType());
+            Assert.assertNull(element3.get("missing"));
+            int count = 0;
+            for (Iterator<JsonElement> iterator = element3.iterator(); iterator.hasNext(); iterator.next()) count++;
+            Assert.assertEquals(4, count);
+            Assert.assertEquals("\"text\"", new SerializerRecursive().serialize(parser.parse(" \"text\" ")));
+
+            // indexed access continues from the last found item, going back restarts from the first one
+            StringBuilder items = new StringBuilder("[");
+            for (int i = 0; i < 1000; i++) items.append(i > 0 ? "," : "").append(i % 3 == 0 ? "{\"v\":" + i + "}" : i % 3 == 1 ? "[" + i + "]" : "" + i);
+            JsonElement tapeArray = parser.parse(items.append("]").toString());
+            for (int i : new int[] { 0, 1, 2, 500, 999, 998, 3, 3, 4, 999, 0 }) {
+                JsonElement item = tapeArray.get(i);
+                Assert.assertEquals(i, i % 3 == 0 ? item.get("v").getLong() : i % 3 == 1 ? item.get(0).getLong() : item.getLong());
+            }
+            for (int i = 0; i < 1000; i++)
+                Assert.assertEquals(i % 3 == 0 ? JsonType.OBJECT : i % 3 == 1 ? JsonType.ARRAY : JsonType.NUMBER, tapeArray.get(i).getType());
+            try {
+                tapeArray.get(1000);
+                Assert.fail();
+            } catch (IndexOutOfBoundsException e) { /* expected */ }
+            Assert.assertEquals(998L, tapeArray.get(998).getLong());
+
+            try {
+                element3.add("e", 1);
+                Assert.fail();
+            } catch (JsonException e) { /* expected */ }
+            try {
+                parser.parse("[1, 2");
+                Assert.fail();
+            } catch (JsonException e) { /* expected */ }
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testParserParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            StringBuilder builder = new StringBuilder("\uFEFF [");
+            for (int i = 0; i < 20000; i++) {
+                if (i > 0) builder.append(",\n");
+                builder.append("{\"id\":").append(i).append(",\"text\":\"a, [b] {c} \\\"d,\\\\\",\"list\":[").append(i).append(", 2.5, null]}");
+            }
+            builder.append("] ");
+            final String json = builder.toString();
+
+            ParserParallel parser = new ParserParallel(pool);
+            JsonElement element1 = parser.parse(json);
+            JsonElement element2 = new ParserFast().parse(json);
+            Assert.assertEquals(20000, element1.size());
+            Assert.assertEquals(19999L, element1.get(19999).get("id").getData());
+            Assert.assertEquals("a, [b] {c} \"d,\\", element1.get(123).get("text").getData());
+            JsonSerializer serializer = new SerializerRecursive();
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            JsonElement element3 = parser.parse(bytes, 0, bytes.length);
+            for (int i = 0; i < 20000; i += 97) {
+                Assert.assertEquals(serializer.serialize(element2.get(i)), serializer.serialize(element1.get(i)));
+                Assert.assertEquals(serializer.serialize(element2.get(i)), serializer.serialize(element3.get(i)));
+            }
+
+            Assert.assertEquals(0, parser.parse("[ ]").size());
+            Assert.assertEquals(57054, serializer.serialize(parser.parse(TestJson1.jsonString)).length());
+
+            for (String malformed : new String[] {json.substring(0, json.length() - 3), json + "1", json.replace(",\n{\"id\":777,", ",,{\"id\":777,")}) {
+                try {
+                    parser.parse(malformed);
+                    Assert.fail();
+                } catch (JsonException e) { /* expected */ }
+            }
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testJsonLinesReader() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("{\"n\": ").append(i).append(", \"text\": \"").append(i % 10 == 0 ? TestJson1.jsonString.substring(0, 300).replace("\"", "'") : "line").append("\"}");
+            builder.append(i % 7 == 0 ? "\r\n\n  \n" : "\n");
+        }
+        final byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        try (JsonLinesReader reader = new JsonLinesReaderImpl(new ByteArrayInputStream(bytes), ParserParallel.sharedPool(), 100)) {
+            long n = 0;
+            while (reader.hasNext()) Assert.assertEquals(n++, reader.next().get("n").getData());
+            Assert.assertEquals(1000, n);
+        } catch (JsonException | IOException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+
+        // stream returning a few bytes per read, batches are filled across reads and arrays are reused
+        InputStream trickle = new java.io.FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException { return super.read(b, off, Math.min(len, 7)); }
+        };
+        try (JsonLinesReader reader = new JsonLinesReaderImpl(trickle, ParserParallel.sharedPool(), 256)) {
+            long n = 0;
+            while (reader.hasNext()) Assert.assertEquals(n++, reader.next().get("n").getData());
+            Assert.assertEquals(1000, n);
+            Assert.assertEquals(1000 + 2 * 143, reader.lineNumber());
+        } catch (JsonException | IOException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+
+        final long[] count = new long[1];
+        try (JsonLinesReader reader = new JsonLinesReaderImpl(ByteBuffer.wrap(bytes), ParserParallel.sharedPool(), 1000)) {
+            reader.readAll(new JsonLinesReader.Consumer() {
+                @Override
+                public void accept(JsonElement element) throws JsonException {
+                    Assert.assertEquals(count[0]++, element.get("n").getData());
+                }
+            });
+            Assert.assertEquals(1000, count[0]);
+        } catch (JsonException | IOException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+
+        try {
+            Path path = Files.createTempFile("lines", ".ndjson");
+            Files.write(path, "{\"a\": 1}\n\n[2, 3\n\"ok\"".getBytes(StandardCharsets.UTF_8));
+            try (JsonLinesReader reader = LightJson.lines(path)) {
+                Assert.assertEquals(1L, reader.nextElement().get("a").getData());
+                Assert.assertEquals(1, reader.lineNumber());
+                try {
+                    reader.nextElement();
+                    Assert.fail();
+                } catch (JsonException e) {
+                    Assert.assertEquals(3, reader.lineNumber());
+                }
+                Assert.assertEquals("ok", reader.nextElement().getData());
+                Assert.assertNull(reader.nextElement());
+            } finally {
+                Files.delete(path);
+            }
+        } catch (JsonException | IOException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMappedFile() {
+        try {
+            final byte[] bytes = TestJson1.jsonString.getBytes(StandardCharsets.UTF_8);
+            Path path = Files.createTempFile("mapped", ".json");
+            try {
+                Files.write(path, bytes);
+                JsonElement element = LightJson.from(path);
+                Assert.assertNotNull(element);
+                Assert.assertEquals(57054, new SerializerRecursive().serialize(element).length());
+                try {
+                    LightJson.setParserType(LightJson.ParserType.Tape); // mapped bytes are parsed in place anyway
+                    Assert.assertEquals(57054, new SerializerRecursive().serialize(LightJson.from(path)).length());
+                    LightJson.setParserType(LightJson.ParserType.Parallel);
+                    Assert.assertEquals(57054, new SerializerRecursive().serialize(LightJson.from(path)).length());
+                } finally {
+                    LightJson.setParserType(LightJson.ParserType.Scalable);
+                }
+                ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 2);
+                direct.put((byte)' ').put(bytes).flip();
+                direct.position(1);
+                Assert.assertEquals(57054, new SerializerRecursive().serialize(new ParserStreaming().parse(direct)).length());
+                Assert.assertEquals(1, direct.position());
+
+                try (InputStream stream = new MappedInputStream(path, 1000)) {
+                    Assert.assertEquals(bytes.length, stream.available());
+                    Assert.assertEquals(bytes[0], stream.read());
+                    Assert.assertEquals(2500, stream.skip(2500));
+                    byte[] read = new byte[bytes.length];
+                    int length = 0, count;
+                    while ((count = stream.read(read, length, read.length - length)) > 0) length += count;
+                    Assert.assertEquals(bytes.length - 2501, length);
+                    Assert.assertEquals(new String(bytes, 2501, length, StandardCharsets.UTF_8), new String(read, 0, length, StandardCharsets.UTF_8));
+                }
+                try (InputStream stream = new MappedInputStream(path, 777)) {
+                    Assert.assertEquals(57054, new SerializerRecursive().serialize(new ParserStreaming().parse(stream)).length());
+                }
+            } finally {
+                Files.delete(path);
+            }
+        } catch (JsonException | IOException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+
+        // files over 2 GB are rejected by mapping with a clear error, sparse file takes no space
+        try {
+            Path big = Files.createTempFile("big", ".json");
+            try {
+                try (java.io.RandomAccessFile file = new java.io.RandomAccessFile(big.toFile(), "rw")) {
+                    file.setLength(Integer.MAX_VALUE + 1L);
+                }
+                com.staim.lightjson.implementations.parsers.ParserUtil.map(big);
+                Assert.fail();
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("over 2 GB"));
+            } finally {
+                Files.delete(big);
+            }
+        } catch (IOException e) {
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testFeeder() {
+        try {
+            final byte[] bytes = TestJson1.jsonString.getBytes(StandardCharsets.UTF_8);
+            Random random = new Random(7);
+            JsonFeeder feeder = LightJson.feeder();
+            for (int i = 0; i < bytes.length; ) {
+                final int length = Math.min(1 + random.nextInt(7), bytes.length - i);
+                Assert.assertNull(feeder.nextElement());
+                Assert.assertFalse(feeder.isComplete());
+                feeder.feed(ByteBuffer.wrap(bytes, i, length));
+                i += length;
+            }
+            Assert.assertTrue(feeder.isComplete());
+            feeder.finish();
+            Assert.assertEquals(57054, new SerializerRecursive().serialize(feeder.nextElement()).length());
+
+            final byte[] sequence = "\uFEFF{\"a\\u0062\": [1, -2.5e1, true, null]} \"\u0444\\n\" 42".getBytes(StandardCharsets.UTF_8);
+            feeder = LightJson.feeder();
+            for (byte b : sequence) feeder.feed(new byte[] { b }, 0, 1);
+            JsonElement element = feeder.nextElement();
+            Assert.assertEquals(-25d, element.get("ab").get(1).getData());
+            Assert.assertEquals(Boolean.TRUE, element.get("ab").get(2).getData());
+            Assert.assertEquals("\u0444\n", feeder.nextElement().getData());
+            Assert.assertNull(feeder.nextElement());
+            feeder.finish();
+            Assert.assertEquals(42L, feeder.nextElement().getData());
+
+            final int[] count = new int[1];
+            feeder = LightJson.feeder(new JsonHandler.Adapter() {
+                @Override public void numberValue(double value) { count[0]++; }
+            });
+            feeder.feed(bytes, 0, bytes.length / 2);
+            feeder.feed(bytes, bytes.length / 2, bytes.length - bytes.length / 2);
+            feeder.finish();
+            Assert.assertEquals(774, count[0]);
+
+            for (String malformed : new String[] {"{\"a\" 1}", "[1, 2}", "[tru]", "{\"a\": 1", "[1.2.3]", ""}) {
+                feeder = LightJson.feeder();
+                try {
+                    byte[] malformedBytes = malformed.getBytes(StandardCharsets.UTF_8);
+                    feeder.feed(malformedBytes, 0, malformedBytes.length);
+                    feeder.finish();
+                    Assert.fail(malformed);
+                } catch (JsonException e) { /* expected */ }
+            }
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testParserProjection() {
+        try {
+            JsonElement full = new ParserFast().parse(TestJson1.jsonString);
+            JsonElement element = new ParserProjection("features[*].id", "features[1].geometry.type", "type").parse(TestJson1.jsonString);
+            Assert.assertEquals(2, element.size());
+            Assert.assertEquals("FeatureCollection", element.get("type").getData());
+            Assert.assertEquals(full.get("features").size(), element.get("features").size());
+            Assert.assertEquals(full.get("features").get(5).get("id").getData(), element.get("features").get(5).get("id").getData());
+            Assert.assertEquals(1, element.get("features").get(5).size());
+            Assert.assertEquals(2, element.get("features").get(1).size());
+            Assert.assertEquals("LineString", element.get("features").get(1).get("geometry").get("type").getData());
+            Assert.assertEquals(1, element.get("features").get(1).get("geometry").size());
+
+            element = LightJson.project("{\"user\": {\"id\": 7, \"name\": \"x\", \"tags\": [1, 2]}, \"items\": [{\"sku\": \"a\", \"n\": 1}, {\"sku\": {\"k\": [1]}}, 3], \"other\": [[{}]]}",
+                    "user.id", "user.tags", "items[*].sku");
+            Assert.assertNotNull(element);
+            Assert.assertEquals(2, element.size());
+            Assert.assertEquals(7L, element.get("user").get("id").getData());
+            Assert.assertEquals(2, element.get("user").get("tags").size());
+            Assert.assertNull(element.get("user").get("name"));
+            Assert.assertEquals(2, element.get("items").size()); // 3 does not match Object
+            Assert.assertEquals("a", element.get("items").get(0).get("sku").getData());
+            Assert.assertEquals(1L, element.get("items").get(1).get("sku").get("k").get(0).getData());
+
+            Assert.assertNull(LightJson.project("5", "a"));
+            try {
+                LightJson.project("{\"a\": [1,}", "a");
+                Assert.fail();
+            } catch (JsonException e) { /* expected */ }
+            try {
+                new ParserProjection("a..b");
+                Assert.fail();
+            } catch (IllegalArgumentException e) { /* expected */ }
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testUnmarshallerStreaming() {
+        String json = "{\"unknown\":{\"a\":[1,{\"b\":\"}\"}]},\"number\":\"12\",\"string\":\"Hello\",\"bool\":\"yes\"," +
+                "\"integerList\":[1,2,3],\"doubleValue\":2.5,\"extra\":[true,null]," +
+                "\"testBean2\":{\"integer2\":7,\"intArray\":[1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18]," +
+                "\"stringMap\":{\"k\":\"v\"},\"string2\":null}}";
+        try {
+            TestBean bean = new UnmarshallerStreaming(json).unmarshal(TestBean.class);
+            TestBean expected = LightJson.json().unmarshaller(json).unmarshal(TestBean.class);
+            Assert.assertEquals(expected.getNumber(), bean.getNumber());
+            Assert.assertEquals(12, bean.getNumber());
+            Assert.assertEquals("Hello", bean.getString());
+            Assert.assertTrue(bean.isBool());
+            Assert.assertEquals(2.5, bean.getDoubleValue());
+            Assert.assertEquals(expected.getIntegerList(), bean.getIntegerList());
+            Assert.assertEquals(7, bean.getTestBean2().getInteger2());
+            Assert.assertNull(bean.getTestBean2().getString2());
+            Assert.assertEquals(18, bean.getTestBean2().getIntArray().length);
+            Assert.assertEquals(18, bean.getTestBean2().getIntArray()[17]);
+            Assert.assertEquals("v", bean.getTestBean2().getStringMap().get("k"));
+            Assert.assertEquals(JsonType.OBJECT, new UnmarshallerStreaming(json).getElement().getType());
+
+            TestBean fromReader = LightJson.bind(new StringReader(json), TestBean.class);
+            Assert.assertNotNull(fromReader);
+            Assert.assertEquals(bean.getTestBean2().getStringMap(), fromReader.getTestBean2().getStringMap());
+            TestBean fromStream = LightJson.bind(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), TestBean.class);
+            Assert.assertNotNull(fromStream);
+            Assert.assertEquals("Hello", fromStream.getString());
+            Assert.assertEquals("Hello", LightJson.from(new StringReader(json), TestBean.class).getString());
+            Assert.assertEquals("Hello", LightJson.from(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), TestBean.class).getString());
+
+            // value bound to several fields is read once and bound from the element
+            TestBean3 shared = LightJson.bind("{\"value\":42,\"items\":[1,2,3],\"map\":{\"integer2\":5,\"intArray\":[7],\"stringMap\":{\"k\":\"v\"}}}", TestBean3.class);
+            Assert.assertNotNull(shared);
+            Assert.assertEquals(42L, shared.getNumber());
+            Assert.assertEquals("42", shared.getText());
+            Assert.assertTrue(Arrays.equals(new int[] { 1, 2, 3 }, shared.getIntArray()));
+            Assert.assertEquals("[1, 2, 3]", shared.getIntegerList().toString());
+            Assert.assertEquals("[1, 2, 3]", shared.getLinkedList().toString());
+            Assert.assertEquals(5, shared.getTestBean2().getInteger2());
+            Assert.assertEquals(7, shared.getTestBean2().getIntArray()[0]);
+            Assert.assertEquals("v", shared.getTestBean2().getStringMap().get("k"));
+            Assert.assertEquals(5L, shared.getData().get("integer2").getLong());
+            TestBean3 escaped = LightJson.bind("{\"value\":\" 4\\u0032\",\"items\":null}", TestBean3.class);
+            Assert.assertEquals(42L, escaped.getNumber());
+            Assert.assertEquals(" 42", escaped.getText());
+            Assert.assertNull(escaped.getIntegerList());
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+
+        // missing members leave primitives untouched and reset references
+        TestBean partial = LightJson.bind("{\"number\":3}", TestBean.class);
+        Assert.assertNotNull(partial);
+        Assert.assertEquals(3, partial.getNumber());
+        Assert.assertNull(partial.getString());
+        Assert.assertNull(partial.getTestBean2());
+
+        Assert.assertNull(LightJson.bind("[1,2]", TestBean.class));
+        Assert.assertNull(LightJson.bind("{\"number\":1} 2", TestBean.class));
+        Assert.assertNull(LightJson.bind("{\"testBean2\":[1]}", TestBean.class));
+        Assert.assertNull(LightJson.bind("{\"number\":1", TestBean.class));
+    }
+
+    @Test
+    public void testValidator() {
+        JsonValidator validator = LightJson.validator();
+        byte[] bytes = TestJson1.jsonString.getBytes(StandardCharsets.UTF_8);
+        Assert.assertTrue(validator.validate(TestJson1.jsonString));
+        Assert.assertEquals(-1, validator.errorOffset());
+        Assert.assertNull(validator.errorMessage());
+        Assert.assertTrue(validator.validate(bytes, 0, bytes.length));
+        char[] chars = (" " + TestJson1.jsonString + " ").toCharArray();
+        Assert.assertTrue(validator.validate(chars, 1, chars.length - 2));
+
+        String[] valid = { "0", "-0.5e+10", "\"\\u00e9\\n\"", "[]", "{}", " [1, {\"a\": [null, true, false]}] ",
+                "\uFEFF{\"\u00e9\": \"\u4e2d\"}" };
+        for (String json : valid) {
+            Assert.assertTrue(json, validator.validate(json));
+            byte[] utf8 = json.getBytes(StandardCharsets.UTF_8);
+            Assert.assertTrue(json, validator.validate(utf8, 0, utf8.length));
+            Assert.assertTrue(json, LightJson.isValid(json));
+        }
+
+        // Json and expected error offset
+        Object[][] invalid = {
+                { "", 0 }, { "  ", 2 }, { "[1,]", 3 }, { "{\"a\" 1}", 5 }, { "{\"a\":1,}", 7 }, { "[1 2]", 3 },
+                { "01", 1 }, { "-", 1 }, { "1.", 2 }, { "1e+", 3 }, { "[1}", 2 }, { "{\"a\":1]", 6 }, { "tru", 3 },
+                { "nul1", 3 }, { "\"a\\x\"", 3 }, { "\"\\u12G4\"", 5 }, { "\"a\tb\"", 2 }, { "{} {}", 3 },
+                { "[[[", 3 }, { "{'a':1}", 1 }, { "\"abc", 4 }, { "\"\\u12\u0663\u0664\"", 5 }, { "\"\\u00\uFF21\uFF21\"", 5 }
+        };
+        for (Object[] test : invalid) {
+            String json = (String)test[0];
+            Assert.assertFalse(json, validator.validate(json));
+            Assert.assertEquals(json, test[1], validator.errorOffset());
+            Assert.assertNotNull(validator.errorMessage());
+            byte[] utf8 = json.getBytes(StandardCharsets.UTF_8);
+            Assert.assertFalse(json, validator.validate(utf8, 0, utf8.length));
+            Assert.assertEquals(json, test[1], validator.errorOffset());
+            Assert.assertFalse(json, validator.validate(json.toCharArray(), 0, json.length()));
+            Assert.assertEquals(json, test[1], validator.errorOffset());
+        }
+
+        // malformed UTF-8: lone continuation byte, overlong form, encoded surrogate, truncated sequence
+        byte[][] malformed = {
+                { '"', (byte)0x80, '"' }, { '"', (byte)0xC0, (byte)0xAF, '"' }, { '"', (byte)0xED, (byte)0xA0, (byte)0x80, '"' },
+                { '"', (byte)0xE4, (byte)0xB8, '"' }
+        };
+        for (byte[] json : malformed) Assert.assertFalse(validator.validate(json, 0, json.length));
+        Assert.assertEquals(3, validator.errorOffset());
+
+        // limits
+        JsonValidator limited = new ValidatorImpl(3, 20);
+        Assert.assertTrue(limited.validate("[[[1]]]"));
+        Assert.assertFalse(limited.validate("[[[[1]]]]"));
+        Assert.assertEquals(3, limited.errorOffset());
+        Assert.assertFalse(limited.validate("[1,2,3,4,5,6,7,8,9,10]"));
+        Assert.assertEquals(20, limited.errorOffset());
+        StringBuilder deep = new StringBuilder();
+        for (int i = 0; i < 200; i++) deep.append(i % 2 == 0 ? "[" : "{\"a\":");
+        deep.append("1");
+        for (int i = 199; i >= 0; i--) deep.append(i % 2 == 0 ? "]" : "}");
+        Assert.assertTrue(validator.validate(deep.toString()));
+        Assert.assertFalse(new ValidatorImpl(199, Integer.MAX_VALUE).validate(deep.toString()));
+    }
+
+    @Test
+    public void testKeyCache() {
+        KeyCache cache = new KeyCache(16);
+        char[] chars = "xidx".toCharArray();
+        String id = cache.get(chars, 1, 2);
+        Assert.assertEquals("id", id);
+        Assert.assertSame(id, cache.get("id"));
+        Assert.assertSame(id, cache.get(ByteBuffer.wrap("{id}".getBytes(StandardCharsets.US_ASCII)), 1, 2));
+        Assert.assertSame(id, cache.get("\"id\"", 1, 3));
+        // colliding keys replace each other but stay correct
+        Assert.assertEquals("Aa", cache.get("Aa"));
+        Assert.assertEquals("BB", cache.get("BB"));
+        Assert.assertEquals("Aa", cache.get("Aa"));
+        StringBuilder longKey = new StringBuilder();
+        for (int i = 0; i <= KeyCache.MAX_KEY_LENGTH; i++) longKey.append('k');
+        Assert.assertNotSame(cache.get(longKey), cache.get(longKey));
+        Assert.assertEquals(longKey.toString(), cache.get(longKey));
+
+        String json = "[{\"id\":1,\"name\":\"a\",\"e\\u0073c\":0},{\"name\":\"b\",\"id\":2,\"e\\u0073c\":0}]";
+        JsonParser[] parsers = { new ParserScalable(), new ParserFast(), new ParserUtf8(), new ParserStreaming(), new ParserEvent() };
+        try {
+            for (JsonParser parser : parsers) {
+                JsonElement array = parser.parse(json);
+                Map<String, JsonElement> first = array.get(0).getData();
+                Map<String, JsonElement> second = array.get(1).getData();
+                for (String key : first.keySet()) { // keys with escapes are not cached
+                    String other = null;
+                    for (String candidate : second.keySet()) if (candidate.equals(key)) other = candidate;
+                    Assert.assertNotNull(parser.getClass().getSimpleName(), other);
+                    if (!key.startsWith("e")) Assert.assertSame(parser.getClass().getSimpleName() + " " + key, key, other);
+                }
+                Assert.assertEquals(2, (int)array.get(1).get("id").getData(Number.class).intValue());
+            }
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testPrimitiveElements() {
+        final String json = "{\"l\":12,\"big\":123456789012,\"d\":-2.5,\"t\":true,\"f\":false,\"n\":null,\"s\":\"\"}";
+        JsonParser[] parsers = { new ParserScalable(), new ParserFast(), new ParserUtf8(), new ParserStreaming(),
+                new ParserEvent(), new ParserLazy(), new ParserTape(), new ParserSimple() };
+        try {
+            for (JsonParser parser : parsers) {
+                String name = parser.getClass().getSimpleName();
+                JsonElement element = parser.parse(json);
+                Assert.assertEquals(name, 12L, element.get("l").getLong());
+                Assert.assertEquals(name, 123456789012L, element.get("big").getLong());
+                Assert.assertEquals(name, 12.0, element.get("l").getDouble());
+                Assert.assertEquals(name, -2.5, element.get("d").getDouble());
+                Assert.assertEquals(name, -2L, element.get("d").getLong());
+                Assert.assertTrue(name, element.get("t").getBoolean());
+                Assert.assertFalse(name, element.get("f").getBoolean());
+                Assert.assertTrue(name, element.get("n").isNull());
+                Assert.assertFalse(name, element.get("l").isNull());
+                Assert.assertEquals(name, 12L, element.get("l").getData()); // boxed data is still Long
+                try {
+                    element.get("s").getLong();
+                    Assert.fail(name + ": String must not be Number");
+                } catch (JsonException ignored) {}
+                try {
+                    element.get("l").getBoolean();
+                    Assert.fail(name + ": Number must not be Boolean");
+                } catch (JsonException ignored) {}
+            }
+
+            // shared elements
+            JsonElement element = new ParserFast().parse("[true,true,null,null,\"\",\"\",5,5,5000,5000]");
+            Assert.assertSame(element.get(0), element.get(1));
+            Assert.assertSame(element.get(2), element.get(3));
+            Assert.assertSame(element.get(4), element.get(5));
+            Assert.assertSame(element.get(6), element.get(7));
+            Assert.assertNotSame(element.get(8), element.get(9));
+            Assert.assertEquals(element.get(8).getLong(), element.get(9).getLong());
+
+            JsonBuilder builder = LightJson.json().builder();
+            Assert.assertEquals(7L, builder.number(7L).getLong());
+            Assert.assertEquals(0.5, builder.number(0.5).getDouble());
+            Assert.assertEquals(3, builder.number(3).getData()); // Integer stays Integer
+            Assert.assertSame(builder.bool(true), builder.auto(true));
+            Assert.assertTrue(builder.nil().isNull());
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testPackedArrays() {
+        JsonParser[] parsers = { new ParserFast(), new ParserUtf8() };
+        JsonSerializer serializer = new SerializerRecursive();
+        try {
+            for (JsonParser parser : parsers) {
+                String name = parser.getClass().getSimpleName();
+                JsonElement element = parser.parse("{\"l\":[1, -2 ,3000000000],\"d\":[1.5,2,-0.25],\"w\":[0.5,9007199254740993]," +
+                        "\"m\":[1,2,\"x\",3],\"e\":[],\"n\":[[1,2],[3.5]]}");
+                Assert.assertTrue(name, element.get("l") instanceof JsonLongArrayElement);
+                Assert.assertEquals(name, 3000000000L, element.get("l").get(2).getLong());
+                Assert.assertEquals(name, -2L, ((JsonLongArrayElement)element.get("l")).getLong(1));
+                Assert.assertTrue(name, element.get("d") instanceof JsonDoubleArrayElement);
+                Assert.assertEquals(name, 2L, element.get("d").get(1).getData()); // integral item stays Long
+                Assert.assertEquals(name, -0.25, element.get("d").get(2).getDouble());
+                Assert.assertFalse(name, element.get("w") instanceof JsonPackedArrayElement); // does not fit double
+                Assert.assertEquals(name, 9007199254740993L, element.get("w").get(1).getLong());
+                Assert.assertFalse(name, element.get("m") instanceof JsonPackedArrayElement);
+                Assert.assertEquals(name, 4, element.get("m").size());
+                Assert.assertEquals(name, 3L, element.get("m").get(3).getLong());
+                Assert.assertTrue(name, element.get("n").get(1) instanceof JsonDoubleArrayElement);
+                Assert.assertEquals(name, "{\"l\":[1,-2,3000000000],\"d\":[1.5,2,-0.25],\"w\":[0.5,9007199254740993]," +
+                        "\"m\":[1,2,\"x\",3],\"e\":[],\"n\":[[1,2],[3.5]]}", serializer.serialize(element));
+            }
+
+            // appending keeps storage packed while items fit, then unpacks
+            JsonLongArrayElement longs = new JsonLongArrayElement();
+            for (long i = 0; i < 20; i++) longs.add(i);
+            Assert.assertTrue(longs.isPacked());
+            Assert.assertEquals(20, longs.size());
+            longs.add("x");
+            Assert.assertFalse(longs.isPacked());
+            Assert.assertEquals(21, longs.size());
+            Assert.assertEquals(19L, longs.get(19).getLong());
+            Assert.assertEquals("x", longs.get(20).getData());
+            JsonDoubleArrayElement doubles = new JsonDoubleArrayElement();
+            doubles.add(0.5);
+            doubles.add(7L);
+            Assert.assertEquals("[0.5,7]", serializer.serialize(doubles));
+            List<JsonElement> view = doubles.getData();
+            view.set(0, JsonNullElement.NULL);
+            Assert.assertFalse(doubles.isPacked());
+            Assert.assertEquals("[null,7]", serializer.serialize(doubles));
+
+            // marshaller and unmarshaller copy primitive arrays in bulk
+            TestBean2 bean = new TestBean2();
+            bean.setIntArray(new int[] { 3, 1, 4, 1, 5 });
+            String json = LightJson.json().marshaller(bean).marshal();
+            Assert.assertTrue(json, json.contains("[3,1,4,1,5]"));
+            TestBean2 result = new UnmarshallerImpl(new ParserFast().parse(json)).unmarshal(TestBean2.class);
+            Assert.assertTrue(Arrays.equals(bean.getIntArray(), result.getIntArray()));
+            result = new UnmarshallerImpl(new ParserScalable().parse(json)).unmarshal(TestBean2.class);
+            Assert.assertTrue(Arrays.equals(bean.getIntArray(), result.getIntArray()));
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testStreamingSerializer() {
+        try {
+            JsonElement element = new ParserFast().parse(TestJson1.jsonString);
+            JsonSerializer[] serializers = { new SerializerRecursive(), new SerializerForkJoin() };
+            for (JsonSerializer serializer : serializers) {
+                String name = serializer.getClass().getSimpleName();
+                String expected = serializer.serialize(element);
+                StringBuilder builder = new StringBuilder();
+                serializer.serialize(element, builder);
+                Assert.assertEquals(name, expected, builder.toString());
+                java.io.StringWriter writer = new java.io.StringWriter();
+                serializer.serialize(element, writer);
+                Assert.assertEquals(name, expected, writer.toString());
+                java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+                serializer.serialize(element, bytes);
+                Assert.assertEquals(name, expected, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+            }
+            Assert.assertEquals(57054, new SerializerRecursive().serialize(element).length());
+
+            // wide Object: linear time, writes through small buffer many times
+            JsonElement wide = new ParserFast().parse("{\"s\":\"\u00e9\\n'\\\"\"}");
+            for (int i = 0; i < 100000; i++) wide.add("k" + i, (long)i);
+            final int[] appends = new int[1];
+            final StringBuilder target = new StringBuilder();
+            new SerializerRecursive().serialize(wide, new Appendable() {
+                @Override public Appendable append(CharSequence csq) { appends[0]++; target.append(csq); return this; }
+                @Override public Appendable append(CharSequence csq, int start, int end) { return append(csq.subSequence(start, end)); }
+                @Override public Appendable append(char c) { return append(String.valueOf(c)); }
+            });
+            Assert.assertTrue(appends[0] > 100);
+            Assert.assertTrue(target.toString().startsWith("{\"s\":\"\u00e9\\n'\\\"\",\"k0\":0,"));
+            Assert.assertTrue(target.toString().endsWith(",\"k99999\":99999}"));
+
+            try {
+                new SerializerRecursive().serialize(wide, new java.io.OutputStream() {
+                    @Override public void write(int b) throws IOException { throw new IOException("disk full"); }
+                });
+                Assert.fail("Write error must be reported");
+            } catch (JsonException e) {
+                Assert.assertTrue(e.getMessage().contains("disk full"));
+            }
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testForkJoinSerializer() {
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        java.util.concurrent.ForkJoinPool sequential = new java.util.concurrent.ForkJoinPool(1);
+        try {
+            SerializerRecursive recursive = new SerializerRecursive();
+            JsonElement records = new ParserFast().parse("[]");
+            records.add(new ParserFast().parse(TestJson1.jsonString));
+            records.add(new ParserFast().parse(TestJson1.jsonString));
+            JsonElement wide = new ParserFast().parse("{\"first\":\"\u00e9\\n\",\"empty\":[],\"none\":null}");
+            for (int i = 0; i < 2000; i++) wide.add("k" + i, i % 3 == 0 ? (Object)("v" + i) : (Object)(long)i);
+            wide.add("nested", new ParserFast().parse(TestJson1.jsonString));
+            wide.add("numbers", new ParserFast().parse("[1,2,3,4.5]"));
+            JsonElement small = new ParserFast().parse("{\"a\":[1,2,{\"b\":\"c\"}]}");
+
+            JsonSerializer[] serializers = {
+                    new SerializerForkJoin(),
+                    new SerializerForkJoin(pool, 64), // splits almost everything
+                    new SerializerForkJoin(pool, 4096),
+                    new SerializerForkJoin(sequential, 64) // sequential
+            };
+            for (JsonSerializer serializer : serializers) {
+                for (JsonElement element : new JsonElement[] { records, wide, small }) {
+                    String expected = recursive.serialize(element);
+                    Assert.assertEquals(expected, serializer.serialize(element));
+                    StringBuilder builder = new StringBuilder();
+                    serializer.serialize(element, builder);
+                    Assert.assertEquals(expected, builder.toString());
+                    java.io.StringWriter writer = new java.io.StringWriter();
+                    serializer.serialize(element, writer);
+                    Assert.assertEquals(expected, writer.toString());
+                    java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+                    serializer.serialize(element, bytes);
+                    Assert.assertTrue(java.util.Arrays.equals(expected.getBytes(StandardCharsets.UTF_8), bytes.toByteArray()));
+                }
+                Assert.assertNull(serializer.serialize(null));
+            }
+
+            try {
+                new SerializerForkJoin(pool, 64).serialize(wide, new java.io.OutputStream() {
+                    @Override public void write(int b) throws IOException { throw new IOException("disk full"); }
+                });
+                Assert.fail("Write error must be reported");
+            } catch (JsonException e) {
+                Assert.assertTrue(e.getMessage().contains("disk full"));
+            }
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        } finally {
+            pool.shutdown();
+            sequential.shutdown();
+        }
+    }
+
+    @Test
+    public void testNumberFormatter() {
+        try {
+            char[] chars = new char[NumberFormatter.MAX_LENGTH];
+            long[] longs = { 0, 7, -7, 10, 99, 100, -101, 1234567890123L, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                    Long.MAX_VALUE, Long.MIN_VALUE, 1000000000000000000L };
+            for (long value : longs)
+                Assert.assertEquals(Long.toString(value), new String(chars, 0, NumberFormatter.format(value, chars, 0)));
+
+            String[][] doubles = {
+                    { "0.0", "0.0" }, { "-0.0", "-0.0" }, { "1", "1.0" }, { "-2.5", "-2.5" }, { "0.1", "0.1" },
+                    { "0.001", "0.001" }, { "0.0001", "1.0E-4" }, { "1234567.125", "1234567.125" },
+                    { "9999999", "9999999.0" }, { "1e7", "1.0E7" }, { "12345678.9", "1.23456789E7" },
+                    { "1e23", "1.0E23" }, { "2e-3", "0.002" }, { "4.9e-324", "4.9E-324" },
+                    { "1.7976931348623157e308", "1.7976931348623157E308" }, { "NaN", "NaN" }, { "-Infinity", "-Infinity" }
+            };
+            for (String[] pair : doubles) {
+                double value = Double.parseDouble(pair[0]);
+                Assert.assertEquals(pair[1], new String(chars, 0, NumberFormatter.format(value, chars, 0)));
+            }
+
+            // shortest digits which parse back to the same double
+            Random random = new Random(42);
+            for (int i = 0; i < 200000; i++) {
+                double value = i % 2 == 0 ? Double.longBitsToDouble(random.nextLong()) : random.nextDouble() * Math.pow(10, random.nextInt(40) - 20);
+                if (Double.isNaN(value) || Double.isInfinite(value)) continue;
+                String formatted = new String(chars, 0, NumberFormatter.format(value, chars, 0));
+                Assert.assertEquals(formatted, Double.doubleToLongBits(value), Double.doubleToLongBits(Double.parseDouble(formatted)));
+                Assert.assertTrue(formatted, formatted.length() <= Double.toString(value).length());
+            }
+
+            Assert.assertEquals("12.50", SerializerUtil.serializeNumber(new java.math.BigDecimal("12.50")));
+            Assert.assertEquals("123456789012345678901234567890", SerializerUtil.serializeNumber(new java.math.BigInteger("123456789012345678901234567890")));
+            Assert.assertEquals("1.1", SerializerUtil.serializeNumber(1.1f));
+            Assert.assertEquals("42", SerializerUtil.serializeNumber((short)42));
+            Assert.assertEquals("42", SerializerUtil.serializeNumber(new java.util.concurrent.atomic.AtomicLong(42)));
+
+            JsonElement element = new ParserFast().parse("{\"l\":-9,\"d\":0.1,\"e\":1e23,\"a\":[1,2.5,3],\"n\":[1e-7,2]}");
+            element.add("big", JsonPlainElement.of(new java.math.BigDecimal("1E+3")));
+            element.add("int", JsonPlainElement.of(Integer.MIN_VALUE));
+            element.add("float", JsonPlainElement.of(0.1f));
+            String expected = "{\"l\":-9,\"d\":0.1,\"e\":1.0E23,\"a\":[1,2.5,3],\"n\":[1.0E-7,2],\"big\":1E+3,\"int\":-2147483648,\"float\":0.1}";
+            Assert.assertEquals(expected, new SerializerRecursive().serialize(element));
+            Assert.assertEquals(expected, new SerializerForkJoin(ParserParallel.sharedPool(), 8).serialize(element));
+            Assert.assertEquals(expected, new String(new SerializerUtf8().toBytes(element), StandardCharsets.UTF_8));
+            Assert.assertEquals("[1, 2.5, 3]", element.get("a").serialize());
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDefaultParserRoundTrip() {
+        String json = "{\"a\":\"x\\\\y\\ty\\u0041\\/\\\"q\\\"\",\"k\":[\"\\n\",\"\"]}";
+        try {
+            JsonElement parsed = LightJson.from(json);
+            Assert.assertEquals("x\\y\tyA/\"q\"", parsed.get("a").getData());
+            Assert.assertEquals("\n", parsed.get("k").get(0).getData());
+            Assert.assertEquals("", parsed.get("k").get(1).getData());
+            Assert.assertEquals(1L, LightJson.from("{\"k\\\\ey\\u0021\":1}").get("k\\ey!").getLong());
+
+            String serialized = LightJson.to(parsed);
+            Assert.assertEquals("{\"a\":\"x\\\\y\\tyA/\\\"q\\\"\",\"k\":[\"\\n\",\"\"]}", serialized);
+            for (int i = 0; i < 3; i++) {
+                JsonElement again = LightJson.from(serialized);
+                Assert.assertEquals("x\\y\tyA/\"q\"", again.get("a").getData());
+                Assert.assertEquals(serialized, LightJson.to(again)); // stable, escapes are not doubled
+            }
+            Assert.assertEquals(serialized, LightJson.to(new ParserFast().parse(serialized)));
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testStringEscaping() {
+        try {
+            Assert.assertEquals("\\\"", JsonEscape.escape('"'));
+            Assert.assertEquals("\\\\", JsonEscape.escape('\\'));
+            Assert.assertNull(JsonEscape.escape('\''));
+            Assert.assertEquals("\\t", JsonEscape.escape('\t'));
+            Assert.assertEquals("\\b", JsonEscape.escape('\b'));
+            Assert.assertEquals("\\f", JsonEscape.escape('\f'));
+            Assert.assertEquals("\\u0001", JsonEscape.escape('\u0001'));
+            Assert.assertEquals("\\u001f", JsonEscape.escape('\u001f'));
+            Assert.assertNull(JsonEscape.escape('a'));
+            Assert.assertNull(JsonEscape.escape('\u00e9'));
+            String clean = "plain text \u00e9\u4e2d / ok";
+            Assert.assertSame(clean, JsonEscape.escape(clean));
+            Assert.assertEquals("", JsonEscape.escape((String)null));
+            Assert.assertEquals("a\\\\b\\tc\\\"d\\u0000\\n", JsonEscape.escape("a\\b\tc\"d\u0000\n"));
+
+            String text = "tab\tback\\slash \"quoted\" \u0000\u0007\b\f\r\n\u007f caf\u00e9 \ud83d\ude00";
+            String expected = "\"tab\\tback\\\\slash \\\"quoted\\\" \\u0000\\u0007\\b\\f\\r\\n\u007f caf\u00e9 \ud83d\ude00\"";
+            Assert.assertEquals(expected, "\"" + JsonEscape.escape(text) + "\"");
+            Assert.assertEquals(expected, JsonPlainElement.string(text).serialize());
+            Assert.assertEquals(expected, new ElementImpl(JsonType.STRING, text).serialize());
+
+            JsonElement element = new ParserFast().parse("{}");
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < 3000; i++) builder.append(i % 7 == 0 ? text : "x");
+            element.add("long", builder.toString());
+            element.add("text", text);
+            String json = new SerializerRecursive().serialize(element);
+            Assert.assertEquals("{\"long\":\"" + JsonEscape.escape(builder.toString()) + "\",\"text\":" + expected + "}", json);
+            Assert.assertEquals(json, new SerializerForkJoin(ParserParallel.sharedPool(), 64).serialize(element));
+            Assert.assertTrue(java.util.Arrays.equals(json.getBytes(StandardCharsets.UTF_8), new SerializerUtf8().toBytes(element)));
+
+            // keys are escaped as values
+            JsonElement keys = new ParserFast().parse("{\"a\\\"b\":1,\"c\\\\d\\t\":[{\"\\u00e9\\n\":\"v\"}]}");
+            JsonElement big = new ParserFast().parse("{}");
+            for (int i = 0; i < 50; i++) big.add("k\"" + i, "value" + i);
+            keys.add("big\\", big);
+            String keysJson = "{\"a\\\"b\":1,\"c\\\\d\\t\":[{\"\u00e9\\n\":\"v\"}],\"big\\\\\":" + new SerializerRecursive().serialize(big) + "}";
+            Assert.assertEquals(keysJson, new SerializerRecursive().serialize(keys));
+            Assert.assertTrue(new SerializerRecursive().serialize(big).startsWith("{\"k\\\"0\":\"value0\","));
+            Assert.assertEquals(keysJson, new SerializerForkJoin(ParserParallel.sharedPool(), 16).serialize(keys));
+            Assert.assertEquals(keysJson, new String(new SerializerUtf8().toBytes(keys), StandardCharsets.UTF_8));
+            Assert.assertTrue(new ValidatorImpl().validate(keysJson));
+            Assert.assertEquals(1L, new ParserFast().parse(keysJson).get("a\"b").getLong());
+            Assert.assertEquals("v", new ParserFast().parse(keysJson).get("c\\d\t").get(0).get("\u00e9\n").getData());
+
+            // output is valid Json now, apostrophes are not escaped
+            String apostrophe = LightJson.to(LightJson.json().builder().string("it's"));
+            Assert.assertEquals("\"it's\"", apostrophe);
+            Assert.assertEquals("it's", new ParserFast().parse(apostrophe).getData());
+            Assert.assertEquals("it's", new ParserUtf8().parse(ByteBuffer.wrap(apostrophe.getBytes(StandardCharsets.UTF_8))).getData());
+            Assert.assertTrue(new ValidatorImpl().validate(apostrophe));
+            Assert.assertTrue(new ValidatorImpl().validate(json));
+            JsonElement parsed = new ParserFast().parse(json);
+            Assert.assertEquals(text, parsed.get("text").getData());
+            Assert.assertEquals(builder.toString(), parsed.get("long").getData());
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testUtf8Serializer() {
+        try {
+            ChunkPool pool = new ChunkPool(64, 4);
+            SerializerUtf8 serializer = new SerializerUtf8(pool);
+            SerializerRecursive recursive = new SerializerRecursive();
+            JsonElement element = new ParserFast().parse(TestJson1.jsonString);
+            String expected = recursive.serialize(element);
+            Assert.assertEquals(expected, serializer.serialize(element));
+            Assert.assertTrue(java.util.Arrays.equals(expected.getBytes(StandardCharsets.UTF_8), serializer.toBytes(element)));
+
+            // multi-byte characters, surrogate pairs and escapes across chunk boundaries
+            JsonElement text = new ParserFast().parse("{\"t\":\"caf\u00e9 \u4e2d\u6587 \ud83d\ude00 \\n'\\\"\"}");
+            StringBuilder long_ = new StringBuilder();
+            for (int i = 0; i < 100; i++) long_.append("\u00e9\u4e2d\ud83d\ude00x\n");
+            text.add("long", long_.toString());
+            text.add("\u00fcber", 1L);
+            text.add("lone", "a\ud83db");
+            byte[] textBytes = recursive.serialize(text).getBytes(StandardCharsets.UTF_8);
+            Assert.assertTrue(java.util.Arrays.equals(textBytes, serializer.toBytes(text)));
+
+            try (Utf8Chunks chunks = serializer.toChunks(text)) {
+                Assert.assertEquals(textBytes.length, chunks.length());
+                Assert.assertTrue(chunks.buffers().length > 1);
+                java.io.ByteArrayOutputStream gathered = new java.io.ByteArrayOutputStream();
+                java.nio.channels.WritableByteChannel channel = java.nio.channels.Channels.newChannel(gathered);
+                long total = 0;
+                for (ByteBuffer buffer : chunks.buffers()) total += channel.write(buffer);
+                Assert.assertEquals(textBytes.length, total);
+                Assert.assertTrue(java.util.Arrays.equals(textBytes, gathered.toByteArray()));
+                chunks.close();
+                chunks.close(); // idempotent
+            }
+
+            // chunks return to the pool
+            JsonElement small = new ParserFast().parse("{\"a\":1}");
+            Utf8Chunks first = serializer.toChunks(small);
+            byte[] chunk = first.buffers()[0].array();
+            first.close();
+            Utf8Chunks second = serializer.toChunks(small);
+            Assert.assertSame(chunk, second.buffers()[0].array());
+            second.close();
+
+            java.io.ByteArrayOutputStream stream = new java.io.ByteArrayOutputStream();
+            serializer.serialize(text, stream);
+            Assert.assertTrue(java.util.Arrays.equals(textBytes, stream.toByteArray()));
+
+            LightJson.setSerializerType(LightJson.SerializerType.Utf8);
+            try {
+                Assert.assertTrue(LightJson.json().serializer() instanceof SerializerUtf8);
+                stream.reset();
+                LightJson.to(element, stream);
+                Assert.assertEquals(expected, new String(stream.toByteArray(), StandardCharsets.UTF_8));
+            } finally {
+                LightJson.setSerializerType(LightJson.SerializerType.SimpleRecursive);
+            }
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        } catch (IOException e) {
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testJsonObjectMap() {
+        JsonObjectMap map = new JsonObjectMap();
+        Map<String, JsonElement> expected = new HashMap<>();
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String key = "key" + (i * 7 % 40);
+            JsonElement value = LightJson.json().builder().number(i);
+            Assert.assertNull(map.put(key, value));
+            expected.put(key, value);
+            order.add(key);
+            Assert.assertEquals(expected, map);
+            Assert.assertSame(value, map.get(new String(key.toCharArray()))); // equal, not identical key
+        }
+        Assert.assertEquals(order, new ArrayList<>(map.keySet()));
+        Assert.assertNull(map.get("missing"));
+        Assert.assertFalse(map.containsKey(1));
+
+        // replacing keeps position
+        JsonElement replacement = LightJson.json().builder().string("x");
+        Assert.assertNotNull(map.put(order.get(3), replacement));
+        Assert.assertEquals(order.get(3), new ArrayList<>(map.keySet()).get(3));
+        Assert.assertSame(replacement, map.get(order.get(3)));
+
+        // removing down across the threshold
+        Iterator<Map.Entry<String, JsonElement>> entries = map.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonElement> entry = entries.next();
+            if (entry.getKey().length() == 5) entries.remove(); // key10..key39
+        }
+        Assert.assertEquals(10, map.size());
+        map.remove("key0");
+        map.remove("key7");
+        Assert.assertEquals(8, map.size());
+        for (String key : order) Assert.assertEquals(key, key.length() == 4 && !key.equals("key0") && !key.equals("key7"), map.containsKey(key));
+        Map.Entry<String, JsonElement> first = map.entrySet().iterator().next();
+        first.setValue(replacement);
+        Assert.assertSame(replacement, map.get(first.getKey()));
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get("key1"));
+
+        // parsed Objects keep member order
+        try {
+            String json = "{\"z\":1,\"a\":2,\"m\":3,\"b\":{\"y\":true,\"c\":null}}";
+            Assert.assertEquals(json, new SerializerRecursive().serialize(new ParserFast().parse(json)));
+            Assert.assertEquals(json, new SerializerRecursive().serialize(new ParserUtf8().parse(json)));
+            JsonElement built = LightJson.json().builder().objectBuilder()
+                    .append("z", LightJson.json().builder().number(1)).append("a", LightJson.json().builder().number(2)).build();
+            Assert.assertEquals("{\"z\":1,\"a\":2}", new SerializerRecursive().serialize(built));
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testJsonShape() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            if (i > 0) builder.append(',');
+            builder.append("{\"id\":").append(i).append(",\"name\":\"n").append(i).append("\",\"tags\":[]");
+            builder.append(i % 10 == 0 ? ",\"extra\":true}" : "}");
+        }
+        final String json = builder.append(",{\"id\":1,\"id\":2}]").toString();
+        JsonParser[] parsers = { new ParserScalable(), new ParserFast(), new ParserUtf8(), new ParserStreaming(), new ParserEvent() };
+        try {
+            for (JsonParser parser : parsers) {
+                String name = parser.getClass().getSimpleName();
+                JsonElement array = parser.parse(json);
+                JsonShape shape = ((JsonObjectMap)array.get(1).getData()).shape();
+                Assert.assertNotNull(name, shape);
+                Assert.assertEquals(3, shape.size());
+                Assert.assertEquals("name", shape.key(1));
+                for (int i = 1; i < 100; i++) {
+                    JsonObjectMap map = array.get(i).getData();
+                    if (i % 10 != 0) Assert.assertSame(name, shape, map.shape());
+                    else Assert.assertEquals(name, "extra", map.shape().key(3));
+                    Assert.assertEquals(i, (int)array.get(i).get("id").getData(Number.class).intValue());
+                    Assert.assertEquals("n" + i, array.get(i).get("name").getData());
+                }
+                // duplicate key replaces value without a new shape
+                Assert.assertEquals(2, (int)array.get(100).get("id").getData(Number.class).intValue());
+                Assert.assertEquals(1, array.get(100).size());
+
+                // modification detaches only the modified Object
+                array.get(1).add("more", 1);
+                ((JsonObjectMap)array.get(2).getData()).remove("name");
+                Assert.assertEquals(4, array.get(1).size());
+                Assert.assertEquals(2, array.get(2).size());
+                Assert.assertSame(shape, ((JsonObjectMap)array.get(3).getData()).shape());
+                Assert.assertEquals(3, array.get(3).size());
+                Assert.assertEquals("n3", array.get(3).get("name").getData());
+                // put after parsing never uses transitions of the parser, even the existing ones
+                Assert.assertNull(name, ((JsonObjectMap)array.get(1).getData()).shape());
+                array.get(4).add("extra", false);
+                Assert.assertNull(name, ((JsonObjectMap)array.get(4).getData()).shape());
+                Assert.assertEquals(false, array.get(4).get("extra").getData());
+            }
+
+            // pooled parsers start a new tree, when the old one is full
+            for (JsonParser parser : new JsonParser[] { new ParserScalable(), new ParserFast(), new ParserUtf8() }) {
+                String name = parser.getClass().getSimpleName();
+                for (int i = 0; i < 16 * 16 * 16; i++)
+                    parser.parse("{\"a" + (i >> 8) + "\":1,\"b" + (i >> 4 & 15) + "\":1,\"c" + (i & 15) + "\":1}");
+                Assert.assertNotNull(name, ((JsonObjectMap)parser.parse("{\"fresh\":1}").getData()).shape());
+            }
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+
+        // tree limits
+        JsonShape root = new JsonShape();
+        for (int i = 0; i < JsonShape.MAX_TRANSITIONS; i++) Assert.assertNotNull(root.with("k" + i));
+        Assert.assertNull(root.with("other"));
+        Assert.assertSame(root.with("k0"), root.with("k0"));
+        JsonObjectMap map = new JsonObjectMap(root, 2);
+        map.put("other", null); // root has no room for another transition
+        map.put("k1", null);
+        Assert.assertNull(map.shape());
+        Assert.assertEquals(2, map.size());
+        Assert.assertTrue(map.containsKey("k1") && map.containsKey("other"));
+        JsonShape wide = new JsonShape();
+        for (int i = 0; i < JsonShape.MAX_KEYS; i++) wide = wide.with("k" + i);
+        Assert.assertNull(wide.with("last"));
+    }
+
+    @Test
+    public void testParserColumnar() {
+        final String json = "{\"rows\":[" +
+                "{\"id\":1,\"price\":10,\"ok\":true,\"tag\":\"a\",\"misc\":[1]}," +
+                "{\"id\":2,\"price\":12.5,\"ok\":false,\"tag\":\"b\",\"misc\":\"x\"}," +
+                "{\"id\":3,\"price\":null,\"ok\":true,\"tag\":\"a\",\"misc\":null}," +
+                "{\"id\":4,\"price\":7.25,\"ok\":true,\"tag\":null,\"misc\":{\"p\":[{\"x\":1},{\"x\":2}]}}" +
+                "],\"mixed\":[{\"a\":1},{\"b\":2}],\"single\":[{\"a\":1}]}";
+        try {
+            JsonElement root = new ParserColumnar().parse(json);
+            JsonElement rows = root.get("rows");
+            Assert.assertTrue(rows instanceof JsonColumnarElement);
+            Assert.assertFalse(root.get("mixed") instanceof JsonColumnarElement);
+            Assert.assertFalse(root.get("single") instanceof JsonColumnarElement);
+            JsonColumnarElement table = (JsonColumnarElement)rows;
+            Assert.assertEquals(4, table.size());
+            Assert.assertEquals(5, table.columns().size());
+            Assert.assertNull(table.column("none"));
+
+            JsonColumn id = table.column("id");
+            Assert.assertTrue(id.isLong());
+            Assert.assertEquals(4L, id.asLongArray()[3]);
+            Assert.assertEquals(2.0, id.asDoubleArray()[1]);
+
+            JsonColumn price = table.column("price");
+            Assert.assertEquals(JsonType.NUMBER, price.getType());
+            Assert.assertFalse(price.isLong());
+            Assert.assertTrue(price.isNull(2));
+            double sum = 0;
+            for (double value : price.asDoubleArray()) sum += value;
+            Assert.assertEquals(29.75, sum);
+            Assert.assertTrue(rows.get(0).get("price").getData() instanceof Long); // integral value stays Long
+
+            Assert.assertTrue(table.column("ok").asBooleanArray()[0]);
+            JsonColumn tag = table.column("tag");
+            Assert.assertEquals(2, tag.dictionary().length);
+            Assert.assertEquals(tag.codes()[0], tag.codes()[2]);
+            Assert.assertEquals(-1, tag.codes()[3]);
+            Assert.assertNull(tag.asStringArray()[3]);
+            Assert.assertEquals("b", tag.asStringArray()[1]);
+
+            JsonColumn misc = table.column("misc");
+            Assert.assertEquals(JsonType.NULL, misc.getType());
+            Assert.assertTrue(misc.isNull(2));
+            JsonElement nested = misc.get(3).get("p");
+            Assert.assertTrue(nested instanceof JsonColumnarElement);
+            Assert.assertEquals(2L, ((JsonColumnarElement)nested).column("x").asLongArray()[1]);
+            try {
+                misc.asLongArray();
+                Assert.fail("Column of Json Elements must not be long[]");
+            } catch (JsonException ignored) {}
+
+            // row views
+            JsonElement row = rows.get(1);
+            Assert.assertEquals(JsonType.OBJECT, row.getType());
+            Assert.assertEquals(5, row.size());
+            Assert.assertEquals("b", row.get("tag").getData());
+            Assert.assertNull(row.get("none"));
+            Assert.assertEquals(JsonType.NULL, rows.get(2).get("price").getType());
+            int count = 0;
+            for (Iterator<JsonElement> iterator = rows.iterator(); iterator.hasNext(); iterator.next()) count++;
+            Assert.assertEquals(4, count);
+            try {
+                rows.add(1);
+                Assert.fail("Columnar Element must be read-only");
+            } catch (JsonException ignored) {}
+
+            // same document as the row-based parser
+            JsonElement expected = new ParserFast().parse(json);
+            Assert.assertEquals(new SerializerRecursive().serialize(expected), new SerializerRecursive().serialize(root));
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNumberParser() {
+        String[] numbers = {"0", "-0.0", "0.1", "1E+2", "1e-2", "2.5E3", "9007199254740993", "9223372036854775807",
+                "-9223372036854775808", "9223372036854775808", "123456789012345678901234567890", "1e23",
+                "2.2250738585072011e-308", "4.9e-324", "1.7976931348623157e308", "1e400", "1e-400",
+                "1.00000000000000011102230246251565404236316680908203125"};
+        for (String number : numbers) {
+            Number expected;
+            try { expected = Long.parseLong(number); }
+            catch (NumberFormatException e) { expected = Double.parseDouble(number); }
+            Assert.assertEquals(number, expected, NumberParser.parse(number));
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong() & Long.MAX_VALUE);
+            if (Double.isNaN(value) || Double.isInfinite(value)) continue;
+            Assert.assertEquals(value, NumberParser.parse(Double.toString(value)));
+        }
+        Assert.assertNull(NumberParser.parse("1.e5"));
+        Assert.assertNull(NumberParser.parse("2,5"));
+        Assert.assertEquals(5L, NumberParser.parseText("+5"));
+        Assert.assertEquals(7L, NumberParser.parseText(" 7 "));
+        Assert.assertEquals(100000d, NumberParser.parseText("1.e5"));
+        Assert.assertNull(NumberParser.parseText(" "));
+        Assert.assertNull(NumberParser.parseText("2,5"));
+
+        try {
+            JsonElement element = new ParserScalable().parse("{\"a\":1E+2, \"b\":-2.5e-1, \"c\":12}");
+            Assert.assertEquals(100d, element.get("a").getData());
+            Assert.assertEquals(-0.25, element.get("b").getData());
+            Assert.assertEquals(12L, element.get("c").getData());
+
+            // numbers in String values are read as the JDK reads them
+            TestBean bean = LightJson.json().unmarshaller("{\"number\":\"+5\",\"doubleValue\":\" 7 \",\"bool\":true}").unmarshal(TestBean.class);
+            Assert.assertEquals(5, bean.getNumber());
+            Assert.assertEquals(7d, bean.getDoubleValue());
+            bean = LightJson.bind("{\"number\":\" 7 \",\"doubleValue\":\"+5\"}", TestBean.class);
+            Assert.assertEquals(7, bean.getNumber());
+            Assert.assertEquals(5d, bean.getDoubleValue());
+        } catch (JsonException e) {
+            e.printStackTrace();
+            Assert.fail(e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package com.staim.lightjson.test;
+
+import com.staim.lightjson.JsonElement;
+import com.staim.lightjson.JsonType;
+import com.staim.lightjson.annotations.JsonField;
+import com.staim.lightjson.annotations.JsonObject;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Test Bean 3: several fields bound to the same name
+ */
+@JsonObject
+public class TestBean3 {
+    @JsonField(name = "value")
+    private long number;
+    @JsonField(name = "value")
+    private String text;
+
+    @JsonField(name = "items")
+    private int[] intArray;
+    @JsonField(name = "items")
+    private List<Integer> integerList;
+    @JsonField(name = "items")
+    private LinkedList<Integer> linkedList;
+
+    @JsonField(name = "map", type = JsonType.RAW)
+    private JsonElement data;
+    @JsonField(name = "map")
+    private TestBean2 testBean2;
+
+    public TestBean3() {}
+
+    public long getNumber() { return number; }
+    public String getText() { return text; }
+    public int[] getIntArray() { return intArray; }
+    public List<Integer> getIntegerList() { return integerList; }
+    public LinkedList<Integer> getLinkedList() { return linkedList; }
+    public JsonElement getData() { return data; }
+    public TestBean2 getTestBean2() { return testBean2; }
+}